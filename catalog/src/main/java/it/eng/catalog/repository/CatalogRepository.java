@@ -8,7 +8,7 @@ import org.springframework.stereotype.Repository;
 import java.util.Optional;
 
 @Repository
-public interface CatalogRepository extends MongoRepository<Catalog, String> {
+public interface CatalogRepository extends MongoRepository<Catalog, String>, CatalogRepositoryCustom {
     @Query(value = "{'service.id': ?0}", fields = "{'service.$': 1}")
     Optional<Catalog> findCatalogByDataServiceId(String dataServiceId);
 
@@ -0,0 +1,75 @@
+package it.eng.catalog.repository;
+
+import it.eng.catalog.model.Catalog;
+import it.eng.catalog.model.DataService;
+import it.eng.catalog.model.Dataset;
+import it.eng.catalog.model.Distribution;
+
+import java.util.List;
+
+/**
+ * Catalog operations not covered by derived queries: bulk loading of the catalog with all referenced documents and
+ * targeted updates of catalog references.
+ */
+public interface CatalogRepositoryCustom {
+
+    /**
+     * Loads all catalogs with every referenced dataset, distribution, data service and artifact.<br>
+     * References are resolved level by level, with one $in query per referenced collection, so the number of queries
+     * does not depend on the number of referenced documents.
+     *
+     * @return fully resolved catalogs
+     */
+    List<Catalog> findAllWithReferences();
+
+    /* Each update changes only one reference with a single atomic update, instead of loading the whole catalog with
+     all referenced documents and saving it back. */
+
+    /**
+     * Adds dataset reference to the catalog.
+     *
+     * @param dataset dataset to reference
+     * @return false if there is no catalog to update
+     */
+    boolean addDataset(Dataset dataset);
+
+    /**
+     * Removes dataset reference from the catalog.
+     *
+     * @param dataset dataset to remove
+     * @return false if there is no catalog to update
+     */
+    boolean removeDataset(Dataset dataset);
+
+    /**
+     * Adds data service reference to the catalog.
+     *
+     * @param dataService data service to reference
+     * @return false if there is no catalog to update
+     */
+    boolean addDataService(DataService dataService);
+
+    /**
+     * Removes data service reference from the catalog.
+     *
+     * @param dataService data service to remove
+     * @return false if there is no catalog to update
+     */
+    boolean removeDataService(DataService dataService);
+
+    /**
+     * Adds distribution reference to the catalog.
+     *
+     * @param distribution distribution to reference
+     * @return false if there is no catalog to update
+     */
+    boolean addDistribution(Distribution distribution);
+
+    /**
+     * Removes distribution reference from the catalog.
+     *
+     * @param distribution distribution to remove
+     * @return false if there is no catalog to update
+     */
+    boolean removeDistribution(Distribution distribution);
+}
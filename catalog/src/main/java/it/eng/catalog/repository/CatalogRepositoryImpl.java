@@ -0,0 +1,144 @@
+package it.eng.catalog.repository;
+
+import com.mongodb.DBRef;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.result.UpdateResult;
+import it.eng.catalog.model.Catalog;
+import it.eng.catalog.model.DataService;
+import it.eng.catalog.model.Dataset;
+import it.eng.catalog.model.Distribution;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Custom repository implementation for bulk loading and for updating catalog references.<br>
+ * Catalog references are updated with $addToSet and $pull; both operators are applied atomically by MongoDB, so concurrent changes of different references do not overwrite
+ * each other. Every update increments the catalog version, so a concurrent save of the whole catalog based on an older
+ * version fails with optimistic locking exception instead of silently dropping the reference.
+ */
+@Repository
+@Slf4j
+public class CatalogRepositoryImpl implements CatalogRepositoryCustom {
+
+    private static final String ID = "_id";
+    private static final String DATASET = "dataset";
+    private static final String SERVICE = "service";
+    private static final String DISTRIBUTION = "distribution";
+
+    private final MongoTemplate mongoTemplate;
+
+    public CatalogRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public List<Catalog> findAllWithReferences() {
+        List<Document> catalogs = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Catalog.class))
+                .find()
+                .into(new ArrayList<>());
+
+        Map<String, Map<Object, Document>> prefetched = new HashMap<>();
+        Map<String, Set<Object>> requested = new HashMap<>();
+        List<Document> level = catalogs;
+        while (!level.isEmpty()) {
+            Map<String, Set<Object>> references = new HashMap<>();
+            level.forEach(document -> collectReferences(document, references));
+            level = new ArrayList<>();
+            for (Map.Entry<String, Set<Object>> entry : references.entrySet()) {
+                Set<Object> ids = entry.getValue();
+                ids.removeAll(requested.computeIfAbsent(entry.getKey(), k -> new HashSet<>()));
+                if (ids.isEmpty()) {
+                    continue;
+                }
+                requested.get(entry.getKey()).addAll(ids);
+                List<Document> documents = mongoTemplate.getCollection(entry.getKey())
+                        .find(Filters.in(ID, ids))
+                        .into(new ArrayList<>());
+                Map<Object, Document> byId = prefetched.computeIfAbsent(entry.getKey(), k -> new HashMap<>());
+                documents.forEach(document -> byId.put(document.get(ID), document));
+                level.addAll(documents);
+            }
+        }
+        log.debug("Loaded {} catalog(s) with {} referenced documents", catalogs.size(),
+                prefetched.values().stream().mapToInt(Map::size).sum());
+
+        MappingMongoConverter converter = prefetchedConverter(prefetched);
+        return catalogs.stream()
+                .map(document -> converter.read(Catalog.class, document))
+                .toList();
+    }
+
+    @Override
+    public boolean addDataset(Dataset dataset) {
+        return updateCatalog(new Update().addToSet(DATASET, dataset));
+    }
+
+    @Override
+    public boolean removeDataset(Dataset dataset) {
+        return updateCatalog(new Update().pull(DATASET, dataset));
+    }
+
+    @Override
+    public boolean addDataService(DataService dataService) {
+        return updateCatalog(new Update().addToSet(SERVICE, dataService));
+    }
+
+    @Override
+    public boolean removeDataService(DataService dataService) {
+        return updateCatalog(new Update().pull(SERVICE, dataService));
+    }
+
+    @Override
+    public boolean addDistribution(Distribution distribution) {
+        return updateCatalog(new Update().addToSet(DISTRIBUTION, distribution));
+    }
+
+    @Override
+    public boolean removeDistribution(Distribution distribution) {
+        return updateCatalog(new Update().pull(DISTRIBUTION, distribution));
+    }
+
+    private MappingMongoConverter prefetchedConverter(Map<String, Map<Object, Document>> prefetched) {
+        MongoConverter mongoConverter = mongoTemplate.getConverter();
+        MappingMongoConverter converter = new MappingMongoConverter(
+                new PrefetchedDbRefResolver(mongoTemplate.getMongoDatabaseFactory(), prefetched),
+                mongoConverter.getMappingContext());
+        converter.setCustomConversions(mongoConverter.getCustomConversions());
+        converter.afterPropertiesSet();
+        return converter;
+    }
+
+    private void collectReferences(Object value, Map<String, Set<Object>> references) {
+        if (value instanceof DBRef dbRef) {
+            references.computeIfAbsent(dbRef.getCollectionName(), k -> new HashSet<>()).add(dbRef.getId());
+        } else if (value instanceof Document document) {
+            document.values().forEach(nested -> collectReferences(nested, references));
+        } else if (value instanceof Collection<?> collection) {
+            collection.forEach(nested -> collectReferences(nested, references));
+        }
+    }
+
+    private boolean updateCatalog(Update update) {
+        update.inc("version", 1)
+                .set("modified", Instant.now());
+        // connector has single catalog, same one returned by findAll().get(0)
+        UpdateResult result = mongoTemplate.updateFirst(new Query(), update, Catalog.class);
+        log.debug("Catalog reference update {} matched {} catalog(s)", update, result.getMatchedCount());
+        return result.getMatchedCount() > 0;
+    }
+}
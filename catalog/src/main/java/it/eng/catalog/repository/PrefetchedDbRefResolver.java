@@ -0,0 +1,51 @@
+package it.eng.catalog.repository;
+
+import com.mongodb.DBRef;
+import org.bson.Document;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.convert.DefaultDbRefResolver;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * DBRef resolver serving references from documents already loaded in bulk.<br>
+ * References to collections which were not prefetched are resolved from the database, as by the default resolver.
+ */
+class PrefetchedDbRefResolver extends DefaultDbRefResolver {
+
+    private final Map<String, Map<Object, Document>> prefetched;
+
+    /**
+     * Constructor.
+     *
+     * @param mongoDatabaseFactory database factory used for references not prefetched
+     * @param prefetched           documents by id, grouped by collection name
+     */
+    PrefetchedDbRefResolver(MongoDatabaseFactory mongoDatabaseFactory, Map<String, Map<Object, Document>> prefetched) {
+        super(mongoDatabaseFactory);
+        this.prefetched = prefetched;
+    }
+
+    @Override
+    public Document fetch(DBRef dbRef) {
+        Map<Object, Document> documents = prefetched.get(dbRef.getCollectionName());
+        if (documents == null) {
+            return super.fetch(dbRef);
+        }
+        // dangling reference resolves to null, same as with the default resolver
+        return documents.get(dbRef.getId());
+    }
+
+    @Override
+    public List<Document> bulkFetch(List<DBRef> dbRefs) {
+        if (!dbRefs.stream().allMatch(dbRef -> prefetched.containsKey(dbRef.getCollectionName()))) {
+            return super.bulkFetch(dbRefs);
+        }
+        return dbRefs.stream()
+                .map(this::fetch)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+}
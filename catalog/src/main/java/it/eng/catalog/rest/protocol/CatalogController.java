@@ -4,14 +4,24 @@ import com.fasterxml.jackson.databind.JsonNode;
 import it.eng.catalog.model.Catalog;
 import it.eng.catalog.model.CatalogRequestMessage;
 import it.eng.catalog.model.Dataset;
+import it.eng.catalog.model.Distribution;
 import it.eng.catalog.serializer.CatalogSerializer;
 import it.eng.catalog.service.CatalogService;
 import it.eng.catalog.service.DatasetService;
+import it.eng.tools.util.ToolsUtil;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
 @RestController
 @RequestMapping(produces = MediaType.APPLICATION_JSON_VALUE, path = "/catalog")
 @Slf4j
@@ -26,15 +36,67 @@ public class CatalogController {
         this.datasetService = datasetService;
     }
 
+    /**
+     * Returns catalog with strong ETag; if the caller already holds the current catalog
+     * (If-None-Match matches), 304 Not Modified is returned without body.
+     *
+     * @param authorization authorization header
+     * @param ifNoneMatch   entity tag of the catalog already held by the caller
+     * @param jsonBody      CatalogRequestMessage
+     * @return catalog or 304 Not Modified
+     */
     @PostMapping(path = "/request")
     protected ResponseEntity<JsonNode> getCatalog(@RequestHeader(required = false) String authorization,
+                                                  @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
                                                   @RequestBody JsonNode jsonBody) {
         log.info("Handling catalog request \n{}", CatalogSerializer.serializeProtocol(jsonBody));
         CatalogSerializer.deserializeProtocol(jsonBody, CatalogRequestMessage.class);
         Catalog catalog = catalogService.getCatalog();
+        String eTag = catalogETag(catalog);
+        if (ToolsUtil.eTagMatches(ifNoneMatch, eTag)) {
+            log.debug("Catalog not modified");
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        JsonNode catalogJson = CatalogSerializer.serializeProtocolJsonNode(catalog);
         return ResponseEntity.ok()
                 .contentType(MediaType.APPLICATION_JSON)
-                .body(CatalogSerializer.serializeProtocolJsonNode(catalog));
+                .eTag(eTag)
+                .body(catalogJson);
+    }
+
+    /**
+     * Entity tag derived from id and version of the catalog and of every document it references.<br>
+     * Every save increments the version, so any change yields a new tag; unlike a hash of the JSON,
+     * it does not depend on the iteration order of the referenced sets.
+     *
+     * @param catalog catalog
+     * @return strong entity tag
+     */
+    private String catalogETag(Catalog catalog) {
+        Stream<String> catalogVersion = Stream.of(versionOf("catalog", catalog.getId(), catalog.getVersion()));
+        Stream<String> datasetVersions = Optional.ofNullable(catalog.getDataset()).orElse(Set.of()).stream()
+                .flatMap(dataset -> Stream.concat(
+                        Stream.of(versionOf("dataset", dataset.getId(), dataset.getVersion())),
+                        distributionVersions(dataset.getDistribution())));
+        Stream<String> serviceVersions = Optional.ofNullable(catalog.getService()).orElse(Set.of()).stream()
+                .map(service -> versionOf("dataService", service.getId(), service.getVersion()));
+        String versions = Stream.of(catalogVersion, datasetVersions, distributionVersions(catalog.getDistribution()), serviceVersions)
+                .flatMap(s -> s)
+                .sorted()
+                .collect(Collectors.joining(","));
+        return ToolsUtil.strongETag(versions.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Stream<String> distributionVersions(Set<Distribution> distributions) {
+        return Optional.ofNullable(distributions).orElse(Set.of()).stream()
+                .flatMap(distribution -> Stream.concat(
+                        Stream.of(versionOf("distribution", distribution.getId(), distribution.getVersion())),
+                        Stream.ofNullable(distribution.getAccessService())
+                                .map(service -> versionOf("dataService", service.getId(), service.getVersion()))));
+    }
+
+    private String versionOf(String type, String id, Long version) {
+        return type + ":" + id + ":" + version;
     }
 
     @GetMapping(path = "/datasets/{id}")
@@ -8,6 +8,7 @@ import it.eng.tools.repository.ArtifactRepository;
 import it.eng.tools.s3.properties.S3Properties;
 import it.eng.tools.s3.service.S3ClientService;
 import it.eng.tools.s3.util.S3Utils;
+import it.eng.tools.util.DigestingInputStream;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.http.ContentDisposition;
@@ -48,11 +49,12 @@ public class ArtifactService {
     public Artifact uploadArtifact(String fileId, MultipartFile file, String externalURL, String authorization) {
         Artifact artifact;
         if (file != null) {
-            storeFile(fileId, file);
+            String checksum = storeFile(fileId, file);
             artifact = Artifact.Builder.newInstance()
                     .artifactType(ArtifactType.FILE)
                     .value(fileId)
                     .contentType(file.getContentType())
+                    .checksum(checksum)
                     .filename(file.getOriginalFilename())
                     .build();
         } else if (externalURL != null) {
@@ -110,7 +112,14 @@ public class ArtifactService {
         artifactRepository.delete(artifact);
     }
 
-    private void storeFile(String fileId, MultipartFile file) {
+    /**
+     * Stores file to S3.
+     *
+     * @param fileId id the file is stored under
+     * @param file   file to store
+     * @return Base64 encoded SHA-256 of the stored content, null if the content was not read completely
+     */
+    private String storeFile(String fileId, MultipartFile file) {
         ContentDisposition contentDisposition = ContentDisposition.attachment()
                 .filename(file.getOriginalFilename())
                 .build();
@@ -124,17 +133,21 @@ public class ArtifactService {
                 S3Utils.ACCESS_KEY, s3Properties.getAccessKey(),
                 S3Utils.SECRET_KEY, s3Properties.getSecretKey()
         );
+        DigestingInputStream content;
         try {
+            content = new DigestingInputStream(file.getInputStream());
             s3ClientService.uploadFile(
-                    file.getInputStream(),
+                    content,
                     destinationS3Properties,
                     file.getContentType(),
-                    contentDisposition.toString()
+                    contentDisposition.toString(),
+                    file.getSize()
             ).get();
         } catch (Exception e) {
             log.error("File storing aborted", e);
             throw new CatalogErrorAPIException("File storing aborted, " + e.getLocalizedMessage());
         }
         log.info("Stored file {} under id {}", file.getOriginalFilename(), fileId);
+        return content.getByteCount() == file.getSize() ? content.getDigest() : null;
     }
 }
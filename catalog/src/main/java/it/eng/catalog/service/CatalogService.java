@@ -21,6 +21,7 @@ import org.springframework.stereotype.Service;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.BooleanSupplier;
 
 /**
  * The CatalogService class provides methods to interact with catalog data, including saving, retrieving, and deleting catalogs.
@@ -56,7 +57,8 @@ public class CatalogService {
 //  (choose artifact from files list instead of uploading when making a new dataset)
         List<String> files = s3ClientService.listFiles(s3Properties.getBucketName());
 
-        List<Catalog> allCatalogs = repository.findAll();
+        // references are resolved in bulk, one query per referenced collection instead of one per document
+        List<Catalog> allCatalogs = repository.findAllWithReferences();
 
         // remove datasets that do not have files in S3
         // external files can not be checked at the time of writing and will be automatically allowed
@@ -166,79 +168,80 @@ public class CatalogService {
     }
 
     /**
-     * Updates the catalog with a newly saved dataset reference.
-     * This method adds the new dataset reference to the catalog's dataset list and saves the updated catalog.
+     * Adds a newly saved dataset reference to the catalog.
+     * Only the reference is added, with a single atomic update; the catalog is not loaded.
      *
      * @param newDataset The new dataset reference to be added to the catalog.
      */
     public void updateCatalogDatasetAfterSave(Dataset newDataset) {
         // TODO handle the situation when new dataset have distribution which is not present in catalog
-        Catalog c = getCatalogForApi();
-        c.getDataset().add(newDataset);
-        saveCatalog(c);
+        updateCatalogReference(() -> repository.addDataset(newDataset));
     }
 
     /**
-     * Removes a dataset reference from the catalog and saves the updated catalog.
-     * This method removes the specified dataset reference from the catalog's dataset collection and saves the updated catalog.
+     * Removes a dataset reference from the catalog.
+     * Only the reference is removed, with a single atomic update; the catalog is not loaded.
      *
      * @param dataset The dataset to be removed from the catalog.
      */
     public void updateCatalogDatasetAfterDelete(Dataset dataset) {
-        Catalog c = getCatalogForApi();
-        c.getDataset().remove(dataset);
-        saveCatalog(c);
+        updateCatalogReference(() -> repository.removeDataset(dataset));
     }
 
     /**
-     * Updates the catalog with a newly saved dataService reference.
-     * This method adds the new dataService reference to the catalog's dataService list and saves the updated catalog.
+     * Adds a newly saved dataService reference to the catalog.
+     * Only the reference is added, with a single atomic update; the catalog is not loaded.
      *
      * @param dataService The new data service reference to be added to the catalog.
      */
     public void updateCatalogDataServiceAfterSave(DataService dataService) {
-        Catalog c = getCatalogForApi();
-        c.getService().add(dataService);
-        saveCatalog(c);
+        updateCatalogReference(() -> repository.addDataService(dataService));
     }
 
 
     /**
-     * Removes a dataService reference from the catalog and saves the updated catalog.
-     * This method removes the specified dataService reference from the catalog's dataService collection and saves the updated catalog.
+     * Removes a dataService reference from the catalog.
+     * Only the reference is removed, with a single atomic update; the catalog is not loaded.
      *
      * @param dataService The dataService to be removed from the catalog.
      */
 
     public void updateCatalogDataServiceAfterDelete(DataService dataService) {
-        Catalog c = getCatalogForApi();
-        c.getService().remove(dataService);
-        saveCatalog(c);
+        updateCatalogReference(() -> repository.removeDataService(dataService));
     }
 
     /**
-     * Updates the catalog with a newly saved distribution reference.
-     * This method adds the new distribution reference to the catalog's distribution list and saves the updated catalog.
+     * Adds a newly saved distribution reference to the catalog.
+     * Only the reference is added, with a single atomic update; the catalog is not loaded.
      *
      * @param newDistribution The new distribution reference to be added to the catalog.
      */
     public void updateCatalogDistributionAfterSave(Distribution newDistribution) {
-        Catalog c = getCatalogForApi();
-        c.getDistribution().add(newDistribution);
-        saveCatalog(c);
+        updateCatalogReference(() -> repository.addDistribution(newDistribution));
     }
 
     /**
-     * Removes a distribution reference from the catalog and saves the updated catalog.
-     * This method removes the specified distribution reference from the catalog's distribution collection and saves the updated catalog.
+     * Removes a distribution reference from the catalog.
+     * Only the reference is removed, with a single atomic update; the catalog is not loaded.
      *
      * @param distribution The distribution to be removed from the catalog.
      */
 
     public void updateCatalogDistributionAfterDelete(Distribution distribution) {
-        Catalog c = getCatalogForApi();
-        c.getDistribution().remove(distribution);
-        saveCatalog(c);
+        updateCatalogReference(() -> repository.removeDistribution(distribution));
+    }
+
+    private void updateCatalogReference(BooleanSupplier update) {
+        boolean updated;
+        try {
+            updated = update.getAsBoolean();
+        } catch (Exception e) {
+            log.error(e.getMessage(), e);
+            throw new InternalServerErrorAPIException("Catalog could not be saved");
+        }
+        if (!updated) {
+            throw new ResourceNotFoundAPIException("Catalog not found");
+        }
     }
 
 
@@ -6,26 +6,68 @@ import it.eng.catalog.model.CatalogError;
 import it.eng.catalog.model.CatalogRequestMessage;
 import it.eng.catalog.model.Distribution;
 import it.eng.catalog.serializer.CatalogSerializer;
+import it.eng.tools.client.rest.ConditionalResponse;
 import it.eng.tools.client.rest.OkHttpRestClient;
-import it.eng.tools.response.GenericApiResponse;
 import it.eng.tools.util.CredentialUtils;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
+/**
+ * Fetches catalogs from remote providers on behalf of the UI.<br>
+ * Catalogs are cached per provider: a fresh entry is served without contacting the provider, a stale entry is served
+ * while it is revalidated in background (If-None-Match), and concurrent requests for the same provider share one fetch.
+ */
 @Service
 @Slf4j
 public class ProxyAPIService {
 
     private final OkHttpRestClient okHttpClient;
     private final CredentialUtils credentialUtils;
+    private final long ttlMillis;
+    private final long staleWhileRevalidateMillis;
+
+    private final Cache<String, CachedCatalog> catalogCache;
+    private final ConcurrentHashMap<String, CompletableFuture<CachedCatalog>> inFlight = new ConcurrentHashMap<>();
+    private final ExecutorService revalidationExecutor;
 
-    public ProxyAPIService(OkHttpRestClient okHttpClient, CredentialUtils credentialUtils) {
+    public ProxyAPIService(OkHttpRestClient okHttpClient, CredentialUtils credentialUtils,
+                           @Value("${application.proxy.catalog.cache.ttl-seconds:60}") long ttlSeconds,
+                           @Value("${application.proxy.catalog.cache.stale-while-revalidate-seconds:300}") long staleWhileRevalidateSeconds,
+                           @Value("${application.proxy.catalog.cache.max-providers:100}") long maxProviders,
+                           @Value("${application.proxy.catalog.cache.revalidation-threads:4}") int revalidationThreads) {
         super();
         this.okHttpClient = okHttpClient;
         this.credentialUtils = credentialUtils;
+        this.ttlMillis = Duration.ofSeconds(ttlSeconds).toMillis();
+        this.staleWhileRevalidateMillis = Duration.ofSeconds(staleWhileRevalidateSeconds).toMillis();
+        this.catalogCache = Caffeine.newBuilder()
+                .maximumSize(maxProviders)
+                .build();
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("catalog-revalidation-");
+        threadFactory.setDaemon(true);
+        // at most one revalidation per provider is queued, see inFlight
+        this.revalidationExecutor = Executors.newFixedThreadPool(revalidationThreads, threadFactory);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        revalidationExecutor.shutdownNow();
     }
 
     public List<String> getFormatsFromDataset(String datasetId, String forwardTo) {
@@ -38,17 +80,107 @@ public class ProxyAPIService {
     }
 
     public Catalog getCatalog(String forwardTo) {
+        CachedCatalog cached = catalogCache.getIfPresent(forwardTo);
+        long now = System.currentTimeMillis();
+        if (cached != null) {
+            long age = now - cached.validatedAt();
+            if (age < ttlMillis) {
+                log.debug("Serving cached catalog for {}", forwardTo);
+                return cached.catalog();
+            }
+            if (age < ttlMillis + staleWhileRevalidateMillis) {
+                log.debug("Serving stale catalog for {} while revalidating", forwardTo);
+                revalidateInBackground(forwardTo, cached);
+                return cached.catalog();
+            }
+        }
+        return fetchShared(forwardTo, cached).catalog();
+    }
+
+    /**
+     * Removes cached catalog of the provider, next request will fetch it again.
+     *
+     * @param forwardTo provider address
+     */
+    public void evictCatalog(String forwardTo) {
+        catalogCache.invalidate(forwardTo);
+    }
+
+    private void revalidateInBackground(String forwardTo, CachedCatalog cached) {
+        CompletableFuture<CachedCatalog> future = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(forwardTo, future) != null) {
+            // revalidation already running
+            return;
+        }
+        try {
+            revalidationExecutor.execute(() -> {
+                try {
+                    future.complete(fetch(forwardTo, cached));
+                } catch (RuntimeException e) {
+                    log.warn("Background revalidation of catalog from {} failed: {}", forwardTo, e.getMessage());
+                    future.completeExceptionally(e);
+                } finally {
+                    inFlight.remove(forwardTo, future);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // shutting down, stale catalog is served without revalidation
+            inFlight.remove(forwardTo, future);
+            future.completeExceptionally(e);
+        }
+    }
+
+    private CachedCatalog fetchShared(String forwardTo, CachedCatalog cached) {
+        CompletableFuture<CachedCatalog> future = new CompletableFuture<>();
+        CompletableFuture<CachedCatalog> existing = inFlight.putIfAbsent(forwardTo, future);
+        if (existing != null) {
+            log.debug("Waiting for catalog fetch from {} already in progress", forwardTo);
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+        try {
+            CachedCatalog fetched = fetch(forwardTo, cached);
+            future.complete(fetched);
+            return fetched;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(forwardTo, future);
+        }
+    }
+
+    private CachedCatalog fetch(String forwardTo, CachedCatalog cached) {
         CatalogRequestMessage catalogRequestMessage = CatalogRequestMessage.Builder.newInstance().build();
-        GenericApiResponse<String> catalogResponse = okHttpClient.sendRequestProtocol(forwardTo + "/catalog/request", CatalogSerializer.serializeProtocolJsonNode(catalogRequestMessage),
-                credentialUtils.getConnectorCredentials());
-        if (catalogResponse.isSuccess()) {
-            return CatalogSerializer.deserializeProtocol(catalogResponse.getData(), Catalog.class);
-        } else {
-            CatalogError catalogError = CatalogSerializer.deserializeProtocol(catalogResponse.getData(), CatalogError.class);
+        ConditionalResponse catalogResponse = okHttpClient.sendConditionalRequestProtocol(forwardTo + "/catalog/request",
+                CatalogSerializer.serializeProtocolJsonNode(catalogRequestMessage),
+                credentialUtils.getConnectorCredentials(), cached != null ? cached.eTag() : null);
+        CachedCatalog fetched;
+        if (catalogResponse.isNotModified() && cached != null) {
+            log.debug("Catalog from {} not modified", forwardTo);
+            fetched = new CachedCatalog(cached.catalog(), cached.eTag(), System.currentTimeMillis());
+        } else if (catalogResponse.isSuccessful() && catalogResponse.body() != null) {
+            fetched = new CachedCatalog(CatalogSerializer.deserializeProtocol(catalogResponse.body(), Catalog.class),
+                    catalogResponse.eTag(), System.currentTimeMillis());
+        } else if (!catalogResponse.isSuccessful() && catalogResponse.body() != null) {
+            CatalogError catalogError = CatalogSerializer.deserializeProtocol(catalogResponse.body(), CatalogError.class);
             log.error("No valid Catalog response received from  {}, : {} ", forwardTo, catalogError.getReason());
             throw new CatalogErrorAPIException("Catalog response not received from  " + forwardTo
                     + " : " + catalogError.getReason());
+        } else {
+            log.error("No valid Catalog response received from  {}, status {}", forwardTo, catalogResponse.code());
+            throw new CatalogErrorAPIException("Catalog response not received from  " + forwardTo);
         }
+        catalogCache.put(forwardTo, fetched);
+        return fetched;
     }
 
+    private record CachedCatalog(Catalog catalog, String eTag, long validatedAt) {
+    }
 }
@@ -0,0 +1,77 @@
+package it.eng.catalog.repository;
+
+import com.mongodb.client.result.UpdateResult;
+import it.eng.catalog.model.Catalog;
+import it.eng.catalog.util.CatalogMockObjectUtil;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogRepositoryImplTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Captor
+    private ArgumentCaptor<Update> updateCaptor;
+
+    private CatalogRepositoryImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new CatalogRepositoryImpl(mongoTemplate);
+    }
+
+    @Test
+    @DisplayName("Add dataset - $addToSet and version increment")
+    void addDataset() {
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Catalog.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        assertTrue(repository.addDataset(CatalogMockObjectUtil.DATASET));
+
+        verify(mongoTemplate).updateFirst(any(Query.class), updateCaptor.capture(), eq(Catalog.class));
+        Document update = updateCaptor.getValue().getUpdateObject();
+        assertEquals(CatalogMockObjectUtil.DATASET, update.get("$addToSet", Document.class).get("dataset"));
+        assertEquals(1, update.get("$inc", Document.class).get("version"));
+        assertNotNull(update.get("$set", Document.class).get("modified"));
+    }
+
+    @Test
+    @DisplayName("Remove data service - $pull")
+    void removeDataService() {
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Catalog.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        assertTrue(repository.removeDataService(CatalogMockObjectUtil.DATA_SERVICE));
+
+        verify(mongoTemplate).updateFirst(any(Query.class), updateCaptor.capture(), eq(Catalog.class));
+        assertEquals(CatalogMockObjectUtil.DATA_SERVICE,
+                updateCaptor.getValue().getUpdateObject().get("$pull", Document.class).get("service"));
+    }
+
+    @Test
+    @DisplayName("Add distribution - no catalog")
+    void addDistribution_noCatalog() {
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Catalog.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+
+        assertFalse(repository.addDistribution(CatalogMockObjectUtil.DISTRIBUTION));
+    }
+}
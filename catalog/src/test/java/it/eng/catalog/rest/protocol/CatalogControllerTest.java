@@ -16,6 +16,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -45,13 +46,28 @@ public class CatalogControllerTest {
         when(catalogService.getCatalog()).thenReturn(CatalogMockObjectUtil.CATALOG);
         JsonNode jsonNode = CatalogSerializer.serializeProtocolJsonNode(catalogRequestMessage);
 
-        ResponseEntity<JsonNode> response = catalogController.getCatalog(null, jsonNode);
+        ResponseEntity<JsonNode> response = catalogController.getCatalog(null, null, jsonNode);
 
         assertNotNull(response);
         assertTrue(response.getStatusCode().is2xxSuccessful());
         assertNotNull(response.getBody());
         assertTrue(StringUtils.contains(response.getBody().toString(), CatalogMockObjectUtil.CATALOG.getType()));
         assertTrue(StringUtils.contains(response.getBody().toString(), DSpaceConstants.DSPACE_2025_01_CONTEXT));
+        assertNotNull(response.getHeaders().getETag());
+    }
+
+    @Test
+    @DisplayName("Get catalog - not modified when If-None-Match matches")
+    public void getCatalogNotModifiedTest() throws Exception {
+        when(catalogService.getCatalog()).thenReturn(CatalogMockObjectUtil.CATALOG);
+        JsonNode jsonNode = CatalogSerializer.serializeProtocolJsonNode(catalogRequestMessage);
+        String eTag = catalogController.getCatalog(null, null, jsonNode).getHeaders().getETag();
+
+        ResponseEntity<JsonNode> response = catalogController.getCatalog(null, eTag, jsonNode);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals(eTag, response.getHeaders().getETag());
+        assertNull(response.getBody());
     }
 
     @Test
@@ -59,7 +75,7 @@ public class CatalogControllerTest {
     public void notValidCatalogRequestMessageTest() throws Exception {
         JsonNode jsonNode = CatalogSerializer.serializeProtocolJsonNode(datasetRequestMessage);
 
-        Exception e = assertThrows(ValidationException.class, () -> catalogController.getCatalog(null, jsonNode));
+        Exception e = assertThrows(ValidationException.class, () -> catalogController.getCatalog(null, null, jsonNode));
 
         assertTrue(StringUtils.contains(e.getMessage(), "@type field not correct, expected CatalogRequestMessage"));
     }
@@ -6,6 +6,7 @@ import it.eng.tools.model.Artifact;
 import it.eng.tools.repository.ArtifactRepository;
 import it.eng.tools.s3.properties.S3Properties;
 import it.eng.tools.s3.service.S3ClientService;
+import it.eng.tools.util.ContentDigest;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,8 +16,11 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
@@ -84,14 +88,39 @@ public class ArtifactServiceTest {
         when(file.getContentType()).thenReturn(MediaType.APPLICATION_JSON_VALUE);
         when(file.getOriginalFilename()).thenReturn(CatalogMockObjectUtil.ARTIFACT_FILE.getFilename());
         when(file.getInputStream()).thenReturn(inputStream);
-        when(s3ClientService.uploadFile(any(InputStream.class), anyMap(), anyString(), anyString()))
+        when(s3ClientService.uploadFile(any(InputStream.class), anyMap(), anyString(), anyString(), anyLong()))
                 .thenReturn(CompletableFuture.completedFuture("etag"));
         when(artifactRepository.save(any(Artifact.class))).thenReturn(CatalogMockObjectUtil.ARTIFACT_FILE);
 
         Artifact artifact = artifactService.uploadArtifact(CatalogMockObjectUtil.DATASET_WITH_ARTIFACT.getId(), file, null, null);
 
         assertEquals(CatalogMockObjectUtil.ARTIFACT_FILE, artifact);
-        verify(s3ClientService).uploadFile(eq(inputStream), anyMap(), eq(MediaType.APPLICATION_JSON_VALUE), anyString());
+        verify(s3ClientService).uploadFile(any(InputStream.class), anyMap(), eq(MediaType.APPLICATION_JSON_VALUE), anyString(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Upload file - checksum of stored content recorded")
+    public void uploadFile_checksum() throws IOException {
+        byte[] content = "file content".getBytes(StandardCharsets.UTF_8);
+        when(s3Properties.getBucketName()).thenReturn(TEST_BUCKET);
+        when(s3Properties.getEndpoint()).thenReturn(TEST_ENDPOINT);
+        when(s3Properties.getRegion()).thenReturn(TEST_REGION);
+        when(s3Properties.getAccessKey()).thenReturn(TEST_ACCESS_KEY);
+        when(s3Properties.getSecretKey()).thenReturn(TEST_SECRET_KEY);
+        when(file.getContentType()).thenReturn(MediaType.APPLICATION_JSON_VALUE);
+        when(file.getOriginalFilename()).thenReturn(CatalogMockObjectUtil.ARTIFACT_FILE.getFilename());
+        when(file.getInputStream()).thenReturn(new ByteArrayInputStream(content));
+        when(file.getSize()).thenReturn((long) content.length);
+        when(s3ClientService.uploadFile(any(InputStream.class), anyMap(), anyString(), anyString(), anyLong()))
+                .thenAnswer(invocation -> {
+                    invocation.getArgument(0, InputStream.class).readAllBytes();
+                    return CompletableFuture.completedFuture("etag");
+                });
+        when(artifactRepository.save(any(Artifact.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Artifact artifact = artifactService.uploadArtifact(CatalogMockObjectUtil.DATASET_WITH_ARTIFACT.getId(), file, null, null);
+
+        assertEquals(Base64.getEncoder().encodeToString(ContentDigest.newSha256().digest(content)), artifact.getChecksum());
     }
 
     @Test
@@ -105,7 +134,7 @@ public class ArtifactServiceTest {
 
         when(file.getContentType()).thenReturn(MediaType.APPLICATION_JSON_VALUE);
         when(file.getInputStream()).thenReturn(inputStream);
-        doThrow(RuntimeException.class).when(s3ClientService).uploadFile(any(InputStream.class), anyMap(), anyString(), anyString());
+        doThrow(RuntimeException.class).when(s3ClientService).uploadFile(any(InputStream.class), anyMap(), anyString(), anyString(), anyLong());
 
         assertThrows(CatalogErrorAPIException.class, () -> artifactService.uploadArtifact(CatalogMockObjectUtil.DATASET_WITH_ARTIFACT.getId(), file, null, null));
     }
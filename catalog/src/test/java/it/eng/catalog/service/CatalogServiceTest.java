@@ -1,6 +1,8 @@
 package it.eng.catalog.service;
 
 import it.eng.catalog.exceptions.CatalogErrorException;
+import it.eng.catalog.exceptions.InternalServerErrorAPIException;
+import it.eng.catalog.exceptions.ResourceNotFoundAPIException;
 import it.eng.catalog.model.*;
 import it.eng.catalog.repository.CatalogRepository;
 import it.eng.catalog.serializer.CatalogSerializer;
@@ -19,6 +21,7 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
 
 import java.util.Collections;
 import java.util.HashSet;
@@ -29,6 +32,7 @@ import java.util.stream.Collectors;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -74,21 +78,21 @@ public class CatalogServiceTest {
     @Test
     @DisplayName("Get catalog successfully")
     public void getCatalog_success() {
-        when(repository.findAll()).thenReturn(Collections.singletonList(catalog));
+        when(repository.findAllWithReferences()).thenReturn(Collections.singletonList(catalog));
         when(s3Properties.getBucketName()).thenReturn(BUCKET_NAME);
         when(s3ClientService.listFiles(BUCKET_NAME))
                 .thenReturn(catalog.getDataset().stream()
                         .map(Dataset::getId).collect(Collectors.toList()));
         Catalog retrievedCatalog = service.getCatalog();
         assertNotNull(retrievedCatalog);
-        verify(repository).findAll();
+        verify(repository).findAllWithReferences();
     }
 
     @Test
     @DisplayName("Get catalog check if uploading dataset is removed")
     public void getCatalog_checkIfUploadingDatasetIsRemoved() {
         assertFalse(catalog.getDataset().isEmpty());
-        when(repository.findAll()).thenReturn(Collections.singletonList(catalog));
+        when(repository.findAllWithReferences()).thenReturn(Collections.singletonList(catalog));
         when(s3Properties.getBucketName()).thenReturn(BUCKET_NAME);
         when(s3ClientService.listFiles(BUCKET_NAME))
                 .thenReturn(Collections.emptyList());
@@ -98,7 +102,7 @@ public class CatalogServiceTest {
     @Test
     @DisplayName("Get catalog throws exception when not found")
     public void getCatalog_notFound() {
-        when(repository.findAll()).thenReturn(Collections.emptyList());
+        when(repository.findAllWithReferences()).thenReturn(Collections.emptyList());
         assertThrows(CatalogErrorException.class, () -> service.getCatalog());
     }
 
@@ -150,12 +154,43 @@ public class CatalogServiceTest {
     public void updateCatalogDataServiceAfterDelete_success() {
 
         DataService dataService = CatalogMockObjectUtil.DATA_SERVICE;
-        when(repository.findAll()).thenReturn(Collections.singletonList(catalog));
-        when(repository.save(any(Catalog.class))).thenReturn(catalog);
+        when(repository.removeDataService(dataService)).thenReturn(true);
 
         service.updateCatalogDataServiceAfterDelete(dataService);
 
-        verify(repository).save(any(Catalog.class));
+        verify(repository).removeDataService(dataService);
+        verify(repository, never()).save(any(Catalog.class));
+    }
+
+    @Test
+    @DisplayName("Update catalog dataset after save adds only the reference")
+    public void updateCatalogDatasetAfterSave_success() {
+        when(repository.addDataset(CatalogMockObjectUtil.DATASET)).thenReturn(true);
+
+        service.updateCatalogDatasetAfterSave(CatalogMockObjectUtil.DATASET);
+
+        verify(repository).addDataset(CatalogMockObjectUtil.DATASET);
+        verify(repository, never()).findAll();
+        verify(repository, never()).save(any(Catalog.class));
+    }
+
+    @Test
+    @DisplayName("Update catalog dataset after save - catalog not found")
+    public void updateCatalogDatasetAfterSave_catalogNotFound() {
+        when(repository.addDataset(CatalogMockObjectUtil.DATASET)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundAPIException.class,
+                () -> service.updateCatalogDatasetAfterSave(CatalogMockObjectUtil.DATASET));
+    }
+
+    @Test
+    @DisplayName("Update catalog distribution after delete - update failed")
+    public void updateCatalogDistributionAfterDelete_fail() {
+        when(repository.removeDistribution(CatalogMockObjectUtil.DISTRIBUTION))
+                .thenThrow(new DataAccessResourceFailureException("down"));
+
+        assertThrows(InternalServerErrorAPIException.class,
+                () -> service.updateCatalogDistributionAfterDelete(CatalogMockObjectUtil.DISTRIBUTION));
     }
 
     @Test
@@ -166,7 +201,7 @@ public class CatalogServiceTest {
                 .permission(catalog.getDataset().stream().findFirst().get().getHasPolicy().stream().findFirst().get().getPermission())
                 .build();
 
-        when(repository.findAll()).thenReturn(Collections.singletonList(catalog));
+        when(repository.findAllWithReferences()).thenReturn(Collections.singletonList(catalog));
         when(s3Properties.getBucketName()).thenReturn(BUCKET_NAME);
         when(s3ClientService.listFiles(BUCKET_NAME))
                 .thenReturn(catalog.getDataset().stream()
@@ -188,7 +223,7 @@ public class CatalogServiceTest {
                 .permission(Set.of(CatalogMockObjectUtil.PERMISSION_ANONYMIZE))
                 .build();
 
-        when(repository.findAll()).thenReturn(Collections.singletonList(catalog));
+        when(repository.findAllWithReferences()).thenReturn(Collections.singletonList(catalog));
         when(s3Properties.getBucketName()).thenReturn(BUCKET_NAME);
         when(s3ClientService.listFiles(BUCKET_NAME))
                 .thenReturn(catalog.getDataset().stream()
@@ -211,7 +246,7 @@ public class CatalogServiceTest {
                 .permission(catalog.getDataset().stream().findFirst().get().getHasPolicy().stream().findFirst().get().getPermission())
                 .build();
 
-        when(repository.findAll()).thenReturn(Collections.singletonList(catalog));
+        when(repository.findAllWithReferences()).thenReturn(Collections.singletonList(catalog));
         when(s3Properties.getBucketName()).thenReturn(BUCKET_NAME);
         when(s3ClientService.listFiles(BUCKET_NAME))
                 .thenReturn(catalog.getDataset().stream()
@@ -231,7 +266,7 @@ public class CatalogServiceTest {
                 .permission(new HashSet<>(Collections.singletonList(CatalogMockObjectUtil.PERMISSION)))
                 .build();
 
-        when(repository.findAll()).thenReturn(Collections.singletonList(catalog));
+        when(repository.findAllWithReferences()).thenReturn(Collections.singletonList(catalog));
         when(s3Properties.getBucketName()).thenReturn(BUCKET_NAME);
         when(s3ClientService.listFiles(BUCKET_NAME))
                 .thenReturn(catalog.getDataset().stream()
@@ -261,7 +296,7 @@ public class CatalogServiceTest {
                 .permission(new HashSet<>(Collections.singletonList(permission)))
                 .build();
 
-        when(repository.findAll()).thenReturn(Collections.singletonList(catalog));
+        when(repository.findAllWithReferences()).thenReturn(Collections.singletonList(catalog));
         when(s3Properties.getBucketName()).thenReturn(BUCKET_NAME);
         when(s3ClientService.listFiles(BUCKET_NAME))
                 .thenReturn(catalog.getDataset().stream()
@@ -5,28 +5,41 @@ import it.eng.catalog.exceptions.CatalogErrorAPIException;
 import it.eng.catalog.model.Catalog;
 import it.eng.catalog.serializer.CatalogSerializer;
 import it.eng.catalog.util.CatalogMockObjectUtil;
+import it.eng.tools.client.rest.ConditionalResponse;
 import it.eng.tools.client.rest.OkHttpRestClient;
-import it.eng.tools.response.GenericApiResponse;
 import it.eng.tools.util.CredentialUtils;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class ProxyAPIServiceTest {
 
 	private static final String FORWARD_TO = "http://forward.to/test";
+	private static final String E_TAG = "\"v1\"";
 
 	private Catalog catalog;
 
@@ -34,15 +47,18 @@ class ProxyAPIServiceTest {
 	private OkHttpRestClient okHttpClient;
 	@Mock
 	private CredentialUtils credentialUtils;
-	@Mock
-	private GenericApiResponse<String> genericApiResponse;
 
-	@InjectMocks
 	private ProxyAPIService service;
 
 	@BeforeEach
 	public void setUp() {
 		catalog = CatalogMockObjectUtil.createNewCatalog();
+		service = new ProxyAPIService(okHttpClient, credentialUtils, 60, 300, 100, 4);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		service.shutdown();
 	}
 
 	@Test
@@ -59,16 +75,23 @@ class ProxyAPIServiceTest {
 	@DisplayName("Get formats fail")
 	void getFormatsFromDataset_fail() {
 		when(credentialUtils.getConnectorCredentials()).thenReturn("ABC");
-		when(okHttpClient.sendRequestProtocol(anyString(), any(JsonNode.class), anyString()))
-				.thenReturn(genericApiResponse);
-		when(genericApiResponse.isSuccess()).thenReturn(false);
-		when(genericApiResponse.getData())
-				.thenReturn(CatalogSerializer.serializeProtocol(CatalogMockObjectUtil.CATALOG_ERROR));
+		when(okHttpClient.sendConditionalRequestProtocol(anyString(), any(JsonNode.class), anyString(), any()))
+				.thenReturn(new ConditionalResponse(400, CatalogSerializer.serializeProtocolJsonNode(CatalogMockObjectUtil.CATALOG_ERROR), null));
 		
 		assertThrows(CatalogErrorAPIException.class, 
 				() -> service.getFormatsFromDataset(CatalogMockObjectUtil.DATASET_ID, FORWARD_TO));
 	}
 
+	@Test
+	@DisplayName("Fetch proxy catalog - provider not reachable")
+	void getCatalog_notReachable() {
+		when(credentialUtils.getConnectorCredentials()).thenReturn("ABC");
+		when(okHttpClient.sendConditionalRequestProtocol(anyString(), any(JsonNode.class), anyString(), any()))
+				.thenReturn(new ConditionalResponse(0, null, null));
+
+		assertThrows(CatalogErrorAPIException.class, () -> service.getCatalog(FORWARD_TO));
+	}
+
 	@Test
 	@DisplayName("Fetch proxy catalog")
 	void getCatalog() {
@@ -77,11 +100,116 @@ class ProxyAPIServiceTest {
 		assertNotNull(catalog);
 	}
 
+	@Test
+	@DisplayName("Fresh catalog is served from cache without contacting provider")
+	void getCatalog_cached() {
+		mockCatalogCall();
+
+		Catalog first = service.getCatalog(FORWARD_TO);
+		Catalog second = service.getCatalog(FORWARD_TO);
+
+		assertSame(first, second);
+		verify(okHttpClient, times(1)).sendConditionalRequestProtocol(anyString(), any(JsonNode.class), anyString(), any());
+	}
+
+	@Test
+	@DisplayName("Expired catalog is revalidated with If-None-Match, 304 keeps cached catalog")
+	void getCatalog_notModified() {
+		service = new ProxyAPIService(okHttpClient, credentialUtils, 0, 0, 100, 4);
+		when(credentialUtils.getConnectorCredentials()).thenReturn("ABC");
+		when(okHttpClient.sendConditionalRequestProtocol(anyString(), any(JsonNode.class), anyString(), isNull()))
+				.thenReturn(new ConditionalResponse(200, CatalogSerializer.serializeProtocolJsonNode(catalog), E_TAG));
+		when(okHttpClient.sendConditionalRequestProtocol(anyString(), any(JsonNode.class), anyString(), eq(E_TAG)))
+				.thenReturn(new ConditionalResponse(304, null, E_TAG));
+
+		Catalog first = service.getCatalog(FORWARD_TO);
+		Catalog second = service.getCatalog(FORWARD_TO);
+
+		assertSame(first, second);
+		verify(okHttpClient).sendConditionalRequestProtocol(anyString(), any(JsonNode.class), anyString(), isNull());
+		verify(okHttpClient).sendConditionalRequestProtocol(anyString(), any(JsonNode.class), anyString(), eq(E_TAG));
+	}
+
+	@Test
+	@DisplayName("Stale catalog is served immediately and revalidated in background")
+	void getCatalog_staleWhileRevalidate() {
+		service = new ProxyAPIService(okHttpClient, credentialUtils, 0, 300, 100, 4);
+		when(credentialUtils.getConnectorCredentials()).thenReturn("ABC");
+		when(okHttpClient.sendConditionalRequestProtocol(anyString(), any(JsonNode.class), anyString(), isNull()))
+				.thenReturn(new ConditionalResponse(200, CatalogSerializer.serializeProtocolJsonNode(catalog), E_TAG));
+		when(okHttpClient.sendConditionalRequestProtocol(anyString(), any(JsonNode.class), anyString(), eq(E_TAG)))
+				.thenReturn(new ConditionalResponse(304, null, E_TAG));
+
+		Catalog first = service.getCatalog(FORWARD_TO);
+		Catalog stale = service.getCatalog(FORWARD_TO);
+
+		assertSame(first, stale);
+		verify(okHttpClient, timeout(5000)).sendConditionalRequestProtocol(anyString(), any(JsonNode.class), anyString(), eq(E_TAG));
+	}
+
+	@Test
+	@DisplayName("Stale catalog is served without revalidation after shutdown")
+	void getCatalog_staleAfterShutdown() {
+		service = new ProxyAPIService(okHttpClient, credentialUtils, 0, 300, 100, 4);
+		when(credentialUtils.getConnectorCredentials()).thenReturn("ABC");
+		when(okHttpClient.sendConditionalRequestProtocol(anyString(), any(JsonNode.class), anyString(), isNull()))
+				.thenReturn(new ConditionalResponse(200, CatalogSerializer.serializeProtocolJsonNode(catalog), E_TAG));
+
+		Catalog first = service.getCatalog(FORWARD_TO);
+		service.shutdown();
+		Catalog stale = service.getCatalog(FORWARD_TO);
+
+		assertSame(first, stale);
+		verify(okHttpClient, never()).sendConditionalRequestProtocol(anyString(), any(JsonNode.class), anyString(), eq(E_TAG));
+	}
+
+	@Test
+	@DisplayName("Concurrent requests for the same provider share one upstream call")
+	void getCatalog_singleFlight() throws Exception {
+		int callers = 20;
+		CountDownLatch upstreamCalled = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		when(credentialUtils.getConnectorCredentials()).thenReturn("ABC");
+		when(okHttpClient.sendConditionalRequestProtocol(anyString(), any(JsonNode.class), anyString(), any()))
+				.thenAnswer(invocation -> {
+					upstreamCalled.countDown();
+					release.await(5, TimeUnit.SECONDS);
+					return new ConditionalResponse(200, CatalogSerializer.serializeProtocolJsonNode(catalog), E_TAG);
+				});
+
+		ExecutorService executor = Executors.newFixedThreadPool(callers);
+		try {
+			List<Future<Catalog>> results = new ArrayList<>();
+			results.add(executor.submit(() -> service.getCatalog(FORWARD_TO)));
+			assertTrue(upstreamCalled.await(5, TimeUnit.SECONDS));
+			for (int i = 1; i < callers; i++) {
+				results.add(executor.submit(() -> service.getCatalog(FORWARD_TO)));
+			}
+			release.countDown();
+			for (Future<Catalog> result : results) {
+				assertNotNull(result.get(5, TimeUnit.SECONDS));
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		verify(okHttpClient, times(1)).sendConditionalRequestProtocol(anyString(), any(JsonNode.class), anyString(), any());
+	}
+
+	@Test
+	@DisplayName("Evicted catalog is fetched again")
+	void evictCatalog() {
+		mockCatalogCall();
+
+		service.getCatalog(FORWARD_TO);
+		service.evictCatalog(FORWARD_TO);
+		service.getCatalog(FORWARD_TO);
+
+		verify(okHttpClient, times(2)).sendConditionalRequestProtocol(anyString(), any(JsonNode.class), anyString(), any());
+	}
+
 	private void mockCatalogCall() {
 		when(credentialUtils.getConnectorCredentials()).thenReturn("ABC");
-		when(okHttpClient.sendRequestProtocol(anyString(), any(JsonNode.class), anyString()))
-				.thenReturn(genericApiResponse);
-		when(genericApiResponse.isSuccess()).thenReturn(true);
-		when(genericApiResponse.getData()).thenReturn(CatalogSerializer.serializeProtocol(catalog));
+		when(okHttpClient.sendConditionalRequestProtocol(anyString(), any(JsonNode.class), anyString(), any()))
+				.thenReturn(new ConditionalResponse(200, CatalogSerializer.serializeProtocolJsonNode(catalog), E_TAG));
 	}
 }
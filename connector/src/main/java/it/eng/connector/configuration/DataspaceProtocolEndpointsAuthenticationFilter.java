@@ -3,7 +3,6 @@ package it.eng.connector.configuration;
 import java.io.IOException;
 import java.util.Set;
 
-import org.apache.commons.lang3.StringUtils;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -35,8 +34,7 @@ public class DataspaceProtocolEndpointsAuthenticationFilter extends OncePerReque
 	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
 			throws ServletException, IOException {
 		
-		String authProeprty = applicationPropertiesService.get(PROTOCOL_AUTH_ENABLED);
-		boolean authEnabled = StringUtils.isNotBlank(authProeprty) ? Boolean.valueOf(authProeprty) : Boolean.TRUE;
+		boolean authEnabled = applicationPropertiesService.getSnapshot().getBoolean(PROTOCOL_AUTH_ENABLED, true);
 		log.debug("Protocol endpoint authorization enabled - {}", authEnabled);
 		if(authEnabled) {
 			log.debug("Protocol endpoints authorization ENABLED - continue with authorization");
@@ -2,7 +2,9 @@ package it.eng.connector.configuration;
 
 import it.eng.datatransfer.filter.EndpointAvailableFilter;
 import it.eng.datatransfer.service.AgreementService;
+import it.eng.datatransfer.service.TransferAccessCache;
 import it.eng.datatransfer.service.TransferProcessStrategy;
+import it.eng.datatransfer.service.api.ArtifactTransferService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
@@ -17,10 +19,17 @@ public class FilterRegistrationConfig {
     @Autowired
     private TransferProcessStrategy dataTransferService;
 
+    @Autowired
+    private TransferAccessCache transferAccessCache;
+
+    @Autowired
+    private ArtifactTransferService artifactTransferService;
+
     @Bean
     FilterRegistrationBean<EndpointAvailableFilter> endpointAvailableFilter() {
         FilterRegistrationBean<EndpointAvailableFilter> registrationBean = new FilterRegistrationBean<>();
-        registrationBean.setFilter(new EndpointAvailableFilter(agreementService, dataTransferService));
+        registrationBean.setFilter(new EndpointAvailableFilter(agreementService, dataTransferService, transferAccessCache,
+                artifactTransferService));
         registrationBean.addUrlPatterns("/artifacts/*");
         return registrationBean;
     }
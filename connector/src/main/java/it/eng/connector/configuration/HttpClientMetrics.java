@@ -0,0 +1,56 @@
+package it.eng.connector.configuration;
+
+import java.util.function.ToDoubleFunction;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import it.eng.tools.client.rest.ConnectionStatistics;
+import it.eng.tools.client.rest.ConnectionStatistics.ConnectionPoolSnapshot;
+import okhttp3.OkHttpClient;
+
+/**
+ * Publishes connection pool statistics of the HTTP client used to call other connectors,
+ * available under <code>/actuator/metrics/http.client.*</code>.
+ */
+@Component
+public class HttpClientMetrics implements MeterBinder {
+
+    private final OkHttpClient okHttpClient;
+    private final ConnectionStatistics connectionStatistics;
+
+    public HttpClientMetrics(OkHttpClient okHttpClient, ConnectionStatistics connectionStatistics) {
+        this.okHttpClient = okHttpClient;
+        this.connectionStatistics = connectionStatistics;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        gauge(registry, "http.client.pool.connections", "Connections in the pool", ConnectionPoolSnapshot::connections);
+        gauge(registry, "http.client.pool.idle", "Idle connections in the pool", ConnectionPoolSnapshot::idleConnections);
+        counter(registry, "http.client.calls", "Calls started", ConnectionPoolSnapshot::calls);
+        counter(registry, "http.client.connections.opened", "New connections", ConnectionPoolSnapshot::connectionsOpened);
+        counter(registry, "http.client.connections.reused", "Calls served by a pooled connection", ConnectionPoolSnapshot::connectionsReused);
+        counter(registry, "http.client.tls.handshakes", "TLS handshakes", ConnectionPoolSnapshot::tlsHandshakes);
+        counter(registry, "http.client.connections.failed", "Failed connection attempts", ConnectionPoolSnapshot::failedConnects);
+    }
+
+    private void gauge(MeterRegistry registry, String name, String description, ToDoubleFunction<ConnectionPoolSnapshot> value) {
+        Gauge.builder(name, this, metrics -> value.applyAsDouble(metrics.snapshot()))
+                .description(description)
+                .register(registry);
+    }
+
+    private void counter(MeterRegistry registry, String name, String description, ToDoubleFunction<ConnectionPoolSnapshot> value) {
+        FunctionCounter.builder(name, this, metrics -> value.applyAsDouble(metrics.snapshot()))
+                .description(description)
+                .register(registry);
+    }
+
+    private ConnectionPoolSnapshot snapshot() {
+        return connectionStatistics.snapshot(okHttpClient.connectionPool());
+    }
+}
@@ -1,17 +1,9 @@
 package it.eng.connector.configuration;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import it.eng.tools.event.AuditEvent;
 import it.eng.tools.event.AuditEventType;
-import it.eng.tools.s3.properties.S3Properties;
-import it.eng.tools.s3.service.S3BucketProvisionService;
-import it.eng.tools.s3.service.S3ClientService;
-import it.eng.tools.s3.util.S3Utils;
 import it.eng.tools.service.AuditEventPublisher;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.io.FileUtils;
-import org.bson.Document;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.annotation.Bean;
@@ -21,15 +13,13 @@ import org.springframework.context.event.EventListener;
 import org.springframework.core.env.Environment;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.data.mongodb.core.MongoTemplate;
-import org.springframework.http.ContentDisposition;
-import org.springframework.http.MediaType;
 
 import java.io.InputStream;
-import java.util.Map;
 
 /**
  * InitialDataLoader is responsible for loading initial data into MongoDB and uploading mock data to S3.
- * It uses CommandLineRunner to load data when the application starts and ApplicationReadyEvent to upload data to S3.
+ * It uses CommandLineRunner to load data when the application starts and ApplicationReadyEvent to start the
+ * background upload of data to S3, see {@link S3StartupProvisioner}.
  */
 @Slf4j
 @Configuration
@@ -37,19 +27,14 @@ public class InitialDataLoader {
 
     private final MongoTemplate mongoTemplate;
     private final Environment environment;
-    private final S3ClientService s3ClientService;
-    private final S3BucketProvisionService s3BucketProvisionService;
-    private final S3Properties s3Properties;
+    private final S3StartupProvisioner s3StartupProvisioner;
     private final AuditEventPublisher publisher;
 
-    public InitialDataLoader(MongoTemplate mongoTemplate, Environment environment, S3ClientService s3ClientService,
-                             S3BucketProvisionService s3BucketProvisionService, S3Properties s3Properties,
-                             AuditEventPublisher publisher) {
+    public InitialDataLoader(MongoTemplate mongoTemplate, Environment environment,
+                             S3StartupProvisioner s3StartupProvisioner, AuditEventPublisher publisher) {
         this.mongoTemplate = mongoTemplate;
         this.environment = environment;
-        this.s3ClientService = s3ClientService;
-        this.s3BucketProvisionService = s3BucketProvisionService;
-        this.s3Properties = s3Properties;
+        this.s3StartupProvisioner = s3StartupProvisioner;
         this.publisher = publisher;
     }
 
@@ -62,7 +47,6 @@ public class InitialDataLoader {
     @Bean
     CommandLineRunner loadInitialData() {
         return args -> {
-            ObjectMapper mapper = new ObjectMapper();
             String filename = null;
             String[] activeProfiles = environment.getActiveProfiles();
             if (activeProfiles.length == 0) {
@@ -73,41 +57,12 @@ public class InitialDataLoader {
                 filename = "initial_data-" + activeProfile + ".json";
                 log.debug("Active profile set {}, using {} for populating Mongo", activeProfile, filename);
             }
+            long start = System.currentTimeMillis();
             try (InputStream inputStream = new ClassPathResource(filename).getInputStream()) {
-                JsonNode rootNode = mapper.readTree(inputStream);
-
-                rootNode.fields().forEachRemaining(entry -> {
-                    String collectionName = entry.getKey();
-                    JsonNode documents = entry.getValue();
-                    int newDocuments = 0;
-                    int skippedDocuments = 0;
-
-                    for (JsonNode document : documents) {
-                        Document mongoDocument = Document.parse(document.toString());
-                        Object documentId = mongoDocument.get("_id");
-
-                        if (documentId != null) {
-                            // Check if document already exists
-                            Document existingDocument = mongoTemplate.findById(documentId, Document.class, collectionName);
-                            if (existingDocument == null) {
-                                mongoTemplate.save(mongoDocument, collectionName);
-                                newDocuments++;
-                            } else {
-                                log.debug("Document with ID {} already exists in collection '{}', skipping...",
-                                        documentId, collectionName);
-                                skippedDocuments++;
-                            }
-                        } else {
-                            // If document has no ID, treat as new document
-                            mongoTemplate.save(mongoDocument, collectionName);
-                            newDocuments++;
-                        }
-                    }
-
-                    log.info("Collection '{}': {} new documents loaded, {} documents skipped (already exist).",
-                            collectionName, newDocuments, skippedDocuments);
-                });
-
+                new InitialDataSeeder(mongoTemplate).seed(inputStream).forEach((collectionName, result) ->
+                        log.info("Collection '{}': {} new documents loaded, {} documents skipped (already exist).",
+                                collectionName, result.loaded(), result.skipped()));
+                log.info("Initial data loaded from {} in {} ms", filename, System.currentTimeMillis() - start);
             } catch (Exception e) {
                 log.error("Error loading initial data: {}", e.getMessage());
                 throw new RuntimeException("Failed to load initial data", e);
@@ -116,8 +71,8 @@ public class InitialDataLoader {
     }
 
     /**
-     * Loads mock data into S3 when the application is ready.
-     * This method is triggered by the ApplicationReadyEvent.
+     * Publishes the application start and starts provisioning of the S3 bucket and sample artifact in the background,
+     * when the application is ready.
      */
     @EventListener(ApplicationReadyEvent.class)
     public void loadMockData() {
@@ -125,41 +80,7 @@ public class InitialDataLoader {
                 .description("Application started")
                 .eventType(AuditEventType.APPLICATION_START)
                 .build());
-        log.info("Uploading mock data to S3...");
-
-        try {
-            // Ensure S3 bucket and credentials exist
-            String bucketName = s3Properties.getBucketName();
-            s3BucketProvisionService.ensureBucketCredentials(bucketName);
-
-            ClassPathResource file = new ClassPathResource("ENG-employee.json");
-            if (file.exists()) {
-                // from initial_data.json Artifacts.value which is the same as dataset.id
-                String fileKey = "urn:uuid:fdc45798-a222-4955-8baf-ab7fd66ac4d5";
-                String contentDisposition = ContentDisposition.attachment()
-                        .filename(file.getFile().getName())
-                        .build()
-                        .toString();
-
-                Map<String, String> destinationS3Properties = Map.of(
-                        S3Utils.OBJECT_KEY, fileKey,
-                        S3Utils.BUCKET_NAME, s3Properties.getBucketName(),
-                        S3Utils.ENDPOINT_OVERRIDE, s3Properties.getEndpoint(),
-                        S3Utils.REGION, s3Properties.getRegion(),
-                        S3Utils.ACCESS_KEY, s3Properties.getAccessKey(),
-                        S3Utils.SECRET_KEY, s3Properties.getSecretKey()
-                );
-
-                s3ClientService.uploadFile(
-                                FileUtils.openInputStream(file.getFile()),
-                                destinationS3Properties,
-                                MediaType.APPLICATION_JSON_VALUE,
-                                contentDisposition)
-                        .get();
-            }
-        } catch (Exception e) {
-            log.error("Error while loading mock data to S3", e);
-        }
+        s3StartupProvisioner.start();
     }
 
     @EventListener(ContextClosedEvent.class)
@@ -0,0 +1,158 @@
+package it.eng.connector.configuration;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.WriteModel;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Seeds MongoDB from an initial data file, an object with collection names as fields and arrays of documents as
+ * values.<br>
+ * The file is parsed while streamed and documents are written with unordered bulk upserts using
+ * <code>$setOnInsert</code>, so documents already present are left untouched and loading is idempotent. Batches are
+ * written in parallel, a batch holding documents of a single collection.
+ */
+@Slf4j
+public class InitialDataSeeder {
+
+    static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final UpdateOptions UPSERT = new UpdateOptions().upsert(true);
+    private static final BulkWriteOptions UNORDERED = new BulkWriteOptions().ordered(false);
+
+    private final MongoTemplate mongoTemplate;
+    private final int batchSize;
+    private final int threads;
+
+    public InitialDataSeeder(MongoTemplate mongoTemplate) {
+        this(mongoTemplate, DEFAULT_BATCH_SIZE, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    }
+
+    InitialDataSeeder(MongoTemplate mongoTemplate, int batchSize, int threads) {
+        this.mongoTemplate = mongoTemplate;
+        this.batchSize = batchSize;
+        this.threads = threads;
+    }
+
+    /**
+     * Loads all collections of the initial data file.
+     *
+     * @param inputStream initial data file
+     * @return loaded and skipped documents per collection, in file order
+     * @throws IOException if the file cannot be read or is not an object of document arrays
+     */
+    public Map<String, SeedResult> seed(InputStream inputStream) throws IOException {
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "initial-data-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Map<String, List<CompletableFuture<SeedResult>>> batches = new LinkedHashMap<>();
+        try (JsonParser parser = MAPPER.getFactory().createParser(inputStream)) {
+            expect(parser.nextToken(), JsonToken.START_OBJECT);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String collectionName = parser.currentName();
+                expect(parser.nextToken(), JsonToken.START_ARRAY);
+                List<CompletableFuture<SeedResult>> collectionBatches = batches.computeIfAbsent(collectionName, c -> new ArrayList<>());
+                List<Document> batch = new ArrayList<>(batchSize);
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    batch.add(Document.parse(MAPPER.readTree(parser).toString()));
+                    if (batch.size() == batchSize) {
+                        collectionBatches.add(submit(executor, collectionName, batch));
+                        batch = new ArrayList<>(batchSize);
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    collectionBatches.add(submit(executor, collectionName, batch));
+                }
+            }
+            return collect(batches);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private CompletableFuture<SeedResult> submit(ExecutorService executor, String collectionName, List<Document> batch) {
+        return CompletableFuture.supplyAsync(() -> write(collectionName, batch), executor);
+    }
+
+    /**
+     * Writes a batch in one unordered bulk write. Documents with an id are upserted, setting their fields only when
+     * inserted; documents without an id are inserted. Documents are written as parsed, without object mapping.
+     *
+     * @param collectionName collection
+     * @param batch          documents
+     * @return loaded and skipped documents
+     */
+    SeedResult write(String collectionName, List<Document> batch) {
+        List<WriteModel<Document>> writes = new ArrayList<>(batch.size());
+        int upserts = 0;
+        for (Document document : batch) {
+            Object documentId = document.get("_id");
+            if (documentId != null) {
+                writes.add(new UpdateOneModel<>(Filters.eq("_id", documentId), new Document("$setOnInsert", document), UPSERT));
+                upserts++;
+            } else {
+                writes.add(new InsertOneModel<>(document));
+            }
+        }
+        BulkWriteResult result = mongoTemplate.getCollection(collectionName).bulkWrite(writes, UNORDERED);
+        int loaded = result.getUpserts().size() + result.getInsertedCount();
+        return new SeedResult(loaded, upserts - result.getUpserts().size());
+    }
+
+    private Map<String, SeedResult> collect(Map<String, List<CompletableFuture<SeedResult>>> batches) throws IOException {
+        Map<String, SeedResult> results = new LinkedHashMap<>();
+        try {
+            batches.forEach((collectionName, collectionBatches) -> {
+                SeedResult total = collectionBatches.stream()
+                        .map(CompletableFuture::join)
+                        .reduce(new SeedResult(0, 0), SeedResult::plus);
+                results.put(collectionName, total);
+            });
+        } catch (CompletionException e) {
+            throw new IOException("Failed to write initial data", e.getCause());
+        }
+        return results;
+    }
+
+    private static void expect(JsonToken actual, JsonToken expected) throws IOException {
+        if (actual != expected) {
+            throw new IOException("Invalid initial data, expected " + expected + " but found " + actual);
+        }
+    }
+
+    /**
+     * @param loaded  documents written
+     * @param skipped documents already present
+     */
+    public record SeedResult(int loaded, int skipped) {
+
+        SeedResult plus(SeedResult other) {
+            return new SeedResult(loaded + other.loaded, skipped + other.skipped);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package it.eng.connector.configuration;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+
+import it.eng.connector.configuration.S3StartupProvisioner.State;
+
+/**
+ * Reports provisioning of the connector bucket, available under <code>/actuator/health/s3Provisioning</code> and in
+ * the readiness group.<br>
+ * Until the bucket is provisioned the status is <code>DEGRADED</code>: the connector serves requests, transfers
+ * using S3 fail until provisioning succeeds. The status is <code>DOWN</code> when provisioning was given up.
+ */
+@Component("s3Provisioning")
+public class S3ProvisioningHealthIndicator implements HealthIndicator {
+
+    public static final Status DEGRADED = new Status("DEGRADED", "S3 bucket not provisioned yet");
+
+    private final S3StartupProvisioner s3StartupProvisioner;
+
+    public S3ProvisioningHealthIndicator(S3StartupProvisioner s3StartupProvisioner) {
+        this.s3StartupProvisioner = s3StartupProvisioner;
+    }
+
+    @Override
+    public Health health() {
+        S3StartupProvisioner.Status status = s3StartupProvisioner.status();
+        Health.Builder builder = status.state() == State.READY ? Health.up()
+                : status.state() == State.FAILED ? Health.down() : Health.status(DEGRADED);
+        builder.withDetail("state", status.state())
+                .withDetail("attempts", status.attempts());
+        if (status.lastError() != null) {
+            builder.withDetail("lastError", status.lastError());
+        }
+        if (status.nextAttempt() != null) {
+            builder.withDetail("nextAttempt", status.nextAttempt().toString());
+        }
+        return builder.build();
+    }
+}
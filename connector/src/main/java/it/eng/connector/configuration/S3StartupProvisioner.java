@@ -0,0 +1,176 @@
+package it.eng.connector.configuration;
+
+import it.eng.connector.configuration.properties.S3ProvisioningProperties;
+import it.eng.tools.s3.model.S3ObjectInfo;
+import it.eng.tools.s3.properties.S3Properties;
+import it.eng.tools.s3.service.S3BucketProvisionService;
+import it.eng.tools.s3.service.S3ClientService;
+import it.eng.tools.s3.util.S3Utils;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Provisions the connector bucket and its credentials and uploads the sample artifact, in the background.<br>
+ * Startup does not wait for S3; failed attempts are retried with exponential backoff until provisioning succeeds.
+ * Progress is reported by {@link #status()}, published as the <code>s3Provisioning</code> health indicator.
+ */
+@Slf4j
+@Component
+public class S3StartupProvisioner {
+
+    /**
+     * Sample artifact, stored under the key referenced by Artifacts.value in initial_data.json (same as dataset.id).
+     */
+    static final String SAMPLE_FILE = "ENG-employee.json";
+    static final String SAMPLE_KEY = "urn:uuid:fdc45798-a222-4955-8baf-ab7fd66ac4d5";
+
+    public enum State {
+        PENDING, PROVISIONING, RETRYING, READY, FAILED
+    }
+
+    /**
+     * @param state       provisioning state
+     * @param attempts    attempts made
+     * @param lastError   error of the last failed attempt, null if none
+     * @param nextAttempt time of the next attempt while retrying, otherwise null
+     */
+    public record Status(State state, int attempts, String lastError, Instant nextAttempt) {
+    }
+
+    private final S3BucketProvisionService s3BucketProvisionService;
+    private final S3ClientService s3ClientService;
+    private final S3Properties s3Properties;
+    private final S3ProvisioningProperties properties;
+    private final ScheduledExecutorService executor;
+
+    private volatile Status status = new Status(State.PENDING, 0, null, null);
+
+    public S3StartupProvisioner(S3BucketProvisionService s3BucketProvisionService, S3ClientService s3ClientService,
+                                S3Properties s3Properties, S3ProvisioningProperties properties) {
+        this.s3BucketProvisionService = s3BucketProvisionService;
+        this.s3ClientService = s3ClientService;
+        this.s3Properties = s3Properties;
+        this.properties = properties;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "s3-provisioning");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts provisioning in the background; returns immediately. Calls after the first one are ignored.
+     */
+    public synchronized void start() {
+        if (status.state() != State.PENDING) {
+            return;
+        }
+        status = new Status(State.PROVISIONING, 0, null, null);
+        executor.execute(() -> attempt(1));
+    }
+
+    /**
+     * @return current provisioning status
+     */
+    public Status status() {
+        return status;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void attempt(int attempt) {
+        try {
+            String bucketName = s3Properties.getBucketName();
+            s3BucketProvisionService.ensureBucketCredentials(bucketName);
+            if (properties.isUploadSample()) {
+                uploadSample(bucketName);
+            }
+            status = new Status(State.READY, attempt, null, null);
+            log.info("S3 bucket {} provisioned after {} attempt(s)", bucketName, attempt);
+        } catch (Exception e) {
+            String error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            if (properties.getMaxAttempts() > 0 && attempt >= properties.getMaxAttempts()) {
+                status = new Status(State.FAILED, attempt, error, null);
+                log.error("S3 provisioning failed after {} attempts, giving up: {}", attempt, error);
+                return;
+            }
+            Duration delay = backoff(attempt);
+            status = new Status(State.RETRYING, attempt, error, Instant.now().plus(delay));
+            log.warn("S3 provisioning attempt {} failed, retrying in {} ms: {}", attempt, delay.toMillis(), error);
+            executor.schedule(() -> attempt(attempt + 1), delay.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Uploads the sample artifact, unless an object with the same content is already stored.
+     *
+     * @param bucketName bucket of the connector
+     * @throws Exception if the sample cannot be read, checked or uploaded
+     */
+    private void uploadSample(String bucketName) throws Exception {
+        Resource file = new ClassPathResource(SAMPLE_FILE);
+        if (!file.exists()) {
+            return;
+        }
+        byte[] content;
+        try (var inputStream = file.getInputStream()) {
+            content = inputStream.readAllBytes();
+        }
+        // uploaded in a single part, so the ETag is the MD5 of the content
+        String md5 = HexFormat.of().formatHex(MessageDigest.getInstance("MD5").digest(content));
+        Optional<S3ObjectInfo> stored = s3ClientService.getObjectInfo(bucketName, SAMPLE_KEY);
+        if (stored.isPresent() && md5.equalsIgnoreCase(stored.get().eTag())) {
+            log.info("Sample artifact {} already stored, upload skipped", SAMPLE_KEY);
+            return;
+        }
+        log.info("Uploading sample artifact to S3...");
+        Map<String, String> destinationS3Properties = Map.of(
+                S3Utils.OBJECT_KEY, SAMPLE_KEY,
+                S3Utils.BUCKET_NAME, bucketName,
+                S3Utils.ENDPOINT_OVERRIDE, s3Properties.getEndpoint(),
+                S3Utils.REGION, s3Properties.getRegion(),
+                S3Utils.ACCESS_KEY, s3Properties.getAccessKey(),
+                S3Utils.SECRET_KEY, s3Properties.getSecretKey()
+        );
+        String contentDisposition = ContentDisposition.attachment()
+                .filename(SAMPLE_FILE)
+                .build()
+                .toString();
+        s3ClientService.uploadFile(new ByteArrayInputStream(content), destinationS3Properties,
+                        MediaType.APPLICATION_JSON_VALUE, contentDisposition, content.length)
+                .get();
+    }
+
+    /**
+     * Delay before the next attempt: exponential, capped, with jitter so connectors started together do not retry
+     * at the same moment.
+     *
+     * @param attempt number of attempts made
+     * @return delay before the next attempt
+     */
+    Duration backoff(int attempt) {
+        double exponential = properties.getInitialBackoffMillis() * Math.pow(properties.getBackoffMultiplier(), attempt - 1);
+        double capped = Math.min(exponential, properties.getMaxBackoffMillis());
+        return Duration.ofMillis((long) (capped / 2 + ThreadLocalRandom.current().nextDouble() * capped / 2));
+    }
+}
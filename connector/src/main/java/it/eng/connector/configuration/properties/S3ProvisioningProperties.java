@@ -0,0 +1,40 @@
+package it.eng.connector.configuration.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+/**
+ * Configuration properties for provisioning of the connector bucket and upload of the sample artifact at startup.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "application.s3-provisioning")
+public class S3ProvisioningProperties {
+
+    /**
+     * Delay in milliseconds before the first retry.
+     */
+    private long initialBackoffMillis = 1000;
+
+    /**
+     * Factor the retry delay grows by after every failed attempt.
+     */
+    private double backoffMultiplier = 2.0;
+
+    /**
+     * Upper bound in milliseconds of the retry delay.
+     */
+    private long maxBackoffMillis = 60_000;
+
+    /**
+     * Attempts after which provisioning is given up, 0 to retry until it succeeds.
+     */
+    private int maxAttempts = 0;
+
+    /**
+     * Upload the sample artifact referenced by the initial data once the bucket is provisioned.
+     */
+    private boolean uploadSample = true;
+}
@@ -1,22 +1,42 @@
 package it.eng.connector.rest.api;
 
-import it.eng.connector.model.wellknown.VersionResponse;
 import it.eng.connector.service.DSpaceVersionService;
+import it.eng.connector.service.DSpaceVersionService.VersionDocument;
+import org.springframework.http.CacheControl;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.Duration;
+
 @RestController
 public class DSpaceVersionController {
 
+    /**
+     * How long clients may reuse the version response before revalidating it with its ETag.
+     */
+    static final Duration MAX_AGE = Duration.ofMinutes(5);
+
     private final DSpaceVersionService dSpaceVersionService;
 
     public DSpaceVersionController(DSpaceVersionService dSpaceVersionService) {
         this.dSpaceVersionService = dSpaceVersionService;
     }
 
+    /**
+     * Serves the precomputed version response. Requests with a matching If-None-Match header are answered with
+     * 304 Not Modified, without a body.
+     *
+     * @return version response as JSON, with ETag and Cache-Control headers
+     */
     @GetMapping(path = "/.well-known/dspace-version", produces = MediaType.APPLICATION_JSON_VALUE)
-    public VersionResponse getVersion() {
-        return dSpaceVersionService.getVersion();
+    public ResponseEntity<byte[]> getVersion() {
+        VersionDocument document = dSpaceVersionService.getVersionDocument();
+        return ResponseEntity.ok()
+                .eTag(document.eTag())
+                .cacheControl(CacheControl.maxAge(MAX_AGE).cachePublic())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(document.json());
     }
 }
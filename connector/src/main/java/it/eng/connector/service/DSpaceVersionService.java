@@ -1,14 +1,20 @@
 package it.eng.connector.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import it.eng.connector.model.wellknown.Auth;
 import it.eng.connector.model.wellknown.Version;
 import it.eng.connector.model.wellknown.VersionResponse;
+import it.eng.tools.event.applicationproperties.ApplicationPropertyChangeEvent;
 import it.eng.tools.model.ApplicationProperty;
 import it.eng.tools.service.ApplicationPropertiesService;
+import it.eng.tools.util.ToolsUtil;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -29,14 +35,58 @@ public class DSpaceVersionService {
     private static final String AUTH_PROTOCOL_VERSION = "application.dspace.version.auth.version";
     private static final String AUTH_PROTOCOL_PROFILE = "application.dspace.version.auth.profile";
 
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
     private final ApplicationPropertiesService applicationPropertiesService;
 
+    private volatile VersionDocument document;
+
     public DSpaceVersionService(ApplicationPropertiesService applicationPropertiesService) {
         this.applicationPropertiesService = applicationPropertiesService;
     }
 
     public VersionResponse getVersion() {
-        log.info("getVersion");
+        return getVersionDocument().response();
+    }
+
+    /**
+     * Version response, serialized once and reused until one of the dspace version properties changes.
+     *
+     * @return version response with its JSON bytes and ETag
+     */
+    public VersionDocument getVersionDocument() {
+        VersionDocument current = document;
+        return current != null ? current : refresh();
+    }
+
+    /**
+     * Rebuilds the version document when one of the dspace version properties is changed.
+     *
+     * @param event property change event
+     */
+    @EventListener
+    public void onApplicationPropertyChange(ApplicationPropertyChangeEvent event) {
+        if (event.getNewValue() != null && StringUtils.startsWith(event.getNewValue().getKey(), DSPACE_VERSION_PROPERTY_GROUP)) {
+            log.debug("Property '{}' changed, rebuilding dspace version response", event.getNewValue().getKey());
+            refresh();
+        }
+    }
+
+    private synchronized VersionDocument refresh() {
+        VersionResponse response = buildVersion();
+        byte[] json;
+        try {
+            json = MAPPER.writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize dspace version response", e);
+        }
+        VersionDocument refreshed = new VersionDocument(response, json, ToolsUtil.strongETag(json));
+        document = refreshed;
+        return refreshed;
+    }
+
+    private VersionResponse buildVersion() {
+        log.info("Building dspace version response");
         String path;
         String identifierType;
         String serviceId;
@@ -72,4 +122,14 @@ public class DSpaceVersionService {
                         .build()))
                 .build();
     }
+
+    /**
+     * Precomputed version response.
+     *
+     * @param response version response
+     * @param json     response serialized as JSON
+     * @param eTag     strong entity tag of the serialized response, quoted
+     */
+    public record VersionDocument(VersionResponse response, byte[] json, String eTag) {
+    }
 }
@@ -6,6 +6,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
+import java.util.Map;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -19,6 +20,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.context.SecurityContextHolderStrategy;
 
 import it.eng.tools.service.ApplicationPropertiesService;
+import it.eng.tools.service.ApplicationPropertiesSnapshot;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -54,7 +56,8 @@ class DataspaceProtocolEndpointsAuthenticationFilterTest {
 	@Test
 	void doFilter_authEnabled_protocol_endpoint() throws ServletException, IOException {
 		when(request.getRequestURI()).thenReturn(PROTOCOL_ENDPOINT);
-		when(applicationPropertiesService.get(PROTOCOL_AUTH_ENABLED)).thenReturn("true");
+		when(applicationPropertiesService.getSnapshot())
+				.thenReturn(ApplicationPropertiesSnapshot.of(Map.of(PROTOCOL_AUTH_ENABLED, "true")));
 		
 		filter.doFilter(request, response, filterChain);
 		
@@ -72,7 +75,8 @@ class DataspaceProtocolEndpointsAuthenticationFilterTest {
 	void doFilter_authsDisabled_protocol_endpoint() throws ServletException, IOException {
 		try (MockedStatic<SecurityContextHolder> mocked = mockStatic(SecurityContextHolder.class)) {
 			when(request.getRequestURI()).thenReturn(PROTOCOL_ENDPOINT);
-			when(applicationPropertiesService.get(PROTOCOL_AUTH_ENABLED)).thenReturn("false");
+			when(applicationPropertiesService.getSnapshot())
+				.thenReturn(ApplicationPropertiesSnapshot.of(Map.of(PROTOCOL_AUTH_ENABLED, "false")));
 
 			mocked.when(SecurityContextHolder::getContextHolderStrategy).thenReturn(securityContextHolderStrategy);
 			when(securityContextHolderStrategy.createEmptyContext()).thenReturn(securityContext);
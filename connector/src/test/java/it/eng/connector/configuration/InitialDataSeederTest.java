@@ -0,0 +1,157 @@
+package it.eng.connector.configuration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bson.BsonString;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import com.mongodb.bulk.BulkWriteInsert;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.WriteModel;
+
+import it.eng.connector.configuration.InitialDataSeeder.SeedResult;
+
+/**
+ * Seeds an in-memory collection standing in for MongoDB, counting bulk writes.
+ */
+@ExtendWith(MockitoExtension.class)
+class InitialDataSeederTest {
+
+	private static final String SEED = """
+			{
+			  "users": [
+			    {"_id": "user-1", "firstName": "Admin", "enabled": true},
+			    {"_id": "user-2", "firstName": "Connector", "enabled": true},
+			    {"_id": "user-3", "firstName": "Consumer", "enabled": false}
+			  ],
+			  "catalogs": [
+			    {"_id": "urn:uuid:1", "issued": {"$date": "2024-04-23T16:26:00.000Z"}},
+			    {"title": "no id"}
+			  ]
+			}
+			""";
+
+	@Mock
+	private MongoTemplate mongoTemplate;
+	@Mock
+	private MongoCollection<Document> collection;
+
+	private final Set<Object> storedIds = ConcurrentHashMap.newKeySet();
+	private final List<Document> inserted = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		lenient().when(mongoTemplate.getCollection(anyString())).thenReturn(collection);
+		lenient().when(collection.bulkWrite(anyList(), any(BulkWriteOptions.class))).thenAnswer(invocation -> {
+			List<WriteModel<Document>> writes = invocation.getArgument(0);
+			List<BulkWriteUpsert> upserts = new ArrayList<>();
+			int inserts = 0;
+			for (int i = 0; i < writes.size(); i++) {
+				if (writes.get(i) instanceof UpdateOneModel<Document> upsert) {
+					Document document = (Document) ((Document) upsert.getUpdate()).get("$setOnInsert");
+					if (storedIds.add(document.get("_id"))) {
+						upserts.add(new BulkWriteUpsert(i, new BsonString(document.get("_id").toString())));
+						store(document);
+					}
+				} else {
+					store(((InsertOneModel<Document>) writes.get(i)).getDocument());
+					inserts++;
+				}
+			}
+			return BulkWriteResult.acknowledged(inserts, writes.size() - upserts.size() - inserts, 0, 0, upserts,
+					List.<BulkWriteInsert>of());
+		});
+	}
+
+	@Test
+	@DisplayName("Collections are written with one bulk write each")
+	void seed_oneBulkWritePerCollection() throws IOException {
+		Map<String, SeedResult> results = new InitialDataSeeder(mongoTemplate).seed(stream(SEED));
+
+		assertEquals(List.of("users", "catalogs"), List.copyOf(results.keySet()));
+		assertEquals(new SeedResult(3, 0), results.get("users"));
+		assertEquals(new SeedResult(2, 0), results.get("catalogs"));
+		verify(collection, times(2)).bulkWrite(anyList(), any(BulkWriteOptions.class));
+		assertEquals(5, inserted.size());
+		assertTrue(inserted.stream().anyMatch(document -> document.get("issued") instanceof java.util.Date));
+	}
+
+	@Test
+	@DisplayName("Loading again skips documents already present")
+	void seed_idempotent() throws IOException {
+		InitialDataSeeder seeder = new InitialDataSeeder(mongoTemplate);
+		seeder.seed(stream(SEED));
+
+		Map<String, SeedResult> results = seeder.seed(stream(SEED));
+
+		assertEquals(new SeedResult(0, 3), results.get("users"));
+		// document without id is inserted again, as before
+		assertEquals(new SeedResult(1, 1), results.get("catalogs"));
+	}
+
+	@Test
+	@DisplayName("Large collections are split in batches")
+	void seed_batches() throws IOException {
+		Map<String, SeedResult> results = new InitialDataSeeder(mongoTemplate, 2, 2).seed(stream(SEED));
+
+		assertEquals(new SeedResult(3, 0), results.get("users"));
+		verify(collection, times(3)).bulkWrite(anyList(), any(BulkWriteOptions.class));
+	}
+
+	@Test
+	@DisplayName("Initial data files shipped with the connector are loaded")
+	void seed_initialDataFiles() throws IOException {
+		for (String file : List.of("initial_data.json", "initial_data-provider.json", "initial_data-consumer.json", "initial_data-tck.json")) {
+			try (InputStream inputStream = new ClassPathResource(file).getInputStream()) {
+				Map<String, SeedResult> results = new InitialDataSeeder(mongoTemplate).seed(inputStream);
+				assertTrue(results.containsKey("users"), file);
+			}
+		}
+	}
+
+	@Test
+	@DisplayName("File not holding arrays of documents is rejected")
+	void seed_invalid() {
+		assertThrows(IOException.class, () -> new InitialDataSeeder(mongoTemplate).seed(stream("{\"users\": {}}")));
+		assertThrows(IOException.class, () -> new InitialDataSeeder(mongoTemplate).seed(stream("[]")));
+	}
+
+	private synchronized void store(Document document) {
+		inserted.add(document);
+	}
+
+	private static InputStream stream(String json) {
+		return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,198 @@
+package it.eng.connector.configuration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.core.io.ClassPathResource;
+
+import it.eng.connector.configuration.S3StartupProvisioner.State;
+import it.eng.connector.configuration.properties.S3ProvisioningProperties;
+import it.eng.tools.s3.model.S3ObjectInfo;
+import it.eng.tools.s3.properties.S3Properties;
+import it.eng.tools.s3.service.S3BucketProvisionService;
+import it.eng.tools.s3.service.S3ClientService;
+
+/**
+ * Provisions against a stubbed S3 which is slow, down, then recovers.
+ */
+@ExtendWith(MockitoExtension.class)
+class S3StartupProvisionerTest {
+
+    private static final String BUCKET = "dsp-true-connector-test";
+
+    @Mock
+    private S3BucketProvisionService s3BucketProvisionService;
+    @Mock
+    private S3ClientService s3ClientService;
+
+    private S3ProvisioningProperties properties;
+    private S3StartupProvisioner provisioner;
+    private S3ProvisioningHealthIndicator healthIndicator;
+
+    @BeforeEach
+    void setUp() {
+        S3Properties s3Properties = new S3Properties();
+        s3Properties.setBucketName(BUCKET);
+        s3Properties.setEndpoint("http://localhost:9000");
+        s3Properties.setRegion("us-east-1");
+        s3Properties.setAccessKey("minioadmin");
+        s3Properties.setSecretKey("minioadmin");
+        properties = new S3ProvisioningProperties();
+        properties.setInitialBackoffMillis(20);
+        properties.setMaxBackoffMillis(100);
+        provisioner = new S3StartupProvisioner(s3BucketProvisionService, s3ClientService, s3Properties, properties);
+        healthIndicator = new S3ProvisioningHealthIndicator(provisioner);
+        lenient().when(s3ClientService.uploadFile(any(), anyMap(), anyString(), anyString(), anyLong()))
+                .thenReturn(CompletableFuture.completedFuture("etag"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        provisioner.shutdown();
+    }
+
+    @Test
+    @DisplayName("Slow S3 does not block startup, status is degraded until provisioned")
+    void slowS3_startReturnsImmediately() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(s3BucketProvisionService.ensureBucketCredentials(BUCKET)).thenAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            return null;
+        });
+        when(s3ClientService.getObjectInfo(BUCKET, S3StartupProvisioner.SAMPLE_KEY)).thenReturn(Optional.empty());
+
+        long start = System.nanoTime();
+        provisioner.start();
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 100);
+        assertEquals(State.PROVISIONING, provisioner.status().state());
+        assertEquals(S3ProvisioningHealthIndicator.DEGRADED, healthIndicator.health().getStatus());
+
+        release.countDown();
+        waitFor(() -> provisioner.status().state() == State.READY);
+        assertEquals(Status.UP, healthIndicator.health().getStatus());
+        verify(s3ClientService).uploadFile(any(), anyMap(), eq("application/json"), anyString(), anyLong());
+    }
+
+    @Test
+    @DisplayName("S3 down is retried with backoff until it recovers")
+    void s3Down_retriedUntilRecovered() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        when(s3BucketProvisionService.ensureBucketCredentials(BUCKET)).thenAnswer(invocation -> {
+            if (calls.incrementAndGet() <= 3) {
+                throw new IllegalStateException("Connection refused");
+            }
+            return null;
+        });
+        when(s3ClientService.getObjectInfo(BUCKET, S3StartupProvisioner.SAMPLE_KEY)).thenReturn(Optional.empty());
+
+        provisioner.start();
+
+        waitFor(() -> provisioner.status().state() == State.RETRYING);
+        Health degraded = healthIndicator.health();
+        assertEquals(S3ProvisioningHealthIndicator.DEGRADED, degraded.getStatus());
+        assertEquals("Connection refused", degraded.getDetails().get("lastError"));
+        assertNotNull(degraded.getDetails().get("nextAttempt"));
+
+        waitFor(() -> provisioner.status().state() == State.READY);
+        assertEquals(4, provisioner.status().attempts());
+        assertEquals(Status.UP, healthIndicator.health().getStatus());
+        verify(s3ClientService, times(1)).uploadFile(any(), anyMap(), anyString(), anyString(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Provisioning is given up after the maximum number of attempts")
+    void s3Down_maxAttempts() throws Exception {
+        properties.setMaxAttempts(2);
+        when(s3BucketProvisionService.ensureBucketCredentials(BUCKET)).thenThrow(new IllegalStateException("Connection refused"));
+
+        provisioner.start();
+
+        waitFor(() -> provisioner.status().state() == State.FAILED);
+        assertEquals(2, provisioner.status().attempts());
+        assertEquals(Status.DOWN, healthIndicator.health().getStatus());
+        verify(s3BucketProvisionService, times(2)).ensureBucketCredentials(BUCKET);
+    }
+
+    @Test
+    @DisplayName("Sample upload is skipped when the stored object has the same ETag")
+    void sampleUnchanged_uploadSkipped() throws Exception {
+        byte[] content = new ClassPathResource(S3StartupProvisioner.SAMPLE_FILE).getContentAsByteArray();
+        String md5 = HexFormat.of().formatHex(MessageDigest.getInstance("MD5").digest(content));
+        when(s3ClientService.getObjectInfo(BUCKET, S3StartupProvisioner.SAMPLE_KEY)).thenReturn(Optional.of(
+                new S3ObjectInfo(S3StartupProvisioner.SAMPLE_KEY, content.length, Instant.now(), "application/json", null, md5)));
+
+        provisioner.start();
+
+        waitFor(() -> provisioner.status().state() == State.READY);
+        verify(s3ClientService, never()).uploadFile(any(), anyMap(), anyString(), anyString(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Sample is uploaded again when the stored object differs")
+    void sampleChanged_uploaded() throws Exception {
+        when(s3ClientService.getObjectInfo(BUCKET, S3StartupProvisioner.SAMPLE_KEY)).thenReturn(Optional.of(
+                new S3ObjectInfo(S3StartupProvisioner.SAMPLE_KEY, 1, Instant.now(), "application/json", null, "other-1")));
+
+        provisioner.start();
+
+        waitFor(() -> provisioner.status().state() == State.READY);
+        verify(s3ClientService).uploadFile(any(), anyMap(), anyString(), anyString(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Backoff grows exponentially up to the maximum, with jitter")
+    void backoff() {
+        properties.setInitialBackoffMillis(1000);
+        properties.setMaxBackoffMillis(10_000);
+
+        for (int i = 0; i < 100; i++) {
+            assertBetween(500, 1000, provisioner.backoff(1));
+            assertBetween(2000, 4000, provisioner.backoff(3));
+            assertBetween(5000, 10_000, provisioner.backoff(20));
+        }
+    }
+
+    private void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+
+    private static void assertBetween(long min, long max, Duration duration) {
+        assertTrue(duration.toMillis() >= min && duration.toMillis() <= max, duration.toMillis() + " ms");
+    }
+}
@@ -0,0 +1,90 @@
+package it.eng.connector.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+
+import it.eng.connector.configuration.InitialDataSeeder;
+import it.eng.connector.configuration.InitialDataSeeder.SeedResult;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Measures loading of a large seed file into a MongoDB container; docker must be running.
+ */
+@Slf4j
+class InitialDataSeederIT {
+
+    private static final int DOCUMENTS = 50_000;
+    private static final String[] COLLECTIONS = {"catalogs", "datasets", "artifacts", "contract_negotiations"};
+
+    private static final MongoDBContainer mongoDBContainer = new MongoDBContainer(DockerImageName.parse("mongo:7.0.12"));
+
+    private static MongoClient mongoClient;
+    private static MongoTemplate mongoTemplate;
+    private static byte[] seed;
+
+    @BeforeAll
+    static void setUp() {
+        mongoDBContainer.start();
+        mongoClient = MongoClients.create(mongoDBContainer.getReplicaSetUrl());
+        mongoTemplate = new MongoTemplate(mongoClient, "seed");
+        seed = seed();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        mongoClient.close();
+        mongoDBContainer.stop();
+    }
+
+    @Test
+    @DisplayName("50k documents are loaded once, loading again skips all of them")
+    void seed_50kDocuments() throws IOException {
+        InitialDataSeeder seeder = new InitialDataSeeder(mongoTemplate);
+
+        long start = System.currentTimeMillis();
+        Map<String, SeedResult> first = seeder.seed(new ByteArrayInputStream(seed));
+        long firstMillis = System.currentTimeMillis() - start;
+
+        start = System.currentTimeMillis();
+        Map<String, SeedResult> second = seeder.seed(new ByteArrayInputStream(seed));
+        long secondMillis = System.currentTimeMillis() - start;
+
+        log.info("{} documents loaded in {} ms, skipped on restart in {} ms", DOCUMENTS, firstMillis, secondMillis);
+        int perCollection = DOCUMENTS / COLLECTIONS.length;
+        for (String collection : COLLECTIONS) {
+            assertEquals(new SeedResult(perCollection, 0), first.get(collection));
+            assertEquals(new SeedResult(0, perCollection), second.get(collection));
+            assertEquals(perCollection, mongoTemplate.getCollection(collection).countDocuments());
+        }
+    }
+
+    private static byte[] seed() {
+        StringBuilder json = new StringBuilder("{");
+        for (int c = 0; c < COLLECTIONS.length; c++) {
+            json.append(c > 0 ? "," : "").append('"').append(COLLECTIONS[c]).append("\":[");
+            for (int i = 0; i < DOCUMENTS / COLLECTIONS.length; i++) {
+                json.append(i > 0 ? "," : "")
+                        .append("{\"_id\":\"urn:uuid:").append(COLLECTIONS[c]).append('-').append(i)
+                        .append("\",\"title\":\"Document ").append(i)
+                        .append("\",\"keyword\":[\"seed\",\"test\"],\"issued\":{\"$date\":\"2024-04-23T16:26:00.000Z\"}}");
+            }
+            json.append(']');
+        }
+        return json.append('}').toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
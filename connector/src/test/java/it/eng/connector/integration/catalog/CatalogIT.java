@@ -1,5 +1,6 @@
 package it.eng.connector.integration.catalog;
 
+import com.mongodb.DBRef;
 import it.eng.catalog.model.Catalog;
 import it.eng.catalog.model.CatalogError;
 import it.eng.catalog.model.Dataset;
@@ -9,14 +10,19 @@ import it.eng.catalog.repository.DataServiceRepository;
 import it.eng.catalog.repository.DatasetRepository;
 import it.eng.catalog.repository.DistributionRepository;
 import it.eng.catalog.serializer.CatalogSerializer;
+import it.eng.catalog.service.CatalogService;
 import it.eng.catalog.util.CatalogMockObjectUtil;
 import it.eng.connector.integration.BaseIntegrationTest;
+import it.eng.connector.util.MongoCommandCounter;
 import it.eng.connector.util.TestUtil;
 import it.eng.tools.repository.ArtifactRepository;
 import it.eng.tools.s3.properties.S3Properties;
 import it.eng.tools.s3.service.S3ClientService;
+import org.bson.Document;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.http.ContentDisposition;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
@@ -27,6 +33,13 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -54,6 +67,15 @@ public class CatalogIT extends BaseIntegrationTest {
     @Autowired
     private S3ClientService s3ClientService;
 
+    @Autowired
+    private CatalogService catalogService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MongoCommandCounter mongoCommandCounter;
+
     @Autowired
     private S3Properties s3Properties;
 
@@ -65,7 +87,7 @@ public class CatalogIT extends BaseIntegrationTest {
         catalog = CatalogMockObjectUtil.createNewCatalog();
         dataset = catalog.getDataset().stream().findFirst().orElse(null);
 
-        catalogRepository.save(catalog);
+        catalog = catalogRepository.save(catalog);
         datasetRepository.saveAll(catalog.getDataset());
         dataServiceRepository.saveAll(catalog.getService());
         distributionRepository.saveAll(catalog.getDistribution());
@@ -428,6 +450,69 @@ public class CatalogIT extends BaseIntegrationTest {
                 .orElse(null));
     }
 
+    @Test
+    @DisplayName("Concurrent dataset creation - no dataset reference is lost")
+    public void concurrentDatasetReferencesTest() throws Exception {
+        int datasets = 1000;
+        List<Dataset> newDatasets = IntStream.range(0, datasets)
+                .mapToObj(i -> CatalogMockObjectUtil.createNewDataset())
+                .toList();
+
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<?>> results = newDatasets.stream()
+                    .map(ds -> executor.submit(() -> catalogService.updateCatalogDatasetAfterSave(ds)))
+                    .collect(Collectors.toList());
+            for (Future<?> result : results) {
+                result.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // read raw document, references are not resolved
+        Document storedCatalog = mongoTemplate.findOne(new Query(), Document.class, "catalogs");
+        assertNotNull(storedCatalog);
+        Set<Object> referencedIds = storedCatalog.getList("dataset", DBRef.class).stream()
+                .map(DBRef::getId)
+                .collect(Collectors.toSet());
+        assertEquals(catalog.getDataset().size() + datasets, referencedIds.size());
+        assertTrue(referencedIds.containsAll(newDatasets.stream().map(Dataset::getId).toList()));
+        assertEquals(catalog.getVersion() + datasets, storedCatalog.getLong("version").longValue());
+    }
+
+    @Test
+    @DisplayName("Load catalog with references - number of queries does not depend on catalog size")
+    public void findAllWithReferencesQueryCountTest() {
+        int datasets = 200;
+        for (int i = 0; i < datasets; i++) {
+            Dataset newDataset = CatalogMockObjectUtil.createNewDataset();
+            newDataset.getDistribution().forEach(d -> dataServiceRepository.save(d.getAccessService()));
+            distributionRepository.saveAll(newDataset.getDistribution());
+            artifactRepository.save(newDataset.getArtifact());
+            datasetRepository.save(newDataset);
+            catalogService.updateCatalogDatasetAfterSave(newDataset);
+        }
+
+        mongoCommandCounter.reset();
+        List<Catalog> catalogs = catalogRepository.findAllWithReferences();
+
+        assertEquals(1, catalogs.size());
+        Catalog loaded = catalogs.get(0);
+        assertEquals(datasets + 1, loaded.getDataset().size());
+        loaded.getDataset().forEach(ds -> {
+            assertNotNull(ds.getArtifact());
+            assertFalse(ds.getDistribution().isEmpty());
+            ds.getDistribution().forEach(d -> assertNotNull(d.getAccessService()));
+        });
+        // catalog, datasets, artifacts, distributions and data services referenced from two levels
+        assertEquals(1, mongoCommandCounter.count("find", "catalogs"));
+        assertEquals(1, mongoCommandCounter.count("find", "datasets"));
+        assertEquals(1, mongoCommandCounter.count("find", "artifacts"));
+        assertTrue(mongoCommandCounter.count("find", "distributions") <= 2);
+        assertTrue(mongoCommandCounter.count("find", "dataservices") <= 2);
+    }
+
     private void uploadFile() throws Exception {
         String fileContent = "Hello, World!";
 
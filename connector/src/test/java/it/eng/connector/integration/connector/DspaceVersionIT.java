@@ -1,7 +1,7 @@
 package it.eng.connector.integration.connector;
 
 import it.eng.connector.integration.BaseIntegrationTest;
-import it.eng.connector.rest.api.DSpaceVersionController;
+import it.eng.connector.service.DSpaceVersionService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,12 +12,12 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 public class DspaceVersionIT extends BaseIntegrationTest {
 
     @Autowired
-    private DSpaceVersionController versionController;
+    private DSpaceVersionService versionService;
 
     @Test
     @DisplayName("Verify version response is correct")
     public void verifyVersionsResponse() {
-        var response = versionController.getVersion();
+        var response = versionService.getVersion();
         assert response != null;
         assert response.getProtocolVersions() != null;
         assert !response.getProtocolVersions().isEmpty();
@@ -47,4 +47,18 @@ public class DspaceVersionIT extends BaseIntegrationTest {
             assert false : "MockMvc request failed";
         }
     }
+
+    @Test
+    @DisplayName("Verify conditional request with current ETag is not modified")
+    public void verifyConditionalRequest() throws Exception {
+        String eTag = mockMvc.perform(get("/.well-known/dspace-version"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(header().string("Cache-Control", "max-age=300, public"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/.well-known/dspace-version").header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+    }
 }
@@ -35,7 +35,6 @@ import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -154,9 +153,7 @@ public class DataTransferAPIViewDataIT extends BaseIntegrationTest {
         assertEquals(transferProcessCompleted.getCallbackAddress(), transferProcessFromDb.getCallbackAddress());
         assertEquals(transferProcessCompleted.getState(), transferProcessFromDb.getState());
 
-        // check if the PolicyEnforcement count is increased
-        // waiting for 1 second to give time to the publisher to increase the policy access count
-        TimeUnit.SECONDS.sleep(1);
+        // check if the PolicyEnforcement count is increased, access is consumed when the policy is enforced
         PolicyEnforcement enforcementFromDb = policyEnforcementRepository.findByAgreementId(agreement.getId()).get();
         // increase count from initial 0 to 1
         assertEquals(1, enforcementFromDb.getCount());
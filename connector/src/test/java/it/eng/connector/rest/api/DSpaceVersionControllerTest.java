@@ -0,0 +1,73 @@
+package it.eng.connector.rest.api;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import it.eng.connector.model.wellknown.VersionResponse;
+import it.eng.connector.service.DSpaceVersionService;
+import it.eng.connector.service.DSpaceVersionService.VersionDocument;
+
+@ExtendWith(MockitoExtension.class)
+class DSpaceVersionControllerTest {
+
+	private static final String JSON = "{\"protocolVersions\":[]}";
+	private static final String ETAG = "\"0123456789abcdef\"";
+
+	@Mock
+	private DSpaceVersionService dSpaceVersionService;
+
+	@InjectMocks
+	private DSpaceVersionController controller;
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() {
+		mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+		when(dSpaceVersionService.getVersionDocument()).thenReturn(new VersionDocument(
+				VersionResponse.Builder.newInstance().build(), JSON.getBytes(StandardCharsets.UTF_8), ETAG));
+	}
+
+	@Test
+	@DisplayName("Version response is served with ETag and Cache-Control")
+	void getVersion() throws Exception {
+		mockMvc.perform(get("/.well-known/dspace-version"))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType("application/json"))
+				.andExpect(content().string(JSON))
+				.andExpect(header().string("ETag", ETAG))
+				.andExpect(header().string("Cache-Control", "max-age=300, public"));
+	}
+
+	@Test
+	@DisplayName("Conditional request with current ETag is not modified")
+	void getVersion_notModified() throws Exception {
+		mockMvc.perform(get("/.well-known/dspace-version").header("If-None-Match", ETAG))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string("ETag", ETAG))
+				.andExpect(content().bytes(new byte[0]));
+	}
+
+	@Test
+	@DisplayName("Conditional request with outdated ETag gets the current response")
+	void getVersion_modified() throws Exception {
+		mockMvc.perform(get("/.well-known/dspace-version").header("If-None-Match", "\"outdated\""))
+				.andExpect(status().isOk())
+				.andExpect(content().string(JSON));
+	}
+}
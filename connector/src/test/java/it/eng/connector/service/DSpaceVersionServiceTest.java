@@ -1,20 +1,32 @@
 package it.eng.connector.service;
 
 import it.eng.connector.model.wellknown.VersionResponse;
+import it.eng.connector.service.DSpaceVersionService.VersionDocument;
+import it.eng.tools.event.applicationproperties.ApplicationPropertyChangeEvent;
 import it.eng.tools.model.ApplicationProperty;
 import it.eng.tools.service.ApplicationPropertiesService;
+import it.eng.tools.util.ToolsUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+@Slf4j
 @ExtendWith(MockitoExtension.class)
 public class DSpaceVersionServiceTest {
 
@@ -39,6 +51,59 @@ public class DSpaceVersionServiceTest {
         assertTrue(response.getProtocolVersions().get(0).getAuth().getProfile().contains("Bearer"));
     }
 
+    @Test
+    @DisplayName("Version document is serialized once and served without reading properties again")
+    public void getVersionDocument_steadyState() throws Exception {
+        when(applicationPropertiesService.getProperties(DSpaceVersionService.DSPACE_VERSION_PROPERTY_GROUP))
+                .thenReturn(getApplicationProperties());
+
+        VersionDocument first = dSpaceVersionService.getVersionDocument();
+        long start = System.nanoTime();
+        for (int i = 0; i < 100_000; i++) {
+            assertSame(first, dSpaceVersionService.getVersionDocument());
+        }
+        log.info("100000 version documents served in {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+        verify(applicationPropertiesService, times(1)).getProperties(DSpaceVersionService.DSPACE_VERSION_PROPERTY_GROUP);
+        assertEquals("/api/version", new ObjectMapper().readTree(first.json()).get("protocolVersions").get(0).get("path").asText());
+        assertEquals(ToolsUtil.strongETag(first.json()), first.eTag());
+    }
+
+    @Test
+    @DisplayName("Change of a dspace version property rebuilds the version document")
+    public void onApplicationPropertyChange_versionProperty() {
+        List<ApplicationProperty> properties = new ArrayList<>(getApplicationProperties());
+        when(applicationPropertiesService.getProperties(DSpaceVersionService.DSPACE_VERSION_PROPERTY_GROUP))
+                .thenReturn(properties);
+        VersionDocument before = dSpaceVersionService.getVersionDocument();
+
+        ApplicationProperty changed = ApplicationProperty.Builder.newInstance()
+                .key("application.dspace.version.path")
+                .value("/api/v2")
+                .build();
+        properties.set(0, changed);
+        dSpaceVersionService.onApplicationPropertyChange(new ApplicationPropertyChangeEvent(getApplicationProperties().get(0), changed, null));
+
+        VersionDocument after = dSpaceVersionService.getVersionDocument();
+        assertEquals("/api/v2", after.response().getProtocolVersions().get(0).getPath());
+        assertNotEquals(before.eTag(), after.eTag());
+        assertSame(after, dSpaceVersionService.getVersionDocument());
+        verify(applicationPropertiesService, times(2)).getProperties(DSpaceVersionService.DSPACE_VERSION_PROPERTY_GROUP);
+    }
+
+    @Test
+    @DisplayName("Change of another property keeps the version document")
+    public void onApplicationPropertyChange_otherProperty() {
+        ApplicationProperty changed = ApplicationProperty.Builder.newInstance()
+                .key("application.automatic.negotiation")
+                .value("true")
+                .build();
+
+        dSpaceVersionService.onApplicationPropertyChange(new ApplicationPropertyChangeEvent(null, changed, null));
+
+        verifyNoInteractions(applicationPropertiesService);
+    }
+
     private List<ApplicationProperty> getApplicationProperties() {
         return Arrays.asList(
                 ApplicationProperty.Builder.newInstance()
@@ -0,0 +1,53 @@
+package it.eng.connector.util;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts MongoDB commands sent by the application, per command and collection.<br>
+ * Used by integration tests to assert the number of database round trips.
+ */
+@Component
+public class MongoCommandCounter implements CommandListener, MongoClientSettingsBuilderCustomizer {
+
+    private final Map<String, AtomicInteger> counts = new ConcurrentHashMap<>();
+
+    @Override
+    public void customize(MongoClientSettings.Builder clientSettingsBuilder) {
+        clientSettingsBuilder.addCommandListener(this);
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        Object collection = event.getCommand().get(event.getCommandName());
+        counts.computeIfAbsent(key(event.getCommandName(), String.valueOf(collection)), k -> new AtomicInteger())
+                .incrementAndGet();
+    }
+
+    /**
+     * Number of commands sent since the last reset.
+     *
+     * @param commandName command name, e.g. find
+     * @param collection  collection name
+     * @return number of commands
+     */
+    public int count(String commandName, String collection) {
+        AtomicInteger count = counts.get(key(commandName, collection));
+        return count != null ? count.get() : 0;
+    }
+
+    public void reset() {
+        counts.clear();
+    }
+
+    private String key(String commandName, String collection) {
+        return commandName + ":" + collection;
+    }
+}
@@ -5,6 +5,8 @@ import it.eng.datatransfer.repository.TransferProcessRepository;
 import it.eng.datatransfer.repository.TransferRequestMessageRepository;
 import it.eng.tools.event.datatransfer.InitializeTransferProcess;
 import it.eng.tools.model.IConstants;
+import it.eng.tools.notification.StateChangeNotification;
+import it.eng.tools.notification.StateChangeNotificationService;
 import it.eng.tools.service.AuditEventPublisher;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.EventListener;
@@ -20,12 +22,15 @@ public class DataTransferEventListener {
     private final AuditEventPublisher publisher;
     private final TransferRequestMessageRepository transferRequestMessageRepository;
     private final TransferProcessRepository transferProcessRepository;
+    private final StateChangeNotificationService notificationService;
 
-    public DataTransferEventListener(AuditEventPublisher publisher, TransferRequestMessageRepository transferRequestMessageRepository, TransferProcessRepository transferProcessRepository) {
+    public DataTransferEventListener(AuditEventPublisher publisher, TransferRequestMessageRepository transferRequestMessageRepository,
+                                     TransferProcessRepository transferProcessRepository, StateChangeNotificationService notificationService) {
         super();
         this.publisher = publisher;
         this.transferRequestMessageRepository = transferRequestMessageRepository;
         this.transferProcessRepository = transferProcessRepository;
+        this.notificationService = notificationService;
     }
 
     @EventListener
@@ -55,6 +60,16 @@ public class DataTransferEventListener {
         log.info("Transferring process {} from state '{}' to '{}'",
                 transferProcessEvent.getOldTransferProcess().getId(), transferProcessEvent.getOldTransferProcess().getState(),
                 transferProcessEvent.getNewTransferProcess().getState());
+        TransferProcess newTransferProcess = transferProcessEvent.getNewTransferProcess();
+        notificationService.publish(StateChangeNotification.Builder.newInstance()
+                .resourceType(StateChangeNotification.TRANSFER_PROCESS)
+                .resourceId(newTransferProcess.getId())
+                .consumerPid(newTransferProcess.getConsumerPid())
+                .providerPid(newTransferProcess.getProviderPid())
+                .role(newTransferProcess.getRole())
+                .oldState(transferProcessEvent.getOldTransferProcess().getState().name())
+                .newState(newTransferProcess.getState().name())
+                .build());
     }
 
     @EventListener
@@ -1,7 +1,13 @@
 package it.eng.datatransfer.filter;
 
+import it.eng.datatransfer.exceptions.DownloadException;
+import it.eng.datatransfer.exceptions.TransferProcessNotFoundException;
+import it.eng.datatransfer.model.TransferProcess;
 import it.eng.datatransfer.service.AgreementService;
+import it.eng.datatransfer.service.TransferAccessCache;
 import it.eng.datatransfer.service.TransferProcessStrategy;
+import it.eng.datatransfer.service.api.ArtifactTransferService;
+import it.eng.tools.model.Artifact;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -15,17 +21,36 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 
+/**
+ * Lets an artifact request through only if its transfer process is STARTED and the agreement is valid.<br>
+ * The transfer process and the artifact resolved here are passed on as request attributes, so the download does not
+ * look them up again.
+ */
 @Order(1)
 @Slf4j
 public class EndpointAvailableFilter extends OncePerRequestFilter {
 
+    /**
+     * Request attribute holding the STARTED {@link TransferProcess} of the artifact request.
+     */
+    public static final String TRANSFER_PROCESS_ATTRIBUTE = "it.eng.datatransfer.filter.EndpointAvailableFilter.transferProcess";
+    /**
+     * Request attribute holding the {@link Artifact} of the artifact request.
+     */
+    public static final String ARTIFACT_ATTRIBUTE = "it.eng.datatransfer.filter.EndpointAvailableFilter.artifact";
+
     private final AgreementService agreementService;
     private final TransferProcessStrategy dataTransferService;
+    private final TransferAccessCache transferAccessCache;
+    private final ArtifactTransferService artifactTransferService;
 
-    public EndpointAvailableFilter(AgreementService agreementService, TransferProcessStrategy dataTransferService) {
+    public EndpointAvailableFilter(AgreementService agreementService, TransferProcessStrategy dataTransferService,
+                                   TransferAccessCache transferAccessCache, ArtifactTransferService artifactTransferService) {
         super();
         this.agreementService = agreementService;
         this.dataTransferService = dataTransferService;
+        this.transferAccessCache = transferAccessCache;
+        this.artifactTransferService = artifactTransferService;
     }
 
     @Override
@@ -36,10 +61,16 @@ public class EndpointAvailableFilter extends OncePerRequestFilter {
 
         String[] urlTokens = request.getRequestURI().split("/");
         String[] tokens = new String(Base64.decodeBase64URLSafe(urlTokens[2]), StandardCharsets.UTF_8).split("\\|");
+        if (tokens.length != 2) {
+            log.error("Wrong transaction id");
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Wrong transaction id");
+            return;
+        }
         String consumerPid = tokens[0];
         String providerPid = tokens[1];
-        boolean isAvailable = dataTransferService.isDataTransferStarted(consumerPid, providerPid)
-                && agreementService.isAgreementValid(consumerPid, providerPid);
+        TransferProcess transferProcess = transferAccessCache.startedTransfer(consumerPid, providerPid,
+                () -> findTransferProcess(consumerPid, providerPid));
+        boolean isAvailable = transferProcess != null && agreementService.isAgreementValid(transferProcess);
 
         if (!isAvailable) {
             log.info("Precondition not met - transfer process not started or agreement not valid!");
@@ -47,10 +78,27 @@ public class EndpointAvailableFilter extends OncePerRequestFilter {
                     "Precondition not met - transfer process not started or agreement not valid");
             return;
         }
+        Artifact artifact;
+        try {
+            artifact = artifactTransferService.findArtifact(transferProcess);
+        } catch (DownloadException e) {
+            response.sendError(e.getHttpStatus().value(), e.getMessage());
+            return;
+        }
+        request.setAttribute(TRANSFER_PROCESS_ATTRIBUTE, transferProcess);
+        request.setAttribute(ARTIFACT_ATTRIBUTE, artifact);
         filterChain.doFilter(request, response);
 
     }
 
+    private TransferProcess findTransferProcess(String consumerPid, String providerPid) {
+        try {
+            return dataTransferService.findTransferProcess(consumerPid, providerPid);
+        } catch (TransferProcessNotFoundException e) {
+            return null;
+        }
+    }
+
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) throws ServletException {
         log.debug("Should filter this {}", request.getRequestURI());
@@ -1,24 +1,48 @@
 package it.eng.datatransfer.ftp.client;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.sshd.client.SshClient;
 import org.apache.sshd.client.keyverifier.RequiredServerKeyVerifier;
 import org.apache.sshd.client.session.ClientSession;
 import org.apache.sshd.common.keyprovider.KeyIdentityProvider;
-import org.apache.sshd.scp.client.DefaultScpClientCreator;
-import org.apache.sshd.scp.client.ScpClient;
+import org.apache.sshd.core.CoreModuleProperties;
+import org.apache.sshd.sftp.client.SftpClient;
+import org.apache.sshd.sftp.client.SftpClientFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 
 import it.eng.datatransfer.ftp.configuration.FTPConfiguration;
 import it.eng.tools.configuration.GlobalSSLConfiguration;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Downloads artifacts over SFTP.<br>
+ * One SSH client is kept for the lifetime of the application and authenticated sessions are pooled per host, port and
+ * user, so key exchange and authentication are done once per peer instead of once per artifact. Every concurrent
+ * download uses its own SFTP channel, multiplexed over the pooled session (up to
+ * {@code application.ftp.maxChannelsPerSession}); channels are reused by later downloads. Idle sessions are closed
+ * after {@code application.ftp.sessionIdleTimeoutSeconds}.
+ */
 @Service
 @Slf4j
 public class FTPClient {
@@ -26,52 +50,183 @@ public class FTPClient {
 	private final GlobalSSLConfiguration sslConfiguration;
 	private final FTPConfiguration ftpConfiguration;
 	
+	private final Map<SessionKey, List<PooledSession>> sessionPool = new ConcurrentHashMap<>();
+	private final ScheduledExecutorService evictionScheduler;
+	private SshClient client;
+	
 	public FTPClient(@Autowired(required = false) GlobalSSLConfiguration sslConfiguration, FTPConfiguration ftpConfiguration) {
 		super();
 		this.sslConfiguration = sslConfiguration;
 		this.ftpConfiguration = ftpConfiguration;
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("sftp-session-eviction-");
+		threadFactory.setDaemon(true);
+		this.evictionScheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+		long evictionPeriod = Math.max(1, ftpConfiguration.getSessionIdleTimeoutSeconds() / 2);
+		evictionScheduler.scheduleWithFixedDelay(this::evictIdleSessions, evictionPeriod, evictionPeriod, TimeUnit.SECONDS);
 	}
 
 
 	public boolean downloadArtifact(String artifact, String serverHost, int serverPort) {
-		SshClient client = startClient();
-		ClientSession clientSession = startClientSession(client, serverHost, serverPort);
-
-		if (clientSession == null) {
-			log.error("Failed to establish client session - cannot download artifact");
-			client.stop();
-			client.close(false);
-			return false;
-		}
-
-		boolean downloadSuccess = false;
 		Instant start = Instant.now(); // Start time measurement
-		try {
+		Path target = Paths.get(ftpConfiguration.getDownloadFolder()).resolve(Paths.get(artifact).getFileName());
+		try (SftpArtifactInputStream inputStream = openArtifact(artifact, serverHost, serverPort)) {
 			log.info("Downloading file " + artifact);
-			ScpClient scpClient = DefaultScpClientCreator.INSTANCE.createScpClient(clientSession);
-			scpClient.download(artifact, 
-					Paths.get(ftpConfiguration.getDownloadFolder()), 
-					ScpClient.Option.PreserveAttributes,
-					ScpClient.Option.TargetIsDirectory);
-			log.info("File " + artifact + " downloaded");
-			Instant finish = Instant.now(); // End time measurement
-			long timeElapsed = Duration.between(start, finish).toMillis(); // Calculate duration in milliseconds
-			log.info("Time taken: " + timeElapsed + " ms");
-			scpClient.getSession().disconnect(200, "Artifact downloaded");
-			downloadSuccess = true;
+			// written next to the target and moved when complete, so concurrent or failed downloads leave no partial file
+			Path partFile = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".part");
+			try {
+				Files.copy(inputStream, partFile, StandardCopyOption.REPLACE_EXISTING);
+				if (inputStream.getLastModified() != null) {
+					Files.setLastModifiedTime(partFile, inputStream.getLastModified());
+				}
+				Files.move(partFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} finally {
+				Files.deleteIfExists(partFile);
+			}
 		} catch (IOException e) {
 			log.error("Error while downloading file " + artifact + " : " + e.getMessage());
-		} finally {
-			clientSession.close(false);
-			client.stop();
-			client.close(false);
+			return false;
+		}
+		log.info("File " + artifact + " downloaded");
+		Instant finish = Instant.now(); // End time measurement
+		long timeElapsed = Duration.between(start, finish).toMillis(); // Calculate duration in milliseconds
+		log.info("Time taken: " + timeElapsed + " ms");
+		return true;
+	}
+	
+	/**
+	 * Opens remote artifact for reading, over a pooled session.<br>
+	 * Stream must be closed by the caller, closing it returns the SFTP channel to the pool.
+	 *
+	 * @param artifact   path of the artifact on the server
+	 * @param serverHost server host
+	 * @param serverPort server port
+	 * @return stream of artifact content, with its size and modification time
+	 * @throws IOException if connection can not be established or artifact can not be opened
+	 */
+	public SftpArtifactInputStream openArtifact(String artifact, String serverHost, int serverPort) throws IOException {
+		return openArtifact(artifact, serverHost, serverPort, ftpConfiguration.getClientUsername());
+	}
+	
+	/**
+	 * Opens remote artifact for reading, over a pooled session of given user.<br>
+	 * Stream must be closed by the caller, closing it returns the SFTP channel to the pool.
+	 *
+	 * @param artifact   path of the artifact on the server
+	 * @param serverHost server host
+	 * @param serverPort server port
+	 * @param username   user the session is opened for
+	 * @return stream of artifact content, with its size and modification time
+	 * @throws IOException if connection can not be established or artifact can not be opened
+	 */
+	public SftpArtifactInputStream openArtifact(String artifact, String serverHost, int serverPort, String username)
+			throws IOException {
+		PooledSession pooledSession;
+		try {
+			pooledSession = acquireSession(serverHost, serverPort, username);
+		} catch (IOException e) {
+			log.error("Connection could not be established: " + e.getMessage());
+			throw e;
+		}
+		SftpClient sftpClient = null;
+		try {
+			sftpClient = pooledSession.openChannel();
+			SftpClient.Attributes attributes = sftpClient.stat(artifact);
+			// stream keeps several read requests in flight instead of waiting for each chunk
+			InputStream inputStream = sftpClient.read(artifact, ftpConfiguration.getReadBufferSize());
+			SftpClient channel = sftpClient;
+			return new SftpArtifactInputStream(inputStream, attributes.getSize(), attributes.getModifyTime(),
+					() -> pooledSession.release(channel));
+		} catch (IOException | RuntimeException e) {
+			pooledSession.release(sftpClient);
+			throw e;
+		}
+	}
+	
+	/**
+	 * Number of open sessions kept in pool, across all peers.
+	 *
+	 * @return number of pooled sessions
+	 */
+	public int getPooledSessionCount() {
+		return sessionPool.values().stream().mapToInt(sessions -> {
+			synchronized (sessions) {
+				return sessions.size();
+			}
+		}).sum();
+	}
+	
+	@PreDestroy
+	public void shutdown() {
+		evictionScheduler.shutdownNow();
+		sessionPool.values().forEach(sessions -> {
+			synchronized (sessions) {
+				sessions.forEach(PooledSession::close);
+				sessions.clear();
+			}
+		});
+		synchronized (this) {
+			if (client != null) {
+				client.stop();
+				client = null;
+				log.info("SFTP client stopped");
+			}
+		}
+	}
+	
+	private PooledSession acquireSession(String serverHost, int serverPort, String username) throws IOException {
+		SessionKey key = new SessionKey(serverHost, serverPort, username);
+		List<PooledSession> sessions = sessionPool.computeIfAbsent(key, k -> new ArrayList<>());
+		synchronized (sessions) {
+			sessions.removeIf(pooledSession -> {
+				if (pooledSession.isHealthy()) {
+					return false;
+				}
+				log.debug("Discarding broken session to {}", key);
+				pooledSession.close();
+				return true;
+			});
+			for (PooledSession pooledSession : sessions) {
+				if (pooledSession.tryAcquire(ftpConfiguration.getMaxChannelsPerSession())) {
+					return pooledSession;
+				}
+			}
+			// all sessions busy or none yet - other threads for the same peer wait for this one instead of racing
+			PooledSession pooledSession = new PooledSession(startClientSession(serverHost, serverPort, username));
+			pooledSession.tryAcquire(Integer.MAX_VALUE);
+			sessions.add(pooledSession);
+			return pooledSession;
+		}
+	}
+	
+	void evictIdleSessions() {
+		long idleThreshold = System.currentTimeMillis()
+				- TimeUnit.SECONDS.toMillis(ftpConfiguration.getSessionIdleTimeoutSeconds());
+		sessionPool.forEach((key, sessions) -> {
+			synchronized (sessions) {
+				sessions.removeIf(pooledSession -> {
+					if (pooledSession.isHealthy() && (pooledSession.isBusy() || pooledSession.getLastUsed() > idleThreshold)) {
+						return false;
+					}
+					log.debug("Closing idle session to {}", key);
+					pooledSession.close();
+					return true;
+				});
+			}
+		});
+	}
+	
+	private synchronized SshClient getClient() {
+		if (client == null) {
+			client = startClient();
 		}
-		return downloadSuccess;
+		return client;
 	}
 	
 	private SshClient startClient() {
 		log.info("Starting SFTP client...");
 		SshClient client = SshClient.setUpDefaultClient();
+		// SFTP is request/response, without it every small request waits for delayed ACK
+		CoreModuleProperties.TCP_NODELAY.set(client, true);
 		
 		if (sslConfiguration != null) {
 			log.info("Using SSL configuration for SFTP client");
@@ -90,23 +245,95 @@ public class FTPClient {
 	}
 
 
-	private ClientSession startClientSession(SshClient client, String serverHost, int serverPort) {
+	private ClientSession startClientSession(String serverHost, int serverPort, String username) throws IOException {
+		log.info("Connecting to " + serverHost + ":" + serverPort);
+		ClientSession clientSession = getClient()
+				.connect(username, serverHost, serverPort)
+				.verify(ftpConfiguration.getDefaultTimeoutSeconds(), TimeUnit.SECONDS).getSession();
 		try {
-			log.info("Connecting to " + serverHost + ":" + serverPort);
-			ClientSession clientSession = client
-					.connect(ftpConfiguration.getClientUsername(), serverHost, serverPort)
-					.verify(ftpConfiguration.getDefaultTimeoutSeconds(), TimeUnit.SECONDS).getSession();
-			
 			if (sslConfiguration != null) {
 				clientSession.addPublicKeyIdentity(sslConfiguration.getKeyPair());
 			}
 			
 			clientSession.auth().verify(ftpConfiguration.getDefaultTimeoutSeconds(), TimeUnit.SECONDS);
-			log.info("Connection established");
-			return clientSession;
 		} catch (IOException e) {
-			log.error("Connection could not be established: " + e.getMessage());
+			clientSession.close(true);
+			throw e;
+		}
+		log.info("Connection established");
+		return clientSession;
+	}
+	
+	private record SessionKey(String host, int port, String username) {
+		
+		@Override
+		public String toString() {
+			return username + "@" + host + ":" + port;
+		}
+	}
+	
+	private static class PooledSession {
+		
+		private final ClientSession session;
+		// SFTP channels not in use, kept open so the next download skips channel and subsystem setup
+		private final Deque<SftpClient> idleChannels = new ConcurrentLinkedDeque<>();
+		private final AtomicInteger activeChannels = new AtomicInteger();
+		private volatile long lastUsed = System.currentTimeMillis();
+		
+		PooledSession(ClientSession session) {
+			this.session = session;
+		}
+		
+		// called while holding the pool lock of the peer
+		boolean tryAcquire(int maxChannels) {
+			if (activeChannels.get() >= maxChannels) {
+				return false;
+			}
+			activeChannels.incrementAndGet();
+			lastUsed = System.currentTimeMillis();
+			return true;
+		}
+		
+		SftpClient openChannel() throws IOException {
+			SftpClient sftpClient;
+			while ((sftpClient = idleChannels.poll()) != null) {
+				if (sftpClient.isOpen()) {
+					return sftpClient;
+				}
+			}
+			return SftpClientFactory.instance().createSftpClient(session);
+		}
+		
+		void release(SftpClient sftpClient) {
+			if (sftpClient != null && sftpClient.isOpen()) {
+				idleChannels.push(sftpClient);
+			}
+			lastUsed = System.currentTimeMillis();
+			activeChannels.decrementAndGet();
+		}
+		
+		boolean isBusy() {
+			return activeChannels.get() > 0;
+		}
+		
+		long getLastUsed() {
+			return lastUsed;
+		}
+		
+		boolean isHealthy() {
+			return session.isOpen() && !session.isClosing() && session.isAuthenticated();
+		}
+		
+		void close() {
+			SftpClient sftpClient;
+			while ((sftpClient = idleChannels.poll()) != null) {
+				try {
+					sftpClient.close();
+				} catch (IOException e) {
+					log.debug("Error while closing SFTP channel: {}", e.getMessage());
+				}
+			}
+			session.close(!isBusy());
 		}
-		return null;
 	}
 }
@@ -0,0 +1,55 @@
+package it.eng.datatransfer.ftp.client;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.attribute.FileTime;
+
+/**
+ * Content of an artifact read over SFTP; closing the stream releases the channel it is read from.
+ */
+public class SftpArtifactInputStream extends FilterInputStream {
+
+	private final long size;
+	private final FileTime lastModified;
+	private final Runnable onClose;
+	private boolean closed;
+
+	SftpArtifactInputStream(InputStream in, long size, FileTime lastModified, Runnable onClose) {
+		super(in);
+		this.size = size;
+		this.lastModified = lastModified;
+		this.onClose = onClose;
+	}
+
+	/**
+	 * Artifact size reported by the server.
+	 *
+	 * @return size in bytes
+	 */
+	public long getSize() {
+		return size;
+	}
+
+	/**
+	 * Artifact modification time reported by the server.
+	 *
+	 * @return modification time, can be null
+	 */
+	public FileTime getLastModified() {
+		return lastModified;
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		try {
+			super.close();
+		} finally {
+			onClose.run();
+		}
+	}
+}
@@ -15,8 +15,13 @@ public class FTPConfiguration {
 	private int serverPort;
 	private String serverUsername;
 	private String serverFolder;
+	private boolean serveFromS3;
 	
 	private String clientUsername;
 	private String downloadFolder;
 	long defaultTimeoutSeconds;
+	
+	private int maxChannelsPerSession = 8;
+	private long sessionIdleTimeoutSeconds = 300;
+	private int readBufferSize = 32 * 1024;
 }
@@ -14,17 +14,28 @@ import org.apache.sshd.server.auth.pubkey.PublickeyAuthenticator;
 import org.apache.sshd.sftp.server.SftpSubsystemFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 import it.eng.datatransfer.event.StartFTPServerEvent;
 import it.eng.datatransfer.event.StopFTPServerEvent;
 import it.eng.datatransfer.ftp.configuration.FTPConfiguration;
+import it.eng.datatransfer.ftp.server.s3.S3FileSystemFactory;
+import it.eng.datatransfer.ftp.server.s3.S3SftpFileSystemAccessor;
+import it.eng.datatransfer.repository.TransferProcessRepository;
 import it.eng.tools.configuration.GlobalSSLConfiguration;
+import it.eng.tools.s3.properties.S3Properties;
+import it.eng.tools.s3.service.S3ClientService;
 import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * SFTP server for artifacts, started and stopped with transfers in SFTP format.<br>
+ * Created on the first start event instead of at startup.
+ */
 @Service
+@Lazy
 @Slf4j
 @ConditionalOnProperty(name = "server.ssl.enabled", havingValue = "true")
 public class FTPServer {
@@ -32,14 +43,21 @@ public class FTPServer {
 	private final GlobalSSLConfiguration sslConfiguration;
 	private final FTPConfiguration ftpConfiguration;
 	private final PublickeyAuthenticator authenticator;
+	private final S3ClientService s3ClientService;
+	private final S3Properties s3Properties;
+	private final TransferProcessRepository transferProcessRepository;
 	
 	SshServer sshd;
 	
-	public FTPServer(GlobalSSLConfiguration sslConfiguration, @Qualifier(value = "FTPAuthenticator") PublickeyAuthenticator authenticator, FTPConfiguration ftpConfiguration) {
+	public FTPServer(GlobalSSLConfiguration sslConfiguration, @Qualifier(value = "FTPAuthenticator") PublickeyAuthenticator authenticator, FTPConfiguration ftpConfiguration,
+			S3ClientService s3ClientService, S3Properties s3Properties, TransferProcessRepository transferProcessRepository) {
 		super();
 		this.sslConfiguration = sslConfiguration;
 		this.ftpConfiguration = ftpConfiguration;
 		this.authenticator = authenticator;
+		this.s3ClientService = s3ClientService;
+		this.s3Properties = s3Properties;
+		this.transferProcessRepository = transferProcessRepository;
 //		start();
 	}
 
@@ -54,12 +72,24 @@ public class FTPServer {
 		sshd.setPublickeyAuthenticator(authenticator);
 		sshd.setKeyboardInteractiveAuthenticator(KeyboardInteractiveAuthenticator.NONE);
 		
-		SftpSubsystemFactory factory = new SftpSubsystemFactory.Builder().build();
-		sshd.setSubsystemFactories(Collections.singletonList(factory));
-		sshd.setCommandFactory(new ScpCommandFactory());
-
-		//"/home/nobody/ftp"
-		sshd.setFileSystemFactory(new VirtualFileSystemFactory(Paths.get(ftpConfiguration.getServerFolder())));
+		if (ftpConfiguration.isServeFromS3()) {
+			// artifacts are streamed from the bucket with ranged reads, SCP needs local files and is not offered;
+			// each session sees only the object of the started transfer named by its user name (providerPid)
+			log.info("Serving SFTP from S3 bucket {}", s3Properties.getBucketName());
+			SftpSubsystemFactory factory = new SftpSubsystemFactory.Builder()
+					.withFileSystemAccessor(new S3SftpFileSystemAccessor())
+					.build();
+			sshd.setSubsystemFactories(Collections.singletonList(factory));
+			sshd.setFileSystemFactory(new S3FileSystemFactory(s3ClientService, s3Properties.getBucketName(),
+					transferProcessRepository));
+		} else {
+			SftpSubsystemFactory factory = new SftpSubsystemFactory.Builder().build();
+			sshd.setSubsystemFactories(Collections.singletonList(factory));
+			sshd.setCommandFactory(new ScpCommandFactory());
+			
+			//"/home/nobody/ftp"
+			sshd.setFileSystemFactory(new VirtualFileSystemFactory(Paths.get(ftpConfiguration.getServerFolder())));
+		}
 		
 		sshd.start();
 		log.info("SFTP server started");
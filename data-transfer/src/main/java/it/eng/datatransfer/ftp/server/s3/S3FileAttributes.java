@@ -0,0 +1,75 @@
+package it.eng.datatransfer.ftp.server.s3;
+
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Attributes of an object (regular file) or key prefix (directory).
+ */
+record S3FileAttributes(String key, long size, FileTime lastModified, boolean directory) implements BasicFileAttributes {
+
+	static S3FileAttributes file(String key, long size, Instant lastModified) {
+		return new S3FileAttributes(key, size, FileTime.from(lastModified != null ? lastModified : Instant.EPOCH), false);
+	}
+
+	static S3FileAttributes directory(String key) {
+		return new S3FileAttributes(key, 0, FileTime.from(Instant.EPOCH), true);
+	}
+
+	@Override
+	public FileTime lastModifiedTime() {
+		return lastModified;
+	}
+
+	@Override
+	public FileTime lastAccessTime() {
+		return lastModified;
+	}
+
+	@Override
+	public FileTime creationTime() {
+		return lastModified;
+	}
+
+	@Override
+	public boolean isRegularFile() {
+		return !directory;
+	}
+
+	@Override
+	public boolean isDirectory() {
+		return directory;
+	}
+
+	@Override
+	public boolean isSymbolicLink() {
+		return false;
+	}
+
+	@Override
+	public boolean isOther() {
+		return false;
+	}
+
+	@Override
+	public Object fileKey() {
+		return key;
+	}
+
+	Map<String, Object> toMap() {
+		Map<String, Object> attributes = new LinkedHashMap<>();
+		attributes.put("size", size());
+		attributes.put("lastModifiedTime", lastModifiedTime());
+		attributes.put("lastAccessTime", lastAccessTime());
+		attributes.put("creationTime", creationTime());
+		attributes.put("isRegularFile", isRegularFile());
+		attributes.put("isDirectory", isDirectory());
+		attributes.put("isSymbolicLink", isSymbolicLink());
+		attributes.put("isOther", isOther());
+		attributes.put("fileKey", fileKey());
+		return attributes;
+	}
+}
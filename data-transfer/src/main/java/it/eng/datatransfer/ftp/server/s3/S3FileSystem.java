@@ -0,0 +1,89 @@
+package it.eng.datatransfer.ftp.server.s3;
+
+import java.nio.file.attribute.UserPrincipalLookupService;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+
+import org.apache.sshd.common.file.util.BaseFileSystem;
+
+/**
+ * Read-only file system exposing one object of an S3 bucket.<br>
+ * Object keys are mapped to absolute paths, key prefixes separated by '/' are shown as directories.
+ */
+public class S3FileSystem extends BaseFileSystem<S3Path> {
+
+	private final String bucketName;
+	private final String objectKey;
+	private final BooleanSupplier accessAllowed;
+	private volatile boolean open = true;
+
+	public S3FileSystem(S3FileSystemProvider provider, String bucketName, String objectKey, BooleanSupplier accessAllowed) {
+		super(provider);
+		this.bucketName = bucketName;
+		this.objectKey = objectKey;
+		this.accessAllowed = accessAllowed;
+	}
+
+	public String getBucketName() {
+		return bucketName;
+	}
+
+	/**
+	 * Key of the only object visible in this file system.
+	 *
+	 * @return object key
+	 */
+	public String getObjectKey() {
+		return objectKey;
+	}
+
+	/**
+	 * Whether object content may still be read.
+	 *
+	 * @return true if reading is allowed
+	 */
+	public boolean isAccessAllowed() {
+		return accessAllowed.getAsBoolean();
+	}
+
+	@Override
+	public S3FileSystemProvider provider() {
+		return (S3FileSystemProvider) super.provider();
+	}
+
+	@Override
+	protected S3Path create(String root, List<String> names) {
+		return new S3Path(this, root, names);
+	}
+
+	@Override
+	public void close() {
+		open = false;
+	}
+
+	@Override
+	public boolean isOpen() {
+		return open;
+	}
+
+	@Override
+	public boolean isReadOnly() {
+		return true;
+	}
+
+	@Override
+	public Set<String> supportedFileAttributeViews() {
+		return Set.of("basic");
+	}
+
+	@Override
+	public UserPrincipalLookupService getUserPrincipalLookupService() {
+		throw new UnsupportedOperationException("User principals not supported by S3 file system");
+	}
+
+	@Override
+	public String toString() {
+		return "s3://" + bucketName + "/" + objectKey;
+	}
+}
@@ -0,0 +1,63 @@
+package it.eng.datatransfer.ftp.server.s3;
+
+import java.io.IOException;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.FileSystem;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import org.apache.sshd.common.file.FileSystemFactory;
+import org.apache.sshd.common.session.SessionContext;
+
+import it.eng.datatransfer.model.DataTransferFormat;
+import it.eng.datatransfer.model.TransferProcess;
+import it.eng.datatransfer.model.TransferState;
+import it.eng.datatransfer.repository.TransferProcessRepository;
+import it.eng.tools.model.IConstants;
+import it.eng.tools.s3.service.S3ClientService;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Gives every SFTP session a read-only view of the single object the authenticated peer is entitled to.<br>
+ * Session user name is the providerPid of the transfer; the session is accepted only for a STARTED SFTP transfer in
+ * provider role and exposes only the object of the transferred dataset. Transfer state is checked again on every
+ * file open, so pooled sessions lose access once the transfer is suspended, completed or terminated.
+ */
+@Slf4j
+public class S3FileSystemFactory implements FileSystemFactory {
+
+	private final S3FileSystemProvider provider;
+	private final String bucketName;
+	private final TransferProcessRepository transferProcessRepository;
+
+	public S3FileSystemFactory(S3ClientService s3ClientService, String bucketName,
+			TransferProcessRepository transferProcessRepository) {
+		this.provider = new S3FileSystemProvider(s3ClientService);
+		this.bucketName = bucketName;
+		this.transferProcessRepository = transferProcessRepository;
+	}
+
+	@Override
+	public Path getUserHomeDir(SessionContext session) throws IOException {
+		return null;
+	}
+
+	@Override
+	public FileSystem createFileSystem(SessionContext session) throws IOException {
+		String providerPid = session.getUsername();
+		TransferProcess transferProcess = startedTransfer(providerPid).orElseThrow(() -> {
+			log.warn("SFTP session of {} rejected, no started SFTP transfer with providerPid {}",
+					session.getRemoteAddress(), providerPid);
+			return new AccessDeniedException(providerPid, null, "No started SFTP transfer");
+		});
+		return provider.newFileSystem(bucketName, transferProcess.getDatasetId(),
+				() -> startedTransfer(providerPid).isPresent());
+	}
+
+	private Optional<TransferProcess> startedTransfer(String providerPid) {
+		return transferProcessRepository.findByProviderPid(providerPid)
+				.filter(transferProcess -> IConstants.ROLE_PROVIDER.equals(transferProcess.getRole()))
+				.filter(transferProcess -> TransferState.STARTED.equals(transferProcess.getState()))
+				.filter(transferProcess -> DataTransferFormat.SFTP.format().equals(transferProcess.getFormat()));
+	}
+}
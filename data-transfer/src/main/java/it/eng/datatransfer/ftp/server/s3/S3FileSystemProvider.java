@@ -0,0 +1,293 @@
+package it.eng.datatransfer.ftp.server.s3;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.AccessMode;
+import java.nio.file.CopyOption;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileStore;
+import java.nio.file.FileSystem;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.NotDirectoryException;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.ProviderMismatchException;
+import java.nio.file.ReadOnlyFileSystemException;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributeView;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.FileAttributeView;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.spi.FileSystemProvider;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+
+import it.eng.tools.s3.model.S3ObjectInfo;
+import it.eng.tools.s3.service.S3ClientService;
+
+/**
+ * Read-only {@link FileSystemProvider} serving S3 objects, used by the SFTP server to stream artifacts straight
+ * from the bucket. File content is read with ranged GET requests, nothing is stored on local disk.
+ */
+public class S3FileSystemProvider extends FileSystemProvider {
+
+	public static final String SCHEME = "s3";
+
+	private final S3ClientService s3ClientService;
+
+	public S3FileSystemProvider(S3ClientService s3ClientService) {
+		this.s3ClientService = s3ClientService;
+	}
+
+	/**
+	 * Creates file system exposing one object of given bucket.
+	 *
+	 * @param bucketName    bucket name
+	 * @param objectKey     key of the only visible object
+	 * @param accessAllowed checked every time the object is opened
+	 * @return file system
+	 */
+	public S3FileSystem newFileSystem(String bucketName, String objectKey, BooleanSupplier accessAllowed) {
+		return new S3FileSystem(this, bucketName, objectKey, accessAllowed);
+	}
+
+	@Override
+	public String getScheme() {
+		return SCHEME;
+	}
+
+	@Override
+	public FileSystem newFileSystem(URI uri, Map<String, ?> env) {
+		throw new UnsupportedOperationException("S3 file systems are not registered by URI");
+	}
+
+	@Override
+	public FileSystem getFileSystem(URI uri) {
+		throw new UnsupportedOperationException("S3 file systems are not registered by URI");
+	}
+
+	@Override
+	public Path getPath(URI uri) {
+		throw new UnsupportedOperationException("S3 file systems are not registered by URI");
+	}
+
+	@Override
+	public SeekableByteChannel newByteChannel(Path path, Set<? extends OpenOption> options, FileAttribute<?>... attrs)
+			throws IOException {
+		S3Path s3Path = toS3Path(path);
+		for (OpenOption option : options) {
+			if (option != StandardOpenOption.READ && option != LinkOption.NOFOLLOW_LINKS) {
+				throw new ReadOnlyFileSystemException();
+			}
+		}
+		S3FileAttributes attributes = readS3Attributes(s3Path);
+		if (attributes.isDirectory()) {
+			throw new IOException(s3Path + " is a directory");
+		}
+		if (!s3Path.getFileSystem().isAccessAllowed()) {
+			throw new AccessDeniedException(s3Path.toString());
+		}
+		return new S3ObjectChannel(s3ClientService, s3Path.getFileSystem().getBucketName(), attributes.key(),
+				attributes.size());
+	}
+
+	@Override
+	public DirectoryStream<Path> newDirectoryStream(Path dir, DirectoryStream.Filter<? super Path> filter)
+			throws IOException {
+		S3Path s3Dir = toS3Path(dir);
+		String prefix = s3Dir.toObjectKey().isEmpty() ? "" : s3Dir.toObjectKey() + "/";
+		Set<String> children = new LinkedHashSet<>();
+		for (String key : visibleKeys(s3Dir.getFileSystem())) {
+			if (key.startsWith(prefix) && key.length() > prefix.length()) {
+				String remainder = key.substring(prefix.length());
+				int separator = remainder.indexOf('/');
+				children.add(separator < 0 ? remainder : remainder.substring(0, separator));
+			}
+		}
+		if (children.isEmpty() && !prefix.isEmpty()) {
+			if (s3Dir.toObjectKey().equals(s3Dir.getFileSystem().getObjectKey()) && objectInfo(s3Dir).isPresent()) {
+				throw new NotDirectoryException(s3Dir.toString());
+			}
+			throw new NoSuchFileException(s3Dir.toString());
+		}
+		List<Path> entries = new ArrayList<>();
+		for (String child : children) {
+			Path entry = s3Dir.resolve(child);
+			if (filter == null || filter.accept(entry)) {
+				entries.add(entry);
+			}
+		}
+		return new DirectoryStream<>() {
+			@Override
+			public Iterator<Path> iterator() {
+				return entries.iterator();
+			}
+
+			@Override
+			public void close() {
+			}
+		};
+	}
+
+	@Override
+	public void createDirectory(Path dir, FileAttribute<?>... attrs) {
+		throw new ReadOnlyFileSystemException();
+	}
+
+	@Override
+	public void delete(Path path) {
+		throw new ReadOnlyFileSystemException();
+	}
+
+	@Override
+	public void copy(Path source, Path target, CopyOption... options) {
+		throw new ReadOnlyFileSystemException();
+	}
+
+	@Override
+	public void move(Path source, Path target, CopyOption... options) {
+		throw new ReadOnlyFileSystemException();
+	}
+
+	@Override
+	public boolean isSameFile(Path path, Path path2) {
+		return toS3Path(path).toAbsolutePath().normalize().equals(toS3Path(path2).toAbsolutePath().normalize());
+	}
+
+	@Override
+	public boolean isHidden(Path path) {
+		return false;
+	}
+
+	@Override
+	public FileStore getFileStore(Path path) {
+		throw new UnsupportedOperationException("File stores not supported by S3 file system");
+	}
+
+	@Override
+	public void checkAccess(Path path, AccessMode... modes) throws IOException {
+		S3Path s3Path = toS3Path(path);
+		S3FileAttributes attributes = readS3Attributes(s3Path);
+		for (AccessMode mode : modes) {
+			if (mode == AccessMode.WRITE || (mode == AccessMode.EXECUTE && !attributes.isDirectory())) {
+				throw new AccessDeniedException(s3Path.toString());
+			}
+		}
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <V extends FileAttributeView> V getFileAttributeView(Path path, Class<V> type, LinkOption... options) {
+		if (type != BasicFileAttributeView.class) {
+			return null;
+		}
+		S3Path s3Path = toS3Path(path);
+		return (V) new BasicFileAttributeView() {
+			@Override
+			public String name() {
+				return "basic";
+			}
+
+			@Override
+			public BasicFileAttributes readAttributes() throws IOException {
+				return readS3Attributes(s3Path);
+			}
+
+			@Override
+			public void setTimes(FileTime lastModifiedTime, FileTime lastAccessTime, FileTime createTime) {
+				throw new ReadOnlyFileSystemException();
+			}
+		};
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <A extends BasicFileAttributes> A readAttributes(Path path, Class<A> type, LinkOption... options)
+			throws IOException {
+		if (!type.isAssignableFrom(S3FileAttributes.class)) {
+			throw new UnsupportedOperationException("Attributes " + type.getSimpleName() + " not supported by S3 file system");
+		}
+		return (A) readS3Attributes(toS3Path(path));
+	}
+
+	@Override
+	public Map<String, Object> readAttributes(Path path, String attributes, LinkOption... options) throws IOException {
+		int viewSeparator = attributes.indexOf(':');
+		String view = viewSeparator < 0 ? "basic" : attributes.substring(0, viewSeparator);
+		if (!"basic".equals(view)) {
+			throw new UnsupportedOperationException("Attribute view " + view + " not supported by S3 file system");
+		}
+		Map<String, Object> all = readS3Attributes(toS3Path(path)).toMap();
+		String names = viewSeparator < 0 ? attributes : attributes.substring(viewSeparator + 1);
+		if ("*".equals(names)) {
+			return all;
+		}
+		Map<String, Object> selected = new LinkedHashMap<>();
+		for (String name : names.split(",")) {
+			if (all.containsKey(name)) {
+				selected.put(name, all.get(name));
+			}
+		}
+		return selected;
+	}
+
+	@Override
+	public void setAttribute(Path path, String attribute, Object value, LinkOption... options) {
+		throw new ReadOnlyFileSystemException();
+	}
+
+	S3FileAttributes readS3Attributes(S3Path path) throws IOException {
+		String key = path.toObjectKey();
+		if (key.isEmpty()) {
+			return S3FileAttributes.directory(key);
+		}
+		if (key.equals(path.getFileSystem().getObjectKey())) {
+			Optional<S3ObjectInfo> objectInfo = objectInfo(path);
+			if (objectInfo.isPresent()) {
+				return S3FileAttributes.file(key, objectInfo.get().size(), objectInfo.get().lastModified());
+			}
+		}
+		String prefix = key + "/";
+		if (visibleKeys(path.getFileSystem()).stream().anyMatch(k -> k.startsWith(prefix))) {
+			return S3FileAttributes.directory(key);
+		}
+		throw new NoSuchFileException(path.toString());
+	}
+
+	private Optional<S3ObjectInfo> objectInfo(S3Path path) throws IOException {
+		try {
+			return s3ClientService.getObjectInfo(path.getFileSystem().getBucketName(), path.toObjectKey());
+		} catch (RuntimeException e) {
+			throw new IOException("Could not read metadata of " + path + ": " + e.getMessage(), e);
+		}
+	}
+
+	// only the object of the file system is listed, other objects of the bucket stay hidden
+	private List<String> visibleKeys(S3FileSystem fileSystem) throws IOException {
+		try {
+			return s3ClientService.getObjectInfo(fileSystem.getBucketName(), fileSystem.getObjectKey()).isPresent()
+					? List.of(fileSystem.getObjectKey())
+					: List.of();
+		} catch (RuntimeException e) {
+			throw new IOException("Could not read metadata of " + fileSystem + ": " + e.getMessage(), e);
+		}
+	}
+
+	private S3Path toS3Path(Path path) {
+		if (path instanceof S3Path s3Path) {
+			return s3Path;
+		}
+		throw new ProviderMismatchException("Not an S3 path: " + path);
+	}
+}
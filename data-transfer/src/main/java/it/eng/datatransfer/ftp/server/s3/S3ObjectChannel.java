@@ -0,0 +1,143 @@
+package it.eng.datatransfer.ftp.server.s3;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+
+import it.eng.tools.s3.service.S3ClientService;
+
+/**
+ * Read-only channel over an S3 object.<br>
+ * Sequential reads are served from one ranged GET stream; a seek backwards, or further ahead than
+ * {@link #MAX_SKIP_BYTES}, reopens the stream at the new position.
+ */
+class S3ObjectChannel implements SeekableByteChannel {
+
+	static final long MAX_SKIP_BYTES = 1024 * 1024;
+
+	private final S3ClientService s3ClientService;
+	private final String bucketName;
+	private final String objectKey;
+	private final long size;
+
+	private InputStream stream;
+	private long streamPosition;
+	private long position;
+	private boolean open = true;
+
+	S3ObjectChannel(S3ClientService s3ClientService, String bucketName, String objectKey, long size) {
+		this.s3ClientService = s3ClientService;
+		this.bucketName = bucketName;
+		this.objectKey = objectKey;
+		this.size = size;
+	}
+
+	@Override
+	public synchronized int read(ByteBuffer dst) throws IOException {
+		ensureOpen();
+		if (position >= size) {
+			return -1;
+		}
+		if (!dst.hasRemaining()) {
+			return 0;
+		}
+		positionStream();
+		int length = (int) Math.min(dst.remaining(), size - position);
+		int read;
+		if (dst.hasArray()) {
+			read = stream.read(dst.array(), dst.arrayOffset() + dst.position(), length);
+			if (read > 0) {
+				dst.position(dst.position() + read);
+			}
+		} else {
+			byte[] buffer = new byte[length];
+			read = stream.read(buffer);
+			if (read > 0) {
+				dst.put(buffer, 0, read);
+			}
+		}
+		if (read < 0) {
+			throw new IOException("Unexpected end of object " + objectKey + " at position " + position);
+		}
+		position += read;
+		streamPosition += read;
+		return read;
+	}
+
+	private void positionStream() throws IOException {
+		if (stream != null && position >= streamPosition && position - streamPosition <= MAX_SKIP_BYTES) {
+			stream.skipNBytes(position - streamPosition);
+			streamPosition = position;
+			return;
+		}
+		closeStream();
+		try {
+			stream = s3ClientService.getObjectStream(bucketName, objectKey, position);
+		} catch (RuntimeException e) {
+			throw new IOException("Could not read object " + objectKey + ": " + e.getMessage(), e);
+		}
+		streamPosition = position;
+	}
+
+	@Override
+	public int write(ByteBuffer src) {
+		throw new NonWritableChannelException();
+	}
+
+	@Override
+	public synchronized long position() throws IOException {
+		ensureOpen();
+		return position;
+	}
+
+	@Override
+	public synchronized SeekableByteChannel position(long newPosition) throws IOException {
+		ensureOpen();
+		if (newPosition < 0) {
+			throw new IllegalArgumentException("Negative position " + newPosition);
+		}
+		// stream is repositioned lazily on next read
+		position = newPosition;
+		return this;
+	}
+
+	@Override
+	public long size() throws IOException {
+		ensureOpen();
+		return size;
+	}
+
+	@Override
+	public SeekableByteChannel truncate(long size) {
+		throw new NonWritableChannelException();
+	}
+
+	@Override
+	public synchronized boolean isOpen() {
+		return open;
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		if (open) {
+			open = false;
+			closeStream();
+		}
+	}
+
+	private void ensureOpen() throws ClosedChannelException {
+		if (!open) {
+			throw new ClosedChannelException();
+		}
+	}
+
+	private void closeStream() throws IOException {
+		if (stream != null) {
+			stream.close();
+			stream = null;
+		}
+	}
+}
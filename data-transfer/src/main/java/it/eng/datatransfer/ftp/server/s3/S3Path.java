@@ -0,0 +1,32 @@
+package it.eng.datatransfer.ftp.server.s3;
+
+import java.io.IOException;
+import java.nio.file.LinkOption;
+import java.util.List;
+
+import org.apache.sshd.common.file.util.BasePath;
+
+/**
+ * Path in {@link S3FileSystem}; absolute path without the leading separator is the object key.
+ */
+public class S3Path extends BasePath<S3Path, S3FileSystem> {
+
+	public S3Path(S3FileSystem fileSystem, String root, List<String> names) {
+		super(fileSystem, root, names);
+	}
+
+	/**
+	 * Object key addressed by this path.
+	 *
+	 * @return object key, empty string for root
+	 */
+	public String toObjectKey() {
+		return String.join("/", toAbsolutePath().normalize().names);
+	}
+
+	@Override
+	public S3Path toRealPath(LinkOption... options) throws IOException {
+		// no links in object storage
+		return toAbsolutePath().normalize();
+	}
+}
@@ -0,0 +1,55 @@
+package it.eng.datatransfer.ftp.server.s3;
+
+import java.io.IOException;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.sshd.sftp.server.FileHandle;
+import org.apache.sshd.sftp.server.SftpFileSystemAccessor;
+import org.apache.sshd.sftp.server.SftpSubsystemProxy;
+
+/**
+ * Opens S3 objects as plain {@link SeekableByteChannel}; the default accessor requires a {@code FileChannel},
+ * which only the local file system provides.<br>
+ * Attributes are reported as read-only and owned by a fixed principal, since objects have no posix attributes and
+ * the default accessor would otherwise fall back to {@code Path.toFile()}.
+ */
+public class S3SftpFileSystemAccessor implements SftpFileSystemAccessor {
+
+	private static final UserPrincipal OWNER = () -> "s3";
+	private static final Set<PosixFilePermission> FILE_PERMISSIONS = PosixFilePermissions.fromString("r--r--r--");
+	private static final Set<PosixFilePermission> DIRECTORY_PERMISSIONS = PosixFilePermissions.fromString("r-xr-xr-x");
+
+	@Override
+	public SeekableByteChannel openFile(SftpSubsystemProxy subsystem, FileHandle fileHandle, Path file, String handle,
+			Set<? extends OpenOption> options, FileAttribute<?>... attrs) throws IOException {
+		if (file instanceof S3Path) {
+			return Files.newByteChannel(file, options, attrs);
+		}
+		return SftpFileSystemAccessor.super.openFile(subsystem, fileHandle, file, handle, options, attrs);
+	}
+
+	@Override
+	public Map<String, ?> readFileAttributes(SftpSubsystemProxy subsystem, Path file, String view, LinkOption... options)
+			throws IOException {
+		if (!(file instanceof S3Path)) {
+			return SftpFileSystemAccessor.super.readFileAttributes(subsystem, file, view, options);
+		}
+		Map<String, Object> attributes = new LinkedHashMap<>(Files.readAttributes(file, "basic:*", options));
+		boolean directory = Boolean.TRUE.equals(attributes.get("isDirectory"));
+		attributes.put("permissions", directory ? DIRECTORY_PERMISSIONS : FILE_PERMISSIONS);
+		attributes.put("owner", OWNER);
+		attributes.put("group", OWNER);
+		return attributes;
+	}
+}
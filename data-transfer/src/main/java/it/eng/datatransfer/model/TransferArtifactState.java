@@ -35,6 +35,9 @@ public class TransferArtifactState {
     private String presignURL;
     private String destBucket;
     private String destObject;
+    // digest of the received bytes, computed while streaming
+    private String checksumAlgorithm;
+    private String checksum;
 
     @CreatedDate
     private Instant issued;
@@ -125,6 +128,16 @@ public class TransferArtifactState {
             return this;
         }
 
+        public Builder checksumAlgorithm(String checksumAlgorithm) {
+            transferArtifactState.checksumAlgorithm = checksumAlgorithm;
+            return this;
+        }
+
+        public Builder checksum(String checksum) {
+            transferArtifactState.checksum = checksum;
+            return this;
+        }
+
         public Builder issued(Instant issued) {
             transferArtifactState.issued = issued;
             return this;
@@ -0,0 +1,33 @@
+package it.eng.datatransfer.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+/**
+ * Configuration properties for caching, per transfer, the checks made before an artifact is served.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "application.transfer-access-cache")
+public class TransferAccessCacheProperties {
+
+    /**
+     * Cache that the transfer process is STARTED, that its agreement is valid and the artifact of its dataset.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Time in seconds a cached check is used before it is made again. Suspension, completion or termination of the
+     * transfer and access to the agreement invalidate the cache immediately; this bounds the staleness of changes
+     * without an event, like the end date of an agreement passing.
+     */
+    private long timeToLiveSeconds = 30;
+
+    /**
+     * Time in seconds the artifact of a dataset is cached. Changes of datasets and artifacts made by this instance
+     * clear the cache immediately; changes made by other instances are seen after this time.
+     */
+    private long artifactTimeToLiveSeconds = 60;
+}
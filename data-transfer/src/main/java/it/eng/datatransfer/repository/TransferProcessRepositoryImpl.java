@@ -1,121 +0,0 @@
-package it.eng.datatransfer.repository;
-
-import it.eng.datatransfer.model.TransferProcess;
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.mongodb.core.MongoTemplate;
-import org.springframework.data.mongodb.core.query.Criteria;
-import org.springframework.data.mongodb.core.query.Query;
-import org.springframework.stereotype.Repository;
-
-import java.time.Instant;
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.ZoneOffset;
-import java.util.Collection;
-import java.util.List;
-import java.util.Map;
-
-/**
- * Custom repository implementation for dynamic filtering operations.
- * This class implements data access methods that require dynamic query building using MongoTemplate.
- */
-@Repository
-@Slf4j
-public class TransferProcessRepositoryImpl implements TransferProcessRepositoryCustom {
-
-    private final MongoTemplate mongoTemplate;
-
-    public TransferProcessRepositoryImpl(MongoTemplate mongoTemplate) {
-        this.mongoTemplate = mongoTemplate;
-    }
-
-    @Override
-    public Collection<TransferProcess> findWithDynamicFilters(Map<String, Object> filters) {
-        Query query = new Query();
-        
-        // Build criteria based on value types - no null checks needed (filter builder handles this)
-        filters.forEach((fieldName, value) -> {
-            Criteria criteria = buildCriteriaByValueType(fieldName, value);
-            query.addCriteria(criteria);
-        });
-        
-        log.debug("Executing MongoDB query: {}", query);
-        return mongoTemplate.find(query, TransferProcess.class);
-    }
-    
-    /**
-     * Build criteria based on VALUE TYPE, not field name.
-     * 
-     * @param fieldName the MongoDB field name to create criteria for
-     * @param value the value to match, type determines the criteria strategy
-     * @return MongoDB criteria configured for the value type
-     */
-    private Criteria buildCriteriaByValueType(String fieldName, Object value) {
-        // Handle different value types based on actual object type
-        if (value instanceof Instant) {
-            return Criteria.where(fieldName).is(value);
-        }
-        
-        if (value instanceof LocalDateTime) {
-            // Convert to Instant for MongoDB storage
-            Instant instant = ((LocalDateTime) value).toInstant(ZoneOffset.UTC);
-            return Criteria.where(fieldName).is(instant);
-        }
-        
-        if (value instanceof LocalDate) {
-            // Convert to start of day Instant
-            Instant instant = ((LocalDate) value).atStartOfDay().toInstant(ZoneOffset.UTC);
-            return Criteria.where(fieldName).is(instant);
-        }
-        
-        if (value instanceof Boolean) {
-            return Criteria.where(fieldName).is(value);
-        }
-        
-        if (value instanceof Number) {
-            return Criteria.where(fieldName).is(value);
-        }
-        
-        if (value instanceof String) {
-            return Criteria.where(fieldName).is(value);
-        }
-        
-        if (value instanceof Map) {
-            // Handle range queries (for dates, numbers, etc.)
-            return buildRangeCriteria(fieldName, (Map<String, Object>) value);
-        }
-        
-        if (value instanceof Collection) {
-            // Handle IN queries (multiple values for same field)
-            return Criteria.where(fieldName).in((Collection<?>) value);
-        }
-        
-        // Default case - exact match
-        return Criteria.where(fieldName).is(value);
-    }
-    
-    private Criteria buildRangeCriteria(String fieldName, Map<String, Object> rangeValue) {
-        Criteria criteria = Criteria.where(fieldName);
-        
-        // Apply range operators based on keys
-        rangeValue.forEach((operator, operatorValue) -> {
-            if (operatorValue != null) {
-                switch (operator.toLowerCase()) {
-                    case "gte", "from", "after" -> criteria.gte(operatorValue);
-                    case "lte", "to", "before" -> criteria.lte(operatorValue);
-                    case "gt" -> criteria.gt(operatorValue);
-                    case "lt" -> criteria.lt(operatorValue);
-                    case "ne", "not" -> criteria.ne(operatorValue);
-                    case "in" -> {
-                        if (operatorValue instanceof Collection) {
-                            criteria.in((Collection<?>) operatorValue);
-                        }
-                    }
-                    default -> log.warn("Unknown range operator: {}", operator);
-                }
-            }
-        });
-        
-        return criteria;
-    }
-} 
\ No newline at end of file
@@ -139,7 +139,7 @@ public class DataTransferAPIController {
         Sort sorting = Sort.by(direction, sort[0]);
         Pageable pageable = PageRequest.of(page, size, sorting);
         // Build filter map automatically from ALL request parameters
-        Map<String, Object> filters = filterBuilder.buildFromRequest(request);
+        Map<String, Object> filters = filterBuilder.buildFromRequest(request, TransferProcess.class);
 
         log.debug("Generated filters: {}", filters);
 
@@ -1,6 +1,9 @@
 package it.eng.datatransfer.rest.api;
 
+import it.eng.datatransfer.filter.EndpointAvailableFilter;
+import it.eng.datatransfer.model.TransferProcess;
 import it.eng.datatransfer.service.api.RestArtifactService;
+import it.eng.tools.model.Artifact;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
@@ -23,13 +26,23 @@ public class RestArtifactController {
      * @param response      HttpServlerTesponse that will be updated with data
      * @param authorization
      * @param transactionId Base64.urlEncoded(consumerPid|providerPid) from TransferProcess message
+     * @param transferProcess transfer process already resolved by {@link EndpointAvailableFilter}, if any
+     * @param artifact      artifact already resolved by {@link EndpointAvailableFilter}, if any
      */
     @GetMapping(path = "/{transactionId}")
     public void getArtifact(HttpServletResponse response,
                             @RequestHeader(required = false) String authorization,
-                            @PathVariable("transactionId") String transactionId) {
+                            @PathVariable("transactionId") String transactionId,
+                            @RequestAttribute(name = EndpointAvailableFilter.TRANSFER_PROCESS_ATTRIBUTE, required = false)
+                            TransferProcess transferProcess,
+                            @RequestAttribute(name = EndpointAvailableFilter.ARTIFACT_ATTRIBUTE, required = false)
+                            Artifact artifact) {
 
         log.info("Starting data download");
-        restArtifactService.getArtifact(transactionId, response);
+        if (transferProcess != null && artifact != null) {
+            restArtifactService.getArtifact(transferProcess, artifact, response);
+        } else {
+            restArtifactService.getArtifact(transactionId, response);
+        }
     }
 }
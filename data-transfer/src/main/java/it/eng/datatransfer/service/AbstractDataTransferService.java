@@ -343,6 +343,8 @@ public abstract class AbstractDataTransferService implements TransferProcessStra
         stateTransitionCheck(transferProcess, TransferState.SUSPENDED);
         log.info("Acting as consumer, suspend the transfer process");
         TransferProcess transferProcessSuspended = transferProcess.copyWithNewTransferState(TransferState.SUSPENDED);
+        // stored before the change is published, so listeners reading the transfer process do not see it STARTED
+        TransferProcess transferProcessSaved = saveTransferProcess(transferProcessSuspended);
         publisher.publishEvent(TransferProcessChangeEvent.Builder.newInstance()
                 .oldTransferProcess(transferProcess)
                 .newTransferProcess(transferProcessSuspended)
@@ -354,7 +356,7 @@ public abstract class AbstractDataTransferService implements TransferProcessStra
                         "transferProcess", transferProcessSuspended,
                         "consumerPid", transferProcessSuspended.getConsumerPid(),
                         "providerPid", transferProcessSuspended.getProviderPid()));
-        return saveTransferProcess(transferProcessSuspended);
+        return transferProcessSaved;
     }
 
     /**
@@ -2,49 +2,51 @@ package it.eng.datatransfer.service;
 
 import org.springframework.stereotype.Service;
 
-import it.eng.datatransfer.exceptions.AgreementNotFoundException;
+import com.fasterxml.jackson.core.type.TypeReference;
+
 import it.eng.datatransfer.model.TransferProcess;
-import it.eng.datatransfer.repository.TransferProcessRepository;
+import it.eng.datatransfer.serializer.TransferSerializer;
+import it.eng.datatransfer.service.TransferAccessCache.AgreementDecision;
 import it.eng.tools.client.rest.OkHttpRestClient;
 import it.eng.tools.controller.ApiEndpoints;
 import it.eng.tools.property.ConnectorProperties;
 import it.eng.tools.response.GenericApiResponse;
+import it.eng.tools.usagecontrol.AgreementEnforcement;
 import it.eng.tools.usagecontrol.UsageControlProperties;
 import it.eng.tools.util.CredentialUtils;
+import jakarta.validation.ValidationException;
 import lombok.extern.slf4j.Slf4j;
 
 @Service
 @Slf4j
 public class AgreementService {
 	
-	private final TransferProcessRepository transferProcessRepository;
 	private final UsageControlProperties usageControlProperties;
 	private final OkHttpRestClient okHttpRestClient;
 	private final CredentialUtils credentialUtils;
 	private final ConnectorProperties connectorProperties;
+	private final TransferAccessCache transferAccessCache;
 	
-	public AgreementService(TransferProcessRepository transferProcessRepository, UsageControlProperties usageControlProperties,
-			OkHttpRestClient okHttpRestClient, CredentialUtils credentialUtils, ConnectorProperties connectorProperties) {
+	public AgreementService(UsageControlProperties usageControlProperties, OkHttpRestClient okHttpRestClient,
+			CredentialUtils credentialUtils, ConnectorProperties connectorProperties, TransferAccessCache transferAccessCache) {
 		super();
-		this.transferProcessRepository = transferProcessRepository;
 		this.usageControlProperties = usageControlProperties;
 		this.okHttpRestClient = okHttpRestClient;
 		this.credentialUtils = credentialUtils;
 		this.connectorProperties = connectorProperties;
+		this.transferAccessCache = transferAccessCache;
 	}
 
-	public boolean isAgreementValid(String consumerPid, String providerPid) {
+	/**
+	 * Checks if agreement of the transfer process is valid.<br>
+	 * Valid decisions not depending on the access count are cached, see {@link TransferAccessCache}.
+	 * @param transferProcess transfer process holding the agreement
+	 * @return true if usage control is disabled or agreement is valid
+	 */
+	public boolean isAgreementValid(TransferProcess transferProcess) {
 		if(usageControlProperties.usageControlEnabled()) {
-			TransferProcess transferProcess = transferProcessRepository.findByConsumerPidAndProviderPid(consumerPid, providerPid)
-					.orElseThrow(() -> new AgreementNotFoundException("Agreement for consumerPid '"+ consumerPid +
-							"' and providerPid '" + providerPid + "' not found", consumerPid, providerPid));
 			String agreementId = transferProcess.getAgreementId();
-			
-			GenericApiResponse<String> response = okHttpRestClient.sendRequestProtocol(connectorProperties.getConnectorURL() 
-					+ ApiEndpoints.NEGOTIATION_AGREEMENTS_V1 + "/" + agreementId + "/enforce", 
-					null, 
-					credentialUtils.getAPICredentials());
-			if (!response.isSuccess()) {
+			if (!transferAccessCache.isAgreementValid(agreementId, () -> enforceAgreement(agreementId))) {
 				log.info("Agreement is not valid");
 				return false;
 			}
@@ -54,4 +56,24 @@ public class AgreementService {
 		return true;
 	}
 
+	private AgreementDecision enforceAgreement(String agreementId) {
+		GenericApiResponse<String> response = okHttpRestClient.sendRequestProtocol(connectorProperties.getConnectorURL() 
+				+ ApiEndpoints.NEGOTIATION_AGREEMENTS_V1 + "/" + agreementId + "/enforce", 
+				null, 
+				credentialUtils.getAPICredentials());
+		if (!response.isSuccess()) {
+			return new AgreementDecision(false, false);
+		}
+		// anything but a decision marked as reusable is evaluated again on the next access
+		boolean reusable = false;
+		try {
+			GenericApiResponse<String> enforcement = TransferSerializer.deserializePlain(response.getData(),
+					new TypeReference<GenericApiResponse<String>>() {});
+			reusable = AgreementEnforcement.VALID.equals(enforcement.getData());
+		} catch (ValidationException | IllegalArgumentException e) {
+			log.warn("Could not read agreement enforcement response: {}", e.getMessage());
+		}
+		return new AgreementDecision(true, reusable);
+	}
+
 }
@@ -0,0 +1,164 @@
+package it.eng.datatransfer.service;
+
+import it.eng.datatransfer.event.TransferProcessChangeEvent;
+import it.eng.datatransfer.model.TransferProcess;
+import it.eng.datatransfer.model.TransferState;
+import it.eng.datatransfer.properties.TransferAccessCacheProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Caches, for a short time, the checks made before an artifact is served: the STARTED transfer process and the
+ * validity of its agreement. Consumers fetching many objects or ranges under one transfer make the same checks on every
+ * request.<br>
+ * Only positive results are cached. A change of the transfer process invalidates its entries as soon as the event is
+ * received. Agreement decisions depending on the access count are never cached, they are evaluated on every request;
+ * other agreement decisions do not change when the agreement is accessed and are kept until they expire.
+ */
+@Slf4j
+@Component
+public class TransferAccessCache {
+
+    /**
+     * Number of entries in a cache above which expired entries are removed.
+     */
+    static final int PURGE_THRESHOLD = 10_000;
+
+    /**
+     * Outcome of an agreement enforcement.
+     *
+     * @param valid    agreement is valid
+     * @param reusable decision may be reused until the agreement changes; false if it depends on the number of accesses
+     */
+    public record AgreementDecision(boolean valid, boolean reusable) {
+    }
+
+    private record Entry<T>(T value, long expiresAt) {
+
+        boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+
+    private final TransferAccessCacheProperties properties;
+    private final Map<String, Entry<TransferProcess>> startedTransfers = new ConcurrentHashMap<>();
+    private final Map<String, Entry<Boolean>> validAgreements = new ConcurrentHashMap<>();
+    /**
+     * Incremented on every invalidation; a result checked while an invalidation happened is not kept, since it might
+     * have been read before the change was stored.
+     */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public TransferAccessCache(TransferAccessCacheProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Transfer process for consumerPid and providerPid, if it is STARTED.
+     *
+     * @param consumerPid consumerPid of the transfer process
+     * @param providerPid providerPid of the transfer process
+     * @param lookup      finds the transfer process when the cache holds no valid entry
+     * @return transfer process, null if it is not STARTED
+     */
+    public TransferProcess startedTransfer(String consumerPid, String providerPid, Supplier<TransferProcess> lookup) {
+        return get(startedTransfers, key(consumerPid, providerPid), () -> {
+            TransferProcess transferProcess = lookup.get();
+            return transferProcess != null && TransferState.STARTED.equals(transferProcess.getState()) ? transferProcess : null;
+        });
+    }
+
+    /**
+     * If agreement is valid.
+     *
+     * @param agreementId id of the agreement
+     * @param enforcement enforces the agreement when the cache holds no valid entry
+     * @return true if the agreement is valid
+     */
+    public boolean isAgreementValid(String agreementId, Supplier<AgreementDecision> enforcement) {
+        Boolean cached = cached(validAgreements, agreementId);
+        if (cached != null) {
+            return cached;
+        }
+        long invalidationsBefore = invalidations.get();
+        AgreementDecision decision = enforcement.get();
+        if (decision.valid() && decision.reusable()) {
+            put(validAgreements, agreementId, Boolean.TRUE, invalidationsBefore);
+        }
+        return decision.valid();
+    }
+
+    @EventListener
+    public void onTransferProcessChange(TransferProcessChangeEvent event) {
+        TransferProcess transferProcess = event.getNewTransferProcess();
+        invalidateTransfer(transferProcess.getConsumerPid(), transferProcess.getProviderPid());
+    }
+
+    /**
+     * Removes cached checks of the transfer process.
+     *
+     * @param consumerPid consumerPid of the transfer process
+     * @param providerPid providerPid of the transfer process
+     */
+    public void invalidateTransfer(String consumerPid, String providerPid) {
+        String key = key(consumerPid, providerPid);
+        invalidations.incrementAndGet();
+        startedTransfers.remove(key);
+        log.debug("Transfer access cache invalidated for {}", key);
+    }
+
+    private <T> T get(Map<String, Entry<T>> cache, String key, Supplier<T> loader) {
+        T cached = cached(cache, key);
+        if (cached != null) {
+            return cached;
+        }
+        long invalidationsBefore = invalidations.get();
+        T value = loader.get();
+        if (value != null) {
+            put(cache, key, value, invalidationsBefore);
+        }
+        return value;
+    }
+
+    private <T> T cached(Map<String, Entry<T>> cache, String key) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        Entry<T> entry = cache.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired(System.nanoTime())) {
+            cache.remove(key, entry);
+            return null;
+        }
+        return entry.value();
+    }
+
+    private <T> void put(Map<String, Entry<T>> cache, String key, T value, long invalidationsBefore) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long now = System.nanoTime();
+        Entry<T> entry = new Entry<>(value, now + TimeUnit.SECONDS.toNanos(properties.getTimeToLiveSeconds()));
+        cache.put(key, entry);
+        // invalidation while checking, either before or after this put, must not leave the entry in the cache
+        if (invalidations.get() != invalidationsBefore) {
+            cache.remove(key, entry);
+        }
+        if (cache.size() > PURGE_THRESHOLD) {
+            cache.values().removeIf(e -> e.isExpired(now));
+        }
+    }
+
+    private static String key(String consumerPid, String providerPid) {
+        return consumerPid + "|" + providerPid;
+    }
+}
@@ -1,26 +1,62 @@
 package it.eng.datatransfer.service.api;
 
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.mongodb.DBRef;
 import it.eng.datatransfer.exceptions.DownloadException;
 import it.eng.datatransfer.model.TransferProcess;
-import it.eng.datatransfer.serializer.TransferSerializer;
-import it.eng.tools.client.rest.OkHttpRestClient;
-import it.eng.tools.controller.ApiEndpoints;
+import it.eng.datatransfer.properties.TransferAccessCacheProperties;
 import it.eng.tools.model.Artifact;
-import it.eng.tools.response.GenericApiResponse;
+import it.eng.tools.repository.ArtifactRepository;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.HttpMethod;
+import org.bson.Document;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Finds the artifact of the dataset of a transfer process, reading the catalog collections directly.<br>
+ * Artifacts are cached per dataset (read-through); the cache is cleared when a dataset or an artifact is saved or
+ * deleted by this instance, changes made by other instances are picked up after
+ * <code>application.transfer-access-cache.artifact-time-to-live-seconds</code>.
+ */
 @Service
 @Slf4j
 public class ArtifactTransferService {
 
-    private final OkHttpRestClient okHttpRestClient;
+    /**
+     * Collection of catalog datasets, each referencing its artifact.
+     */
+    static final String DATASETS_COLLECTION = "datasets";
+    static final String ARTIFACT_FIELD = "artifact";
+    private static final Set<String> CATALOG_COLLECTIONS = Set.of(DATASETS_COLLECTION, "artifacts");
 
-    public ArtifactTransferService(OkHttpRestClient okHttpRestClient) {
-        this.okHttpRestClient = okHttpRestClient;
+    private record CachedArtifact(Artifact artifact, long expiresAt) {
+    }
+
+    private final MongoTemplate mongoTemplate;
+    private final ArtifactRepository artifactRepository;
+    private final TransferAccessCacheProperties properties;
+    private final Map<String, CachedArtifact> artifacts = new ConcurrentHashMap<>();
+    /**
+     * Incremented when the cache is cleared; an artifact read while it was cleared is not kept.
+     */
+    private final AtomicLong evictions = new AtomicLong();
+
+    public ArtifactTransferService(MongoTemplate mongoTemplate, ArtifactRepository artifactRepository,
+                                   TransferAccessCacheProperties properties) {
+        this.mongoTemplate = mongoTemplate;
+        this.artifactRepository = artifactRepository;
+        this.properties = properties;
     }
 
     /**
@@ -31,15 +67,52 @@ public class ArtifactTransferService {
      * @throws DownloadException if no artifact is found or if an error occurs during retrieval
      */
     public Artifact findArtifact(TransferProcess transferProcess) {
-        TypeReference<GenericApiResponse<Artifact>> typeRef = new TypeReference<GenericApiResponse<Artifact>>() {
-        };
+        String datasetId = transferProcess.getDatasetId();
+        long now = System.nanoTime();
+        CachedArtifact cached = artifacts.get(datasetId);
+        if (cached != null && now - cached.expiresAt() < 0) {
+            return cached.artifact();
+        }
+        long evictionsBefore = evictions.get();
+        Artifact artifact = loadArtifact(datasetId);
+        long timeToLive = TimeUnit.SECONDS.toNanos(properties.getArtifactTimeToLiveSeconds());
+        if (properties.isEnabled() && timeToLive > 0) {
+            CachedArtifact entry = new CachedArtifact(artifact, now + timeToLive);
+            artifacts.put(datasetId, entry);
+            if (evictions.get() != evictionsBefore) {
+                artifacts.remove(datasetId, entry);
+            }
+        }
+        return artifact;
+    }
+
+    @EventListener
+    public void onSave(AfterSaveEvent<?> event) {
+        evictIfCatalog(event.getCollectionName());
+    }
 
-        String response = okHttpRestClient.sendInternalRequest(ApiEndpoints.CATALOG_DATASETS_V1 + "/" + transferProcess.getDatasetId() + "/artifact", HttpMethod.GET, null);
-        GenericApiResponse<Artifact> genericResponse = TransferSerializer.deserializePlain(response, typeRef);
+    @EventListener
+    public void onDelete(AfterDeleteEvent<?> event) {
+        evictIfCatalog(event.getCollectionName());
+    }
+
+    private void evictIfCatalog(String collectionName) {
+        if (CATALOG_COLLECTIONS.contains(collectionName)) {
+            log.debug("Catalog {} changed, clearing cached artifacts", collectionName);
+            evictions.incrementAndGet();
+            artifacts.clear();
+        }
+    }
 
-        if (genericResponse.getData() == null) {
+    private Artifact loadArtifact(String datasetId) {
+        Query query = Query.query(Criteria.where("_id").is(datasetId));
+        query.fields().include(ARTIFACT_FIELD);
+        Document dataset = mongoTemplate.findOne(query, Document.class, DATASETS_COLLECTION);
+        if (dataset == null || !(dataset.get(ARTIFACT_FIELD) instanceof DBRef artifactRef)) {
+            log.error("Dataset {} not found or has no artifact", datasetId);
             throw new DownloadException("No such data exists", HttpStatus.NOT_FOUND);
         }
-        return genericResponse.getData();
+        return artifactRepository.findById(String.valueOf(artifactRef.getId()))
+                .orElseThrow(() -> new DownloadException("No such data exists", HttpStatus.NOT_FOUND));
     }
 }
@@ -4,8 +4,10 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import it.eng.datatransfer.event.TransferProcessChangeEvent;
 import it.eng.datatransfer.exceptions.DataTransferAPIException;
 import it.eng.datatransfer.exceptions.TransferProcessInvalidStateException;
+import it.eng.datatransfer.ftp.configuration.FTPConfiguration;
 import it.eng.datatransfer.model.*;
 import it.eng.datatransfer.properties.DataTransferProperties;
 import it.eng.datatransfer.repository.TransferProcessRepository;
@@ -14,8 +16,8 @@ import it.eng.datatransfer.serializer.TransferSerializer;
 import it.eng.tools.client.rest.OkHttpRestClient;
 import it.eng.tools.controller.ApiEndpoints;
 import it.eng.tools.event.AuditEventType;
-import it.eng.tools.event.policyenforcement.ArtifactConsumedEvent;
 import it.eng.tools.model.Artifact;
+import it.eng.tools.model.ArtifactType;
 import it.eng.tools.model.IConstants;
 import it.eng.tools.response.GenericApiResponse;
 import it.eng.tools.s3.model.BucketCredentialsEntity;
@@ -48,6 +50,13 @@ import java.util.stream.Collectors;
 @Slf4j
 public class DataTransferAPIService {
 
+    /**
+     * Fields loaded for transfer process listings; data address and auditing details are only loaded for a single
+     * transfer process.
+     */
+    static final List<String> SUMMARY_FIELDS = List.of("id", "consumerPid", "providerPid", "agreementId",
+            "callbackAddress", "datasetId", "role", "state", "isDownloaded", "dataId", "format", "created", "modified");
+
     private final TransferProcessRepository transferProcessRepository;
     private final OkHttpRestClient okHttpRestClient;
     private final CredentialUtils credentialUtils;
@@ -60,6 +69,7 @@ public class DataTransferAPIService {
     private final DataTransferStrategyFactory dataTransferStrategyFactory;
     private final ArtifactTransferService artifactTransferService;
     private final BucketCredentialsService bucketCredentialsService;
+    private final FTPConfiguration ftpConfiguration;
 
     public DataTransferAPIService(TransferProcessRepository transferProcessRepository,
                                   OkHttpRestClient okHttpRestClient,
@@ -71,7 +81,8 @@ public class DataTransferAPIService {
                                   S3Properties s3Properties,
                                   DataTransferStrategyFactory dataTransferStrategyFactory,
                                   ArtifactTransferService artifactTransferService,
-                                  BucketCredentialsService bucketCredentialsService) {
+                                  BucketCredentialsService bucketCredentialsService,
+                                  FTPConfiguration ftpConfiguration) {
         super();
         this.transferProcessRepository = transferProcessRepository;
         this.okHttpRestClient = okHttpRestClient;
@@ -84,18 +95,21 @@ public class DataTransferAPIService {
         this.dataTransferStrategyFactory = dataTransferStrategyFactory;
         this.artifactTransferService = artifactTransferService;
         this.bucketCredentialsService = bucketCredentialsService;
+        this.ftpConfiguration = ftpConfiguration;
     }
 
     /**
      * Find dataTransfer based on generic filter criteria.
      * Supports any field with automatic type detection and conversion.
      *
+     * Only summary fields are loaded, see {@link #findTransferProcessById(String)} for the whole transfer process.
+     *
      * @param filters  Map of field names to filter values. All values are pre-validated and converted.
      * @param pageable Pageable
      * @return page of TransferProcess
      */
     public Page<TransferProcess> findDataTransfers(Map<String, Object> filters, Pageable pageable) {
-        return transferProcessRepository.findWithDynamicFilters(filters, TransferProcess.class, pageable);
+        return transferProcessRepository.findWithDynamicFilters(filters, TransferProcess.class, pageable, SUMMARY_FIELDS);
     }
 
     /*###### CONSUMER #########*/
@@ -307,6 +321,23 @@ public class DataTransferAPIService {
                         .endpointType("https://w3id.org/idsa/v4.1/HTTP")
                         .build();
 
+            } else if (DataTransferFormat.SFTP.format().equals(transferProcess.getFormat())) {
+                if (artifact.getArtifactType() != ArtifactType.FILE) {
+                    throw new DataTransferAPIException("SFTP transfer is supported only for file artifacts");
+                }
+                // served from S3 the object of the dataset is exposed, otherwise the file in the server folder;
+                // consumer streams it straight into its own storage
+                String sftpPath = ftpConfiguration.isServeFromS3() ? transferProcess.getDatasetId() : artifact.getFilename();
+                String sftpURL = "sftp://" + ftpConfiguration.getHost() + ":" + ftpConfiguration.getServerPort()
+                        + "/" + sftpPath;
+                dataAddress = DataAddress.Builder.newInstance()
+                        .endpoint(sftpURL)
+                        .endpointProperties(List.of(EndpointProperty.Builder.newInstance()
+                                .name("https://w3id.org/edc/v0.0.1/ns/endpoint")
+                                .value(sftpURL)
+                                .build()))
+                        .endpointType(DataTransferFormat.SFTP.format())
+                        .build();
             }
         }
 
@@ -397,6 +428,10 @@ public class DataTransferAPIService {
         if (response.isSuccess()) {
             TransferProcess transferProcessCompleted = transferProcess.copyWithNewTransferState(TransferState.COMPLETED);
             transferProcessRepository.save(transferProcessCompleted);
+            publisher.publishEvent(TransferProcessChangeEvent.Builder.newInstance()
+                    .oldTransferProcess(transferProcess)
+                    .newTransferProcess(transferProcessCompleted)
+                    .build());
             log.info("Transfer process {} saved", transferProcessCompleted.getId());
             publisher.publishEvent(AuditEventType.PROTOCOL_TRANSFER_COMPLETED,
                     "Transfer process completed successfully",
@@ -455,6 +490,10 @@ public class DataTransferAPIService {
         if (response.isSuccess()) {
             TransferProcess transferProcessStarted = transferProcess.copyWithNewTransferState(TransferState.SUSPENDED);
             transferProcessRepository.save(transferProcessStarted);
+            publisher.publishEvent(TransferProcessChangeEvent.Builder.newInstance()
+                    .oldTransferProcess(transferProcess)
+                    .newTransferProcess(transferProcessStarted)
+                    .build());
             log.info("Transfer process {} saved", transferProcessStarted.getId());
             publisher.publishEvent(AuditEventType.PROTOCOL_TRANSFER_SUSPENDED,
                     "Transfer process suspended successfully",
@@ -513,6 +552,10 @@ public class DataTransferAPIService {
         if (response.isSuccess()) {
             TransferProcess transferProcessStarted = transferProcess.copyWithNewTransferState(TransferState.TERMINATED);
             transferProcessRepository.save(transferProcessStarted);
+            publisher.publishEvent(TransferProcessChangeEvent.Builder.newInstance()
+                    .oldTransferProcess(transferProcess)
+                    .newTransferProcess(transferProcessStarted)
+                    .build());
             log.info("Transfer process {} saved", transferProcessStarted.getId());
             publisher.publishEvent(AuditEventType.PROTOCOL_TRANSFER_TERMINATED,
                     "Transfer process terminated successfully",
@@ -636,7 +679,6 @@ public class DataTransferAPIService {
         try {
 //            TODO verify Duration does not exceed EndDateTime, if it is present
             String artifactURL = s3ClientService.generateGetPresignedUrl(s3Properties.getBucketName(), transferProcessId, Duration.ofDays(7L));
-            publisher.publishEvent(new ArtifactConsumedEvent(transferProcess.getAgreementId()));
             publisher.publishEvent(AuditEventType.TRANSFER_VIEW,
                     "Transfer process (view) generated artifact URL",
                     Map.of("transferProcess", transferProcess,
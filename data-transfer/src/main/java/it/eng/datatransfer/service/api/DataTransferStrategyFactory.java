@@ -5,6 +5,7 @@ import it.eng.datatransfer.model.DataTransferFormat;
 import it.eng.datatransfer.service.api.strategy.HttpPullTransferStrategy;
 import it.eng.datatransfer.service.api.strategy.HttpPushTransferStrategy;
 import it.eng.datatransfer.service.api.strategy.S3TransferStrategy;
+import it.eng.datatransfer.service.api.strategy.SftpTransferStrategy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
@@ -19,10 +20,12 @@ public class DataTransferStrategyFactory {
     public DataTransferStrategyFactory(
             HttpPullTransferStrategy httpPullStrategy,
             HttpPushTransferStrategy httpPushStrategy,
-            S3TransferStrategy s3Strategy) {
+            S3TransferStrategy s3Strategy,
+            SftpTransferStrategy sftpStrategy) {
         strategies = Map.of(
                 DataTransferFormat.HTTP_PULL, httpPullStrategy,
-                DataTransferFormat.HTTP_PUSH, httpPushStrategy
+                DataTransferFormat.HTTP_PUSH, httpPushStrategy,
+                DataTransferFormat.SFTP, sftpStrategy
                 //DataTransferFormat.S3, s3Strategy
         );
     }
@@ -5,13 +5,12 @@ import it.eng.datatransfer.exceptions.DownloadException;
 import it.eng.datatransfer.model.TransferProcess;
 import it.eng.datatransfer.service.TransferProcessStrategy;
 import it.eng.tools.client.rest.OkHttpRestClient;
-import it.eng.tools.event.policyenforcement.ArtifactConsumedEvent;
 import it.eng.tools.model.Artifact;
 import it.eng.tools.model.ExternalData;
 import it.eng.tools.response.GenericApiResponse;
 import it.eng.tools.s3.properties.S3Properties;
 import it.eng.tools.s3.service.S3ClientService;
-import it.eng.tools.service.AuditEventPublisher;
+import it.eng.tools.util.ContentDigest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.tomcat.util.codec.binary.Base64;
@@ -28,32 +27,44 @@ public class RestArtifactService {
 
     private final TransferProcessStrategy dataTransferService;
     private final OkHttpRestClient okHttpRestClient;
-    private final AuditEventPublisher publisher;
     private final S3ClientService s3ClientService;
     private final S3Properties s3Properties;
     private final ArtifactTransferService artifactTransferService;
 
     public RestArtifactService(TransferProcessStrategy dataTransferService,
                                OkHttpRestClient okHttpRestClient,
-                               AuditEventPublisher publisher,
                                S3ClientService s3ClientService,
                                S3Properties s3Properties, ArtifactTransferService artifactTransferService) {
         super();
         this.dataTransferService = dataTransferService;
         this.okHttpRestClient = okHttpRestClient;
-        this.publisher = publisher;
         this.s3ClientService = s3ClientService;
         this.s3Properties = s3Properties;
         this.artifactTransferService = artifactTransferService;
     }
 
+    /**
+     * Writes artifact for transactionId to the response.
+     *
+     * @param transactionId Base64.urlEncoded(consumerPid|providerPid) of the transfer process
+     * @param response      response the artifact is written to
+     */
     public void getArtifact(String transactionId, HttpServletResponse response) {
         TransferProcess transferProcess = getTransferProcessForTransactionId(transactionId);
-        Artifact artifact = artifactTransferService.findArtifact(transferProcess);
+        getArtifact(transferProcess, artifactTransferService.findArtifact(transferProcess), response);
+    }
 
+    /**
+     * Writes artifact, already resolved for the transfer process, to the response.
+     *
+     * @param transferProcess transfer process the artifact is downloaded for
+     * @param artifact        artifact of the dataset of the transfer process
+     * @param response        response the artifact is written to
+     */
+    public void getArtifact(TransferProcess transferProcess, Artifact artifact, HttpServletResponse response) {
         switch (artifact.getArtifactType()) {
             case FILE:
-                getFile(artifact.getValue(), response);
+                getFile(artifact.getValue(), artifact.getChecksum(), response);
                 break;
             case EXTERNAL:
                 getExternalData(artifact.getValue(), artifact.getAuthorization(), response);
@@ -63,17 +74,20 @@ public class RestArtifactService {
                 log.error("Wrong artifact type: {}", artifact.getArtifactType());
                 throw new DownloadException("Error while downloading data", HttpStatus.INTERNAL_SERVER_ERROR);
         }
-        publisher.publishEvent(new ArtifactConsumedEvent(transferProcess.getAgreementId()));
     }
 
 
     @Deprecated(since = "Use S3ClientService over presignedURL")
-    private void getFile(String fileId, HttpServletResponse response) {
+    private void getFile(String fileId, String checksum, HttpServletResponse response) {
         // Check if file exists in S3
         if (!s3ClientService.fileExists(s3Properties.getBucketName(), fileId)) {
             log.error("Data not found in S3");
             throw new DataTransferAPIException("Data not found in S3");
         }
+        // headers must be set before the body is written; files stored before checksums were recorded have none
+        if (checksum != null) {
+            response.setHeader(ContentDigest.REPR_DIGEST, ContentDigest.reprDigestValue(checksum));
+        }
         // Download file from S3
         s3ClientService.downloadFile(s3Properties.getBucketName(), fileId, response);
     }
@@ -86,6 +100,9 @@ public class RestArtifactService {
                 response.setStatus(HttpStatus.OK.value());
                 response.setContentType(externalData.getData().getContentType().toString());
                 response.setHeader(HttpHeaders.CONTENT_DISPOSITION, externalData.getData().getContentDisposition());
+                // lets the consumer verify integrity of received data
+                response.setHeader(ContentDigest.REPR_DIGEST, ContentDigest.reprDigest(externalData.getData().getData()));
+                response.setContentLengthLong(externalData.getData().getData().length);
                 response.getOutputStream().write(externalData.getData().getData());
                 response.flushBuffer();
             } catch (IOException e) {
@@ -8,6 +8,8 @@ import it.eng.tools.model.IConstants;
 import it.eng.tools.s3.properties.S3Properties;
 import it.eng.tools.s3.service.S3ClientService;
 import it.eng.tools.s3.util.S3Utils;
+import it.eng.tools.util.ContentDigest;
+import it.eng.tools.util.DigestingInputStream;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.http.HttpHeaders;
@@ -26,11 +28,14 @@ public class HttpPullTransferStrategy implements DataTransferStrategy {
 
     private final S3ClientService s3ClientService;
     private final S3Properties s3Properties;
+    private final TransferIntegrityVerifier integrityVerifier;
     private static final int DEFAULT_TIMEOUT = 10000; // 10 seconds
 
-    public HttpPullTransferStrategy(S3ClientService s3ClientService, S3Properties s3Properties) {
+    public HttpPullTransferStrategy(S3ClientService s3ClientService, S3Properties s3Properties,
+                                    TransferIntegrityVerifier integrityVerifier) {
         this.s3ClientService = s3ClientService;
         this.s3Properties = s3Properties;
+        this.integrityVerifier = integrityVerifier;
     }
 
     @Override
@@ -82,6 +87,8 @@ public class HttpPullTransferStrategy implements DataTransferStrategy {
 
             String contentType = connection.getContentType();
             String contentDisposition = connection.getHeaderField(HttpHeaders.CONTENT_DISPOSITION);
+            long expectedLength = connection.getContentLengthLong();
+            String expectedDigest = ContentDigest.sha256(connection.getHeaderFields()).orElse(null);
 
             Map<String, String> destinationS3Properties = Map.of(
                     S3Utils.OBJECT_KEY, key,
@@ -91,13 +98,24 @@ public class HttpPullTransferStrategy implements DataTransferStrategy {
                     S3Utils.ACCESS_KEY, s3Properties.getAccessKey(),
                     S3Utils.SECRET_KEY, s3Properties.getSecretKey()
             );
-            // Use S3ClientService's uploadFile method
+            // digest is computed while data streams to S3, and verified once the upload finishes
+            DigestingInputStream received = new DigestingInputStream(connection.getInputStream());
             return s3ClientService.uploadFile(
-                    connection.getInputStream(),
+                    received,
                     destinationS3Properties,
                     contentType,
-                    contentDisposition
-            );
+                    contentDisposition,
+                    expectedLength
+            ).thenApply(eTag -> {
+                try {
+                    integrityVerifier.verify(key, received, expectedLength, expectedDigest,
+                            s3Properties.getBucketName(), key);
+                } catch (DataTransferAPIException e) {
+                    s3ClientService.deleteFile(s3Properties.getBucketName(), key);
+                    throw e;
+                }
+                return eTag;
+            });
         } catch (IOException e) {
             if (connection != null) {
                 connection.disconnect();
@@ -6,6 +6,9 @@ import it.eng.datatransfer.model.TransferProcess;
 import it.eng.datatransfer.service.api.DataTransferStrategy;
 import it.eng.tools.s3.properties.S3Properties;
 import it.eng.tools.s3.service.S3ClientService;
+import it.eng.tools.s3.util.S3Utils;
+import it.eng.tools.util.ContentDigest;
+import it.eng.tools.util.DigestingInputStream;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Service;
@@ -24,12 +27,15 @@ public class HttpPushTransferStrategy implements DataTransferStrategy {
 
     private final S3Properties s3Properties;
     private final S3ClientService s3ClientService;
+    private final TransferIntegrityVerifier integrityVerifier;
     private static final int DEFAULT_TIMEOUT = 10000; // 10 seconds
 
     public HttpPushTransferStrategy(S3Properties s3Properties,
-                                    S3ClientService s3ClientService) {
+                                    S3ClientService s3ClientService,
+                                    TransferIntegrityVerifier integrityVerifier) {
         this.s3Properties = s3Properties;
         this.s3ClientService = s3ClientService;
+        this.integrityVerifier = integrityVerifier;
     }
 
     @Override
@@ -39,12 +45,12 @@ public class HttpPushTransferStrategy implements DataTransferStrategy {
                 .stream()
                 .collect(Collectors.toMap(EndpointProperty::getName, EndpointProperty::getValue));
         String presignedUrl = s3ClientService.generateGetPresignedUrl(s3Properties.getBucketName(), transferProcess.getDatasetId(), Duration.ofDays(1L));
-        return transfer(presignedUrl, destinationS3Properties)
+        return transfer(transferProcess.getId(), presignedUrl, destinationS3Properties)
                 .thenAccept(key ->
                         log.info("Pushed transfer process id - {} data!", key));
     }
 
-    private CompletableFuture<String> transfer(String presignedUrl, Map<String, String> destinationS3Properties) {
+    private CompletableFuture<String> transfer(String transferProcessId, String presignedUrl, Map<String, String> destinationS3Properties) {
         HttpURLConnection connection = null;
         try {
             URL url = new URL(presignedUrl);
@@ -71,12 +77,26 @@ public class HttpPushTransferStrategy implements DataTransferStrategy {
             log.info("Presigned URL: {}", presignedUrl);
             log.info("HTTP response code: {}", responseCode);
 
-            // Use S3ClientService's uploadFile method
+            long expectedLength = connection.getContentLengthLong();
+            String expectedDigest = ContentDigest.sha256(connection.getHeaderFields()).orElse(null);
+            // digest is computed while data streams to S3, and verified once the upload finishes
+            DigestingInputStream sent = new DigestingInputStream(connection.getInputStream());
             return s3ClientService.uploadFile(
-                    connection.getInputStream(),
+                    sent,
                     destinationS3Properties,
                     connection.getContentType(),
-                    connection.getHeaderField(HttpHeaders.CONTENT_DISPOSITION));
+                    connection.getHeaderField(HttpHeaders.CONTENT_DISPOSITION),
+                    expectedLength)
+                    .thenApply(eTag -> {
+                        try {
+                            integrityVerifier.verify(transferProcessId, sent, expectedLength, expectedDigest,
+                                    destinationS3Properties.get(S3Utils.BUCKET_NAME), destinationS3Properties.get(S3Utils.OBJECT_KEY));
+                        } catch (DataTransferAPIException e) {
+                            s3ClientService.deleteFile(destinationS3Properties);
+                            throw e;
+                        }
+                        return eTag;
+                    });
         } catch (IOException e) {
             if (connection != null) {
                 connection.disconnect();
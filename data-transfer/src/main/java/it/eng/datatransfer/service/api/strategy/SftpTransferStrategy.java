@@ -0,0 +1,112 @@
+package it.eng.datatransfer.service.api.strategy;
+
+import it.eng.datatransfer.exceptions.DataTransferAPIException;
+import it.eng.datatransfer.ftp.client.FTPClient;
+import it.eng.datatransfer.ftp.client.SftpArtifactInputStream;
+import it.eng.datatransfer.model.TransferProcess;
+import it.eng.datatransfer.service.api.DataTransferStrategy;
+import it.eng.tools.s3.properties.S3Properties;
+import it.eng.tools.s3.service.S3ClientService;
+import it.eng.tools.s3.util.S3Utils;
+import it.eng.tools.util.DigestingInputStream;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Pulls artifact from provider SFTP server and streams it into the S3 bucket, without storing it on local disk.<br>
+ * Data address endpoint is expected in form {@code sftp://host:port/path}.
+ */
+@Service
+@Slf4j
+public class SftpTransferStrategy implements DataTransferStrategy {
+
+    private static final String SFTP_SCHEME = "sftp";
+    private static final int DEFAULT_SFTP_PORT = 22;
+
+    private final FTPClient ftpClient;
+    private final S3ClientService s3ClientService;
+    private final S3Properties s3Properties;
+    private final TransferIntegrityVerifier integrityVerifier;
+
+    public SftpTransferStrategy(FTPClient ftpClient, S3ClientService s3ClientService, S3Properties s3Properties,
+                                TransferIntegrityVerifier integrityVerifier) {
+        this.ftpClient = ftpClient;
+        this.s3ClientService = s3ClientService;
+        this.s3Properties = s3Properties;
+        this.integrityVerifier = integrityVerifier;
+    }
+
+    @Override
+    public CompletableFuture<Void> transfer(TransferProcess transferProcess) {
+        log.info("Executing SFTP transfer for process {}", transferProcess.getId());
+        URI endpoint = parseEndpoint(transferProcess.getDataAddress() != null ? transferProcess.getDataAddress().getEndpoint() : null);
+        String artifact = endpoint.getPath();
+        String key = transferProcess.getId();
+
+        SftpArtifactInputStream remote;
+        try {
+            // provider grants the session access to the artifact of the transfer named by providerPid
+            remote = ftpClient.openArtifact(artifact, endpoint.getHost(),
+                    endpoint.getPort() > 0 ? endpoint.getPort() : DEFAULT_SFTP_PORT, transferProcess.getProviderPid());
+        } catch (IOException e) {
+            log.error("Failed to open artifact {} on {}", artifact, endpoint, e);
+            throw new DataTransferAPIException("Failed to open artifact over SFTP: " + e.getMessage(), e);
+        }
+
+        Map<String, String> destinationS3Properties = Map.of(
+                S3Utils.OBJECT_KEY, key,
+                S3Utils.BUCKET_NAME, s3Properties.getBucketName(),
+                S3Utils.ENDPOINT_OVERRIDE, s3Properties.getEndpoint(),
+                S3Utils.REGION, s3Properties.getRegion(),
+                S3Utils.ACCESS_KEY, s3Properties.getAccessKey(),
+                S3Utils.SECRET_KEY, s3Properties.getSecretKey()
+        );
+        String contentDisposition = ContentDisposition.attachment()
+                .filename(Paths.get(artifact).getFileName().toString())
+                .build()
+                .toString();
+        // SFTP does not advertise a digest, size is verified and computed digest is recorded
+        DigestingInputStream received = new DigestingInputStream(remote);
+        return s3ClientService.uploadFile(
+                received,
+                destinationS3Properties,
+                MediaType.APPLICATION_OCTET_STREAM_VALUE,
+                contentDisposition,
+                remote.getSize()
+        ).thenApply(eTag -> {
+            try {
+                integrityVerifier.verify(key, received, remote.getSize(), null, s3Properties.getBucketName(), key);
+            } catch (DataTransferAPIException e) {
+                s3ClientService.deleteFile(s3Properties.getBucketName(), key);
+                throw e;
+            }
+            return eTag;
+        }).thenAccept(eTag ->
+                log.info("Stored transfer process id - {} data!", key));
+    }
+
+    private URI parseEndpoint(String endpoint) {
+        if (StringUtils.isBlank(endpoint)) {
+            throw new DataTransferAPIException("SFTP endpoint not present in data address");
+        }
+        try {
+            URI uri = URI.create(endpoint);
+            if (!SFTP_SCHEME.equalsIgnoreCase(uri.getScheme()) || StringUtils.isBlank(uri.getHost())
+                    || StringUtils.isBlank(uri.getPath()) || "/".equals(uri.getPath())) {
+                throw new DataTransferAPIException("Invalid SFTP endpoint: " + endpoint);
+            }
+            return uri;
+        } catch (IllegalArgumentException e) {
+            throw new DataTransferAPIException("Invalid SFTP endpoint: " + endpoint, e);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package it.eng.datatransfer.service.api.strategy;
+
+import it.eng.datatransfer.exceptions.DataTransferAPIException;
+import it.eng.datatransfer.model.TransferArtifactState;
+import it.eng.tools.util.ContentDigest;
+import it.eng.tools.util.DigestingInputStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Verifies data received by HTTP transfer strategies and records its digest.<br>
+ * Received bytes are digested while they stream to S3; once the upload finishes the byte count is compared with
+ * Content-Length and the digest with the one advertised by the sender (Repr-Digest or Digest header), if any.
+ * The transfer state is upserted, so a repeated download of the same transfer updates the state left by an earlier
+ * attempt.
+ */
+@Component
+@Slf4j
+public class TransferIntegrityVerifier {
+
+    private final MongoTemplate mongoTemplate;
+
+    public TransferIntegrityVerifier(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Verifies fully consumed stream and stores its digest.
+     *
+     * @param transferProcessId transfer process id
+     * @param received          stream which was uploaded
+     * @param expectedLength    Content-Length of the response, negative if unknown
+     * @param expectedDigest    Base64 SHA-256 advertised by the sender, null if not advertised
+     * @param bucketName        destination bucket
+     * @param objectKey         destination object key
+     * @throws DataTransferAPIException if received data does not match length or digest
+     */
+    public void verify(String transferProcessId, DigestingInputStream received, long expectedLength,
+                       String expectedDigest, String bucketName, String objectKey) {
+        String digest = received.getDigest();
+        long receivedBytes = received.getByteCount();
+        if (expectedLength >= 0 && expectedLength != receivedBytes) {
+            log.error("Transfer process {} received {} bytes, expected {}", transferProcessId, receivedBytes, expectedLength);
+            throw new DataTransferAPIException("Incomplete data received, expected " + expectedLength
+                    + " bytes but received " + receivedBytes);
+        }
+        if (expectedDigest != null && !expectedDigest.equals(digest)) {
+            log.error("Transfer process {} digest mismatch, expected {} but received {}", transferProcessId, expectedDigest, digest);
+            throw new DataTransferAPIException("Received data does not match advertised SHA-256 digest");
+        }
+        if (expectedDigest == null) {
+            log.info("Sender did not advertise digest for transfer process {}, recording received digest only", transferProcessId);
+        }
+        Instant now = Instant.now();
+        // version is incremented by the template, entity is versioned
+        mongoTemplate.upsert(Query.query(Criteria.where("_id").is(transferProcessId)),
+                new Update()
+                        .set("downloadedBytes", receivedBytes)
+                        .set("totalBytes", receivedBytes)
+                        .set("destBucket", bucketName)
+                        .set("destObject", objectKey)
+                        .set("checksumAlgorithm", ContentDigest.SHA_256)
+                        .set("checksum", digest)
+                        .set("modified", now)
+                        .setOnInsert("issued", now),
+                TransferArtifactState.class);
+        log.info("Transfer process {} received {} bytes with SHA-256 {}", transferProcessId, receivedBytes, digest);
+    }
+}
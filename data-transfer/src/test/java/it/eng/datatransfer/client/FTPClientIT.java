@@ -6,6 +6,7 @@ import it.eng.datatransfer.ftp.client.FTPClient;
 import it.eng.datatransfer.ftp.configuration.FTPConfiguration;
 import it.eng.datatransfer.server.FTPServerTestUtil;
 import it.eng.tools.configuration.GlobalSSLConfiguration;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -33,6 +34,9 @@ import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
 import java.security.UnrecoverableKeyException;
 import java.security.cert.Certificate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.when;
@@ -91,6 +95,11 @@ public class FTPClientIT {
         configureClient();
     }
 
+    @AfterEach
+    public void shutdownClient() {
+        ftpClient.shutdown();
+    }
+
 
     @Test
     public void downloadFile_ConnectionFailed(@TempDir Path tempDir) {
@@ -106,6 +115,28 @@ public class FTPClientIT {
         assertTrue(checkIfFileIsDownloaded(tempDir + "/test1.csv"));
     }
 
+    @Test
+    public void downloadFile_sessionReused(@TempDir Path tempDir) {
+        when(ftpConfiguration.getDownloadFolder()).thenReturn(tempDir.toString());
+        for (int i = 0; i < 500; i++) {
+            assertTrue(ftpClient.downloadArtifact("test1.csv", "localhost", 2222));
+        }
+        assertEquals(1, ftpClient.getPooledSessionCount());
+        assertTrue(checkIfFileIsDownloaded(tempDir + "/test1.csv"));
+    }
+
+    @Test
+    public void downloadFile_concurrent(@TempDir Path tempDir) {
+        when(ftpConfiguration.getDownloadFolder()).thenReturn(tempDir.toString());
+        List<CompletableFuture<Boolean>> downloads = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            downloads.add(CompletableFuture.supplyAsync(() -> ftpClient.downloadArtifact("test1.csv", "localhost", 2222)));
+        }
+        downloads.forEach(download -> assertTrue(download.join()));
+        // 16 channels multiplexed over sessions carrying up to 8 channels each
+        assertTrue(ftpClient.getPooledSessionCount() <= 2);
+    }
+
     private void configureClient() throws KeyStoreException, NoSuchSslBundleException, UnrecoverableKeyException, NoSuchAlgorithmException {
         when(sslBundles.getBundle(bundleName)).thenReturn(bundle);
         when(sslBundles.getBundle(bundleName).createSslContext()).thenReturn(sslContext);
@@ -124,6 +155,9 @@ public class FTPClientIT {
 
         when(ftpConfiguration.getClientUsername()).thenReturn("test_client");
         when(ftpConfiguration.getDefaultTimeoutSeconds()).thenReturn(1000L);
+        when(ftpConfiguration.getMaxChannelsPerSession()).thenReturn(8);
+        when(ftpConfiguration.getSessionIdleTimeoutSeconds()).thenReturn(300L);
+        when(ftpConfiguration.getReadBufferSize()).thenReturn(32 * 1024);
         ftpClient = new FTPClient(globalSSLConfiguration, ftpConfiguration);
 
     }
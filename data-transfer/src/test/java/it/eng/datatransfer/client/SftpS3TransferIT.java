@@ -0,0 +1,222 @@
+package it.eng.datatransfer.client;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.mockito.Answers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import it.eng.datatransfer.config.AuthenticatorTestUtil;
+import it.eng.datatransfer.config.TestSSLConfiguration;
+import it.eng.datatransfer.event.StartFTPServerEvent;
+import it.eng.datatransfer.exceptions.DataTransferAPIException;
+import it.eng.datatransfer.ftp.client.FTPClient;
+import it.eng.datatransfer.ftp.configuration.FTPConfiguration;
+import it.eng.datatransfer.ftp.server.FTPServer;
+import it.eng.datatransfer.model.DataAddress;
+import it.eng.datatransfer.model.DataTransferFormat;
+import it.eng.datatransfer.model.TransferProcess;
+import it.eng.datatransfer.model.TransferState;
+import it.eng.datatransfer.repository.TransferProcessRepository;
+import it.eng.datatransfer.service.api.strategy.SftpTransferStrategy;
+import it.eng.datatransfer.service.api.strategy.TransferIntegrityVerifier;
+import it.eng.datatransfer.util.InMemoryS3ClientService;
+import it.eng.tools.configuration.GlobalSSLConfiguration;
+import it.eng.tools.model.IConstants;
+import it.eng.tools.s3.properties.S3Properties;
+
+/**
+ * Provider SFTP server serving an in-memory bucket, consumer streaming artifacts into another in-memory bucket.
+ */
+@TestInstance(Lifecycle.PER_CLASS)
+@SpringBootTest(classes = {AuthenticatorTestUtil.class, TestSSLConfiguration.class})
+public class SftpS3TransferIT {
+
+    private static final int PORT = 2224;
+    private static final byte[] ARTIFACT = new byte[5 * 1024 * 1024 + 17];
+
+    @Autowired
+    AuthenticatorTestUtil authenticator;
+
+    @Autowired
+    TestSSLConfiguration testSSLConfiguration;
+
+    private final InMemoryS3ClientService providerStorage = new InMemoryS3ClientService();
+    private final InMemoryS3ClientService consumerStorage = new InMemoryS3ClientService();
+    private final TransferProcessRepository transferProcessRepository = mock(TransferProcessRepository.class);
+    private final Map<String, TransferProcess> providerTransfers = new ConcurrentHashMap<>();
+    private FTPServer ftpServer;
+    private FTPClient ftpClient;
+    private FTPConfiguration clientConfiguration;
+    private SftpTransferStrategy strategy;
+
+    @BeforeAll
+    public void startServer() throws IOException, URISyntaxException {
+        new Random(42).nextBytes(ARTIFACT);
+        providerStorage.putObject("dataset-1", ARTIFACT);
+        providerStorage.putObject("folder/small.csv", "a,b\n1,2\n".getBytes());
+
+        GlobalSSLConfiguration sslConfiguration = sslConfiguration();
+        FTPConfiguration serverConfiguration = mock(FTPConfiguration.class);
+        when(serverConfiguration.getServerPort()).thenReturn(PORT);
+        when(serverConfiguration.isServeFromS3()).thenReturn(true);
+        S3Properties providerS3Properties = mock(S3Properties.class);
+        when(providerS3Properties.getBucketName()).thenReturn("provider-bucket");
+        when(transferProcessRepository.findByProviderPid(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(providerTransfers.get(invocation.getArgument(0, String.class))));
+        ftpServer = new FTPServer(sslConfiguration, authenticator, serverConfiguration, providerStorage, providerS3Properties,
+                transferProcessRepository);
+        ftpServer.start(new StartFTPServerEvent());
+
+        clientConfiguration = mock(FTPConfiguration.class);
+        when(clientConfiguration.getClientUsername()).thenReturn("test_client");
+        when(clientConfiguration.getDefaultTimeoutSeconds()).thenReturn(30L);
+        when(clientConfiguration.getMaxChannelsPerSession()).thenReturn(8);
+        when(clientConfiguration.getSessionIdleTimeoutSeconds()).thenReturn(300L);
+        when(clientConfiguration.getReadBufferSize()).thenReturn(32 * 1024);
+        ftpClient = new FTPClient(sslConfiguration, clientConfiguration);
+
+        S3Properties consumerS3Properties = mock(S3Properties.class);
+        when(consumerS3Properties.getBucketName()).thenReturn("consumer-bucket");
+        when(consumerS3Properties.getEndpoint()).thenReturn("http://localhost:9000");
+        when(consumerS3Properties.getRegion()).thenReturn("us-east-1");
+        when(consumerS3Properties.getAccessKey()).thenReturn("access");
+        when(consumerS3Properties.getSecretKey()).thenReturn("secret");
+        strategy = new SftpTransferStrategy(ftpClient, consumerStorage, consumerS3Properties,
+                new TransferIntegrityVerifier(mock(MongoTemplate.class)));
+    }
+
+    @AfterAll
+    public void stopServer() throws IOException {
+        ftpClient.shutdown();
+        ftpServer.shutdownFtp();
+    }
+
+    @BeforeEach
+    public void cleanSlate() {
+        consumerStorage.deleteFile("consumer-bucket", "transfer-1");
+        providerTransfers.clear();
+    }
+
+    @Test
+    public void transfer_streamsFromProviderBucketToConsumerBucket() throws ExecutionException, InterruptedException {
+        providerTransfer("urn:uuid:provider", "dataset-1", TransferState.STARTED);
+        int rangedReads = providerStorage.getRangedReads();
+
+        strategy.transfer(transferProcess("urn:uuid:provider", "sftp://localhost:" + PORT + "/dataset-1")).get();
+
+        assertArrayEquals(ARTIFACT, consumerStorage.getObject("transfer-1"));
+        // sequential SFTP reads are served by a single ranged GET
+        assertEquals(rangedReads + 1, providerStorage.getRangedReads());
+        verify(clientConfiguration, never()).getDownloadFolder();
+    }
+
+    @Test
+    public void transfer_nestedKey() throws ExecutionException, InterruptedException {
+        providerTransfer("urn:uuid:provider-nested", "folder/small.csv", TransferState.STARTED);
+
+        strategy.transfer(transferProcess("urn:uuid:provider-nested", "sftp://localhost:" + PORT + "/folder/small.csv")).get();
+
+        assertArrayEquals("a,b\n1,2\n".getBytes(), consumerStorage.getObject("transfer-1"));
+    }
+
+    @Test
+    public void transfer_missingArtifact() {
+        providerTransfer("urn:uuid:provider-missing", "missing", TransferState.STARTED);
+
+        assertThrows(DataTransferAPIException.class,
+                () -> strategy.transfer(transferProcess("urn:uuid:provider-missing", "sftp://localhost:" + PORT + "/missing")));
+        assertNull(consumerStorage.getObject("transfer-1"));
+    }
+
+    @Test
+    public void transfer_directoryIsNotArtifact() {
+        providerTransfer("urn:uuid:provider-folder", "folder/small.csv", TransferState.STARTED);
+        int pooledSessions = ftpClient.getPooledSessionCount();
+
+        assertThrows(DataTransferAPIException.class,
+                () -> strategy.transfer(transferProcess("urn:uuid:provider-folder", "sftp://localhost:" + PORT + "/folder")));
+        assertFalse(consumerStorage.fileExists("consumer-bucket", "transfer-1"));
+        assertTrue(ftpClient.getPooledSessionCount() <= pooledSessions + 1);
+    }
+
+    @Test
+    public void transfer_otherObjectOfBucketNotVisible() {
+        providerTransfer("urn:uuid:provider-other", "folder/small.csv", TransferState.STARTED);
+
+        assertThrows(DataTransferAPIException.class,
+                () -> strategy.transfer(transferProcess("urn:uuid:provider-other", "sftp://localhost:" + PORT + "/dataset-1")));
+        assertNull(consumerStorage.getObject("transfer-1"));
+    }
+
+    @Test
+    public void transfer_transferNotStarted() {
+        providerTransfer("urn:uuid:provider-suspended", "dataset-1", TransferState.SUSPENDED);
+
+        assertThrows(DataTransferAPIException.class,
+                () -> strategy.transfer(transferProcess("urn:uuid:provider-suspended", "sftp://localhost:" + PORT + "/dataset-1")));
+        assertNull(consumerStorage.getObject("transfer-1"));
+    }
+
+    @Test
+    public void transfer_unknownTransfer() {
+        assertThrows(DataTransferAPIException.class,
+                () -> strategy.transfer(transferProcess("urn:uuid:unknown", "sftp://localhost:" + PORT + "/dataset-1")));
+        assertNull(consumerStorage.getObject("transfer-1"));
+    }
+
+    private void providerTransfer(String providerPid, String datasetId, TransferState state) {
+        providerTransfers.put(providerPid, TransferProcess.Builder.newInstance()
+                .consumerPid("urn:uuid:consumer")
+                .providerPid(providerPid)
+                .datasetId(datasetId)
+                .role(IConstants.ROLE_PROVIDER)
+                .format(DataTransferFormat.SFTP.format())
+                .state(state)
+                .build());
+    }
+
+    private TransferProcess transferProcess(String providerPid, String endpoint) {
+        return TransferProcess.Builder.newInstance()
+                .id("transfer-1")
+                .consumerPid("urn:uuid:consumer")
+                .providerPid(providerPid)
+                .state(TransferState.STARTED)
+                .dataAddress(DataAddress.Builder.newInstance().endpoint(endpoint).build())
+                .build();
+    }
+
+    private GlobalSSLConfiguration sslConfiguration() {
+        GlobalSSLConfiguration sslConfiguration = mock(GlobalSSLConfiguration.class, Answers.RETURNS_DEEP_STUBS);
+        when(sslConfiguration.getKeyPair()).thenReturn(testSSLConfiguration.getKeyPair());
+        when(sslConfiguration.getPublicKey()).thenReturn(testSSLConfiguration.getKeyPair().getPublic());
+        when(sslConfiguration.getSslBundles().getBundle("connector").getStores().getKeyStorePassword())
+                .thenReturn(testSSLConfiguration.getTlsKeystorePassword());
+        return sslConfiguration;
+    }
+}
@@ -1,7 +1,10 @@
 package it.eng.datatransfer.event;
 
+import it.eng.datatransfer.model.TransferState;
 import it.eng.datatransfer.repository.TransferRequestMessageRepository;
 import it.eng.datatransfer.util.DataTransferMockObjectUtil;
+import it.eng.tools.notification.StateChangeNotification;
+import it.eng.tools.notification.StateChangeNotificationService;
 import it.eng.tools.service.AuditEventPublisher;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -24,6 +27,8 @@ class DataTransferEventListenerTest {
     private AuditEventPublisher publisher;
     @Mock
     private TransferRequestMessageRepository transferRequestMessageRepository;
+    @Mock
+    private StateChangeNotificationService notificationService;
 
     @InjectMocks
     private DataTransferEventListener dataTransferEventListener;
@@ -36,6 +41,10 @@ class DataTransferEventListenerTest {
                 .newTransferProcess(DataTransferMockObjectUtil.TRANSFER_PROCESS_STARTED)
                 .build();
         assertDoesNotThrow(() -> dataTransferEventListener.handleTransferProcessChange(changeEvent));
+
+        verify(notificationService).publish(argThat(n -> StateChangeNotification.TRANSFER_PROCESS.equals(n.getResourceType())
+                && TransferState.REQUESTED.name().equals(n.getOldState())
+                && TransferState.STARTED.name().equals(n.getNewState())));
     }
 
     @Test
@@ -0,0 +1,147 @@
+package it.eng.datatransfer.filter;
+
+import com.mongodb.DBRef;
+import it.eng.datatransfer.model.TransferProcess;
+import it.eng.datatransfer.properties.TransferAccessCacheProperties;
+import it.eng.datatransfer.repository.TransferProcessRepository;
+import it.eng.datatransfer.repository.TransferRequestMessageRepository;
+import it.eng.datatransfer.rest.api.RestArtifactController;
+import it.eng.datatransfer.service.AgreementService;
+import it.eng.datatransfer.service.DataTransferService;
+import it.eng.datatransfer.service.TransferAccessCache;
+import it.eng.datatransfer.service.api.ArtifactTransferService;
+import it.eng.datatransfer.service.api.RestArtifactService;
+import it.eng.datatransfer.util.DataTransferMockObjectUtil;
+import it.eng.tools.client.rest.OkHttpRestClient;
+import it.eng.tools.model.Artifact;
+import it.eng.tools.model.ArtifactType;
+import it.eng.tools.property.ConnectorProperties;
+import it.eng.tools.repository.ArtifactRepository;
+import it.eng.tools.s3.properties.S3Properties;
+import it.eng.tools.s3.service.S3ClientService;
+import it.eng.tools.service.AuditEventPublisher;
+import it.eng.tools.usagecontrol.UsageControlProperties;
+import it.eng.tools.util.CredentialUtils;
+import jakarta.servlet.ServletRequest;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Artifact downloads through the filter and the controller, counting database queries and local HTTP calls.
+ */
+@ExtendWith(MockitoExtension.class)
+class ArtifactDownloadTest {
+
+    private static final String ARTIFACT_ID = "artifact-id";
+    private static final String BUCKET = "bucket";
+    private static final int DOWNLOADS = 5;
+
+    @Mock
+    private TransferProcessRepository transferProcessRepository;
+    @Mock
+    private TransferRequestMessageRepository transferRequestMessageRepository;
+    @Mock
+    private MongoTemplate mongoTemplate;
+    @Mock
+    private ArtifactRepository artifactRepository;
+    @Mock
+    private OkHttpRestClient okHttpRestClient;
+    @Mock
+    private AuditEventPublisher publisher;
+    @Mock
+    private S3ClientService s3ClientService;
+    @Mock
+    private S3Properties s3Properties;
+    @Mock
+    private UsageControlProperties usageControlProperties;
+    @Mock
+    private CredentialUtils credentialUtils;
+    @Mock
+    private ConnectorProperties connectorProperties;
+
+    private EndpointAvailableFilter filter;
+    private RestArtifactController controller;
+
+    @BeforeEach
+    void setUp() {
+        TransferAccessCacheProperties properties = new TransferAccessCacheProperties();
+        // transfer state is checked on every download, artifact is cached
+        properties.setTimeToLiveSeconds(0);
+        TransferAccessCache transferAccessCache = new TransferAccessCache(properties);
+        DataTransferService dataTransferService = new DataTransferService(transferProcessRepository,
+                transferRequestMessageRepository, publisher, okHttpRestClient);
+        ArtifactTransferService artifactTransferService = new ArtifactTransferService(mongoTemplate, artifactRepository, properties);
+        AgreementService agreementService = new AgreementService(usageControlProperties, okHttpRestClient,
+                credentialUtils, connectorProperties, transferAccessCache);
+        filter = new EndpointAvailableFilter(agreementService, dataTransferService, transferAccessCache, artifactTransferService);
+        controller = new RestArtifactController(new RestArtifactService(dataTransferService, okHttpRestClient,
+                s3ClientService, s3Properties, artifactTransferService));
+
+        when(transferProcessRepository.findByConsumerPidAndProviderPid(DataTransferMockObjectUtil.CONSUMER_PID,
+                DataTransferMockObjectUtil.PROVIDER_PID)).thenReturn(Optional.of(DataTransferMockObjectUtil.TRANSFER_PROCESS_STARTED));
+        when(mongoTemplate.findOne(any(Query.class), eq(Document.class), eq("datasets")))
+                .thenReturn(new Document("_id", DataTransferMockObjectUtil.DATASET_ID)
+                        .append("artifact", new DBRef("artifacts", ARTIFACT_ID)));
+        when(artifactRepository.findById(ARTIFACT_ID)).thenReturn(Optional.of(Artifact.Builder.newInstance()
+                .id(ARTIFACT_ID)
+                .artifactType(ArtifactType.FILE)
+                .value("file-id")
+                .build()));
+        when(s3Properties.getBucketName()).thenReturn(BUCKET);
+        when(s3ClientService.fileExists(BUCKET, "file-id")).thenReturn(true);
+    }
+
+    @Test
+    @DisplayName("One transfer process query and no local HTTP call per download")
+    void download_queriesTransferProcessOnce() throws Exception {
+        for (int i = 0; i < DOWNLOADS; i++) {
+            download();
+        }
+
+        verify(transferProcessRepository, times(DOWNLOADS)).findByConsumerPidAndProviderPid(
+                DataTransferMockObjectUtil.CONSUMER_PID, DataTransferMockObjectUtil.PROVIDER_PID);
+        // artifact read on the first download only
+        verify(mongoTemplate, times(1)).findOne(any(Query.class), eq(Document.class), eq("datasets"));
+        verify(artifactRepository, times(1)).findById(ARTIFACT_ID);
+        verify(s3ClientService, times(DOWNLOADS)).downloadFile(eq(BUCKET), eq("file-id"), any());
+        verifyNoInteractions(okHttpRestClient);
+    }
+
+    private void download() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", EndpointAvailableFilterTest.ARTIFACT_URI);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        ServletRequest passedOn = chain.getRequest();
+        assertNotNull(passedOn);
+        String transactionId = EndpointAvailableFilterTest.ARTIFACT_URI.split("/")[2];
+        controller.getArtifact(response, null, transactionId,
+                (TransferProcess) passedOn.getAttribute(EndpointAvailableFilter.TRANSFER_PROCESS_ATTRIBUTE),
+                (Artifact) passedOn.getAttribute(EndpointAvailableFilter.ARTIFACT_ATTRIBUTE));
+    }
+}
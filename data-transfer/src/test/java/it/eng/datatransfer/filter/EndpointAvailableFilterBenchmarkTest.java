@@ -0,0 +1,152 @@
+package it.eng.datatransfer.filter;
+
+import it.eng.datatransfer.properties.TransferAccessCacheProperties;
+import it.eng.datatransfer.service.AgreementService;
+import it.eng.datatransfer.service.TransferAccessCache;
+import it.eng.datatransfer.service.TransferProcessStrategy;
+import it.eng.datatransfer.service.api.ArtifactTransferService;
+import it.eng.datatransfer.util.DataTransferMockObjectUtil;
+import it.eng.tools.client.rest.OkHttpRestClient;
+import it.eng.tools.model.Artifact;
+import it.eng.tools.model.ArtifactType;
+import it.eng.tools.property.ConnectorProperties;
+import it.eng.tools.response.GenericApiResponse;
+import it.eng.tools.usagecontrol.AgreementEnforcement;
+import it.eng.tools.usagecontrol.UsageControlProperties;
+import it.eng.tools.util.CredentialUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.when;
+
+/**
+ * Many range requests under one transfer through the filter, with the transfer process lookup and the agreement
+ * enforcement taking the time of a database query and of a local HTTP call.
+ */
+@Slf4j
+class EndpointAvailableFilterBenchmarkTest {
+
+    private static final int REQUESTS = 2000;
+    private static final int THREADS = 8;
+    private static final long LOOKUP_MILLIS = 1;
+    private static final long ENFORCEMENT_MILLIS = 2;
+
+    private TransferProcessStrategy dataTransferService;
+    private ArtifactTransferService artifactTransferService;
+    private OkHttpRestClient okHttpRestClient;
+    private ExecutorService callingThreads;
+
+    @BeforeEach
+    void setUp() {
+        dataTransferService = mock(TransferProcessStrategy.class);
+        when(dataTransferService.findTransferProcess(anyString(), anyString())).thenAnswer(invocation -> {
+            Thread.sleep(LOOKUP_MILLIS);
+            return DataTransferMockObjectUtil.TRANSFER_PROCESS_STARTED;
+        });
+        artifactTransferService = mock(ArtifactTransferService.class);
+        when(artifactTransferService.findArtifact(any())).thenReturn(Artifact.Builder.newInstance()
+                .artifactType(ArtifactType.FILE)
+                .value("file-id")
+                .build());
+        okHttpRestClient = mock(OkHttpRestClient.class);
+        callingThreads = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        callingThreads.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Cached checks: transfer and agreement checked once per transfer")
+    void cached_throughput() throws Exception {
+        TransferAccessCacheProperties properties = new TransferAccessCacheProperties();
+        EndpointAvailableFilter filter = filter(properties, AgreementEnforcement.VALID);
+
+        double cached = throughput(filter, REQUESTS);
+        // requests arriving together before the first check completed all check
+        long transferChecks = invocations(dataTransferService);
+        long enforcements = invocations(okHttpRestClient);
+        assertTrue(transferChecks <= THREADS, transferChecks + " transfer checks");
+        assertTrue(enforcements <= THREADS, enforcements + " enforcements");
+
+        properties.setEnabled(false);
+        double uncached = throughput(filter(properties, AgreementEnforcement.VALID), REQUESTS / 10);
+
+        log.info("Artifact requests per second: {} cached ({} transfer checks, {} enforcements for {} requests), {} not cached",
+                Math.round(cached), transferChecks, enforcements, REQUESTS, Math.round(uncached));
+        assertEquals(transferChecks + REQUESTS / 10, invocations(dataTransferService));
+        assertEquals(enforcements + REQUESTS / 10, invocations(okHttpRestClient));
+        assertTrue(cached > uncached, cached + " <= " + uncached);
+    }
+
+    @Test
+    @DisplayName("Access count limited agreement: enforced on every request")
+    void perAccess_enforcedEveryRequest() throws Exception {
+        EndpointAvailableFilter filter = filter(new TransferAccessCacheProperties(), AgreementEnforcement.VALID_PER_ACCESS);
+
+        double perAccess = throughput(filter, REQUESTS / 10);
+
+        log.info("Artifact requests per second, access count limited agreement: {}", Math.round(perAccess));
+        assertTrue(invocations(dataTransferService) <= THREADS);
+        assertEquals(REQUESTS / 10, invocations(okHttpRestClient));
+    }
+
+    private EndpointAvailableFilter filter(TransferAccessCacheProperties properties, String enforcement) {
+        UsageControlProperties usageControlProperties = mock(UsageControlProperties.class);
+        when(usageControlProperties.usageControlEnabled()).thenReturn(true);
+        ConnectorProperties connectorProperties = mock(ConnectorProperties.class);
+        when(connectorProperties.getConnectorURL()).thenReturn("http://localhost:8080");
+        when(okHttpRestClient.sendRequestProtocol(anyString(), isNull(), any())).thenAnswer(invocation -> {
+            Thread.sleep(ENFORCEMENT_MILLIS);
+            return GenericApiResponse.success("{\"success\":true,\"data\":\"" + enforcement + "\"}", "Response received");
+        });
+        TransferAccessCache transferAccessCache = new TransferAccessCache(properties);
+        AgreementService agreementService = new AgreementService(usageControlProperties, okHttpRestClient,
+                mock(CredentialUtils.class), connectorProperties, transferAccessCache);
+        return new EndpointAvailableFilter(agreementService, dataTransferService, transferAccessCache, artifactTransferService);
+    }
+
+    private double throughput(EndpointAvailableFilter filter, int requests) throws Exception {
+        long start = System.nanoTime();
+        List<Future<Integer>> calls = new ArrayList<>();
+        for (int i = 0; i < requests; i++) {
+            calls.add(callingThreads.submit(() -> {
+                MockHttpServletResponse response = new MockHttpServletResponse();
+                filter.doFilter(new MockHttpServletRequest("GET", EndpointAvailableFilterTest.ARTIFACT_URI), response,
+                        new MockFilterChain());
+                return response.getStatus();
+            }));
+        }
+        for (Future<Integer> call : calls) {
+            assertEquals(200, call.get(30, TimeUnit.SECONDS));
+        }
+        return requests * 1_000_000_000.0 / (System.nanoTime() - start);
+    }
+
+    private static long invocations(Object mock) {
+        return mockingDetails(mock).getInvocations().stream()
+                .filter(invocation -> !invocation.getMethod().getName().equals("toString"))
+                .count();
+    }
+}
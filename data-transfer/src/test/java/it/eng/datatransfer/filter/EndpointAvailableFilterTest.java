@@ -0,0 +1,176 @@
+package it.eng.datatransfer.filter;
+
+import it.eng.datatransfer.event.TransferProcessChangeEvent;
+import it.eng.datatransfer.exceptions.DownloadException;
+import it.eng.datatransfer.exceptions.TransferProcessNotFoundException;
+import it.eng.datatransfer.model.TransferState;
+import it.eng.datatransfer.properties.TransferAccessCacheProperties;
+import it.eng.datatransfer.service.AgreementService;
+import it.eng.datatransfer.service.TransferAccessCache;
+import it.eng.datatransfer.service.TransferProcessStrategy;
+import it.eng.datatransfer.service.api.ArtifactTransferService;
+import it.eng.datatransfer.util.DataTransferMockObjectUtil;
+import it.eng.tools.model.Artifact;
+import it.eng.tools.model.ArtifactType;
+import org.apache.tomcat.util.codec.binary.Base64;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EndpointAvailableFilterTest {
+
+    static final String ARTIFACT_URI = "/artifacts/" + Base64.encodeBase64URLSafeString(
+            (DataTransferMockObjectUtil.CONSUMER_PID + "|" + DataTransferMockObjectUtil.PROVIDER_PID).getBytes(StandardCharsets.UTF_8)) + "/1";
+
+    @Mock
+    private AgreementService agreementService;
+    @Mock
+    private TransferProcessStrategy dataTransferService;
+    @Mock
+    private ArtifactTransferService artifactTransferService;
+
+    private TransferAccessCache transferAccessCache;
+    private EndpointAvailableFilter filter;
+
+    private final Artifact artifact = Artifact.Builder.newInstance()
+            .artifactType(ArtifactType.FILE)
+            .value("file-id")
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        transferAccessCache = new TransferAccessCache(new TransferAccessCacheProperties());
+        filter = new EndpointAvailableFilter(agreementService, dataTransferService, transferAccessCache, artifactTransferService);
+    }
+
+    @Test
+    @DisplayName("Transfer started and agreement valid - request passed on with transfer process and artifact")
+    void available() throws Exception {
+        when(dataTransferService.findTransferProcess(DataTransferMockObjectUtil.CONSUMER_PID, DataTransferMockObjectUtil.PROVIDER_PID))
+                .thenReturn(DataTransferMockObjectUtil.TRANSFER_PROCESS_STARTED);
+        when(agreementService.isAgreementValid(DataTransferMockObjectUtil.TRANSFER_PROCESS_STARTED)).thenReturn(true);
+        when(artifactTransferService.findArtifact(DataTransferMockObjectUtil.TRANSFER_PROCESS_STARTED)).thenReturn(artifact);
+
+        MockFilterChain chain = filter(HttpStatus.OK);
+
+        assertNotNull(chain.getRequest());
+        assertSame(DataTransferMockObjectUtil.TRANSFER_PROCESS_STARTED,
+                chain.getRequest().getAttribute(EndpointAvailableFilter.TRANSFER_PROCESS_ATTRIBUTE));
+        assertSame(artifact, chain.getRequest().getAttribute(EndpointAvailableFilter.ARTIFACT_ATTRIBUTE));
+    }
+
+    @Test
+    @DisplayName("Transfer not started - precondition failed")
+    void transferNotStarted() throws Exception {
+        when(dataTransferService.findTransferProcess(DataTransferMockObjectUtil.CONSUMER_PID, DataTransferMockObjectUtil.PROVIDER_PID))
+                .thenReturn(DataTransferMockObjectUtil.TRANSFER_PROCESS_STARTED.copyWithNewTransferState(TransferState.SUSPENDED));
+
+        MockFilterChain chain = filter(HttpStatus.PRECONDITION_FAILED);
+
+        assertNull(chain.getRequest());
+        verifyNoInteractions(agreementService, artifactTransferService);
+    }
+
+    @Test
+    @DisplayName("Transfer not found - precondition failed")
+    void transferNotFound() throws Exception {
+        when(dataTransferService.findTransferProcess(DataTransferMockObjectUtil.CONSUMER_PID, DataTransferMockObjectUtil.PROVIDER_PID))
+                .thenThrow(new TransferProcessNotFoundException("Transfer process not found"));
+
+        MockFilterChain chain = filter(HttpStatus.PRECONDITION_FAILED);
+
+        assertNull(chain.getRequest());
+        verifyNoInteractions(agreementService, artifactTransferService);
+    }
+
+    @Test
+    @DisplayName("Agreement not valid - precondition failed")
+    void agreementNotValid() throws Exception {
+        when(dataTransferService.findTransferProcess(DataTransferMockObjectUtil.CONSUMER_PID, DataTransferMockObjectUtil.PROVIDER_PID))
+                .thenReturn(DataTransferMockObjectUtil.TRANSFER_PROCESS_STARTED);
+        when(agreementService.isAgreementValid(DataTransferMockObjectUtil.TRANSFER_PROCESS_STARTED)).thenReturn(false);
+
+        MockFilterChain chain = filter(HttpStatus.PRECONDITION_FAILED);
+
+        assertNull(chain.getRequest());
+        verifyNoInteractions(artifactTransferService);
+    }
+
+    @Test
+    @DisplayName("Artifact not found - not found")
+    void artifactNotFound() throws Exception {
+        when(dataTransferService.findTransferProcess(DataTransferMockObjectUtil.CONSUMER_PID, DataTransferMockObjectUtil.PROVIDER_PID))
+                .thenReturn(DataTransferMockObjectUtil.TRANSFER_PROCESS_STARTED);
+        when(agreementService.isAgreementValid(DataTransferMockObjectUtil.TRANSFER_PROCESS_STARTED)).thenReturn(true);
+        when(artifactTransferService.findArtifact(DataTransferMockObjectUtil.TRANSFER_PROCESS_STARTED))
+                .thenThrow(new DownloadException("No such data exists", HttpStatus.NOT_FOUND));
+
+        MockFilterChain chain = filter(HttpStatus.NOT_FOUND);
+
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    @DisplayName("Wrong transaction id - bad request")
+    void wrongTransactionId() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/artifacts/"
+                + Base64.encodeBase64URLSafeString("no-separator".getBytes(StandardCharsets.UTF_8)) + "/1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertEquals(HttpStatus.BAD_REQUEST.value(), response.getStatus());
+        verifyNoInteractions(dataTransferService, agreementService, artifactTransferService);
+    }
+
+    @Test
+    @DisplayName("Transfer state checked once for many requests, until the transfer is suspended")
+    void transferStarted_cachedUntilSuspended() throws Exception {
+        when(dataTransferService.findTransferProcess(DataTransferMockObjectUtil.CONSUMER_PID, DataTransferMockObjectUtil.PROVIDER_PID))
+                .thenReturn(DataTransferMockObjectUtil.TRANSFER_PROCESS_STARTED,
+                        DataTransferMockObjectUtil.TRANSFER_PROCESS_STARTED.copyWithNewTransferState(TransferState.SUSPENDED));
+        when(agreementService.isAgreementValid(DataTransferMockObjectUtil.TRANSFER_PROCESS_STARTED)).thenReturn(true);
+        when(artifactTransferService.findArtifact(DataTransferMockObjectUtil.TRANSFER_PROCESS_STARTED)).thenReturn(artifact);
+
+        for (int i = 0; i < 10; i++) {
+            filter(HttpStatus.OK);
+        }
+        verify(dataTransferService, times(1)).findTransferProcess(DataTransferMockObjectUtil.CONSUMER_PID, DataTransferMockObjectUtil.PROVIDER_PID);
+
+        transferAccessCache.onTransferProcessChange(TransferProcessChangeEvent.Builder.newInstance()
+                .oldTransferProcess(DataTransferMockObjectUtil.TRANSFER_PROCESS_STARTED)
+                .newTransferProcess(DataTransferMockObjectUtil.TRANSFER_PROCESS_STARTED.copyWithNewTransferState(TransferState.SUSPENDED))
+                .build());
+
+        filter(HttpStatus.PRECONDITION_FAILED);
+        verify(dataTransferService, times(2)).findTransferProcess(DataTransferMockObjectUtil.CONSUMER_PID, DataTransferMockObjectUtil.PROVIDER_PID);
+    }
+
+    private MockFilterChain filter(HttpStatus expectedStatus) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", ARTIFACT_URI);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, response, chain);
+        assertEquals(expectedStatus.value(), response.getStatus());
+        return chain;
+    }
+}
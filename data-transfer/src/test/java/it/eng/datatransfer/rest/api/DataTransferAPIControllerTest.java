@@ -96,7 +96,7 @@ class DataTransferAPIControllerTest {
         PagedModel<EntityModel<TransferProcess>> pagedModel = PagedModel.of(content, metadata);
         transferProcessPage = new PageImpl<>(Collections.singletonList(DataTransferMockObjectUtil.TRANSFER_PROCESS_REQUESTED_PROVIDER), pageable, 1);
 
-        when(filterBuilder.buildFromRequest(any(HttpServletRequest.class)))
+        when(filterBuilder.buildFromRequest(any(HttpServletRequest.class), eq(TransferProcess.class)))
                 .thenReturn(expectedFilters);
         when(apiService.findDataTransfers(anyMap(), any(Pageable.class))).thenReturn(transferProcessPage);
         when(pagedResourcesAssembler.toModel(transferProcessPage, plainAssembler)).thenReturn((PagedModel) pagedModel);
@@ -109,7 +109,7 @@ class DataTransferAPIControllerTest {
         assertTrue(response.getBody().getResponse().isSuccess());
         assertFalse(response.getBody().getResponse().getData().getContent().isEmpty());
 
-        verify(filterBuilder).buildFromRequest(request);
+        verify(filterBuilder).buildFromRequest(request, TransferProcess.class);
         verify(apiService).findDataTransfers(eq(expectedFilters), any(Pageable.class));
     }
 
@@ -150,7 +150,7 @@ class DataTransferAPIControllerTest {
         PagedModel<EntityModel<TransferProcess>> pagedModel = PagedModel.of(content, metadata);
         transferProcessPage = new PageImpl<>(Collections.singletonList(DataTransferMockObjectUtil.TRANSFER_PROCESS_REQUESTED_PROVIDER), pageable, 1);
 
-        when(filterBuilder.buildFromRequest(any(HttpServletRequest.class)))
+        when(filterBuilder.buildFromRequest(any(HttpServletRequest.class), eq(TransferProcess.class)))
                 .thenReturn(expectedFilters);
         when(apiService.findDataTransfers(anyMap(), any(Pageable.class))).thenReturn(transferProcessPage);
         when(pagedResourcesAssembler.toModel(transferProcessPage, plainAssembler)).thenReturn((PagedModel) pagedModel);
@@ -163,7 +163,7 @@ class DataTransferAPIControllerTest {
         assertTrue(response.getBody().getResponse().isSuccess());
         assertEquals(1, response.getBody().getResponse().getData().getContent().size());
 
-        verify(filterBuilder).buildFromRequest(request);
+        verify(filterBuilder).buildFromRequest(request, TransferProcess.class);
         verify(apiService).findDataTransfers(eq(expectedFilters), any(Pageable.class));
     }
 
@@ -186,7 +186,7 @@ class DataTransferAPIControllerTest {
                 pageable,
                 2);
 
-        when(filterBuilder.buildFromRequest(any(HttpServletRequest.class)))
+        when(filterBuilder.buildFromRequest(any(HttpServletRequest.class), eq(TransferProcess.class)))
                 .thenReturn(emptyFilters);
         when(apiService.findDataTransfers(anyMap(), any(Pageable.class))).thenReturn(transferProcessPage);
         when(pagedResourcesAssembler.toModel(transferProcessPage, plainAssembler)).thenReturn((PagedModel) pagedModel);
@@ -199,7 +199,7 @@ class DataTransferAPIControllerTest {
         assertTrue(response.getBody().getResponse().isSuccess());
         assertEquals(2, response.getBody().getResponse().getData().getContent().size());
 
-        verify(filterBuilder).buildFromRequest(request);
+        verify(filterBuilder).buildFromRequest(request, TransferProcess.class);
         verify(apiService).findDataTransfers(eq(emptyFilters), any(Pageable.class));
     }
 
@@ -219,7 +219,7 @@ class DataTransferAPIControllerTest {
         PagedModel<EntityModel<TransferProcess>> pagedModel = PagedModel.of(content, metadata);
         transferProcessPage = new PageImpl<>(Collections.singletonList(DataTransferMockObjectUtil.TRANSFER_PROCESS_REQUESTED_PROVIDER), pageable, 1);
 
-        when(filterBuilder.buildFromRequest(any(HttpServletRequest.class)))
+        when(filterBuilder.buildFromRequest(any(HttpServletRequest.class), eq(TransferProcess.class)))
                 .thenReturn(expectedFilters);
         when(apiService.findDataTransfers(anyMap(), any(Pageable.class))).thenReturn(transferProcessPage);
         when(pagedResourcesAssembler.toModel(transferProcessPage, plainAssembler)).thenReturn((PagedModel) pagedModel);
@@ -231,7 +231,7 @@ class DataTransferAPIControllerTest {
         assertNotNull(response.getBody());
         assertTrue(response.getBody().getResponse().isSuccess());
 
-        verify(filterBuilder).buildFromRequest(request);
+        verify(filterBuilder).buildFromRequest(request, TransferProcess.class);
         verify(apiService).findDataTransfers(eq(expectedFilters), any(Pageable.class));
     }
 
@@ -2,6 +2,9 @@ package it.eng.datatransfer.rest.api;
 
 import it.eng.datatransfer.exceptions.DownloadException;
 import it.eng.datatransfer.service.api.RestArtifactService;
+import it.eng.datatransfer.util.DataTransferMockObjectUtil;
+import it.eng.tools.model.Artifact;
+import it.eng.tools.model.ArtifactType;
 import jakarta.servlet.http.HttpServletResponse;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -17,6 +20,8 @@ import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 
 @ExtendWith(MockitoExtension.class)
 public class RestArtifactControllerTest {
@@ -38,7 +43,7 @@ public class RestArtifactControllerTest {
         doNothing().when(restArtifactService).getArtifact(TRANSACTION_ID, response);
 
 
-        assertDoesNotThrow(() -> restArtifactController.getArtifact(response, null, TRANSACTION_ID));
+        assertDoesNotThrow(() -> restArtifactController.getArtifact(response, null, TRANSACTION_ID, null, null));
 
     }
 
@@ -47,6 +52,21 @@ public class RestArtifactControllerTest {
     public void getArtifactFile_fail() throws IllegalStateException, IOException {
         doThrow(new DownloadException("message", HttpStatus.BAD_REQUEST)).when(restArtifactService).getArtifact(TRANSACTION_ID, response);
 
-        assertThrows(DownloadException.class, () -> restArtifactController.getArtifact(response, null, TRANSACTION_ID));
+        assertThrows(DownloadException.class, () -> restArtifactController.getArtifact(response, null, TRANSACTION_ID, null, null));
+    }
+
+    @Test
+    @DisplayName("Get artifact file - transfer process and artifact resolved by filter")
+    public void getArtifactFile_resolvedByFilter() {
+        Artifact artifact = Artifact.Builder.newInstance()
+                .artifactType(ArtifactType.FILE)
+                .value("file-id")
+                .build();
+
+        restArtifactController.getArtifact(response, null, TRANSACTION_ID,
+                DataTransferMockObjectUtil.TRANSFER_PROCESS_STARTED, artifact);
+
+        verify(restArtifactService).getArtifact(DataTransferMockObjectUtil.TRANSFER_PROCESS_STARTED, artifact, response);
+        verifyNoMoreInteractions(restArtifactService);
     }
 }
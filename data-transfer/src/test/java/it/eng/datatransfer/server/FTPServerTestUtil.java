@@ -98,7 +98,7 @@ public class FTPServerTestUtil {
 		when(ftpConfiguration.getServerPort()).thenReturn(2222);
 		when(ftpConfiguration.getDefaultTimeoutSeconds()).thenReturn(1000L);
 		when(ftpConfiguration.getServerFolder()).thenReturn("src/test/resources/ftp_server");
-		new FTPServer(globalSSLConfiguration, authenitcatorTestUtil, ftpConfiguration).start(new StartFTPServerEvent());
+		new FTPServer(globalSSLConfiguration, authenitcatorTestUtil, ftpConfiguration, null, null, null).start(new StartFTPServerEvent());
 		
 	}
 	
@@ -1,11 +1,11 @@
 package it.eng.datatransfer.service;
 
-import it.eng.datatransfer.exceptions.AgreementNotFoundException;
-import it.eng.datatransfer.repository.TransferProcessRepository;
+import it.eng.datatransfer.properties.TransferAccessCacheProperties;
 import it.eng.datatransfer.util.DataTransferMockObjectUtil;
 import it.eng.tools.client.rest.OkHttpRestClient;
 import it.eng.tools.property.ConnectorProperties;
 import it.eng.tools.response.GenericApiResponse;
+import it.eng.tools.usagecontrol.AgreementEnforcement;
 import it.eng.tools.usagecontrol.UsageControlProperties;
 import it.eng.tools.util.CredentialUtils;
 import org.junit.jupiter.api.DisplayName;
@@ -13,20 +13,19 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.util.Optional;
-
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class AgreementServiceTest {
 
-    @Mock
-    private TransferProcessRepository transferProcessRepository;
     @Mock
     private UsageControlProperties usageControlProperties;
     @Mock
@@ -37,6 +36,8 @@ class AgreementServiceTest {
     private CredentialUtils credentialUtils;
     @Mock
     private ConnectorProperties connectorProperties;
+    @Spy
+    private TransferAccessCache transferAccessCache = new TransferAccessCache(new TransferAccessCacheProperties());
 
     @InjectMocks
     private AgreementService service;
@@ -45,15 +46,13 @@ class AgreementServiceTest {
     @DisplayName("Agreement valid - usageControl enabled")
     void isAgreementValid_uc_enabled() {
         when(usageControlProperties.usageControlEnabled()).thenReturn(true);
-        when(transferProcessRepository.findByConsumerPidAndProviderPid(DataTransferMockObjectUtil.CONSUMER_PID, DataTransferMockObjectUtil.PROVIDER_PID))
-                .thenReturn(Optional.of(DataTransferMockObjectUtil.TRANSFER_PROCESS_STARTED));
         when(credentialUtils.getAPICredentials()).thenReturn("credentials");
         when(connectorProperties.getConnectorURL()).thenReturn("http://test.localhost:8080");
         when(okHttpRestClient.sendRequestProtocol(any(String.class), isNull(), any(String.class)))
                 .thenReturn(apiResponse);
         when(apiResponse.isSuccess()).thenReturn(true);
 
-        boolean isValid = service.isAgreementValid(DataTransferMockObjectUtil.CONSUMER_PID, DataTransferMockObjectUtil.PROVIDER_PID);
+        boolean isValid = service.isAgreementValid(DataTransferMockObjectUtil.TRANSFER_PROCESS_STARTED);
         assertTrue(isValid);
     }
 
@@ -61,35 +60,52 @@ class AgreementServiceTest {
     @DisplayName("Agreement invalid - usageControl enabled")
     void isAgreementValid_uc_enabled_call_false() {
         when(usageControlProperties.usageControlEnabled()).thenReturn(true);
-        when(transferProcessRepository.findByConsumerPidAndProviderPid(DataTransferMockObjectUtil.CONSUMER_PID, DataTransferMockObjectUtil.PROVIDER_PID))
-                .thenReturn(Optional.of(DataTransferMockObjectUtil.TRANSFER_PROCESS_STARTED));
         when(credentialUtils.getAPICredentials()).thenReturn("credentials");
         when(connectorProperties.getConnectorURL()).thenReturn("http://test.localhost:8080");
         when(okHttpRestClient.sendRequestProtocol(any(String.class), isNull(), any(String.class)))
                 .thenReturn(apiResponse);
         when(apiResponse.isSuccess()).thenReturn(false);
 
-        boolean isValid = service.isAgreementValid(DataTransferMockObjectUtil.CONSUMER_PID, DataTransferMockObjectUtil.PROVIDER_PID);
+        boolean isValid = service.isAgreementValid(DataTransferMockObjectUtil.TRANSFER_PROCESS_STARTED);
         assertFalse(isValid);
     }
 
-    @Test
-    @DisplayName("Agreement invalid - transferProcess not found")
-    void isAgreementValid_tn_not_found() {
-        when(usageControlProperties.usageControlEnabled()).thenReturn(true);
-        when(transferProcessRepository.findByConsumerPidAndProviderPid(DataTransferMockObjectUtil.CONSUMER_PID, DataTransferMockObjectUtil.PROVIDER_PID))
-                .thenReturn(Optional.empty());
-
-        assertThrows(AgreementNotFoundException.class, () ->
-                service.isAgreementValid(DataTransferMockObjectUtil.CONSUMER_PID, DataTransferMockObjectUtil.PROVIDER_PID));
-    }
-
     @Test
     @DisplayName("Agreement valid - usageControl disabled")
     void isAgreementValid_uc_disabled() {
         when(usageControlProperties.usageControlEnabled()).thenReturn(false);
-        boolean isValid = service.isAgreementValid(DataTransferMockObjectUtil.CONSUMER_PID, DataTransferMockObjectUtil.PROVIDER_PID);
+        boolean isValid = service.isAgreementValid(DataTransferMockObjectUtil.TRANSFER_PROCESS_STARTED);
         assertTrue(isValid);
     }
 
+    @Test
+    @DisplayName("Reusable agreement decision is cached across artifact downloads")
+    void isAgreementValid_reusable_cached() {
+        stubEnforcement(AgreementEnforcement.VALID);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(service.isAgreementValid(DataTransferMockObjectUtil.TRANSFER_PROCESS_STARTED));
+        }
+        verify(okHttpRestClient, times(1)).sendRequestProtocol(any(String.class), isNull(), any(String.class));
+    }
+
+    @Test
+    @DisplayName("Access count limited agreement is enforced on every access")
+    void isAgreementValid_perAccess_notCached() {
+        stubEnforcement(AgreementEnforcement.VALID_PER_ACCESS);
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(service.isAgreementValid(DataTransferMockObjectUtil.TRANSFER_PROCESS_STARTED));
+        }
+        verify(okHttpRestClient, times(3)).sendRequestProtocol(any(String.class), isNull(), any(String.class));
+    }
+
+    private void stubEnforcement(String data) {
+        when(usageControlProperties.usageControlEnabled()).thenReturn(true);
+        when(credentialUtils.getAPICredentials()).thenReturn("credentials");
+        when(connectorProperties.getConnectorURL()).thenReturn("http://test.localhost:8080");
+        when(okHttpRestClient.sendRequestProtocol(any(String.class), isNull(), any(String.class)))
+                .thenReturn(GenericApiResponse.success("{\"success\":true,\"message\":\"Agreement enforcement is ok\",\"data\":\""
+                        + data + "\"}", "Response received"));
+    }
 }
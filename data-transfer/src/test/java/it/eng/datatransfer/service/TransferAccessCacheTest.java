@@ -0,0 +1,201 @@
+package it.eng.datatransfer.service;
+
+import it.eng.datatransfer.event.TransferProcessChangeEvent;
+import it.eng.datatransfer.model.TransferProcess;
+import it.eng.datatransfer.model.TransferState;
+import it.eng.datatransfer.properties.TransferAccessCacheProperties;
+import it.eng.datatransfer.service.TransferAccessCache.AgreementDecision;
+import it.eng.datatransfer.util.DataTransferMockObjectUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Slf4j
+class TransferAccessCacheTest {
+
+    private static final String CONSUMER_PID = DataTransferMockObjectUtil.CONSUMER_PID;
+    private static final String PROVIDER_PID = DataTransferMockObjectUtil.PROVIDER_PID;
+    private static final String AGREEMENT_ID = DataTransferMockObjectUtil.AGREEMENT_ID;
+
+    private TransferAccessCacheProperties properties;
+    private TransferAccessCache cache;
+    private AtomicInteger checks;
+
+    @BeforeEach
+    void setUp() {
+        properties = new TransferAccessCacheProperties();
+        cache = new TransferAccessCache(properties);
+        checks = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("STARTED transfer is looked up once while cached")
+    void startedTransfer_cached() {
+        TransferProcess first = cache.startedTransfer(CONSUMER_PID, PROVIDER_PID, this::started);
+        assertSame(first, cache.startedTransfer(CONSUMER_PID, PROVIDER_PID, this::started));
+        for (int i = 0; i < 100; i++) {
+            assertTrue(isStarted(this::started));
+        }
+        assertEquals(1, checks.get());
+    }
+
+    @Test
+    @DisplayName("Transfer not STARTED is checked on every request")
+    void notStartedTransfer_notCached() {
+        for (int i = 0; i < 3; i++) {
+            assertFalse(isStarted(this::suspended));
+        }
+        assertEquals(3, checks.get());
+    }
+
+    @Test
+    @DisplayName("Suspension, completion and termination revoke access on the next request")
+    void transferChange_revokedImmediately() {
+        for (TransferState state : new TransferState[]{TransferState.SUSPENDED, TransferState.COMPLETED, TransferState.TERMINATED}) {
+            AtomicBoolean started = new AtomicBoolean(true);
+            assertTrue(isStarted(() -> lookup(started)));
+
+            started.set(false);
+            cache.onTransferProcessChange(change(state));
+
+            assertFalse(isStarted(() -> lookup(started)), state.name());
+        }
+    }
+
+    @Test
+    @DisplayName("Revocation latency - readers see the transfer suspended as soon as the event is handled")
+    void revocationLatency() throws Exception {
+        AtomicBoolean started = new AtomicBoolean(true);
+        CountDownLatch readersRunning = new CountDownLatch(4);
+        ExecutorService readers = Executors.newFixedThreadPool(4);
+        try {
+            Future<?>[] revokedAt = new Future<?>[4];
+            for (int i = 0; i < revokedAt.length; i++) {
+                revokedAt[i] = readers.submit(() -> {
+                    readersRunning.countDown();
+                    while (isStarted(() -> lookup(started))) {
+                        Thread.onSpinWait();
+                    }
+                    return System.nanoTime();
+                });
+            }
+            readersRunning.await(10, TimeUnit.SECONDS);
+            Thread.sleep(50);
+
+            long suspendedAt = System.nanoTime();
+            started.set(false);
+            cache.onTransferProcessChange(change(TransferState.SUSPENDED));
+
+            long maxLatency = 0;
+            for (Future<?> future : revokedAt) {
+                maxLatency = Math.max(maxLatency, (Long) future.get(10, TimeUnit.SECONDS) - suspendedAt);
+            }
+            log.info("Access revoked for all readers {} µs after suspension", TimeUnit.NANOSECONDS.toMicros(maxLatency));
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(maxLatency) < 1000, TimeUnit.NANOSECONDS.toMillis(maxLatency) + " ms");
+        } finally {
+            readers.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Check running while the transfer is suspended is not kept in the cache")
+    void invalidationDuringCheck_notCached() {
+        assertTrue(isStarted(() -> {
+            // read STARTED from the store, then the suspension is stored and published
+            cache.onTransferProcessChange(change(TransferState.SUSPENDED));
+            return DataTransferMockObjectUtil.TRANSFER_PROCESS_STARTED;
+        }));
+
+        assertFalse(isStarted(() -> null));
+    }
+
+    @Test
+    @DisplayName("Entries expire after the time to live")
+    void expired_checkedAgain() {
+        properties.setTimeToLiveSeconds(0);
+
+        isStarted(this::started);
+        isStarted(this::started);
+
+        assertEquals(2, checks.get());
+    }
+
+    @Test
+    @DisplayName("Disabled cache checks on every request")
+    void disabled_checkedEveryRequest() {
+        properties.setEnabled(false);
+
+        isStarted(this::started);
+        isStarted(this::started);
+
+        assertEquals(2, checks.get());
+    }
+
+    @Test
+    @DisplayName("Reusable agreement decision is cached across artifact downloads")
+    void agreement_reusable_cached() {
+        for (int i = 0; i < 5; i++) {
+            assertTrue(cache.isAgreementValid(AGREEMENT_ID, () -> decision(true, true)));
+        }
+
+        assertEquals(1, checks.get());
+    }
+
+    @Test
+    @DisplayName("Access count decision and invalid agreement are enforced on every request")
+    void agreement_perAccessAndInvalid_notCached() {
+        assertTrue(cache.isAgreementValid(AGREEMENT_ID, () -> decision(true, false)));
+        assertTrue(cache.isAgreementValid(AGREEMENT_ID, () -> decision(true, false)));
+        assertFalse(cache.isAgreementValid(AGREEMENT_ID, () -> decision(false, true)));
+        assertFalse(cache.isAgreementValid(AGREEMENT_ID, () -> decision(false, true)));
+
+        assertEquals(4, checks.get());
+    }
+
+    private boolean isStarted(Supplier<TransferProcess> lookup) {
+        return cache.startedTransfer(CONSUMER_PID, PROVIDER_PID, lookup) != null;
+    }
+
+    private TransferProcess started() {
+        checks.incrementAndGet();
+        return DataTransferMockObjectUtil.TRANSFER_PROCESS_STARTED;
+    }
+
+    private TransferProcess suspended() {
+        checks.incrementAndGet();
+        return DataTransferMockObjectUtil.TRANSFER_PROCESS_STARTED.copyWithNewTransferState(TransferState.SUSPENDED);
+    }
+
+    private static TransferProcess lookup(AtomicBoolean started) {
+        return started.get() ? DataTransferMockObjectUtil.TRANSFER_PROCESS_STARTED
+                : DataTransferMockObjectUtil.TRANSFER_PROCESS_STARTED.copyWithNewTransferState(TransferState.SUSPENDED);
+    }
+
+    private AgreementDecision decision(boolean valid, boolean reusable) {
+        checks.incrementAndGet();
+        return new AgreementDecision(valid, reusable);
+    }
+
+    private static TransferProcessChangeEvent change(TransferState newState) {
+        TransferProcess started = DataTransferMockObjectUtil.TRANSFER_PROCESS_STARTED;
+        return TransferProcessChangeEvent.Builder.newInstance()
+                .oldTransferProcess(started)
+                .newTransferProcess(started.copyWithNewTransferState(newState))
+                .build();
+    }
+}
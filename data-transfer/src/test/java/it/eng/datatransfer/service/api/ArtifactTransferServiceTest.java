@@ -1,104 +1,155 @@
 package it.eng.datatransfer.service.api;
 
+import com.mongodb.DBRef;
 import it.eng.datatransfer.exceptions.DownloadException;
 import it.eng.datatransfer.model.TransferProcess;
 import it.eng.datatransfer.model.TransferState;
-import it.eng.tools.client.rest.OkHttpRestClient;
-import it.eng.tools.controller.ApiEndpoints;
+import it.eng.datatransfer.properties.TransferAccessCacheProperties;
 import it.eng.tools.model.Artifact;
 import it.eng.tools.model.ArtifactType;
+import it.eng.tools.repository.ArtifactRepository;
+import org.bson.Document;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.http.HttpMethod;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpStatus;
+
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class ArtifactTransferServiceTest {
 
+    private static final String DATASET_ID = "test-dataset-id";
+    private static final String ARTIFACT_ID = "123";
+
+    @Mock
+    private MongoTemplate mongoTemplate;
     @Mock
-    private OkHttpRestClient okHttpRestClient;
+    private ArtifactRepository artifactRepository;
 
-    @InjectMocks
+    private TransferAccessCacheProperties properties;
     private ArtifactTransferService artifactTransferService;
 
     private TransferProcess transferProcess;
-    private static final String DATASET_ID = "test-dataset-id";
-    private static final String VALID_RESPONSE = """
-            {
-                "success": true,
-                "data": {
-                    "id": "123",
-                    "value": "test-value",
-                    "artifactType": "FILE"
-                }
-            }
-            """;
-    private static final String ERROR_RESPONSE = """
-            {
-                "success": false,
-                "data": null
-            }
-            """;
+    private Artifact artifact;
 
     @BeforeEach
     void setUp() {
+        properties = new TransferAccessCacheProperties();
+        artifactTransferService = new ArtifactTransferService(mongoTemplate, artifactRepository, properties);
         transferProcess = TransferProcess.Builder.newInstance()
                 .state(TransferState.STARTED)
                 .datasetId(DATASET_ID)
                 .build();
+        artifact = Artifact.Builder.newInstance()
+                .id(ARTIFACT_ID)
+                .value("test-value")
+                .artifactType(ArtifactType.FILE)
+                .build();
     }
 
     @Test
-    @DisplayName("Should successfully find artifact when valid response is received")
+    @DisplayName("Should find artifact referenced by the dataset")
     void findArtifact_Success() {
-        // Given
-        String endpoint = ApiEndpoints.CATALOG_DATASETS_V1 + "/" + DATASET_ID + "/artifact";
-        when(okHttpRestClient.sendInternalRequest(eq(endpoint), eq(HttpMethod.GET), any()))
-                .thenReturn(VALID_RESPONSE);
+        mockDataset(new Document("_id", DATASET_ID).append("artifact", new DBRef("artifacts", ARTIFACT_ID)));
+        when(artifactRepository.findById(ARTIFACT_ID)).thenReturn(Optional.of(artifact));
 
-        // When
         Artifact result = artifactTransferService.findArtifact(transferProcess);
 
-        // Then
         assertNotNull(result);
-        assertEquals("123", result.getId());
+        assertEquals(ARTIFACT_ID, result.getId());
         assertEquals("test-value", result.getValue());
         assertEquals(ArtifactType.FILE, result.getArtifactType());
     }
 
     @Test
-    @DisplayName("Should throw DownloadException when response data is null")
-    void findArtifact_NullData() {
-        // Given
-        String endpoint = ApiEndpoints.CATALOG_DATASETS_V1 + "/" + DATASET_ID + "/artifact";
-        when(okHttpRestClient.sendInternalRequest(eq(endpoint), eq(HttpMethod.GET), any()))
-                .thenReturn(ERROR_RESPONSE);
-
-        // When/Then
+    @DisplayName("Should read artifact once for many requests")
+    void findArtifact_Cached() {
+        mockDataset(new Document("_id", DATASET_ID).append("artifact", new DBRef("artifacts", ARTIFACT_ID)));
+        when(artifactRepository.findById(ARTIFACT_ID)).thenReturn(Optional.of(artifact));
+
+        for (int i = 0; i < 5; i++) {
+            assertSame(artifact, artifactTransferService.findArtifact(transferProcess));
+        }
+
+        verify(mongoTemplate, times(1)).findOne(any(Query.class), eq(Document.class), eq(ArtifactTransferService.DATASETS_COLLECTION));
+        verify(artifactRepository, times(1)).findById(ARTIFACT_ID);
+    }
+
+    @Test
+    @DisplayName("Should read artifact again after a dataset is saved")
+    void findArtifact_EvictedOnDatasetSave() {
+        mockDataset(new Document("_id", DATASET_ID).append("artifact", new DBRef("artifacts", ARTIFACT_ID)));
+        when(artifactRepository.findById(ARTIFACT_ID)).thenReturn(Optional.of(artifact));
+
+        artifactTransferService.findArtifact(transferProcess);
+        artifactTransferService.onSave(new AfterSaveEvent<>(new Object(), new Document(), ArtifactTransferService.DATASETS_COLLECTION));
+        artifactTransferService.findArtifact(transferProcess);
+
+        verify(artifactRepository, times(2)).findById(ARTIFACT_ID);
+    }
+
+    @Test
+    @DisplayName("Should read artifact on every request when cache is disabled")
+    void findArtifact_CacheDisabled() {
+        properties.setEnabled(false);
+        mockDataset(new Document("_id", DATASET_ID).append("artifact", new DBRef("artifacts", ARTIFACT_ID)));
+        when(artifactRepository.findById(ARTIFACT_ID)).thenReturn(Optional.of(artifact));
+
+        artifactTransferService.findArtifact(transferProcess);
+        artifactTransferService.findArtifact(transferProcess);
+
+        verify(artifactRepository, times(2)).findById(ARTIFACT_ID);
+    }
+
+    @Test
+    @DisplayName("Should throw DownloadException when dataset does not exist")
+    void findArtifact_DatasetNotFound() {
+        mockDataset(null);
+
         DownloadException exception = assertThrows(DownloadException.class,
                 () -> artifactTransferService.findArtifact(transferProcess));
         assertEquals("No such data exists", exception.getMessage());
+        assertEquals(HttpStatus.NOT_FOUND, exception.getHttpStatus());
+        verifyNoInteractions(artifactRepository);
     }
 
     @Test
-    @DisplayName("Should throw RuntimeException when invalid JSON is received")
-    void findArtifact_InvalidJson() {
-        // Given
-        String endpoint = ApiEndpoints.CATALOG_DATASETS_V1 + "/" + DATASET_ID + "/artifact";
-        when(okHttpRestClient.sendInternalRequest(eq(endpoint), eq(HttpMethod.GET), any()))
-                .thenReturn("invalid json");
-
-        // When/Then
-        assertThrows(RuntimeException.class,
+    @DisplayName("Should throw DownloadException when dataset has no artifact")
+    void findArtifact_NoArtifactReference() {
+        mockDataset(new Document("_id", DATASET_ID));
+
+        assertThrows(DownloadException.class, () -> artifactTransferService.findArtifact(transferProcess));
+        verifyNoInteractions(artifactRepository);
+    }
+
+    @Test
+    @DisplayName("Should throw DownloadException when artifact does not exist")
+    void findArtifact_ArtifactNotFound() {
+        mockDataset(new Document("_id", DATASET_ID).append("artifact", new DBRef("artifacts", ARTIFACT_ID)));
+        when(artifactRepository.findById(ARTIFACT_ID)).thenReturn(Optional.empty());
+
+        DownloadException exception = assertThrows(DownloadException.class,
                 () -> artifactTransferService.findArtifact(transferProcess));
+        assertEquals(HttpStatus.NOT_FOUND, exception.getHttpStatus());
+    }
+
+    private void mockDataset(Document dataset) {
+        when(mongoTemplate.findOne(any(Query.class), eq(Document.class), eq(ArtifactTransferService.DATASETS_COLLECTION)))
+                .thenReturn(dataset);
     }
-}
\ No newline at end of file
+}
@@ -1,17 +1,20 @@
 package it.eng.datatransfer.service.api;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import it.eng.datatransfer.event.TransferProcessChangeEvent;
 import it.eng.datatransfer.exceptions.DataTransferAPIException;
 import it.eng.datatransfer.exceptions.TransferProcessInvalidStateException;
+import it.eng.datatransfer.ftp.configuration.FTPConfiguration;
 import it.eng.datatransfer.model.*;
 import it.eng.datatransfer.properties.DataTransferProperties;
+import it.eng.datatransfer.properties.TransferAccessCacheProperties;
 import it.eng.datatransfer.repository.TransferProcessRepository;
 import it.eng.datatransfer.serializer.TransferSerializer;
+import it.eng.datatransfer.service.TransferAccessCache;
 import it.eng.datatransfer.service.api.strategy.HttpPullTransferStrategy;
 import it.eng.datatransfer.util.DataTransferMockObjectUtil;
 import it.eng.tools.client.rest.OkHttpRestClient;
 import it.eng.tools.event.AuditEventType;
-import it.eng.tools.event.policyenforcement.ArtifactConsumedEvent;
 import it.eng.tools.model.IConstants;
 import it.eng.tools.response.GenericApiResponse;
 import it.eng.tools.s3.properties.S3Properties;
@@ -73,6 +76,8 @@ class DataTransferAPIServiceTest {
     @Mock
     private ArtifactTransferService artifactTransferService;
     @Mock
+    private FTPConfiguration ftpConfiguration;
+    @Mock
     private Pageable pageable;
 
     @Captor
@@ -109,7 +114,7 @@ class DataTransferAPIServiceTest {
     public void findDataTransfers_emptyFilters() {
         Map<String, Object> emptyFilters = new HashMap<>();
 
-        when(transferProcessRepository.findWithDynamicFilters(eq(emptyFilters), eq(TransferProcess.class), eq(pageable)))
+        when(transferProcessRepository.findWithDynamicFilters(eq(emptyFilters), eq(TransferProcess.class), eq(pageable), eq(DataTransferAPIService.SUMMARY_FIELDS)))
                 .thenReturn(new PageImpl<>(Arrays.asList(
                         DataTransferMockObjectUtil.TRANSFER_PROCESS_REQUESTED_PROVIDER,
                         DataTransferMockObjectUtil.TRANSFER_PROCESS_STARTED)
@@ -119,13 +124,13 @@ class DataTransferAPIServiceTest {
 
         assertNotNull(response);
         assertEquals(2, response.getTotalElements());
-        verify(transferProcessRepository).findWithDynamicFilters(anyMap(), eq(TransferProcess.class), any(Pageable.class));
+        verify(transferProcessRepository).findWithDynamicFilters(anyMap(), eq(TransferProcess.class), any(Pageable.class), eq(DataTransferAPIService.SUMMARY_FIELDS));
     }
 
     @Test
     @DisplayName("Find transfer process with null filters returns all")
     public void findDataTransfers_nullFilters() {
-        when(transferProcessRepository.findWithDynamicFilters(isNull(), eq(TransferProcess.class), eq(pageable)))
+        when(transferProcessRepository.findWithDynamicFilters(isNull(), eq(TransferProcess.class), eq(pageable), eq(DataTransferAPIService.SUMMARY_FIELDS)))
                 .thenReturn(new PageImpl<>(Arrays.asList(
                         DataTransferMockObjectUtil.TRANSFER_PROCESS_REQUESTED_PROVIDER,
                         DataTransferMockObjectUtil.TRANSFER_PROCESS_STARTED)
@@ -135,21 +140,21 @@ class DataTransferAPIServiceTest {
 
         assertNotNull(response);
         assertEquals(2, response.getTotalElements());
-        verify(transferProcessRepository).findWithDynamicFilters(isNull(), eq(TransferProcess.class), eq(pageable));
+        verify(transferProcessRepository).findWithDynamicFilters(isNull(), eq(TransferProcess.class), eq(pageable), eq(DataTransferAPIService.SUMMARY_FIELDS));
     }
 
     @ParameterizedTest
     @DisplayName("Find transfer process with different filter combinations")
     @MethodSource("filterCombinations")
     void findDataTransfers_withFilters(String testName, Map<String, Object> filters, Page<TransferProcess> expectedResults) {
-        when(transferProcessRepository.findWithDynamicFilters(anyMap(), eq(TransferProcess.class), any(Pageable.class)))
+        when(transferProcessRepository.findWithDynamicFilters(anyMap(), eq(TransferProcess.class), any(Pageable.class), eq(DataTransferAPIService.SUMMARY_FIELDS)))
                 .thenReturn(expectedResults);
 
         Page<TransferProcess> response = apiService.findDataTransfers(filters, pageable);
 
         assertNotNull(response);
         assertEquals(expectedResults.getNumberOfElements(), response.getTotalElements());
-        verify(transferProcessRepository).findWithDynamicFilters(filters, TransferProcess.class, pageable);
+        verify(transferProcessRepository).findWithDynamicFilters(filters, TransferProcess.class, pageable, DataTransferAPIService.SUMMARY_FIELDS);
     }
 
     private static Stream<Arguments> filterCombinations() {
@@ -199,7 +204,7 @@ class DataTransferAPIServiceTest {
         );
         pageable = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "timestamp"));
 
-        when(transferProcessRepository.findWithDynamicFilters(anyMap(), eq(TransferProcess.class), any(Pageable.class)))
+        when(transferProcessRepository.findWithDynamicFilters(anyMap(), eq(TransferProcess.class), any(Pageable.class), eq(DataTransferAPIService.SUMMARY_FIELDS)))
                 .thenReturn(new PageImpl<>(Arrays.asList(
                         DataTransferMockObjectUtil.TRANSFER_PROCESS_STARTED,
                         DataTransferMockObjectUtil.TRANSFER_PROCESS_REQUESTED_PROVIDER
@@ -209,7 +214,7 @@ class DataTransferAPIServiceTest {
 
         assertNotNull(response);
         assertEquals(2, response.getTotalElements());
-        verify(transferProcessRepository).findWithDynamicFilters(filters, TransferProcess.class, pageable);
+        verify(transferProcessRepository).findWithDynamicFilters(filters, TransferProcess.class, pageable, DataTransferAPIService.SUMMARY_FIELDS);
     }
 
     @Test
@@ -282,6 +287,89 @@ class DataTransferAPIServiceTest {
         verifyAuditEvent(AuditEventType.PROTOCOL_TRANSFER_STARTED, null);
     }
 
+    @Test
+    @DisplayName("Start SFTP transfer process served from S3 - data address points to dataset object")
+    public void startTransfer_sftp_serveFromS3() {
+        TransferProcess sftpTransferProcess = TransferProcess.Builder.newInstance()
+                .consumerPid(DataTransferMockObjectUtil.CONSUMER_PID)
+                .providerPid(DataTransferMockObjectUtil.PROVIDER_PID)
+                .agreementId(DataTransferMockObjectUtil.AGREEMENT_ID)
+                .callbackAddress(DataTransferMockObjectUtil.CALLBACK_ADDRESS)
+                .datasetId(DataTransferMockObjectUtil.DATASET_ID)
+                .format(DataTransferFormat.SFTP.format())
+                .role(IConstants.ROLE_PROVIDER)
+                .state(TransferState.REQUESTED)
+                .build();
+        when(credentialUtils.getConnectorCredentials()).thenReturn("credentials");
+        when(okHttpRestClient.sendRequestProtocol(any(String.class), any(JsonNode.class), any(String.class))).thenReturn(apiResponse);
+        when(apiResponse.isSuccess()).thenReturn(true);
+        when(transferProcessRepository.findById(sftpTransferProcess.getId())).thenReturn(Optional.of(sftpTransferProcess));
+        when(artifactTransferService.findArtifact(sftpTransferProcess)).thenReturn(DataTransferMockObjectUtil.ARTIFACT_FILE);
+        when(ftpConfiguration.isServeFromS3()).thenReturn(true);
+        when(ftpConfiguration.getHost()).thenReturn("provider.example");
+        when(ftpConfiguration.getServerPort()).thenReturn(2222);
+
+        apiService.startTransfer(sftpTransferProcess.getId());
+
+        ArgumentCaptor<JsonNode> messageCaptor = ArgumentCaptor.forClass(JsonNode.class);
+        verify(okHttpRestClient).sendRequestProtocol(any(String.class), messageCaptor.capture(), any(String.class));
+        TransferStartMessage startMessage = TransferSerializer.deserializeProtocol(messageCaptor.getValue(), TransferStartMessage.class);
+        assertEquals("sftp://provider.example:2222/" + DataTransferMockObjectUtil.DATASET_ID, startMessage.getDataAddress().getEndpoint());
+        verify(transferProcessRepository).save(any(TransferProcess.class));
+    }
+
+    @Test
+    @DisplayName("Start SFTP transfer process served from server folder - data address points to artifact file")
+    public void startTransfer_sftp_serverFolder() {
+        TransferProcess sftpTransferProcess = TransferProcess.Builder.newInstance()
+                .consumerPid(DataTransferMockObjectUtil.CONSUMER_PID)
+                .providerPid(DataTransferMockObjectUtil.PROVIDER_PID)
+                .agreementId(DataTransferMockObjectUtil.AGREEMENT_ID)
+                .callbackAddress(DataTransferMockObjectUtil.CALLBACK_ADDRESS)
+                .datasetId(DataTransferMockObjectUtil.DATASET_ID)
+                .format(DataTransferFormat.SFTP.format())
+                .role(IConstants.ROLE_PROVIDER)
+                .state(TransferState.REQUESTED)
+                .build();
+        when(credentialUtils.getConnectorCredentials()).thenReturn("credentials");
+        when(okHttpRestClient.sendRequestProtocol(any(String.class), any(JsonNode.class), any(String.class))).thenReturn(apiResponse);
+        when(apiResponse.isSuccess()).thenReturn(true);
+        when(transferProcessRepository.findById(sftpTransferProcess.getId())).thenReturn(Optional.of(sftpTransferProcess));
+        when(artifactTransferService.findArtifact(sftpTransferProcess)).thenReturn(DataTransferMockObjectUtil.ARTIFACT_FILE);
+        when(ftpConfiguration.isServeFromS3()).thenReturn(false);
+        when(ftpConfiguration.getHost()).thenReturn("provider.example");
+        when(ftpConfiguration.getServerPort()).thenReturn(2222);
+
+        apiService.startTransfer(sftpTransferProcess.getId());
+
+        ArgumentCaptor<JsonNode> messageCaptor = ArgumentCaptor.forClass(JsonNode.class);
+        verify(okHttpRestClient).sendRequestProtocol(any(String.class), messageCaptor.capture(), any(String.class));
+        TransferStartMessage startMessage = TransferSerializer.deserializeProtocol(messageCaptor.getValue(), TransferStartMessage.class);
+        assertEquals("sftp://provider.example:2222/" + DataTransferMockObjectUtil.ARTIFACT_FILE.getFilename(), startMessage.getDataAddress().getEndpoint());
+        verify(transferProcessRepository).save(any(TransferProcess.class));
+    }
+
+    @Test
+    @DisplayName("Start SFTP transfer process failed - external artifact")
+    public void startTransfer_sftp_externalArtifact() {
+        TransferProcess sftpTransferProcess = TransferProcess.Builder.newInstance()
+                .consumerPid(DataTransferMockObjectUtil.CONSUMER_PID)
+                .providerPid(DataTransferMockObjectUtil.PROVIDER_PID)
+                .agreementId(DataTransferMockObjectUtil.AGREEMENT_ID)
+                .callbackAddress(DataTransferMockObjectUtil.CALLBACK_ADDRESS)
+                .datasetId(DataTransferMockObjectUtil.DATASET_ID)
+                .format(DataTransferFormat.SFTP.format())
+                .role(IConstants.ROLE_PROVIDER)
+                .state(TransferState.REQUESTED)
+                .build();
+        when(transferProcessRepository.findById(sftpTransferProcess.getId())).thenReturn(Optional.of(sftpTransferProcess));
+        when(artifactTransferService.findArtifact(sftpTransferProcess)).thenReturn(DataTransferMockObjectUtil.ARTIFACT_EXTERNAL);
+
+        assertThrows(DataTransferAPIException.class, () -> apiService.startTransfer(sftpTransferProcess.getId()));
+
+        verify(okHttpRestClient, times(0)).sendRequestProtocol(any(String.class), any(JsonNode.class), any(String.class));
+    }
+
     @Test
     @DisplayName("Start transfer process failed - transfer process not found")
     public void startTransfer_failedNegotiationNotFound() {
@@ -410,6 +498,29 @@ class DataTransferAPIServiceTest {
         verifyAuditEvent(AuditEventType.PROTOCOL_TRANSFER_SUSPENDED, null);
     }
 
+    @Test
+    @DisplayName("Suspend transfer process success - transfer access revoked")
+    public void suspendTransfer_success_accessRevoked() {
+        TransferProcess started = DataTransferMockObjectUtil.TRANSFER_PROCESS_STARTED;
+        when(credentialUtils.getConnectorCredentials()).thenReturn("credentials");
+        when(okHttpRestClient.sendRequestProtocol(any(String.class), any(JsonNode.class), any(String.class))).thenReturn(apiResponse);
+        when(apiResponse.isSuccess()).thenReturn(true);
+        when(transferProcessRepository.findById(started.getId())).thenReturn(Optional.of(started));
+        TransferAccessCache transferAccessCache = new TransferAccessCache(new TransferAccessCacheProperties());
+        assertNotNull(transferAccessCache.startedTransfer(started.getConsumerPid(), started.getProviderPid(), () -> started));
+
+        apiService.suspendTransfer(started.getId());
+
+        ArgumentCaptor<TransferProcessChangeEvent> eventCaptor = ArgumentCaptor.forClass(TransferProcessChangeEvent.class);
+        verify(publisher).publishEvent(eventCaptor.capture());
+        assertEquals(TransferState.STARTED, eventCaptor.getValue().getOldTransferProcess().getState());
+        assertEquals(TransferState.SUSPENDED, eventCaptor.getValue().getNewTransferProcess().getState());
+
+        transferAccessCache.onTransferProcessChange(eventCaptor.getValue());
+        assertNull(transferAccessCache.startedTransfer(started.getConsumerPid(), started.getProviderPid(),
+                () -> eventCaptor.getValue().getNewTransferProcess()));
+    }
+
     @Test
     @DisplayName("Suspend transfer process failed - transfer process not found")
     public void suspendTransfer_failedNegotiationNotFound() {
@@ -638,7 +749,6 @@ class DataTransferAPIServiceTest {
 
         verify(s3ClientService).fileExists(bucketName, objectKey);
         verify(s3ClientService).generateGetPresignedUrl(bucketName, objectKey, Duration.ofDays(7L));
-        verify(publisher).publishEvent(any(ArtifactConsumedEvent.class));
     }
 
     @Test
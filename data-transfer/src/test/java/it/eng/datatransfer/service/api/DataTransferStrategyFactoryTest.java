@@ -5,6 +5,7 @@ import it.eng.datatransfer.model.DataTransferFormat;
 import it.eng.datatransfer.service.api.strategy.HttpPullTransferStrategy;
 import it.eng.datatransfer.service.api.strategy.HttpPushTransferStrategy;
 import it.eng.datatransfer.service.api.strategy.S3TransferStrategy;
+import it.eng.datatransfer.service.api.strategy.SftpTransferStrategy;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -20,6 +21,7 @@ public class DataTransferStrategyFactoryTest {
     private HttpPullTransferStrategy httpPullStrategy;
     private HttpPushTransferStrategy httpPushStrategy;
     private S3TransferStrategy s3Strategy;
+    private SftpTransferStrategy sftpStrategy;
     private DataTransferStrategyFactory factory;
 
     @BeforeEach
@@ -27,7 +29,8 @@ public class DataTransferStrategyFactoryTest {
         httpPullStrategy = mock(HttpPullTransferStrategy.class);
         httpPushStrategy = mock(HttpPushTransferStrategy.class);
         s3Strategy = mock(S3TransferStrategy.class);
-        factory = new DataTransferStrategyFactory(httpPullStrategy, httpPushStrategy, s3Strategy);
+        sftpStrategy = mock(SftpTransferStrategy.class);
+        factory = new DataTransferStrategyFactory(httpPullStrategy, httpPushStrategy, s3Strategy, sftpStrategy);
     }
 
     @Test
@@ -44,6 +47,13 @@ public class DataTransferStrategyFactoryTest {
         assertSame(httpPushStrategy, strategy);
     }
 
+    @Test
+    @DisplayName("Should return SFTP strategy for supported format")
+    void getStrategy_Sftp_Success() {
+        var strategy = factory.getStrategy(DataTransferFormat.SFTP.format());
+        assertSame(sftpStrategy, strategy);
+    }
+
     @Test
     @DisplayName("Should throw exception for unsupported format (S3)")
     void getStrategy_S3_NotInMap() {
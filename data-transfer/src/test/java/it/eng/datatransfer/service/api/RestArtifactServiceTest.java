@@ -5,12 +5,13 @@ import it.eng.datatransfer.exceptions.DownloadException;
 import it.eng.datatransfer.service.DataTransferService;
 import it.eng.datatransfer.util.DataTransferMockObjectUtil;
 import it.eng.tools.client.rest.OkHttpRestClient;
-import it.eng.tools.event.policyenforcement.ArtifactConsumedEvent;
+import it.eng.tools.model.Artifact;
+import it.eng.tools.model.ArtifactType;
 import it.eng.tools.model.ExternalData;
 import it.eng.tools.response.GenericApiResponse;
 import it.eng.tools.s3.properties.S3Properties;
 import it.eng.tools.s3.service.S3ClientService;
-import it.eng.tools.service.AuditEventPublisher;
+import it.eng.tools.util.ContentDigest;
 import org.apache.tomcat.util.codec.binary.Base64;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -28,6 +29,7 @@ import software.amazon.awssdk.services.s3.model.GetObjectResponse;
 import java.nio.charset.StandardCharsets;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
@@ -48,8 +50,6 @@ public class RestArtifactServiceTest {
     @Mock
     private DataTransferService dataTransferService;
     @Mock
-    private AuditEventPublisher publisher;
-    @Mock
     private OkHttpRestClient okHttpRestClient;
     @Mock
     private ArtifactTransferService artifactTransferService;
@@ -100,7 +100,8 @@ public class RestArtifactServiceTest {
 
         assertDoesNotThrow(() -> restArtifactService.getArtifact(TRANSACTION_ID, mockHttpServletResponse));
 
-        verify(publisher).publishEvent(any(ArtifactConsumedEvent.class));
+        assertEquals(ContentDigest.reprDigest("some_data".getBytes()),
+                mockHttpServletResponse.getHeader(ContentDigest.REPR_DIGEST));
     }
 
     @Test
@@ -139,7 +140,26 @@ public class RestArtifactServiceTest {
 
         assertDoesNotThrow(() -> restArtifactService.getArtifact(TRANSACTION_ID, mockHttpServletResponse));
 
-        verify(publisher).publishEvent(any(ArtifactConsumedEvent.class));
+    }
+
+    @Test
+    @DisplayName("Get file - Repr-Digest from recorded checksum")
+    public void getFile_reprDigest() {
+        mockHttpServletResponse = new MockHttpServletResponse();
+        String checksum = Base64.encodeBase64String(ContentDigest.newSha256().digest("some_data".getBytes()));
+        Artifact artifact = Artifact.Builder.newInstance()
+                .artifactType(ArtifactType.FILE)
+                .value(DataTransferMockObjectUtil.ARTIFACT_FILE.getValue())
+                .checksum(checksum)
+                .build();
+        when(s3Properties.getBucketName()).thenReturn(TEST_BUCKET);
+        when(s3ClientService.fileExists(TEST_BUCKET, artifact.getValue())).thenReturn(true);
+
+        restArtifactService.getArtifact(DataTransferMockObjectUtil.TRANSFER_PROCESS_STARTED, artifact, mockHttpServletResponse);
+
+        assertEquals(ContentDigest.reprDigest("some_data".getBytes()),
+                mockHttpServletResponse.getHeader(ContentDigest.REPR_DIGEST));
+        verify(s3ClientService).downloadFile(TEST_BUCKET, artifact.getValue(), mockHttpServletResponse);
     }
 
     @Test
@@ -7,6 +7,8 @@ import it.eng.tools.model.IConstants;
 import it.eng.tools.s3.properties.S3Properties;
 import it.eng.tools.s3.service.S3ClientService;
 import it.eng.tools.s3.util.S3Utils;
+import it.eng.tools.util.ContentDigest;
+import it.eng.tools.util.DigestingInputStream;
 import org.bson.types.ObjectId;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -24,6 +26,7 @@ import java.net.URL;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -38,6 +41,8 @@ public class HttpPullTransferStrategyTest {
     private S3ClientService s3ClientService;
     @Mock
     private HttpURLConnection mockConnection;
+    @Mock
+    private TransferIntegrityVerifier integrityVerifier;
 
     @InjectMocks
     private HttpPullTransferStrategy strategy;
@@ -62,7 +67,8 @@ public class HttpPullTransferStrategyTest {
                 any(InputStream.class),
                 eq(expectedDestinationS3Properties),
                 eq(TEST_CONTENT_TYPE),
-                eq(TEST_CONTENT_DISPOSITION)
+                eq(TEST_CONTENT_DISPOSITION),
+                anyLong()
         )).thenReturn(CompletableFuture.completedFuture("test-etag"));
 
         /**
@@ -102,13 +108,53 @@ public class HttpPullTransferStrategyTest {
                     any(InputStream.class),
                     eq(expectedDestinationS3Properties),
                     eq(TEST_CONTENT_TYPE),
-                    eq(TEST_CONTENT_DISPOSITION)
+                    eq(TEST_CONTENT_DISPOSITION),
+                    anyLong()
             );
         } catch (Exception e) {
             fail("Test failed: " + e.getMessage());
         }
     }
 
+    @Test
+    @DisplayName("Should fail transfer and remove stored object when received data is not verified")
+    void transfer_integrityCheckFails() throws Exception {
+        TransferProcess transferProcess = DataTransferMockObjectUtil.TRANSFER_PROCESS_STARTED_AND_DOWNLOADED;
+        Map<String, String> expectedDestinationS3Properties = mockS3Properties(transferProcess.getId());
+        String advertisedDigest = "c29tZS1kaWdlc3Q=";
+
+        when(s3ClientService.uploadFile(
+                any(InputStream.class),
+                eq(expectedDestinationS3Properties),
+                eq(TEST_CONTENT_TYPE),
+                eq(TEST_CONTENT_DISPOSITION),
+                anyLong()
+        )).thenReturn(CompletableFuture.completedFuture("test-etag"));
+        doThrow(new DataTransferAPIException("Received data does not match advertised SHA-256 digest"))
+                .when(integrityVerifier).verify(eq(transferProcess.getId()), any(DigestingInputStream.class),
+                        eq((long) TEST_CONTENT.length()), eq(advertisedDigest), eq(TEST_BUCKET), eq(transferProcess.getId()));
+
+        try (MockedConstruction<URL> mockedUrl = mockConstruction(URL.class,
+                (mock, context) -> when(mock.openConnection()).thenReturn(mockConnection))) {
+
+            when(mockConnection.getResponseCode()).thenReturn(HttpURLConnection.HTTP_OK);
+            when(mockConnection.getContentType()).thenReturn(TEST_CONTENT_TYPE);
+            when(mockConnection.getHeaderField(HttpHeaders.CONTENT_DISPOSITION))
+                    .thenReturn(TEST_CONTENT_DISPOSITION);
+            when(mockConnection.getContentLengthLong()).thenReturn((long) TEST_CONTENT.length());
+            when(mockConnection.getHeaderFields())
+                    .thenReturn(Map.of(ContentDigest.REPR_DIGEST, List.of(ContentDigest.reprDigestValue(advertisedDigest))));
+            when(mockConnection.getInputStream())
+                    .thenReturn(new ByteArrayInputStream(TEST_CONTENT.getBytes()));
+
+            CompletableFuture<Void> result = strategy.transfer(transferProcess);
+
+            ExecutionException ex = assertThrows(ExecutionException.class, result::get);
+            assertInstanceOf(DataTransferAPIException.class, ex.getCause());
+            verify(s3ClientService).deleteFile(TEST_BUCKET, transferProcess.getId());
+        }
+    }
+
     @Test
     @DisplayName("Should throw DataTransferAPIException on upload failure")
     void transfer_uploadFails_throwsException() throws Exception {
@@ -150,7 +196,8 @@ public class HttpPullTransferStrategyTest {
                 any(InputStream.class),
                 eq(expectedDestinationS3Properties),
                 eq(TEST_CONTENT_TYPE),
-                eq(TEST_CONTENT_DISPOSITION)
+                eq(TEST_CONTENT_DISPOSITION),
+                anyLong()
         )).thenReturn(CompletableFuture.completedFuture("test-etag"));
 
         try (MockedConstruction<URL> mockedUrl = mockConstruction(URL.class,
@@ -178,7 +225,8 @@ public class HttpPullTransferStrategyTest {
                     any(InputStream.class),
                     eq(expectedDestinationS3Properties),
                     eq(TEST_CONTENT_TYPE),
-                    anyString()
+                    anyString(),
+                    anyLong()
             );
         }
     }
@@ -195,7 +243,8 @@ public class HttpPullTransferStrategyTest {
                 any(InputStream.class),
                 eq(expectedDestinationS3Properties),
                 eq(TEST_CONTENT_TYPE),
-                eq(TEST_CONTENT_DISPOSITION)
+                eq(TEST_CONTENT_DISPOSITION),
+                anyLong()
         )).thenReturn(CompletableFuture.completedFuture("test-etag"));
 
         try (MockedConstruction<URL> mockedUrl = mockConstruction(URL.class,
@@ -218,7 +267,8 @@ public class HttpPullTransferStrategyTest {
                     any(InputStream.class),
                     eq(expectedDestinationS3Properties),
                     eq(TEST_CONTENT_TYPE),
-                    eq(TEST_CONTENT_DISPOSITION)
+                    eq(TEST_CONTENT_DISPOSITION),
+                    anyLong()
             );
         }
     }
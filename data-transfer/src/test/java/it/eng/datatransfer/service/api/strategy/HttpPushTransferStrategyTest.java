@@ -25,6 +25,8 @@ import java.net.URL;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -39,6 +41,8 @@ public class HttpPushTransferStrategyTest {
     private S3ClientService s3ClientService;
     @Mock
     private HttpURLConnection mockConnection;
+    @Mock
+    private TransferIntegrityVerifier integrityVerifier;
 
     @InjectMocks
     private HttpPushTransferStrategy strategy;
@@ -121,7 +125,8 @@ public class HttpPushTransferStrategyTest {
                 any(InputStream.class),
                 eq(endpointPropertiesMap),
                 eq(TEST_CONTENT_TYPE),
-                eq(TEST_CONTENT_DISPOSITION)
+                eq(TEST_CONTENT_DISPOSITION),
+                anyLong()
         )).thenReturn(CompletableFuture.completedFuture("test-etag"));
 
         /**
@@ -161,7 +166,8 @@ public class HttpPushTransferStrategyTest {
                     any(InputStream.class),
                     eq(endpointPropertiesMap),
                     eq(TEST_CONTENT_TYPE),
-                    eq(TEST_CONTENT_DISPOSITION)
+                    eq(TEST_CONTENT_DISPOSITION),
+                    anyLong()
             );
         } catch (Exception e) {
             fail("Test failed: " + e.getMessage());
@@ -188,4 +194,33 @@ public class HttpPushTransferStrategyTest {
             assertEquals(HttpURLConnection.HTTP_NOT_FOUND, mockConnection.getResponseCode());
         }
     }
+
+    @Test
+    @DisplayName("Should delete pushed object when integrity check fails")
+    void transfer_integrityCheckFails() throws Exception {
+        TransferProcess transferProcess = DataTransferMockObjectUtil.TRANSFER_PROCESS_STARTED_AND_DOWNLOADED;
+        Map<String, String> endpointPropertiesMap = transferProcess.getDataAddress().getEndpointProperties()
+                .stream()
+                .collect(Collectors.toMap(EndpointProperty::getName, EndpointProperty::getValue));
+
+        when(s3Properties.getBucketName()).thenReturn(TEST_BUCKET);
+        when(s3ClientService.generateGetPresignedUrl(eq(TEST_BUCKET), eq(transferProcess.getDatasetId()), any()))
+                .thenReturn("http://presigned-url");
+        when(s3ClientService.uploadFile(any(InputStream.class), eq(endpointPropertiesMap), any(), any(), anyLong()))
+                .thenReturn(CompletableFuture.completedFuture("test-etag"));
+        doThrow(new DataTransferAPIException("Integrity check failed"))
+                .when(integrityVerifier).verify(any(), any(), anyLong(), any(), any(), any());
+
+        try (MockedConstruction<URL> mockedUrl = mockConstruction(URL.class,
+                (mock, context) -> when(mock.openConnection()).thenReturn(mockConnection))) {
+            when(mockConnection.getResponseCode()).thenReturn(HttpURLConnection.HTTP_OK);
+            when(mockConnection.getInputStream())
+                    .thenReturn(new ByteArrayInputStream(TEST_CONTENT.getBytes()));
+
+            ExecutionException ex = assertThrows(ExecutionException.class,
+                    () -> strategy.transfer(transferProcess).get());
+            assertInstanceOf(DataTransferAPIException.class, ex.getCause());
+            verify(s3ClientService).deleteFile(endpointPropertiesMap);
+        }
+    }
 }
@@ -0,0 +1,118 @@
+package it.eng.datatransfer.service.api.strategy;
+
+import it.eng.datatransfer.exceptions.DataTransferAPIException;
+import it.eng.datatransfer.model.TransferArtifactState;
+import it.eng.tools.util.ContentDigest;
+import it.eng.tools.util.DigestingInputStream;
+import org.bson.Document;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class TransferIntegrityVerifierTest {
+
+    private static final String TRANSFER_PROCESS_ID = "transfer-process-id";
+    private static final String BUCKET = "bucket";
+    private static final byte[] CONTENT = "transferred content".getBytes(StandardCharsets.UTF_8);
+    private static final String CONTENT_DIGEST = Base64.getEncoder().encodeToString(ContentDigest.newSha256().digest(CONTENT));
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Captor
+    private ArgumentCaptor<Query> queryCaptor;
+    @Captor
+    private ArgumentCaptor<Update> updateCaptor;
+
+    @InjectMocks
+    private TransferIntegrityVerifier verifier;
+
+    @Test
+    @DisplayName("Matching digest and length - digest stored")
+    void verify_success() throws IOException {
+        DigestingInputStream received = consumed(CONTENT);
+
+        verifier.verify(TRANSFER_PROCESS_ID, received, CONTENT.length, CONTENT_DIGEST, BUCKET, TRANSFER_PROCESS_ID);
+
+        verify(mongoTemplate).upsert(queryCaptor.capture(), updateCaptor.capture(), eq(TransferArtifactState.class));
+        assertEquals(TRANSFER_PROCESS_ID, queryCaptor.getValue().getQueryObject().get("_id"));
+        Document set = updateCaptor.getValue().getUpdateObject().get("$set", Document.class);
+        assertEquals(ContentDigest.SHA_256, set.get("checksumAlgorithm"));
+        assertEquals(CONTENT_DIGEST, set.get("checksum"));
+        assertEquals((long) CONTENT.length, set.get("downloadedBytes"));
+        assertEquals(BUCKET, set.get("destBucket"));
+    }
+
+    @Test
+    @DisplayName("No advertised digest or length - digest recorded")
+    void verify_nothingAdvertised() throws IOException {
+        verifier.verify(TRANSFER_PROCESS_ID, consumed(CONTENT), -1, null, BUCKET, TRANSFER_PROCESS_ID);
+
+        verify(mongoTemplate).upsert(any(Query.class), updateCaptor.capture(), eq(TransferArtifactState.class));
+        assertEquals(CONTENT_DIGEST, updateCaptor.getValue().getUpdateObject().get("$set", Document.class).get("checksum"));
+    }
+
+    @Test
+    @DisplayName("Repeated download of the same transfer - state upserted, not inserted")
+    void verify_repeated_upserted() throws IOException {
+        verifier.verify(TRANSFER_PROCESS_ID, consumed(CONTENT), CONTENT.length, CONTENT_DIGEST, BUCKET, TRANSFER_PROCESS_ID);
+        verifier.verify(TRANSFER_PROCESS_ID, consumed(CONTENT), CONTENT.length, CONTENT_DIGEST, BUCKET, TRANSFER_PROCESS_ID);
+
+        verify(mongoTemplate, times(2)).upsert(any(Query.class), any(Update.class), eq(TransferArtifactState.class));
+        verify(mongoTemplate, never()).insert(any(TransferArtifactState.class));
+        verify(mongoTemplate, never()).save(any(TransferArtifactState.class));
+    }
+
+    @Test
+    @DisplayName("Corrupted data - digest mismatch")
+    void verify_digestMismatch() throws IOException {
+        byte[] corrupted = CONTENT.clone();
+        corrupted[0] ^= 1;
+        DigestingInputStream received = consumed(corrupted);
+
+        assertThrows(DataTransferAPIException.class,
+                () -> verifier.verify(TRANSFER_PROCESS_ID, received, CONTENT.length, CONTENT_DIGEST, BUCKET, TRANSFER_PROCESS_ID));
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    @DisplayName("Truncated data - length mismatch")
+    void verify_truncated() throws IOException {
+        byte[] truncated = new byte[CONTENT.length - 5];
+        System.arraycopy(CONTENT, 0, truncated, 0, truncated.length);
+        DigestingInputStream received = consumed(truncated);
+
+        DataTransferAPIException ex = assertThrows(DataTransferAPIException.class,
+                () -> verifier.verify(TRANSFER_PROCESS_ID, received, CONTENT.length, null, BUCKET, TRANSFER_PROCESS_ID));
+        assertTrue(ex.getMessage().contains("Incomplete data"));
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    private DigestingInputStream consumed(byte[] data) throws IOException {
+        DigestingInputStream stream = new DigestingInputStream(new ByteArrayInputStream(data));
+        stream.readAllBytes();
+        return stream;
+    }
+}
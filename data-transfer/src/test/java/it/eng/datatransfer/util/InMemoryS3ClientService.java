@@ -0,0 +1,106 @@
+package it.eng.datatransfer.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import it.eng.tools.s3.model.S3ObjectInfo;
+import it.eng.tools.s3.service.S3ClientService;
+import it.eng.tools.s3.util.S3Utils;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * S3 stub keeping objects of a single bucket in memory.
+ */
+public class InMemoryS3ClientService implements S3ClientService {
+
+	private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+	private final AtomicInteger rangedReads = new AtomicInteger();
+
+	public void putObject(String objectKey, byte[] content) {
+		objects.put(objectKey, content);
+	}
+
+	public byte[] getObject(String objectKey) {
+		return objects.get(objectKey);
+	}
+
+	/**
+	 * Number of GET requests served, each SFTP sequential read should need only one.
+	 *
+	 * @return number of GET requests
+	 */
+	public int getRangedReads() {
+		return rangedReads.get();
+	}
+
+	@Override
+	public CompletableFuture<String> uploadFile(InputStream inputStream, Map<String, String> destinationS3Properties,
+			String contentType, String contentDisposition, long contentLength) {
+		return CompletableFuture.supplyAsync(() -> {
+			try (inputStream) {
+				objects.put(destinationS3Properties.get(S3Utils.OBJECT_KEY), inputStream.readAllBytes());
+				return "etag";
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+	}
+
+	@Override
+	public InputStream getObjectStream(String bucketName, String objectKey, long offset) {
+		byte[] content = objects.get(objectKey);
+		if (content == null) {
+			throw new RuntimeException("File not found: " + objectKey);
+		}
+		rangedReads.incrementAndGet();
+		return new ByteArrayInputStream(content, (int) offset, content.length - (int) offset);
+	}
+
+	@Override
+	public Optional<S3ObjectInfo> getObjectInfo(String bucketName, String objectKey) {
+		byte[] content = objects.get(objectKey);
+		return content == null ? Optional.empty()
+				: Optional.of(new S3ObjectInfo(objectKey, content.length, Instant.now(), null, null, null));
+	}
+
+	@Override
+	public void downloadFile(String bucketName, String objectKey, HttpServletResponse response) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public void deleteFile(String bucketName, String objectKey) {
+		objects.remove(objectKey);
+	}
+
+	@Override
+	public void deleteFile(Map<String, String> destinationS3Properties) {
+		objects.remove(destinationS3Properties.get(S3Utils.OBJECT_KEY));
+	}
+
+	@Override
+	public boolean fileExists(String bucketName, String objectKey) {
+		return objects.containsKey(objectKey);
+	}
+
+	@Override
+	public String generateGetPresignedUrl(String bucketName, String objectKey, Duration expiration) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public List<String> listFiles(String bucketName) {
+		return new ArrayList<>(objects.keySet());
+	}
+}
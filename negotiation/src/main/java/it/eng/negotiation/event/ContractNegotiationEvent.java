@@ -1,6 +1,7 @@
 package it.eng.negotiation.event;
 
 import it.eng.negotiation.model.ContractNegotiation;
+import it.eng.negotiation.model.ContractNegotiationState;
 import lombok.Builder;
 import lombok.Data;
 
@@ -9,6 +10,10 @@ import lombok.Data;
 public class ContractNegotiationEvent {
 
 	private ContractNegotiation contractNegotiation;
+	/**
+	 * State before the change, null for a new contract negotiation.
+	 */
+	private ContractNegotiationState oldState;
 	private String user;
 	private String action;
 	private String description;
@@ -5,9 +5,11 @@ import org.springframework.stereotype.Component;
 
 import it.eng.negotiation.event.ContractNegotiationEvent;
 import it.eng.negotiation.model.ContractAgreementVerificationMessage;
+import it.eng.negotiation.model.ContractNegotiation;
 import it.eng.negotiation.service.ContractNegotiationEventHandlerService;
 import it.eng.tools.event.contractnegotiation.ContractNegotiationOfferResponseEvent;
-import it.eng.tools.event.policyenforcement.ArtifactConsumedEvent;
+import it.eng.tools.notification.StateChangeNotification;
+import it.eng.tools.notification.StateChangeNotificationService;
 import lombok.extern.slf4j.Slf4j;
 
 @Component
@@ -15,14 +17,29 @@ import lombok.extern.slf4j.Slf4j;
 public class ContractNegotiationListener {
 	
 	private ContractNegotiationEventHandlerService contractNegotiationEventHandlerService;
+	private StateChangeNotificationService notificationService;
 
-	public ContractNegotiationListener(ContractNegotiationEventHandlerService contractNegotiationEventHandlerService) {
+	public ContractNegotiationListener(ContractNegotiationEventHandlerService contractNegotiationEventHandlerService,
+			StateChangeNotificationService notificationService) {
 		this.contractNegotiationEventHandlerService = contractNegotiationEventHandlerService;
+		this.notificationService = notificationService;
 	}
 
 	@EventListener
 	void handleAsyncEvent(ContractNegotiationEvent event) {
 		log.info("Handling other contract negotiation logic...");
+		ContractNegotiation contractNegotiation = event.getContractNegotiation();
+		if (contractNegotiation != null && contractNegotiation.getState() != null) {
+			notificationService.publish(StateChangeNotification.Builder.newInstance()
+					.resourceType(StateChangeNotification.CONTRACT_NEGOTIATION)
+					.resourceId(contractNegotiation.getId())
+					.consumerPid(contractNegotiation.getConsumerPid())
+					.providerPid(contractNegotiation.getProviderPid())
+					.role(contractNegotiation.getRole())
+					.oldState(event.getOldState() != null ? event.getOldState().name() : null)
+					.newState(contractNegotiation.getState().name())
+					.build());
+		}
 	}
 	
 	@EventListener
@@ -36,10 +53,4 @@ public class ContractNegotiationListener {
 		log.info("Handling ContractAgreementVerificationMessage...");
 		contractNegotiationEventHandlerService.verifyNegotiation(verificationMessage.getConsumerPid(), verificationMessage.getProviderPid());
 	}
-	
-	@EventListener
-	public void handleArtifactConsumedEvent(ArtifactConsumedEvent artifactConsumedEvent) {
-		log.info("Handling ArtifactConsumedEvent...");
-		contractNegotiationEventHandlerService.artifactConsumedEvent(artifactConsumedEvent);
-	}
 }
@@ -75,6 +75,13 @@ public class ContractNegotiation extends AbstractNegotiationObject {
     @Field("version")
     private Long version;
 
+    /**
+     * State this instance changes the contract negotiation from, null for a new contract negotiation; not persisted.
+     */
+    @JsonIgnore
+    @Transient
+    private ContractNegotiationState previousState;
+
     @JsonPOJOBuilder(withPrefix = "")
     @JsonIgnoreProperties(ignoreUnknown = true)
     public static class Builder {
@@ -101,6 +108,18 @@ public class ContractNegotiation extends AbstractNegotiationObject {
             return this;
         }
 
+        /**
+         * State the contract negotiation is changed from; the change is published once the contract negotiation is saved.
+         *
+         * @param previousState state before the change
+         * @return Builder object
+         */
+        @JsonIgnore
+        public Builder previousState(ContractNegotiationState previousState) {
+            message.previousState = previousState;
+            return this;
+        }
+
         /**
          * It is sent in a request and is stored on the responder side for the next request.
          * E.g. Consumer sends request to provider-> Provider stores callbackAddress for future request and responses with 200 ()
@@ -223,6 +242,7 @@ public class ContractNegotiation extends AbstractNegotiationObject {
                 .lastModifiedBy(this.lastModifiedBy)
                 .modified(modified)
                 .version(this.version)
+                .previousState(this.state)
                 .state(newState)
                 .build();
     }
@@ -3,9 +3,13 @@ package it.eng.negotiation.policy.service;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
-import it.eng.negotiation.exception.PolicyEnforcementException;
 import it.eng.negotiation.model.LeftOperand;
 import it.eng.negotiation.model.PolicyEnforcement;
 import it.eng.negotiation.policy.model.Policy;
@@ -20,11 +24,16 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class PolicyAdministrationPoint {
 	
+	private static final String AGREEMENT_ID_FIELD = "agreementId";
+	private static final String COUNT_FIELD = "count";
+	
 	private final PolicyEnforcementRepository policyEnforcementRepository;
+	private final MongoTemplate mongoTemplate;
 	
-	public PolicyAdministrationPoint(PolicyEnforcementRepository policyEnforcementRepository) {
+	public PolicyAdministrationPoint(PolicyEnforcementRepository policyEnforcementRepository, MongoTemplate mongoTemplate) {
 		super();
 		this.policyEnforcementRepository = policyEnforcementRepository;
+		this.mongoTemplate = mongoTemplate;
 	}
 	
 	/**
@@ -49,17 +58,24 @@ public class PolicyAdministrationPoint {
 	}
 	
 	/**
-	 * Get access count for agreementId.
+	 * Consumes one access of the agreement, if access count is below maxCount.<br>
+	 * Check and increment are a single findAndModify, so concurrent accesses cannot exceed maxCount.
 	 * 
-	 * @param agreementId agreementId to check
+	 * @param agreementId agreementId to consume access for
+	 * @param maxCount access count must be below this value for the access to be consumed
+	 * @return true if access is consumed, false if access count is exhausted or policyEnforcement does not exist
 	 */
-	public synchronized void updateAccessCount(String agreementId) {
-		log.info("Updating access count for agreementId {}", agreementId);
-		PolicyEnforcement pe = policyEnforcementRepository.findByAgreementId(agreementId)
-				.orElseThrow(() -> new PolicyEnforcementException("PolicyManager for agreementId  '" + agreementId + "' not found"));
-		pe.setCount(pe.getCount() + 1);
-		policyEnforcementRepository.save(pe);
+	public boolean consumeAccess(String agreementId, int maxCount) {
+		log.info("Consuming access for agreementId {}", agreementId);
+		Query query = new Query(Criteria.where(AGREEMENT_ID_FIELD).is(agreementId).and(COUNT_FIELD).lt(maxCount));
+		PolicyEnforcement pe = mongoTemplate.findAndModify(query, new Update().inc(COUNT_FIELD, 1),
+				FindAndModifyOptions.options().returnNew(true), PolicyEnforcement.class);
+		if (pe == null) {
+			log.info("Access count for agreementId {} exhausted", agreementId);
+			return false;
+		}
 		log.debug("Access count updated to {}", pe.getCount());
+		return true;
 	}
 
 	/**
@@ -2,8 +2,11 @@ package it.eng.negotiation.policy.service;
 
 import it.eng.negotiation.exception.ContractNegotiationAPIException;
 import it.eng.negotiation.model.Agreement;
+import it.eng.negotiation.model.Constraint;
 import it.eng.negotiation.model.ContractNegotiation;
 import it.eng.negotiation.model.ContractNegotiationState;
+import it.eng.negotiation.model.LeftOperand;
+import it.eng.negotiation.model.Operator;
 import it.eng.negotiation.policy.model.PolicyDecision;
 import it.eng.negotiation.policy.model.PolicyRequest;
 import it.eng.negotiation.repository.ContractNegotiationRepository;
@@ -15,6 +18,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalInt;
 
 /**
  * Implementation of the Policy Enforcement Point (PEP) interface. This service
@@ -33,16 +38,20 @@ public class PolicyEnforcementPoint {
 
     private final ContractNegotiationRepository contractNegotiationRepository;
 
+    private final PolicyAdministrationPoint policyAdministrationPoint;
+
     private final AuditEventPublisher publisher;
 
     public PolicyEnforcementPoint(UsageControlProperties usageControlProperties,
                                   PolicyInformationPoint policyInformationPoint,
                                   PolicyDecisionPoint policyDecisionPoint,
+                                  PolicyAdministrationPoint policyAdministrationPoint,
                                   ContractNegotiationRepository contractNegotiationRepository,
                                   AuditEventPublisher publisher) {
         this.usageControlProperties = usageControlProperties;
         this.policyInformationPoint = policyInformationPoint;
         this.policyDecisionPoint = policyDecisionPoint;
+        this.policyAdministrationPoint = policyAdministrationPoint;
         this.contractNegotiationRepository = contractNegotiationRepository;
         this.publisher = publisher;
     }
@@ -102,12 +111,55 @@ public class PolicyEnforcementPoint {
         // Evaluate policy
         PolicyDecision decision = policyDecisionPoint.evaluate(request, agreement);
 
+        // Access count read by the PIP may be stale, access is granted only if it can still be consumed
+        OptionalInt maxCount = maxAccessCount(agreement);
+        if (decision.isAllowed() && maxCount.isPresent()
+                && !policyAdministrationPoint.consumeAccess(agreement.getId(), maxCount.getAsInt())) {
+            decision = PolicyDecision.Builder.newInstance()
+                    .allowed(false)
+                    .message("Access count exceeded")
+                    .policyType(LeftOperand.COUNT)
+                    .build();
+        }
+
         log.debug("Policy enforcement passed: {}", decision.getMessage());
         auditAccess(agreement, contractNegotiation, operation, decision);
 
         return decision;
     }
 
+    /**
+     * Exclusive upper bound of the access count, from the COUNT constraints of the agreement.
+     *
+     * @param agreement the agreement
+     * @return access count must be below this value, empty if the agreement does not limit access count
+     */
+    private OptionalInt maxAccessCount(Agreement agreement) {
+        if (agreement.getPermission() == null) {
+            return OptionalInt.empty();
+        }
+        return agreement.getPermission().stream()
+                .filter(permission -> permission.getConstraint() != null)
+                .flatMap(permission -> permission.getConstraint().stream())
+                .filter(constraint -> LeftOperand.COUNT.equals(constraint.getLeftOperand()))
+                .map(PolicyEnforcementPoint::maxAccessCount)
+                .filter(Objects::nonNull)
+                .mapToInt(Integer::intValue)
+                .min();
+    }
+
+    private static Integer maxAccessCount(Constraint constraint) {
+        int count = Integer.parseInt(constraint.getRightOperand());
+        if (Operator.LT.equals(constraint.getOperator())) {
+            return count;
+        }
+        if (Operator.LTEQ.equals(constraint.getOperator())) {
+            return count + 1;
+        }
+        // other operators are denied by the evaluator
+        return null;
+    }
+
     /**
      * Audits access to a resource.
      *
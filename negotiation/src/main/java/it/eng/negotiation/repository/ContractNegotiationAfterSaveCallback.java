@@ -0,0 +1,52 @@
+package it.eng.negotiation.repository;
+
+import org.bson.Document;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveCallback;
+import org.springframework.stereotype.Component;
+
+import it.eng.negotiation.event.ContractNegotiationEvent;
+import it.eng.negotiation.model.ContractNegotiation;
+import it.eng.negotiation.model.ContractNegotiationState;
+
+/**
+ * Publishes {@link ContractNegotiationEvent} when a contract negotiation is created or saved with a new state.<br>
+ * Services changing the state set the state they change from on the saved instance
+ * (see {@link ContractNegotiation#withNewContractNegotiationState(ContractNegotiationState)}),
+ * so no stored state is read; saves not changing the state publish nothing.
+ */
+@Component
+public class ContractNegotiationAfterSaveCallback implements AfterSaveCallback<ContractNegotiation> {
+
+	private final ApplicationEventPublisher publisher;
+
+	public ContractNegotiationAfterSaveCallback(ApplicationEventPublisher publisher) {
+		this.publisher = publisher;
+	}
+
+	@Override
+	public ContractNegotiation onAfterSave(ContractNegotiation contractNegotiation, Document document, String collection) {
+		ContractNegotiationState oldState = contractNegotiation.getPreviousState();
+		if (contractNegotiation.getState() == null || contractNegotiation.getState() == oldState
+				|| (oldState == null && !isCreated(contractNegotiation))) {
+			return contractNegotiation;
+		}
+		publisher.publishEvent(ContractNegotiationEvent.builder()
+				.contractNegotiation(contractNegotiation)
+				.oldState(oldState)
+				.action("Save")
+				.description("Contract negotiation saved in state " + contractNegotiation.getState())
+				.build());
+		return contractNegotiation;
+	}
+
+	/**
+	 * If contract negotiation was just inserted.
+	 *
+	 * @param contractNegotiation saved contract negotiation
+	 * @return true if version is 0, as set when contract negotiation is inserted
+	 */
+	private boolean isCreated(ContractNegotiation contractNegotiation) {
+		return Long.valueOf(0L).equals(contractNegotiation.getVersion());
+	}
+}
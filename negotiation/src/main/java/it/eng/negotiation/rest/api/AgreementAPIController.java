@@ -3,6 +3,7 @@ package it.eng.negotiation.rest.api;
 import it.eng.negotiation.service.AgreementAPIService;
 import it.eng.tools.controller.ApiEndpoints;
 import it.eng.tools.response.GenericApiResponse;
+import it.eng.tools.usagecontrol.AgreementEnforcement;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -27,15 +28,16 @@ public class AgreementAPIController {
      * Enforce an agreement by its ID.
      *
      * @param agreementId the ID of the agreement to enforce
-     * @return ResponseEntity with a status message
+     * @return ResponseEntity with a status message; data tells if the decision may be reused, see {@link AgreementEnforcement}
      */
     @PostMapping(path = "/{agreementId}/enforce")
     public ResponseEntity<GenericApiResponse<String>> enforceAgreement(@PathVariable("agreementId") String agreementId) {
         log.info("Enforcing agreement");
-        agreementAPIService.enforceAgreement(agreementId);
+        boolean reusable = agreementAPIService.enforceAgreement(agreementId);
         return ResponseEntity.ok()
                 .contentType(MediaType.APPLICATION_JSON)
-                .body(GenericApiResponse.success("Agreement enforcement is valid", "Agreement enforcement is ok"));
+                .body(GenericApiResponse.success(reusable ? AgreementEnforcement.VALID : AgreementEnforcement.VALID_PER_ACCESS,
+                        "Agreement enforcement is ok"));
     }
 
 }
@@ -81,7 +81,7 @@ public class ContractNegotiationAPIController {
         Sort sorting = Sort.by(direction, sort[0]);
         Pageable pageable = PageRequest.of(page, size, sorting);
         // Build filter map automatically from ALL request parameters
-        Map<String, Object> filters = filterBuilder.buildFromRequest(request);
+        Map<String, Object> filters = filterBuilder.buildFromRequest(request, ContractNegotiation.class);
 
         log.debug("Generated filters: {}", filters);
 
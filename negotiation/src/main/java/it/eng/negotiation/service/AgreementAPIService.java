@@ -3,6 +3,7 @@ package it.eng.negotiation.service;
 import it.eng.negotiation.exception.ContractNegotiationAPIException;
 import it.eng.negotiation.exception.PolicyEnforcementException;
 import it.eng.negotiation.model.Agreement;
+import it.eng.negotiation.model.LeftOperand;
 import it.eng.negotiation.policy.model.PolicyDecision;
 import it.eng.negotiation.policy.service.PolicyEnforcementPoint;
 import it.eng.negotiation.repository.AgreementRepository;
@@ -22,7 +23,15 @@ public class AgreementAPIService {
         this.agreementRepository = agreementRepository;
     }
 
-    public void enforceAgreement(String agreementId) {
+    /**
+     * Enforces agreement policies.
+     *
+     * @param agreementId id of the agreement to enforce
+     * @return true if the decision does not depend on the number of accesses and may be reused until the agreement
+     * changes, false if it must be evaluated for every access
+     * @throws PolicyEnforcementException if the agreement is evaluated as invalid
+     */
+    public boolean enforceAgreement(String agreementId) {
         Agreement agreement = agreementRepository.findById(agreementId)
                 .orElseThrow(() -> new ContractNegotiationAPIException("Agreement with Id " + agreementId + " not found."));
         // TODO add additional checks like contract dates
@@ -33,9 +42,17 @@ public class AgreementAPIService {
 
         if (policyDecision.isAllowed()) {
             log.info("Agreement is valid");
+            return !isAccessCountLimited(agreement);
         } else {
             log.info("Agreement is invalid");
             throw new PolicyEnforcementException("Agreement with id'" + agreementId + "' evaluated as invalid");
         }
     }
+
+    private boolean isAccessCountLimited(Agreement agreement) {
+        return agreement.getPermission() != null && agreement.getPermission().stream()
+                .filter(permission -> permission.getConstraint() != null)
+                .flatMap(permission -> permission.getConstraint().stream())
+                .anyMatch(constraint -> LeftOperand.COUNT.equals(constraint.getLeftOperand()));
+    }
 }
@@ -17,6 +17,7 @@ import it.eng.tools.event.AuditEventType;
 import it.eng.tools.event.datatransfer.InitializeTransferProcess;
 import it.eng.tools.model.DSpaceConstants;
 import it.eng.tools.model.IConstants;
+import it.eng.tools.outbox.OutboxService;
 import it.eng.tools.response.GenericApiResponse;
 import it.eng.tools.service.AuditEventPublisher;
 import it.eng.tools.util.CredentialUtils;
@@ -49,11 +50,12 @@ public class ContractNegotiationAPIService {
     private final ObjectMapper mapper = new ObjectMapper();
     private final PolicyAdministrationPoint policyAdministrationPoint;
     private final AuditEventPublisher auditEventPublisher;
+    private final OutboxService outboxService;
 
     public ContractNegotiationAPIService(OkHttpRestClient okHttpRestClient, ContractNegotiationRepository contractNegotiationRepository,
                                          ContractNegotiationProperties properties, OfferRepository offerRepository, AgreementRepository agreementRepository,
                                          CredentialUtils credentialUtils, PolicyAdministrationPoint policyAdministrationPoint,
-                                         AuditEventPublisher auditEventPublisher) {
+                                         AuditEventPublisher auditEventPublisher, OutboxService outboxService) {
         this.okHttpRestClient = okHttpRestClient;
         this.contractNegotiationRepository = contractNegotiationRepository;
         this.properties = properties;
@@ -62,6 +64,7 @@ public class ContractNegotiationAPIService {
         this.credentialUtils = credentialUtils;
         this.policyAdministrationPoint = policyAdministrationPoint;
         this.auditEventPublisher = auditEventPublisher;
+        this.outboxService = outboxService;
     }
 
     /**
@@ -509,7 +512,8 @@ public class ContractNegotiationAPIService {
     }
 
     /**
-     * Finalize negotiation.
+     * Finalize negotiation.<br>
+     * State is changed to FINALIZED and ContractNegotiationEventMessage is queued for delivery to the consumer.
      *
      * @param contractNegotiationId - id of the contract negotiation
      */
@@ -527,40 +531,29 @@ public class ContractNegotiationAPIService {
         //	https://consumer.com/:callback/negotiations/:consumerPid/events
         String callbackAddress = ContractNegotiationCallback.getContractEventsCallback(contractNegotiation.getCallbackAddress(), contractNegotiation.getConsumerPid());
 
-        log.info("Sending ContractNegotiationEventMessage.FINALIZED to {}", callbackAddress);
-        GenericApiResponse<String> response = okHttpRestClient.sendRequestProtocol(callbackAddress,
-                NegotiationSerializer.serializeProtocolJsonNode(contractNegotiationEventMessage), credentialUtils.getConnectorCredentials());
-
-        if (response.isSuccess()) {
-            ContractNegotiation contractNegotiationFinalized = contractNegotiation.withNewContractNegotiationState(ContractNegotiationState.FINALIZED);
-            contractNegotiationRepository.save(contractNegotiationFinalized);
-            // TODO remove this line once api/getArtifact is implemented on consumer side
-            policyAdministrationPoint.createPolicyEnforcement(contractNegotiation.getAgreement().getId());
-            auditEventPublisher.publishEvent(new InitializeTransferProcess(
-                    contractNegotiationFinalized.getCallbackAddress(),
-                    contractNegotiationFinalized.getAgreement().getId(),
-                    contractNegotiationFinalized.getAgreement().getTarget(),
-                    contractNegotiationFinalized.getRole()
-            ));
-            auditEventPublisher.publishEvent(
-                    AuditEventType.PROTOCOL_NEGOTIATION_FINALIZED,
-                    "Contract negotiation finalized",
-                    Map.of("contractNegotiation", contractNegotiationFinalized,
-                            "consumerPid", contractNegotiationFinalized.getConsumerPid(),
-                            "providerPid", contractNegotiationFinalized.getProviderPid(),
-                            "role", IConstants.ROLE_API));
-        } else {
-            log.error("Error response received!");
-            auditEventPublisher.publishEvent(
-                    AuditEventType.PROTOCOL_NEGOTIATION_REJECTED,
-                    "Contract negotiation finalized",
-                    Map.of("contractNegotiation", contractNegotiation,
-                            "errorMessage", response.getMessage(),
-                            "consumerPid", contractNegotiation.getConsumerPid(),
-                            "providerPid", contractNegotiation.getProviderPid(),
-                            "role", IConstants.ROLE_API));
-            throw new ContractNegotiationAPIException(response.getMessage());
-        }
+        log.info("Queueing ContractNegotiationEventMessage.FINALIZED to {}", callbackAddress);
+        ContractNegotiation contractNegotiationFinalized = outboxService.saveAndEnqueue(contractNegotiation.getId(), callbackAddress,
+                NegotiationSerializer.serializeProtocolJsonNode(contractNegotiationEventMessage),
+                () -> {
+                    ContractNegotiation finalized = contractNegotiation.withNewContractNegotiationState(ContractNegotiationState.FINALIZED);
+                    contractNegotiationRepository.save(finalized);
+                    // TODO remove this line once api/getArtifact is implemented on consumer side
+                    policyAdministrationPoint.createPolicyEnforcement(contractNegotiation.getAgreement().getId());
+                    return finalized;
+                });
+        auditEventPublisher.publishEvent(new InitializeTransferProcess(
+                contractNegotiationFinalized.getCallbackAddress(),
+                contractNegotiationFinalized.getAgreement().getId(),
+                contractNegotiationFinalized.getAgreement().getTarget(),
+                contractNegotiationFinalized.getRole()
+        ));
+        auditEventPublisher.publishEvent(
+                AuditEventType.PROTOCOL_NEGOTIATION_FINALIZED,
+                "Contract negotiation finalized",
+                Map.of("contractNegotiation", contractNegotiationFinalized,
+                        "consumerPid", contractNegotiationFinalized.getConsumerPid(),
+                        "providerPid", contractNegotiationFinalized.getProviderPid(),
+                        "role", IConstants.ROLE_API));
     }
 
     /**
@@ -615,7 +608,8 @@ public class ContractNegotiationAPIService {
     }
 
     /**
-     * Negotiate status to AGREED after successful response from connector.
+     * Negotiate status to AGREED.<br>
+     * Agreement is stored and ContractAgreementMessage is queued for delivery to the consumer.
      *
      * @param contractNegotiationId contract negotiation ID
      * @return ContractNegotiation
@@ -631,56 +625,46 @@ public class ContractNegotiationAPIService {
                 .agreement(agreementFromOffer(contractNegotiation.getOffer()))
                 .build();
 
-        GenericApiResponse<String> response = okHttpRestClient.sendRequestProtocol(
-                ContractNegotiationCallback.getContractAgreementCallback(contractNegotiation.getCallbackAddress(),contractNegotiation.getConsumerPid()),
+        String callbackAddress = ContractNegotiationCallback.getContractAgreementCallback(contractNegotiation.getCallbackAddress(), contractNegotiation.getConsumerPid());
+        log.info("Queueing ContractAgreementMessage to {}", callbackAddress);
+        ContractNegotiation contractNegotiationAgreed = outboxService.saveAndEnqueue(contractNegotiation.getId(), callbackAddress,
                 NegotiationSerializer.serializeProtocolJsonNode(agreementMessage),
-                credentialUtils.getConnectorCredentials());
-        if (response.isSuccess()) {
-            log.info("Updating status for negotiation {} to agreed", contractNegotiation.getId());
-            log.info("Saving agreement...{}", agreementMessage.getAgreement().getId());
-            agreementRepository.save(agreementMessage.getAgreement());
-
-            ContractNegotiation contractNegotiationAgreed = ContractNegotiation.Builder.newInstance()
-                    .id(contractNegotiation.getId())
-                    .consumerPid(contractNegotiation.getConsumerPid())
-                    .providerPid(contractNegotiation.getProviderPid())
-                    .callbackAddress(contractNegotiation.getCallbackAddress())
-                    .assigner(contractNegotiation.getAssigner())
-                    .state(ContractNegotiationState.AGREED)
-                    .role(contractNegotiation.getRole())
-                    .offer(contractNegotiation.getOffer())
-                    .agreement(agreementMessage.getAgreement())
-                    .created(contractNegotiation.getCreated())
-                    .createdBy(contractNegotiation.getCreatedBy())
-                    .modified(contractNegotiation.getModified())
-                    .lastModifiedBy(contractNegotiation.getLastModifiedBy())
-                    .version(contractNegotiation.getVersion())
-                    .build();
-
-            contractNegotiationRepository.save(contractNegotiationAgreed);
+                () -> {
+                    log.info("Updating status for negotiation {} to agreed", contractNegotiation.getId());
+                    log.info("Saving agreement...{}", agreementMessage.getAgreement().getId());
+                    agreementRepository.save(agreementMessage.getAgreement());
+
+                    ContractNegotiation agreed = ContractNegotiation.Builder.newInstance()
+                            .id(contractNegotiation.getId())
+                            .consumerPid(contractNegotiation.getConsumerPid())
+                            .providerPid(contractNegotiation.getProviderPid())
+                            .callbackAddress(contractNegotiation.getCallbackAddress())
+                            .assigner(contractNegotiation.getAssigner())
+                            .previousState(contractNegotiation.getState())
+                            .state(ContractNegotiationState.AGREED)
+                            .role(contractNegotiation.getRole())
+                            .offer(contractNegotiation.getOffer())
+                            .agreement(agreementMessage.getAgreement())
+                            .created(contractNegotiation.getCreated())
+                            .createdBy(contractNegotiation.getCreatedBy())
+                            .modified(contractNegotiation.getModified())
+                            .lastModifiedBy(contractNegotiation.getLastModifiedBy())
+                            .version(contractNegotiation.getVersion())
+                            .build();
+                    contractNegotiationRepository.save(agreed);
+                    return agreed;
+                });
 
-            // Create and publish audit event with request information
-            auditEventPublisher.publishEvent(
-                    AuditEventType.PROTOCOL_NEGOTIATION_AGREED,
-                    "Contract negotiation agreed",
-                    Map.of("contractNegotiation", contractNegotiationAgreed,
-                            "agreement", agreementMessage.getAgreement(),
-                            "consumerPid", contractNegotiationAgreed.getConsumerPid(),
-                            "providerPid", contractNegotiationAgreed.getProviderPid(),
-                            "role", IConstants.ROLE_API));
-            return contractNegotiationAgreed;
-        } else {
-            log.error("Response status not 200 - consumer did not process AgreementMessage correct");
-            auditEventPublisher.publishEvent(
-                    AuditEventType.PROTOCOL_NEGOTIATION_REJECTED,
-                    "Contract negotiation approval failed",
-                    Map.of("contractNegotiation", contractNegotiation,
-                            "errorMessage", response.getMessage(),
-                            "consumerPid", contractNegotiation.getConsumerPid(),
-                            "providerPid", contractNegotiation.getProviderPid(),
-                            "role", IConstants.ROLE_API));
-            throw new ContractNegotiationAPIException("consumer did not process AgreementMessage correct");
-        }
+        // Create and publish audit event with request information
+        auditEventPublisher.publishEvent(
+                AuditEventType.PROTOCOL_NEGOTIATION_AGREED,
+                "Contract negotiation agreed",
+                Map.of("contractNegotiation", contractNegotiationAgreed,
+                        "agreement", agreementMessage.getAgreement(),
+                        "consumerPid", contractNegotiationAgreed.getConsumerPid(),
+                        "providerPid", contractNegotiationAgreed.getProviderPid(),
+                        "role", IConstants.ROLE_API));
+        return contractNegotiationAgreed;
     }
 
     /**
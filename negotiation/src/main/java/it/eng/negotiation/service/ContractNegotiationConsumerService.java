@@ -140,6 +140,7 @@ public abstract class ContractNegotiationConsumerService extends BaseProtocolSer
                 .id(existingContractNegotiation.getId())
                 .consumerPid(contractOfferMessage.getConsumerPid())
                 .providerPid(contractOfferMessage.getProviderPid())
+                .previousState(existingContractNegotiation.getState())
                 .state(ContractNegotiationState.OFFERED)
                 .role(IConstants.ROLE_CONSUMER)
                 .offer(updatedOffer)
@@ -192,6 +193,7 @@ public abstract class ContractNegotiationConsumerService extends BaseProtocolSer
                 .providerPid(contractNegotiation.getProviderPid())
                 .callbackAddress(contractNegotiation.getCallbackAddress())
                 .assigner(contractNegotiation.getAssigner())
+                .previousState(contractNegotiation.getState())
                 .state(ContractNegotiationState.AGREED)
                 .role(contractNegotiation.getRole())
                 .offer(contractNegotiation.getOffer())
@@ -2,7 +2,6 @@ package it.eng.negotiation.service;
 
 import it.eng.negotiation.exception.ContractNegotiationAPIException;
 import it.eng.negotiation.model.*;
-import it.eng.negotiation.policy.service.PolicyAdministrationPoint;
 import it.eng.negotiation.properties.ContractNegotiationProperties;
 import it.eng.negotiation.repository.AgreementRepository;
 import it.eng.negotiation.repository.ContractNegotiationRepository;
@@ -11,7 +10,7 @@ import it.eng.negotiation.rest.protocol.ContractNegotiationCallback;
 import it.eng.negotiation.serializer.NegotiationSerializer;
 import it.eng.tools.client.rest.OkHttpRestClient;
 import it.eng.tools.event.contractnegotiation.ContractNegotiationOfferResponseEvent;
-import it.eng.tools.event.policyenforcement.ArtifactConsumedEvent;
+import it.eng.tools.outbox.OutboxService;
 import it.eng.tools.response.GenericApiResponse;
 import it.eng.tools.service.AuditEventPublisher;
 import it.eng.tools.util.CredentialUtils;
@@ -31,17 +30,16 @@ public class ContractNegotiationEventHandlerService extends BaseProtocolService
 
     private final AgreementRepository agreementRepository;
     protected final CredentialUtils credentialUtils;
-    private final PolicyAdministrationPoint policyAdministrationPoint;
+    private final OutboxService outboxService;
 
     public ContractNegotiationEventHandlerService(AuditEventPublisher publisher,
                                                   ContractNegotiationRepository contractNegotiationRepository, OkHttpRestClient okHttpRestClient,
                                                   ContractNegotiationProperties properties, OfferRepository offerRepository,
-                                                  AgreementRepository agreementRepository, CredentialUtils credentialUtils,
-                                                  PolicyAdministrationPoint policyAdministrationPoint) {
+                                                  AgreementRepository agreementRepository, CredentialUtils credentialUtils, OutboxService outboxService) {
         super(publisher, contractNegotiationRepository, okHttpRestClient, properties, offerRepository);
         this.agreementRepository = agreementRepository;
         this.credentialUtils = credentialUtils;
-        this.policyAdministrationPoint = policyAdministrationPoint;
+        this.outboxService = outboxService;
     }
 
     @Deprecated
@@ -70,6 +68,7 @@ public class ContractNegotiationEventHandlerService extends BaseProtocolService
                         .callbackAddress(contractNegotiation.getCallbackAddress())
                         .consumerPid(contractNegotiation.getConsumerPid())
                         .providerPid(contractNegotiation.getProviderPid())
+                        .previousState(contractNegotiation.getState())
                         .state(ContractNegotiationState.AGREED)
                         .callbackAddress(contractNegotiation.getCallbackAddress())
                         .created(contractNegotiation.getCreated())
@@ -88,6 +87,12 @@ public class ContractNegotiationEventHandlerService extends BaseProtocolService
         }
     }
 
+    /**
+     * Terminates contract negotiation; ContractNegotiationTerminationMessage is queued for delivery to the consumer.
+     *
+     * @param contractNegotiationId - id of the contract negotiation
+     * @return terminated ContractNegotiation
+     */
     public ContractNegotiation handleContractNegotiationTerminated(String contractNegotiationId) {
         ContractNegotiation contractNegotiation = findContractNegotiationById(contractNegotiationId);
         // for now, log it; maybe we can publish event?
@@ -99,19 +104,16 @@ public class ContractNegotiationEventHandlerService extends BaseProtocolService
                 .reason(Collections.singletonList("Contract negotiation terminated by provider"))
                 .build();
 
-        GenericApiResponse<String> response = okHttpRestClient.sendRequestProtocol(
-                ContractNegotiationCallback.getContractTerminationCallback(contractNegotiation.getCallbackAddress(), contractNegotiation.getConsumerPid()),
+        String callbackAddress = ContractNegotiationCallback.getContractTerminationCallback(contractNegotiation.getCallbackAddress(), contractNegotiation.getConsumerPid());
+        log.info("Queueing ContractNegotiationTerminationMessage to {}", callbackAddress);
+        return outboxService.saveAndEnqueue(contractNegotiation.getId(), callbackAddress,
                 NegotiationSerializer.serializeProtocolJsonNode(negotiationTerminatedEventMessage),
-                credentialUtils.getConnectorCredentials());
-        if (response.isSuccess()) {
-            log.info("Updating status for negotiation {} to terminated", contractNegotiation.getId());
-            ContractNegotiation contractNegotiationTerminated = contractNegotiation.withNewContractNegotiationState(ContractNegotiationState.TERMINATED);
-            contractNegotiationRepository.save(contractNegotiationTerminated);
-            return contractNegotiationTerminated;
-        } else {
-            log.error("Response status not 200 - consumer did not process AgreementMessage correct");
-            throw new ContractNegotiationAPIException("consumer did not process AgreementMessage correct");
-        }
+                () -> {
+                    log.info("Updating status for negotiation {} to terminated", contractNegotiation.getId());
+                    ContractNegotiation contractNegotiationTerminated = contractNegotiation.withNewContractNegotiationState(ContractNegotiationState.TERMINATED);
+                    contractNegotiationRepository.save(contractNegotiationTerminated);
+                    return contractNegotiationTerminated;
+                });
     }
 
     private Agreement agreementFromOffer(Offer offer, String assigner) {
@@ -151,6 +153,7 @@ public class ContractNegotiationEventHandlerService extends BaseProtocolService
                     .callbackAddress(contractNegotiation.getCallbackAddress())
                     .consumerPid(contractNegotiation.getConsumerPid())
                     .providerPid(contractNegotiation.getProviderPid())
+                    .previousState(contractNegotiation.getState())
                     .state(ContractNegotiationState.VERIFIED)
                     .build();
             contractNegotiationRepository.save(contractNegotiationUpdate);
@@ -159,9 +162,4 @@ public class ContractNegotiationEventHandlerService extends BaseProtocolService
             throw new ContractNegotiationAPIException("provider did not process Verification message correct");
         }
     }
-
-    public void artifactConsumedEvent(ArtifactConsumedEvent artifactConsumedEvent) {
-        log.info("Increasing access count for artifactId {}", artifactConsumedEvent.getAgreementId());
-        policyAdministrationPoint.updateAccessCount(artifactConsumedEvent.getAgreementId());
-    }
 }
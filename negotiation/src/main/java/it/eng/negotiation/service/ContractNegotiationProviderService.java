@@ -198,6 +198,7 @@ public abstract class ContractNegotiationProviderService extends BaseProtocolSer
                 .id(contractNegotiation.getId())
                 .consumerPid(contractNegotiation.getConsumerPid())
                 .providerPid(contractNegotiation.getProviderPid())
+                .previousState(contractNegotiation.getState())
                 .state(ContractNegotiationState.REQUESTED)
                 .role(IConstants.ROLE_PROVIDER)
                 .offer(updatedOffer)
@@ -1,6 +1,8 @@
 package it.eng.negotiation.policy.service;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -8,6 +10,7 @@ import static org.mockito.Mockito.when;
 import java.util.Optional;
 import java.util.UUID;
 
+import org.bson.Document;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -16,8 +19,11 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 
-import it.eng.negotiation.exception.PolicyEnforcementException;
 import it.eng.negotiation.model.PolicyEnforcement;
 import it.eng.negotiation.repository.PolicyEnforcementRepository;
 
@@ -28,37 +34,39 @@ class PolicyAdministrationPointTest {
 	
 	@Mock
 	private PolicyEnforcementRepository policyEnforcementRepository;
+	@Mock
+	private MongoTemplate mongoTemplate;
 	
 	@Captor
-	private ArgumentCaptor<PolicyEnforcement> argPolicyEnforcement;
+	private ArgumentCaptor<Query> argQuery;
+	@Captor
+	private ArgumentCaptor<Update> argUpdate;
 
 	@InjectMocks
 	private PolicyAdministrationPoint policyAdministrationPoint;
 	
 	@Test
-	@DisplayName("Update access count")
-	void opdateAccessCount() {
-		PolicyEnforcement pe = new PolicyEnforcement();
-		pe.setId(UUID.randomUUID().toString());
-		pe.setAgreementId(AGREEMENT_ID);
-		pe.setCount(5);
-		when(policyEnforcementRepository.findByAgreementId(AGREEMENT_ID)).thenReturn(Optional.of(pe));
+	@DisplayName("Consume access - below max count")
+	void consumeAccess() {
+		PolicyEnforcement pe = new PolicyEnforcement(UUID.randomUUID().toString(), AGREEMENT_ID, 6);
+		when(mongoTemplate.findAndModify(argQuery.capture(), argUpdate.capture(), any(FindAndModifyOptions.class),
+				eq(PolicyEnforcement.class))).thenReturn(pe);
 		
-		policyAdministrationPoint.updateAccessCount(AGREEMENT_ID);
+		assertTrue(policyAdministrationPoint.consumeAccess(AGREEMENT_ID, 6));
 		
-		verify(policyEnforcementRepository).save(argPolicyEnforcement.capture());
-		assertEquals(6, argPolicyEnforcement.getValue().getCount());
+		assertEquals(new Document("agreementId", AGREEMENT_ID).append("count", new Document("$lt", 6)),
+				argQuery.getValue().getQueryObject());
+		assertEquals(new Document("$inc", new Document("count", 1)), argUpdate.getValue().getUpdateObject());
+		verify(policyEnforcementRepository, times(0)).save(any(PolicyEnforcement.class));
 	}
 	
 	@Test
-	@DisplayName("Update access count - exception")
-	void opdateAccessCount_exception() {
-		when(policyEnforcementRepository.findByAgreementId(AGREEMENT_ID)).thenReturn(Optional.empty());
-		
-		assertThrows(PolicyEnforcementException.class, 
-				() -> policyAdministrationPoint.updateAccessCount(AGREEMENT_ID));
+	@DisplayName("Consume access - max count reached")
+	void consumeAccess_exhausted() {
+		when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+				eq(PolicyEnforcement.class))).thenReturn(null);
 		
-		verify(policyEnforcementRepository, times(0)).save(argPolicyEnforcement.capture());
+		assertFalse(policyAdministrationPoint.consumeAccess(AGREEMENT_ID, 6));
 	}
 	
 	@Test
@@ -17,6 +17,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -34,6 +35,8 @@ class PolicyEnforcementPointTest {
     @Mock
     private PolicyDecisionPoint policyDecisionPoint;
     @Mock
+    private PolicyAdministrationPoint policyAdministrationPoint;
+    @Mock
     private ContractNegotiationRepository contractNegotiationRepository;
     @Mock
     private AuditEventPublisher publisher;
@@ -80,6 +83,8 @@ class PolicyEnforcementPointTest {
                         .policyType(LeftOperand.COUNT)
                         .allowed(true)
                         .build());
+        // count LTEQ 5
+        when(policyAdministrationPoint.consumeAccess(agreement.getId(), 6)).thenReturn(true);
 
         PolicyDecision policyDecision = policyEnforcementPoint.enforcePolicy(agreement, "use");
 
@@ -96,6 +101,56 @@ class PolicyEnforcementPointTest {
         assertEquals("Test case - allowed", auditEvent.getDescription());
     }
 
+    @Test
+    void enforcePolicy_accessCountExceeded() {
+        Agreement agreement = NegotiationMockObjectUtil.AGREEMENT;
+        when(contractNegotiationRepository.findByAgreement(any()))
+                .thenReturn(Optional.of(NegotiationMockObjectUtil.CONTRACT_NEGOTIATION_FINALIZED));
+
+        when(usageControlProperties.usageControlEnabled()).thenReturn(true);
+        when(policyInformationPoint.getAllAttributes(any())).thenReturn(Map.of("key", "value"));
+        when(policyDecisionPoint.evaluate(any(), any(Agreement.class)))
+                .thenReturn(PolicyDecision.Builder.newInstance()
+                        .message("Test case - allowed")
+                        .allowed(true)
+                        .build());
+        // another access consumed the last one after the access count was read
+        when(policyAdministrationPoint.consumeAccess(agreement.getId(), 6)).thenReturn(false);
+
+        PolicyDecision policyDecision = policyEnforcementPoint.enforcePolicy(agreement, "use");
+
+        assertFalse(policyDecision.isAllowed());
+        assertEquals("Access count exceeded", policyDecision.getMessage());
+
+        verify(publisher, times(1)).publishEvent(auditEventCaptor.capture());
+        assertEquals(AuditEventType.PROTOCOL_NEGOTIATION_POLICY_EVALUATION_DENIED, auditEventCaptor.getValue().getEventType());
+    }
+
+    @Test
+    void enforcePolicy_noAccessCount_notConsumed() {
+        Agreement agreement = Agreement.Builder.newInstance()
+                .id(NegotiationMockObjectUtil.generateUUID())
+                .assignee(NegotiationMockObjectUtil.ASSIGNEE)
+                .assigner(NegotiationMockObjectUtil.ASSIGNER)
+                .target(NegotiationMockObjectUtil.TARGET)
+                .permission(List.of(NegotiationMockObjectUtil.PERMISSION))
+                .build();
+        when(contractNegotiationRepository.findByAgreement(any()))
+                .thenReturn(Optional.of(NegotiationMockObjectUtil.CONTRACT_NEGOTIATION_FINALIZED));
+
+        when(usageControlProperties.usageControlEnabled()).thenReturn(true);
+        when(policyInformationPoint.getAllAttributes(any())).thenReturn(Map.of("key", "value"));
+        when(policyDecisionPoint.evaluate(any(), any(Agreement.class)))
+                .thenReturn(PolicyDecision.Builder.newInstance()
+                        .message("Test case - allowed")
+                        .allowed(true)
+                        .build());
+
+        assertTrue(policyEnforcementPoint.enforcePolicy(agreement, "use").isAllowed());
+
+        verifyNoInteractions(policyAdministrationPoint);
+    }
+
     @Test
     public void enforcePolicy_denied() {
         Agreement agreement = NegotiationMockObjectUtil.AGREEMENT;
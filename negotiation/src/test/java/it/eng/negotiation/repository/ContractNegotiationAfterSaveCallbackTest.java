@@ -0,0 +1,94 @@
+package it.eng.negotiation.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import it.eng.negotiation.event.ContractNegotiationEvent;
+import it.eng.negotiation.model.ContractNegotiation;
+import it.eng.negotiation.model.ContractNegotiationState;
+import it.eng.negotiation.model.NegotiationMockObjectUtil;
+
+@ExtendWith(MockitoExtension.class)
+class ContractNegotiationAfterSaveCallbackTest {
+
+	private static final String COLLECTION = "contract_negotiations";
+
+	@Mock
+	private ApplicationEventPublisher publisher;
+	@Captor
+	private ArgumentCaptor<ContractNegotiationEvent> eventCaptor;
+
+	private ContractNegotiationAfterSaveCallback callback;
+
+	@BeforeEach
+	void setUp() {
+		callback = new ContractNegotiationAfterSaveCallback(publisher);
+	}
+
+	@Test
+	@DisplayName("New contract negotiation - event without old state")
+	void newNegotiation_published() {
+		ContractNegotiation contractNegotiation = contractNegotiation(ContractNegotiationState.REQUESTED, 0L);
+
+		callback.onAfterSave(contractNegotiation, new Document(), COLLECTION);
+
+		verify(publisher).publishEvent(eventCaptor.capture());
+		assertNull(eventCaptor.getValue().getOldState());
+		assertEquals(contractNegotiation, eventCaptor.getValue().getContractNegotiation());
+	}
+
+	@Test
+	@DisplayName("State changed - event with old state")
+	void stateChanged_publishedWithOldState() {
+		ContractNegotiation contractNegotiation = contractNegotiation(ContractNegotiationState.REQUESTED, 2L)
+				.withNewContractNegotiationState(ContractNegotiationState.AGREED);
+
+		callback.onAfterSave(contractNegotiation, new Document(), COLLECTION);
+
+		verify(publisher).publishEvent(eventCaptor.capture());
+		assertEquals(ContractNegotiationState.REQUESTED, eventCaptor.getValue().getOldState());
+		assertEquals(ContractNegotiationState.AGREED, eventCaptor.getValue().getContractNegotiation().getState());
+	}
+
+	@Test
+	@DisplayName("State not changed - no event")
+	void stateNotChanged_notPublished() {
+		ContractNegotiation contractNegotiation = contractNegotiation(ContractNegotiationState.OFFERED, 2L)
+				.withNewContractNegotiationState(ContractNegotiationState.OFFERED);
+
+		callback.onAfterSave(contractNegotiation, new Document(), COLLECTION);
+
+		verify(publisher, never()).publishEvent(any(Object.class));
+	}
+
+	@Test
+	@DisplayName("Existing contract negotiation saved without state change - no event")
+	void existingNegotiation_notPublished() {
+		callback.onAfterSave(contractNegotiation(ContractNegotiationState.AGREED, 3L), new Document(), COLLECTION);
+
+		verify(publisher, never()).publishEvent(any(Object.class));
+	}
+
+	private ContractNegotiation contractNegotiation(ContractNegotiationState state, Long version) {
+		return ContractNegotiation.Builder.newInstance()
+				.consumerPid(NegotiationMockObjectUtil.CONSUMER_PID)
+				.providerPid(NegotiationMockObjectUtil.PROVIDER_PID)
+				.state(state)
+				.version(version)
+				.build();
+	}
+}
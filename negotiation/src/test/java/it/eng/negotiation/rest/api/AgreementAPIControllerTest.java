@@ -1,11 +1,12 @@
 package it.eng.negotiation.rest.api;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.when;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -19,6 +20,7 @@ import it.eng.negotiation.exception.ContractNegotiationAPIException;
 import it.eng.negotiation.model.NegotiationMockObjectUtil;
 import it.eng.negotiation.service.AgreementAPIService;
 import it.eng.tools.response.GenericApiResponse;
+import it.eng.tools.usagecontrol.AgreementEnforcement;
 
 @ExtendWith(MockitoExtension.class)
 class AgreementAPIControllerTest {
@@ -32,10 +34,20 @@ class AgreementAPIControllerTest {
 	@Test
 	@DisplayName("Enforce agreement")
 	void enforceAgreement() {
-		doNothing().when(agreementAPIService).enforceAgreement(NegotiationMockObjectUtil.AGREEMENT.getId());
+		when(agreementAPIService.enforceAgreement(NegotiationMockObjectUtil.AGREEMENT.getId())).thenReturn(true);
 		ResponseEntity<GenericApiResponse<String>> response = controller.enforceAgreement(NegotiationMockObjectUtil.AGREEMENT.getId());
 		assertNotNull(response);
 		assertTrue(response.getBody().isSuccess());
+		assertEquals(AgreementEnforcement.VALID, response.getBody().getData());
+	}
+	
+	@Test
+	@DisplayName("Enforce agreement - decision valid for this access only")
+	void enforceAgreement_perAccess() {
+		when(agreementAPIService.enforceAgreement(NegotiationMockObjectUtil.AGREEMENT.getId())).thenReturn(false);
+		ResponseEntity<GenericApiResponse<String>> response = controller.enforceAgreement(NegotiationMockObjectUtil.AGREEMENT.getId());
+		assertTrue(response.getBody().isSuccess());
+		assertEquals(AgreementEnforcement.VALID_PER_ACCESS, response.getBody().getData());
 	}
 	
 	@Test
@@ -91,7 +91,7 @@ public class ContractNegotiationAPIControllerTest {
                 NegotiationMockObjectUtil.CONTRACT_NEGOTIATION_REQUESTED),
                 pageable, 2);
 
-        when(filterBuilder.buildFromRequest(any(HttpServletRequest.class))).thenReturn(expectedFilters);
+        when(filterBuilder.buildFromRequest(any(HttpServletRequest.class), eq(ContractNegotiation.class))).thenReturn(expectedFilters);
         when(apiService.findContractNegotiations(anyMap(), any(Pageable.class))).thenReturn(contractNegotiationPage);
         when(pagedResourcesAssembler.toModel(contractNegotiationPage, plainAssembler)).thenReturn((PagedModel) pagedModel);
 
@@ -120,7 +120,7 @@ public class ContractNegotiationAPIControllerTest {
         contractNegotiationPage = new PageImpl<>(Collections.singletonList(NegotiationMockObjectUtil.CONTRACT_NEGOTIATION_ACCEPTED),
                 pageable, 1);
 
-        when(filterBuilder.buildFromRequest(any(HttpServletRequest.class))).thenReturn(expectedFilters);
+        when(filterBuilder.buildFromRequest(any(HttpServletRequest.class), eq(ContractNegotiation.class))).thenReturn(expectedFilters);
         when(apiService.findContractNegotiations(anyMap(), any(Pageable.class))).thenReturn(contractNegotiationPage);
         when(pagedResourcesAssembler.toModel(contractNegotiationPage, plainAssembler)).thenReturn((PagedModel) pagedModel);
 
@@ -153,7 +153,7 @@ public class ContractNegotiationAPIControllerTest {
         contractNegotiationPage = new PageImpl<>(Collections.singletonList(NegotiationMockObjectUtil.CONTRACT_NEGOTIATION_ACCEPTED),
                 pageable, 1);
 
-        when(filterBuilder.buildFromRequest(any(HttpServletRequest.class))).thenReturn(expectedFilters);
+        when(filterBuilder.buildFromRequest(any(HttpServletRequest.class), eq(ContractNegotiation.class))).thenReturn(expectedFilters);
         when(apiService.findContractNegotiations(anyMap(), any(Pageable.class))).thenReturn(contractNegotiationPage);
         when(pagedResourcesAssembler.toModel(contractNegotiationPage, plainAssembler)).thenReturn((PagedModel) pagedModel);
 
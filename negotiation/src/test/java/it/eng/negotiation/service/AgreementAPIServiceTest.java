@@ -1,9 +1,11 @@
 package it.eng.negotiation.service;
 
-import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.when;
 
+import java.util.Arrays;
 import java.util.Optional;
 
 import org.junit.jupiter.api.DisplayName;
@@ -14,6 +16,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import it.eng.negotiation.exception.PolicyEnforcementException;
+import it.eng.negotiation.model.Agreement;
 import it.eng.negotiation.model.NegotiationMockObjectUtil;
 import it.eng.negotiation.policy.model.PolicyDecision;
 import it.eng.negotiation.policy.service.PolicyAdministrationPoint;
@@ -45,13 +48,28 @@ class AgreementAPIServiceTest {
 	
 	// enforce agreement
 	@Test
-	@DisplayName("Enforce agreement ok")
+	@DisplayName("Enforce agreement ok - access count limited, evaluated per access")
 	public void enforceAgreement() {
 		when(agreementRepository.findById(NegotiationMockObjectUtil.AGREEMENT.getId())).thenReturn(Optional.of(NegotiationMockObjectUtil.AGREEMENT));
 //		when(policyEnforcementService.isAgreementValid(NegotiationMockObjectUtil.AGREEMENT)).thenReturn(true);
 		when(policyEnforcementPoint.enforcePolicy(NegotiationMockObjectUtil.AGREEMENT, "enforceAgreement"))
 			.thenReturn(policyDecisionAllowed);
-		assertDoesNotThrow(()-> service.enforceAgreement(NegotiationMockObjectUtil.AGREEMENT.getId()));
+		assertFalse(service.enforceAgreement(NegotiationMockObjectUtil.AGREEMENT.getId()));
+	}
+	
+	@Test
+	@DisplayName("Enforce agreement ok - no access count, decision reusable")
+	public void enforceAgreement_reusable() {
+		Agreement agreement = Agreement.Builder.newInstance()
+				.id(NegotiationMockObjectUtil.generateUUID())
+				.assignee(NegotiationMockObjectUtil.ASSIGNEE)
+				.assigner(NegotiationMockObjectUtil.ASSIGNER)
+				.target(NegotiationMockObjectUtil.TARGET)
+				.permission(Arrays.asList(NegotiationMockObjectUtil.PERMISSION))
+				.build();
+		when(agreementRepository.findById(agreement.getId())).thenReturn(Optional.of(agreement));
+		when(policyEnforcementPoint.enforcePolicy(agreement, "enforceAgreement")).thenReturn(policyDecisionAllowed);
+		assertTrue(service.enforceAgreement(agreement.getId()));
 	}
 	
 	@Test
@@ -9,12 +9,14 @@ import it.eng.negotiation.properties.ContractNegotiationProperties;
 import it.eng.negotiation.repository.AgreementRepository;
 import it.eng.negotiation.repository.ContractNegotiationRepository;
 import it.eng.negotiation.repository.OfferRepository;
+import it.eng.negotiation.rest.protocol.ContractNegotiationCallback;
 import it.eng.negotiation.serializer.NegotiationSerializer;
 import it.eng.tools.client.rest.OkHttpRestClient;
 import it.eng.tools.event.AuditEventType;
 import it.eng.tools.event.datatransfer.InitializeTransferProcess;
 import it.eng.tools.model.DSpaceConstants;
 import it.eng.tools.model.IConstants;
+import it.eng.tools.outbox.OutboxService;
 import it.eng.tools.response.GenericApiResponse;
 import it.eng.tools.service.AuditEventPublisher;
 import it.eng.tools.util.CredentialUtils;
@@ -31,6 +33,7 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 
 import java.util.*;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -59,6 +62,8 @@ public class ContractNegotiationAPIServiceTest {
     @Mock
     private PolicyAdministrationPoint policyAdministrationPoint;
     @Mock
+    private OutboxService outboxService;
+    @Mock
     private Pageable pageable;
 
     @Captor
@@ -702,9 +707,7 @@ public class ContractNegotiationAPIServiceTest {
     @Test
     @DisplayName("Send agreement success - accepted state")
     public void sendAgreement_success_acceptedState() {
-        when(credentialUtils.getConnectorCredentials()).thenReturn("credentials");
-        when(okHttpRestClient.sendRequestProtocol(any(String.class), any(JsonNode.class), any(String.class))).thenReturn(apiResponse);
-        when(apiResponse.isSuccess()).thenReturn(true);
+        mockOutbox();
         when(contractNegotiationRepository.findById(NegotiationMockObjectUtil.CONTRACT_NEGOTIATION_ACCEPTED.getId()))
                 .thenReturn(Optional.of(NegotiationMockObjectUtil.CONTRACT_NEGOTIATION_ACCEPTED));
 
@@ -717,9 +720,7 @@ public class ContractNegotiationAPIServiceTest {
     @Test
     @DisplayName("Send agreement success - requested state")
     public void sendAgreement_success_requestedState() {
-        when(credentialUtils.getConnectorCredentials()).thenReturn("credentials");
-        when(okHttpRestClient.sendRequestProtocol(any(String.class), any(JsonNode.class), any(String.class))).thenReturn(apiResponse);
-        when(apiResponse.isSuccess()).thenReturn(true);
+        mockOutbox();
         when(contractNegotiationRepository.findById(NegotiationMockObjectUtil.CONTRACT_NEGOTIATION_REQUESTED.getId()))
                 .thenReturn(Optional.of(NegotiationMockObjectUtil.CONTRACT_NEGOTIATION_REQUESTED));
 
@@ -754,28 +755,28 @@ public class ContractNegotiationAPIServiceTest {
     }
 
     @Test
-    @DisplayName("Send agreement failed - bad request")
-    public void sendAgreement_failedBadRequest() {
-        when(credentialUtils.getConnectorCredentials()).thenReturn("credentials");
-        when(okHttpRestClient.sendRequestProtocol(any(String.class), any(JsonNode.class), any(String.class))).thenReturn(apiResponse);
-        when(apiResponse.getMessage()).thenReturn("bad request");
-        when(apiResponse.isSuccess()).thenReturn(false);
-        when(contractNegotiationRepository.findById(NegotiationMockObjectUtil.CONTRACT_NEGOTIATION_ACCEPTED.getId()))
-                .thenReturn(Optional.of(NegotiationMockObjectUtil.CONTRACT_NEGOTIATION_ACCEPTED));
-
-        assertThrows(ContractNegotiationAPIException.class, () -> service.sendContractAgreementMessage(NegotiationMockObjectUtil.CONTRACT_NEGOTIATION_ACCEPTED.getId()));
-
-        verify(okHttpRestClient).sendRequestProtocol(any(String.class), any(JsonNode.class), any(String.class));
-        verify(contractNegotiationRepository, times(0)).save(any(ContractNegotiation.class));
-        verify(agreementRepository, times(0)).save(any(Agreement.class));
+    @DisplayName("Send agreement - message queued for consumer, not sent synchronously")
+    public void sendAgreement_messageQueued() {
+        ContractNegotiation contractNegotiation = NegotiationMockObjectUtil.CONTRACT_NEGOTIATION_ACCEPTED;
+        when(contractNegotiationRepository.findById(contractNegotiation.getId())).thenReturn(Optional.of(contractNegotiation));
+        mockOutbox();
+
+        ContractNegotiation agreed = service.sendContractAgreementMessage(contractNegotiation.getId());
+
+        ArgumentCaptor<JsonNode> payloadCaptor = ArgumentCaptor.forClass(JsonNode.class);
+        verify(outboxService).saveAndEnqueue(eq(contractNegotiation.getId()),
+                eq(ContractNegotiationCallback.getContractAgreementCallback(contractNegotiation.getCallbackAddress(), contractNegotiation.getConsumerPid())),
+                payloadCaptor.capture(), any());
+        ContractAgreementMessage agreementMessage = NegotiationSerializer.deserializeProtocol(payloadCaptor.getValue(), ContractAgreementMessage.class);
+        assertEquals(agreed.getAgreement().getId(), agreementMessage.getAgreement().getId());
+        assertEquals(ContractNegotiationState.AGREED, agreed.getState());
+        verify(okHttpRestClient, times(0)).sendRequestProtocol(any(String.class), any(JsonNode.class), any(String.class));
     }
 
     @Test
     @DisplayName("Finalize negotiation success")
     public void sendContractNegotiation_EventMessageFinalize_success_requestedState() {
-        when(credentialUtils.getConnectorCredentials()).thenReturn("credentials");
-        when(okHttpRestClient.sendRequestProtocol(any(String.class), any(JsonNode.class), any(String.class))).thenReturn(apiResponse);
-        when(apiResponse.isSuccess()).thenReturn(true);
+        mockOutbox();
         when(contractNegotiationRepository.findById(NegotiationMockObjectUtil.CONTRACT_NEGOTIATION_VERIFIED.getId()))
                 .thenReturn(Optional.of(NegotiationMockObjectUtil.CONTRACT_NEGOTIATION_VERIFIED));
 
@@ -824,19 +825,24 @@ public class ContractNegotiationAPIServiceTest {
     }
 
     @Test
-    @DisplayName("Finalize negotiation failed - bad request")
-    public void sendContractNegotiation_EventMessageFinalize_failedBadRequest() {
-        when(credentialUtils.getConnectorCredentials()).thenReturn("credentials");
-        when(okHttpRestClient.sendRequestProtocol(any(String.class), any(JsonNode.class), any(String.class))).thenReturn(apiResponse);
-        when(apiResponse.isSuccess()).thenReturn(false);
-        when(apiResponse.getMessage()).thenReturn("bad request");
-        when(contractNegotiationRepository.findById(NegotiationMockObjectUtil.CONTRACT_NEGOTIATION_VERIFIED.getId()))
-                .thenReturn(Optional.of(NegotiationMockObjectUtil.CONTRACT_NEGOTIATION_VERIFIED));
-
-        assertThrows(ContractNegotiationAPIException.class, () -> service.sendContractNegotiationEventMessageFinalize(NegotiationMockObjectUtil.CONTRACT_NEGOTIATION_VERIFIED.getId()));
-
-        verify(okHttpRestClient).sendRequestProtocol(any(String.class), any(JsonNode.class), any(String.class));
-        verify(contractNegotiationRepository, times(0)).save(any(ContractNegotiation.class));
+    @DisplayName("Finalize negotiation - message queued for consumer, not sent synchronously")
+    public void sendContractNegotiation_EventMessageFinalize_messageQueued() {
+        ContractNegotiation contractNegotiation = NegotiationMockObjectUtil.CONTRACT_NEGOTIATION_VERIFIED;
+        when(contractNegotiationRepository.findById(contractNegotiation.getId())).thenReturn(Optional.of(contractNegotiation));
+        mockOutbox();
+
+        service.sendContractNegotiationEventMessageFinalize(contractNegotiation.getId());
+
+        ArgumentCaptor<JsonNode> payloadCaptor = ArgumentCaptor.forClass(JsonNode.class);
+        verify(outboxService).saveAndEnqueue(eq(contractNegotiation.getId()),
+                eq(ContractNegotiationCallback.getContractEventsCallback(contractNegotiation.getCallbackAddress(), contractNegotiation.getConsumerPid())),
+                payloadCaptor.capture(), any());
+        ContractNegotiationEventMessage eventMessage = NegotiationSerializer.deserializeProtocol(payloadCaptor.getValue(), ContractNegotiationEventMessage.class);
+        assertEquals(ContractNegotiationEventType.FINALIZED, eventMessage.getEventType());
+        verify(contractNegotiationRepository).save(argCaptorContractNegotiation.capture());
+        assertEquals(ContractNegotiationState.FINALIZED, argCaptorContractNegotiation.getValue().getState());
+        verify(policyAdministrationPoint).createPolicyEnforcement(contractNegotiation.getAgreement().getId());
+        verify(okHttpRestClient, times(0)).sendRequestProtocol(any(String.class), any(JsonNode.class), any(String.class));
     }
 
     @Test
@@ -889,9 +895,7 @@ public class ContractNegotiationAPIServiceTest {
     public void handleCNApproved() {
         String contractNegotiationId = UUID.randomUUID().toString();
         when(contractNegotiationRepository.findById(contractNegotiationId)).thenReturn(Optional.of(NegotiationMockObjectUtil.CONTRACT_NEGOTIATION_REQUESTED));
-        when(credentialUtils.getConnectorCredentials()).thenReturn("credentials");
-        when(okHttpRestClient.sendRequestProtocol(any(String.class), any(JsonNode.class), any(String.class))).thenReturn(apiResponse);
-        when(apiResponse.isSuccess()).thenReturn(true);
+        mockOutbox();
 
         service.sendContractAgreementMessage(contractNegotiationId);
 
@@ -913,25 +917,6 @@ public class ContractNegotiationAPIServiceTest {
                 () -> service.sendContractAgreementMessage(contractNegotiationId));
     }
 
-    @Test
-    @DisplayName("Provider accepts contract negotiation - error while contacting consumer")
-    public void handleCNApproved_error_consumer() {
-        String contractNegotiationId = UUID.randomUUID().toString();
-        when(contractNegotiationRepository.findById(contractNegotiationId)).thenReturn(Optional.of(NegotiationMockObjectUtil.CONTRACT_NEGOTIATION_REQUESTED));
-        when(credentialUtils.getConnectorCredentials()).thenReturn("credentials");
-        when(okHttpRestClient.sendRequestProtocol(any(String.class), any(JsonNode.class), any(String.class))).thenReturn(apiResponse);
-        when(apiResponse.isSuccess()).thenReturn(false);
-        when(apiResponse.getMessage()).thenReturn("Error while contacting consumer");
-
-        assertThrows(ContractNegotiationAPIException.class,
-                () -> service.sendContractAgreementMessage(contractNegotiationId));
-
-        verify(contractNegotiationRepository, times(0)).save(argCaptorContractNegotiation.capture());
-        verify(agreementRepository, times(0)).save(argCaptorAgreement.capture());
-
-        verifyAuditEvent(AuditEventType.PROTOCOL_NEGOTIATION_REJECTED, "Contract negotiation approval failed");
-    }
-
     @Test
     @DisplayName("Handle agreement verification message success")
     public void contractAgreementVerificationMessage_success() {
@@ -1039,6 +1024,12 @@ public class ContractNegotiationAPIServiceTest {
         verifyAuditEvent(AuditEventType.PROTOCOL_NEGOTIATION_REJECTED, "Contract negotiation termination failed");
     }
 
+    @SuppressWarnings("unchecked")
+    private void mockOutbox() {
+        when(outboxService.saveAndEnqueue(any(String.class), any(String.class), any(JsonNode.class), any(Supplier.class)))
+                .thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(3)).get());
+    }
+
     private void verifyAuditEvent(AuditEventType eventType, String description) {
         verify(publisher).publishEvent(eventTypeCaptor.capture(), descriptionCaptor.capture(), argCaptorAuditEventDetails.capture());
         assertEquals(eventType, eventTypeCaptor.getValue());
@@ -3,12 +3,15 @@ package it.eng.negotiation.service;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.DisplayName;
@@ -26,13 +29,16 @@ import it.eng.negotiation.exception.ContractNegotiationAPIException;
 import it.eng.negotiation.model.Agreement;
 import it.eng.negotiation.model.ContractNegotiation;
 import it.eng.negotiation.model.ContractNegotiationState;
+import it.eng.negotiation.model.ContractNegotiationTerminationMessage;
 import it.eng.negotiation.model.NegotiationMockObjectUtil;
 import it.eng.negotiation.properties.ContractNegotiationProperties;
 import it.eng.negotiation.repository.AgreementRepository;
 import it.eng.negotiation.repository.ContractNegotiationRepository;
+import it.eng.negotiation.rest.protocol.ContractNegotiationCallback;
 import it.eng.negotiation.serializer.NegotiationSerializer;
 import it.eng.tools.client.rest.OkHttpRestClient;
 import it.eng.tools.event.contractnegotiation.ContractNegotiationOfferResponseEvent;
+import it.eng.tools.outbox.OutboxService;
 import it.eng.tools.response.GenericApiResponse;
 import it.eng.tools.util.CredentialUtils;
 
@@ -51,6 +57,8 @@ public class ContractNegotiationEventHandlerServiceTest {
 	private GenericApiResponse<String> apiResponse;
 	@Mock
 	private CredentialUtils credentialUtils;
+	@Mock
+	private OutboxService outboxService;
 	
 	@InjectMocks
 	private ContractNegotiationEventHandlerService handlerService;
@@ -137,14 +145,13 @@ public class ContractNegotiationEventHandlerServiceTest {
 	public void terminateNegotiation() {
 		String contractNegotaitionId = UUID.randomUUID().toString(); 
 		when(repository.findById(contractNegotaitionId)).thenReturn(Optional.of(NegotiationMockObjectUtil.CONTRACT_NEGOTIATION_REQUESTED));
-		when(credentialUtils.getConnectorCredentials()).thenReturn("credentials");
-		when(okHttpRestClient.sendRequestProtocol(any(String.class), any(JsonNode.class), any(String.class))).thenReturn(apiResponse);
-		when(apiResponse.isSuccess()).thenReturn(true);
+		mockOutbox();
 		
-		handlerService.handleContractNegotiationTerminated(contractNegotaitionId);
+		ContractNegotiation terminated = handlerService.handleContractNegotiationTerminated(contractNegotaitionId);
 		
 		verify(repository).save(argCaptorContractNegotiation.capture());
 		assertEquals(ContractNegotiationState.TERMINATED, argCaptorContractNegotiation.getValue().getState());
+		assertEquals(ContractNegotiationState.TERMINATED, terminated.getState());
 	}
 	
 	@Disabled
@@ -161,17 +168,27 @@ public class ContractNegotiationEventHandlerServiceTest {
 	}
 	
 	@Test
-	@DisplayName("Provider terminate contract negotiation - consumer did not respond")
-	public void terminateNegotiation_consumer_error() {
+	@DisplayName("Provider terminate contract negotiation - termination message queued, consumer not called")
+	public void terminateNegotiation_messageQueued() {
 		String contractNegotaitionId = UUID.randomUUID().toString(); 
-		when(repository.findById(contractNegotaitionId)).thenReturn(Optional.of(NegotiationMockObjectUtil.CONTRACT_NEGOTIATION_REQUESTED));
-		when(credentialUtils.getConnectorCredentials()).thenReturn("credentials");
-		when(okHttpRestClient.sendRequestProtocol(any(String.class), any(JsonNode.class), any(String.class))).thenReturn(apiResponse);
-		when(apiResponse.isSuccess()).thenReturn(false);
+		ContractNegotiation contractNegotiation = NegotiationMockObjectUtil.CONTRACT_NEGOTIATION_REQUESTED;
+		when(repository.findById(contractNegotaitionId)).thenReturn(Optional.of(contractNegotiation));
+		mockOutbox();
 
-		assertThrows(ContractNegotiationAPIException.class,
-				() -> handlerService.handleContractNegotiationTerminated(contractNegotaitionId));
+		handlerService.handleContractNegotiationTerminated(contractNegotaitionId);
 		
-		verify(repository, times(0)).save(argCaptorContractNegotiation.capture());
+		ArgumentCaptor<JsonNode> payloadCaptor = ArgumentCaptor.forClass(JsonNode.class);
+		verify(outboxService).saveAndEnqueue(eq(contractNegotiation.getId()),
+				eq(ContractNegotiationCallback.getContractTerminationCallback(contractNegotiation.getCallbackAddress(), contractNegotiation.getConsumerPid())),
+				payloadCaptor.capture(), any());
+		ContractNegotiationTerminationMessage message = NegotiationSerializer.deserializeProtocol(payloadCaptor.getValue(), ContractNegotiationTerminationMessage.class);
+		assertEquals(contractNegotiation.getConsumerPid(), message.getConsumerPid());
+		verify(okHttpRestClient, never()).sendRequestProtocol(any(String.class), any(JsonNode.class), any(String.class));
+	}
+
+	@SuppressWarnings("unchecked")
+	private void mockOutbox() {
+		when(outboxService.saveAndEnqueue(any(String.class), any(String.class), any(JsonNode.class), any(Supplier.class)))
+				.thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(3)).get());
 	}
 }
@@ -0,0 +1,122 @@
+#!/usr/bin/env bash
+# ============================================================
+# Connector startup benchmark - time to ready
+# ============================================================
+#
+# Usage (run from project root, after building the connector jar):
+#   mvn package -DskipTests                      # plain jar
+#   mvn package -DskipTests -Paot,cds            # AOT classes and CDS archive
+#   ./scripts/startup-benchmark.sh [runs]        # default 5 runs per mode
+#
+# Environment:
+#   PROFILE          Spring profile of the connector (default provider)
+#   ADMIN_USER       user allowed to read actuator endpoints (default admin@mail.com)
+#   ADMIN_PASSWORD   its password (default password)
+#   KEEP_STANDINS    set to true to leave the MongoDB and MinIO stand-ins running
+#
+# Starts MongoDB and MinIO from connector/docker-compose.yml as local stand-ins,
+# then starts the connector jar repeatedly in every mode available in the build:
+#   baseline  plain JVM
+#   cds       -XX:SharedArchiveFile (needs target/dsp-true-connector.jsa, -Pcds)
+#   aot       -Dspring.aot.enabled=true (needs a jar built with -Paot)
+#   aot+cds   both
+# and reports, per mode, the median time from launch until
+# /actuator/health/readiness answers 200, and the time Spring reports in
+# "Started ApplicationConnector in ... seconds".
+# Run once before and once after a change to compare.
+# ============================================================
+
+set -euo pipefail
+
+RUNS="${1:-5}"
+PROFILE="${PROFILE:-provider}"
+ADMIN_USER="${ADMIN_USER:-admin@mail.com}"
+ADMIN_PASSWORD="${ADMIN_PASSWORD:-password}"
+TARGET="connector/target"
+JAR="dsp-true-connector.jar"
+JSA="dsp-true-connector.jsa"
+LOG="$(mktemp)"
+
+if [[ ! -f "$TARGET/$JAR" ]]; then
+  echo "Connector jar not found, build it first: mvn package -DskipTests"
+  exit 1
+fi
+
+PORT="$(grep -E '^server.port=' "connector/src/main/resources/application-$PROFILE.properties" | cut -d= -f2)"
+READINESS="http://localhost:${PORT}/actuator/health/readiness"
+
+echo "Starting MongoDB and MinIO stand-ins..."
+docker compose -f connector/docker-compose.yml up -d mongodb minio > /dev/null
+cleanup() {
+  rm -f "$LOG"
+  if [[ "${KEEP_STANDINS:-false}" != "true" ]]; then
+    docker compose -f connector/docker-compose.yml stop mongodb minio > /dev/null
+  fi
+}
+trap cleanup EXIT
+
+# configuration next to the jar, as mounted into the container
+cp "connector/src/main/resources/application-$PROFILE.properties" "connector/src/main/resources/initial_data-$PROFILE.json" "$TARGET/"
+cp -r connector/src/main/resources/certs "$TARGET/"
+
+now_millis() {
+  date +%s%3N
+}
+
+# $1 - mode name, remaining - JVM options; prints "<ready ms> <spring seconds>"
+start_once() {
+  local start ready spring pid
+  shift
+  start="$(now_millis)"
+  (cd "$TARGET" && exec java "$@" -Dspring.profiles.active="$PROFILE" -jar "$JAR") > "$LOG" 2>&1 &
+  pid=$!
+  until [[ "$(curl -s -o /dev/null -w '%{http_code}' -u "$ADMIN_USER:$ADMIN_PASSWORD" "$READINESS" || true)" == "200" ]]; do
+    if ! kill -0 "$pid" 2> /dev/null; then
+      echo "Connector exited before getting ready, see log:" >&2
+      tail -n 30 "$LOG" >&2
+      exit 1
+    fi
+    sleep 0.05
+  done
+  ready=$(( $(now_millis) - start ))
+  spring="$(grep -o 'Started ApplicationConnector in [0-9.]* seconds' "$LOG" | grep -o '[0-9.]*' | head -n 1)"
+  kill "$pid"
+  wait "$pid" 2> /dev/null || true
+  echo "$ready ${spring:-?}"
+}
+
+median() {
+  sort -n | awk '{ values[NR] = $1 } END { print values[int((NR + 1) / 2)] }'
+}
+
+# $1 - mode name, remaining - JVM options
+benchmark() {
+  local mode="$1" results=()
+  # first start warms up the stand-ins and the file system cache
+  start_once "$@" > /dev/null
+  for ((i = 1; i <= RUNS; i++)); do
+    results+=("$(start_once "$@")")
+  done
+  printf '%-10s ready %6s ms   spring %6s s\n' "$mode" \
+    "$(printf '%s\n' "${results[@]}" | cut -d' ' -f1 | median)" \
+    "$(printf '%s\n' "${results[@]}" | cut -d' ' -f2 | median)"
+}
+
+AOT=false
+if unzip -l "$TARGET/$JAR" | grep -q '__ApplicationContextInitializer.class'; then
+  AOT=true
+fi
+
+echo "========================================================"
+echo " Time to ready, median of $RUNS runs, profile $PROFILE"
+echo "========================================================"
+benchmark baseline -Xshare:auto
+if [[ -f "$TARGET/$JSA" ]]; then
+  benchmark cds -XX:SharedArchiveFile="$JSA"
+fi
+if [[ "$AOT" == "true" ]]; then
+  benchmark aot -Dspring.aot.enabled=true
+  if [[ -f "$TARGET/$JSA" ]]; then
+    benchmark aot+cds -Dspring.aot.enabled=true -XX:SharedArchiveFile="$JSA"
+  fi
+fi
@@ -0,0 +1,21 @@
+package it.eng.tools.client.rest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Response of a conditional (If-None-Match) request.
+ *
+ * @param code HTTP status code, 0 if the peer could not be reached
+ * @param body response body; null when not modified, empty or not JSON
+ * @param eTag ETag header of the response, if present
+ */
+public record ConditionalResponse(int code, JsonNode body, String eTag) {
+
+    public boolean isSuccessful() {
+        return code >= 200 && code < 300;
+    }
+
+    public boolean isNotModified() {
+        return code == 304;
+    }
+}
@@ -0,0 +1,60 @@
+package it.eng.tools.client.rest;
+
+import java.io.IOException;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import it.eng.tools.property.HttpClientProperties;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Connects to well-known peers at startup, so TLS handshake and certificate validation are done before the first call
+ * and the connection waits in the pool.
+ */
+@Component
+@Slf4j
+public class ConnectionPrewarmer {
+
+    private final OkHttpClient okHttpClient;
+    private final HttpClientProperties properties;
+
+    public ConnectionPrewarmer(OkHttpClient okHttpClient, HttpClientProperties properties) {
+        this.okHttpClient = okHttpClient;
+        this.properties = properties;
+    }
+
+    /**
+     * Sends HEAD request to every configured peer, without waiting for the responses.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void prewarm() {
+        for (String peer : properties.getPrewarmPeers()) {
+            HttpUrl url = HttpUrl.parse(peer);
+            if (url == null) {
+                log.warn("Not connecting to {}, not a valid address", peer);
+                continue;
+            }
+            okHttpClient.newCall(new Request.Builder().url(url).head().build()).enqueue(new Callback() {
+                @Override
+                public void onResponse(Call call, Response response) {
+                    // any response means the connection is established
+                    response.close();
+                    log.info("Connection to {} established", peer);
+                }
+
+                @Override
+                public void onFailure(Call call, IOException e) {
+                    log.warn("Could not connect to {}: {}", peer, e.getMessage());
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package it.eng.tools.client.rest;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.ConnectionPool;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.Protocol;
+
+/**
+ * Counts calls, new connections and TLS handshakes of the HTTP client, to show how well connections are reused.
+ */
+@Component
+public class ConnectionStatistics extends EventListener {
+
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong connectionsOpened = new AtomicLong();
+    private final AtomicLong connectionsAcquired = new AtomicLong();
+    private final AtomicLong tlsHandshakes = new AtomicLong();
+    private final AtomicLong failedConnects = new AtomicLong();
+
+    @Override
+    public void callStart(Call call) {
+        calls.incrementAndGet();
+    }
+
+    @Override
+    public void secureConnectEnd(Call call, Handshake handshake) {
+        tlsHandshakes.incrementAndGet();
+    }
+
+    @Override
+    public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+        connectionsOpened.incrementAndGet();
+    }
+
+    @Override
+    public void connectFailed(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol, IOException ioe) {
+        failedConnects.incrementAndGet();
+    }
+
+    @Override
+    public void connectionAcquired(Call call, Connection connection) {
+        connectionsAcquired.incrementAndGet();
+    }
+
+    /**
+     * @param connectionPool connection pool of the client this listener is registered on
+     * @return current pool state and counts since startup
+     */
+    public ConnectionPoolSnapshot snapshot(ConnectionPool connectionPool) {
+        long opened = connectionsOpened.get();
+        return new ConnectionPoolSnapshot(connectionPool.connectionCount(), connectionPool.idleConnectionCount(),
+                calls.get(), opened, Math.max(0, connectionsAcquired.get() - opened), tlsHandshakes.get(), failedConnects.get());
+    }
+
+    /**
+     * @param connections       connections in the pool
+     * @param idleConnections   connections in the pool not used by a call
+     * @param calls             calls started
+     * @param connectionsOpened new connections
+     * @param connectionsReused calls served by an existing connection
+     * @param tlsHandshakes     TLS handshakes, full or resumed
+     * @param failedConnects    connection attempts failed
+     */
+    public record ConnectionPoolSnapshot(int connections, int idleConnections, long calls, long connectionsOpened,
+                                         long connectionsReused, long tlsHandshakes, long failedConnects) {
+    }
+}
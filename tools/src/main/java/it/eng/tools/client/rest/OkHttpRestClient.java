@@ -1,6 +1,7 @@
 package it.eng.tools.client.rest;
 
 import java.io.IOException;
+import java.time.Duration;
 
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Value;
@@ -11,6 +12,7 @@ import org.springframework.stereotype.Service;
 import com.fasterxml.jackson.databind.JsonNode;
 
 import it.eng.tools.model.ExternalData;
+import it.eng.tools.property.HttpClientProperties;
 import it.eng.tools.response.GenericApiResponse;
 import it.eng.tools.util.CredentialUtils;
 import lombok.extern.slf4j.Slf4j;
@@ -28,19 +30,29 @@ public class OkHttpRestClient {
 	private final boolean sslEnabled;
 	private final OkHttpClient okHttpClient;
 	private final CredentialUtils credentialUtils;
+	private final HttpClientProperties properties;
 	private static final String ATTACHMENT_FILENAME = "attachment;filename=";
+	public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
 
-	public OkHttpRestClient(OkHttpClient okHttpClient, CredentialUtils credentialUtils,
+	public OkHttpRestClient(OkHttpClient okHttpClient, CredentialUtils credentialUtils, HttpClientProperties properties,
 			@Value("${server.port}") String serverPort, @Value("${server.ssl.enabled}") boolean sslEnabled) {
 		this.okHttpClient = okHttpClient;
 		this.credentialUtils = credentialUtils;
+		this.properties = properties;
 		this.serverPort = serverPort;
 		this.sslEnabled = sslEnabled;
 	}
 	
+	/**
+	 * Executes request; caller closes the response.
+	 * @param request request
+	 * @return response, or null if the peer could not be reached or is unavailable
+	 */
 	public Response executeCall(Request request) {
 		try {
 			return okHttpClient.newCall(request).execute();
+		} catch (PeerUnavailableException e) {
+			log.warn("Rest call not sent: {}", e.getMessage());
 		} catch (IOException e) {
 			log.error("Error while executing rest call", e);
 			//TODO add error handler for REST calls
@@ -73,12 +85,7 @@ public class OkHttpRestClient {
 		try (Response response = okHttpClient.newCall(request).execute()) {
 			int code = response.code();
 			log.info("Status {}", code);
-			//why is this not JSONNode
-            String resp = null;
-            if (response.body() != null) {
-                resp = response.body().string();
-            }
-            log.info("Response received: {}", resp);
+            String resp = readProtocolBody(response);
 			if(response.isSuccessful()) { // code in 200..299
 				return GenericApiResponse.success(resp, "Response received from " + targetAddress);
 			} else {
@@ -90,6 +97,73 @@ public class OkHttpRestClient {
 		}
 	}
 	
+	/**
+	 * Sends protocol request carrying If-None-Match header, so the peer can answer with 304 Not Modified
+	 * instead of sending the same representation again.
+	 * @param targetAddress protocol address
+	 * @param jsonNode request body
+	 * @param authorization full authorization header e.g. Bearer token
+	 * @param eTag entity tag of the representation already held by the caller; can be null
+	 * @return ConditionalResponse, body parsed while read, limited to <code>application.http-client.max-catalog-response-bytes</code>
+	 */
+	public ConditionalResponse sendConditionalRequestProtocol(String targetAddress, JsonNode jsonNode, String authorization, String eTag) {
+		Request.Builder requestBuilder = new Request.Builder().url(targetAddress);
+		RequestBody body;
+		if(jsonNode != null) {
+			body = RequestBody.create(jsonNode.toPrettyString(), MediaType.parse("application/json"));
+		} else {
+			body = RequestBody.create("", MediaType.parse("application/json"));
+		}
+		requestBuilder.post(body);
+		if(StringUtils.isNotBlank(authorization)) {
+			requestBuilder.addHeader(HttpHeaders.AUTHORIZATION, authorization);
+		}
+		if(StringUtils.isNotBlank(eTag)) {
+			requestBuilder.addHeader(HttpHeaders.IF_NONE_MATCH, eTag);
+		}
+		Request request = requestBuilder.build();
+		log.info("Sending conditional request using address: {}", targetAddress);
+		try (Response response = okHttpClient.newCall(request).execute()) {
+			int code = response.code();
+			log.info("Status {}", code);
+			JsonNode resp = null;
+			if (code != 304 && response.body() != null) {
+				resp = ResponseBodyReader.readJson(response.body(), properties.getMaxCatalogResponseBytes(), responseReadTimeout());
+			}
+			return new ConditionalResponse(code, resp, response.header(HttpHeaders.ETAG));
+		} catch (IOException e) {
+			log.error(e.getLocalizedMessage());
+			return new ConditionalResponse(0, null, null);
+		}
+	}
+	
+	/**
+	 * Sends protocol request carrying Idempotency-Key header, so the peer can recognize redelivery of the same message.
+	 * @param targetAddress protocol address
+	 * @param body serialized request body
+	 * @param authorization full authorization header e.g. Bearer token
+	 * @param idempotencyKey key identifying the message; same for every delivery attempt
+	 * @return ProtocolResponse
+	 */
+	public ProtocolResponse sendIdempotentRequestProtocol(String targetAddress, String body, String authorization, String idempotencyKey) {
+		Request.Builder requestBuilder = new Request.Builder().url(targetAddress)
+				.post(RequestBody.create(body != null ? body : "", MediaType.parse("application/json")))
+				.addHeader(IDEMPOTENCY_KEY, idempotencyKey);
+		if(StringUtils.isNotBlank(authorization)) {
+			requestBuilder.addHeader(HttpHeaders.AUTHORIZATION, authorization);
+		}
+		Request request = requestBuilder.build();
+		log.info("Sending request {} using address: {}", idempotencyKey, targetAddress);
+		try (Response response = okHttpClient.newCall(request).execute()) {
+			int code = response.code();
+			log.info("Status {}", code);
+			return new ProtocolResponse(code, readProtocolBody(response));
+		} catch (IOException e) {
+			log.error(e.getLocalizedMessage());
+			return new ProtocolResponse(0, e.getLocalizedMessage());
+		}
+	}
+	
 	/**
 	 * Sends GET request.
 	 * @param targetAddress request address
@@ -107,11 +181,7 @@ public class OkHttpRestClient {
 		try (Response response = okHttpClient.newCall(request).execute()) {
 			int code = response.code();
 			log.info("Status {}", code);
-            String resp = null;
-            if (response.body() != null) {
-                resp = response.body().string();
-            }
-            log.info("Response received: {}", resp);
+            String resp = readProtocolBody(response);
 			if(response.isSuccessful()) { // code in 200..299
 				return GenericApiResponse.success(resp, "Response received from " + targetAddress);
 			} else {
@@ -143,7 +213,7 @@ public class OkHttpRestClient {
 			if(response.isSuccessful()) { // code in 200..299
 				ExternalData externalData = new ExternalData();
                 if (response.body() != null) {
-                    externalData.setData(response.body().bytes());
+                    externalData.setData(ResponseBodyReader.readBytes(response.body(), properties.getMaxDownloadBytes(), null));
 					externalData.setContentType(response.body().contentType());
 				}
 
@@ -191,11 +261,7 @@ public class OkHttpRestClient {
 		try (Response response = okHttpClient.newCall(request).execute()) {
 			int code = response.code();
 			log.info("Status {}", code);
-            String resp = null;
-            if (response.body() != null) {
-                resp = response.body().string();
-            }
-            log.info("Response received: {}", resp);
+            String resp = readProtocolBody(response);
 			// TODO see to pass GenericApiResponse<X> as parameter and then 
 			// TypeReference<GenericApiResponse<List<String>>> typeRef = new TypeReference<GenericApiResponse<List<String>>>() {};
 			// GenericApiResponse<List<String>> apiResp =  objectMapper.readValue(resp, typeRef);
@@ -205,4 +271,26 @@ public class OkHttpRestClient {
 			return null;
 		}
 	}
+
+	/**
+	 * Reads response body, limited to <code>application.http-client.max-protocol-response-bytes</code>; only the
+	 * beginning of the body is logged, at debug level.
+	 * @param response response
+	 * @return response body, null if the response has none
+	 * @throws IOException if the body is too large or cannot be read in time
+	 */
+	private String readProtocolBody(Response response) throws IOException {
+		if (response.body() == null) {
+			return null;
+		}
+		String resp = ResponseBodyReader.readString(response.body(), properties.getMaxProtocolResponseBytes(), responseReadTimeout());
+		if (log.isDebugEnabled()) {
+			log.debug("Response received: {}", ResponseBodyReader.forLog(resp, properties.getLoggedBodyLength()));
+		}
+		return resp;
+	}
+	
+	private Duration responseReadTimeout() {
+		return Duration.ofSeconds(properties.getResponseReadTimeoutSeconds());
+	}
 }
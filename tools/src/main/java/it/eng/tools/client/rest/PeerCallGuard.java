@@ -0,0 +1,132 @@
+package it.eng.tools.client.rest;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import dev.failsafe.Bulkhead;
+import dev.failsafe.CircuitBreaker;
+import it.eng.tools.property.PeerResilienceProperties;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+/**
+ * Isolates outgoing calls per peer (scheme, host and port).<br>
+ * Every peer has its own circuit breaker, limit of calls waiting for a response, and read timeout derived from the
+ * response times observed for that peer. While the circuit of a peer is open, or its limit is reached, calls fail
+ * immediately with {@link PeerUnavailableException} instead of holding the calling thread until the timeout, so an
+ * unresponsive connector cannot use up the threads shared with calls to other connectors.
+ */
+@Component
+@Slf4j
+public class PeerCallGuard implements Interceptor {
+
+    private final PeerResilienceProperties properties;
+    private final Map<String, PeerState> peers = new ConcurrentHashMap<>();
+
+    public PeerCallGuard(PeerResilienceProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        if (!properties.isEnabled()) {
+            return chain.proceed(chain.request());
+        }
+        String peer = peerOf(chain.request().url());
+        PeerState state = peers.computeIfAbsent(peer, this::newPeerState);
+        acquireSlot(peer, state);
+        try {
+            if (!state.circuitBreaker.tryAcquirePermit()) {
+                throw new PeerUnavailableException("Circuit open for " + peer + ", calls fail for another "
+                        + state.circuitBreaker.getRemainingDelay().toMillis() + " ms");
+            }
+            int readTimeout = readTimeout(state, chain.readTimeoutMillis());
+            long start = System.nanoTime();
+            Response response;
+            try {
+                response = chain.withReadTimeout(readTimeout, TimeUnit.MILLISECONDS).proceed(chain.request());
+            } catch (IOException | RuntimeException e) {
+                state.circuitBreaker.recordFailure();
+                throw e;
+            }
+            if (response.code() >= 500) {
+                state.circuitBreaker.recordFailure();
+            } else {
+                state.circuitBreaker.recordSuccess();
+                state.latency.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            }
+            return response;
+        } finally {
+            state.bulkhead.releasePermit();
+        }
+    }
+
+    /**
+     * @param peer scheme, host and port
+     * @return current circuit state of the peer; closed for peers not called yet
+     */
+    public CircuitBreaker.State circuitState(String peer) {
+        PeerState state = peers.get(peer);
+        return state != null ? state.circuitBreaker.getState() : CircuitBreaker.State.CLOSED;
+    }
+
+    /**
+     * Read timeout is the latency percentile times the multiplier, not below the configured minimum and not above the
+     * read timeout of the client. Until enough response times are recorded the client read timeout is used.
+     *
+     * @param state         peer state
+     * @param clientTimeout read timeout configured on the client, 0 for none
+     * @return read timeout in milliseconds
+     */
+    int readTimeout(PeerState state, int clientTimeout) {
+        if (state.latency.count() < properties.getMinLatencySamples()) {
+            return clientTimeout;
+        }
+        long adaptive = Math.max((long) (state.latency.percentile(properties.getLatencyPercentile()) * properties.getTimeoutMultiplier()),
+                properties.getMinTimeoutMillis());
+        return (int) (clientTimeout > 0 ? Math.min(adaptive, clientTimeout) : Math.min(adaptive, Integer.MAX_VALUE));
+    }
+
+    PeerState peerState(String peer) {
+        return peers.computeIfAbsent(peer, this::newPeerState);
+    }
+
+    private void acquireSlot(String peer, PeerState state) throws IOException {
+        try {
+            if (!state.bulkhead.tryAcquirePermit(Duration.ofMillis(properties.getMaxWaitMillis()))) {
+                throw new PeerUnavailableException("Too many calls to " + peer + " waiting for a response");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a call slot to " + peer);
+        }
+    }
+
+    private PeerState newPeerState(String peer) {
+        CircuitBreaker<Object> circuitBreaker = CircuitBreaker.builder()
+                .withFailureThreshold(properties.getFailureThreshold(), properties.getFailureThresholdingCapacity())
+                .withDelay(Duration.ofSeconds(properties.getOpenDurationSeconds()))
+                .withSuccessThreshold(properties.getSuccessThreshold())
+                .onOpen(event -> log.warn("Circuit opened for {}, calls fail immediately for {} s", peer, properties.getOpenDurationSeconds()))
+                .onHalfOpen(event -> log.info("Circuit half open for {}, letting trial calls through", peer))
+                .onClose(event -> log.info("Circuit closed for {}", peer))
+                .build();
+        Bulkhead<Object> bulkhead = Bulkhead.builder(properties.getMaxConcurrentCallsPerPeer()).build();
+        return new PeerState(circuitBreaker, bulkhead, new LatencyWindow(properties.getLatencySamples()));
+    }
+
+    static String peerOf(HttpUrl url) {
+        return url.scheme() + "://" + url.host() + ":" + url.port();
+    }
+
+    record PeerState(CircuitBreaker<Object> circuitBreaker, Bulkhead<Object> bulkhead, LatencyWindow latency) {
+    }
+}
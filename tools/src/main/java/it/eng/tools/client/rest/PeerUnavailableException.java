@@ -0,0 +1,16 @@
+package it.eng.tools.client.rest;
+
+import java.io.IOException;
+
+/**
+ * Call not sent because the peer circuit is open, or too many calls to the peer are waiting for a response.<br>
+ * Extends {@link IOException} so it is handled like a peer that cannot be reached.
+ */
+public class PeerUnavailableException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    public PeerUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,21 @@
+package it.eng.tools.client.rest;
+
+/**
+ * Response of a protocol request, with HTTP status code kept so the caller can decide whether to retry.
+ *
+ * @param code HTTP status code, 0 if the peer could not be reached
+ * @param body response body, can be null
+ */
+public record ProtocolResponse(int code, String body) {
+
+    public boolean isSuccessful() {
+        return code >= 200 && code < 300;
+    }
+
+    /**
+     * @return true if the peer could not be reached or the failure is transient (timeouts, throttling, server errors)
+     */
+    public boolean isRetryable() {
+        return code == 0 || code == 408 || code == 425 || code == 429 || code >= 500;
+    }
+}
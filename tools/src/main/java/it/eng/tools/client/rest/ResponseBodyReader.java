@@ -0,0 +1,148 @@
+package it.eng.tools.client.rest;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+
+/**
+ * Reads response bodies up to a maximum size, failing as soon as the limit is passed instead of after the whole body
+ * is in memory.
+ */
+final class ResponseBodyReader {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final long SEGMENT = 8192;
+
+    private ResponseBodyReader() {
+    }
+
+    /**
+     * @param body     response body
+     * @param maxBytes maximum number of bytes
+     * @param timeout  maximum time for reading the whole body, so a peer sending bytes slowly cannot hold the caller;
+     *                 null for no limit
+     * @return body as UTF-8 string
+     * @throws IOException if the body is larger than maxBytes, or cannot be read in time
+     */
+    static String readString(ResponseBody body, long maxBytes, Duration timeout) throws IOException {
+        return new String(readBytes(body, maxBytes, timeout), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param body     response body
+     * @param maxBytes maximum number of bytes
+     * @param timeout  maximum time for reading the whole body; null for no limit
+     * @return body bytes
+     * @throws IOException if the body is larger than maxBytes, or cannot be read in time
+     */
+    static byte[] readBytes(ResponseBody body, long maxBytes, Duration timeout) throws IOException {
+        checkContentLength(body, maxBytes);
+        BufferedSource source = body.source();
+        applyDeadline(source, timeout);
+        Buffer buffer = new Buffer();
+        while (source.read(buffer, SEGMENT) != -1) {
+            if (buffer.size() > maxBytes) {
+                throw tooLarge(maxBytes);
+            }
+        }
+        return buffer.readByteArray();
+    }
+
+    /**
+     * Parses JSON while it is read from the stream, without keeping a copy of the body as string.
+     *
+     * @param body     response body
+     * @param maxBytes maximum number of bytes
+     * @param timeout  maximum time for reading the whole body; null for no limit
+     * @return parsed JSON, or null if the body is empty or not JSON
+     * @throws IOException if the body is larger than maxBytes, or cannot be read in time
+     */
+    static JsonNode readJson(ResponseBody body, long maxBytes, Duration timeout) throws IOException {
+        checkContentLength(body, maxBytes);
+        BufferedSource source = body.source();
+        applyDeadline(source, timeout);
+        try (InputStream stream = new LimitedInputStream(source.inputStream(), maxBytes)) {
+            JsonNode jsonNode = MAPPER.readTree(stream);
+            return jsonNode == null || jsonNode.isMissingNode() ? null : jsonNode;
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @param body      response body, already read
+     * @param maxLength maximum number of characters logged
+     * @return body shortened for logging
+     */
+    static String forLog(String body, int maxLength) {
+        return StringUtils.abbreviate(body, Math.max(4, maxLength));
+    }
+
+    private static void checkContentLength(ResponseBody body, long maxBytes) throws ResponseTooLargeException {
+        if (body.contentLength() > maxBytes) {
+            throw new ResponseTooLargeException("Response of " + body.contentLength() + " bytes exceeds limit of " + maxBytes + " bytes");
+        }
+    }
+
+    private static void applyDeadline(BufferedSource source, Duration timeout) {
+        if (timeout != null) {
+            source.timeout().deadline(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static ResponseTooLargeException tooLarge(long maxBytes) {
+        return new ResponseTooLargeException("Response exceeds limit of " + maxBytes + " bytes");
+    }
+
+    /**
+     * Fails once more than the allowed number of bytes was read.
+     */
+    private static final class LimitedInputStream extends FilterInputStream {
+
+        private final long maxBytes;
+        private long read;
+
+        LimitedInputStream(InputStream in, long maxBytes) {
+            super(in);
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count(n);
+            }
+            return n;
+        }
+
+        private void count(int n) throws ResponseTooLargeException {
+            read += n;
+            if (read > maxBytes) {
+                throw tooLarge(maxBytes);
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package it.eng.tools.client.rest;
+
+import java.io.IOException;
+
+/**
+ * Response body exceeds the size allowed for the call; reading stopped at the limit.<br>
+ * Extends {@link IOException} so it is handled like any other failed call.
+ */
+public class ResponseTooLargeException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ResponseTooLargeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,37 @@
+package it.eng.tools.configuration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+/**
+ * Timeout of asynchronous requests, i.e. the streamed audit event export, which otherwise ends after the
+ * servlet container default of 30 seconds.<br>
+ * Server sent event streams set their own timeout and are not affected.
+ */
+@Configuration
+public class AsyncRequestConfiguration implements WebMvcConfigurer {
+
+    private final long exportTimeoutMinutes;
+
+    public AsyncRequestConfiguration(@Value("${application.audit.export.timeout-minutes:30}") long exportTimeoutMinutes) {
+        this.exportTimeoutMinutes = exportTimeoutMinutes;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(getExportTimeout().toMillis());
+    }
+
+    /**
+     * Time an export may take before the response is ended.
+     *
+     * @return export timeout
+     */
+    public Duration getExportTimeout() {
+        return Duration.ofMinutes(exportTimeoutMinutes);
+    }
+}
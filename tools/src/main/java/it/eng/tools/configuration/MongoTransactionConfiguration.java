@@ -0,0 +1,21 @@
+package it.eng.tools.configuration;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.MongoTransactionManager;
+
+/**
+ * Enables MongoDB transactions, used to store state changes together with outbound protocol messages.
+ * Transactions require MongoDB running as a replica set.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "application.outbox", name = "transactional", havingValue = "true")
+public class MongoTransactionConfiguration {
+
+	@Bean
+	public MongoTransactionManager transactionManager(MongoDatabaseFactory mongoDatabaseFactory) {
+		return new MongoTransactionManager(mongoDatabaseFactory);
+	}
+}
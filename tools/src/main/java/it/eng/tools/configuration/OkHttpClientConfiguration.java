@@ -17,10 +17,16 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 
+import it.eng.tools.client.rest.ConnectionStatistics;
+import it.eng.tools.client.rest.PeerCallGuard;
+import it.eng.tools.property.HttpClientProperties;
 import it.eng.tools.ssl.ocsp.OcspTrustManagerFactory;
 import lombok.extern.slf4j.Slf4j;
+import okhttp3.ConnectionPool;
 import okhttp3.ConnectionSpec;
+import okhttp3.Dispatcher;
 import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
 import okhttp3.internal.tls.OkHostnameVerifier;
 
 @Configuration
@@ -28,12 +34,19 @@ import okhttp3.internal.tls.OkHostnameVerifier;
 public class OkHttpClientConfiguration {
 
 	private final OcspTrustManagerFactory ocspTrustManagerFactory;
+	private final PeerCallGuard peerCallGuard;
+	private final HttpClientProperties httpClientProperties;
+	private final ConnectionStatistics connectionStatistics;
 	private final boolean isSSLEnabled;
 	
-	public OkHttpClientConfiguration(OcspTrustManagerFactory ocspTrustManagerFactory,
+	public OkHttpClientConfiguration(OcspTrustManagerFactory ocspTrustManagerFactory, PeerCallGuard peerCallGuard,
+									 HttpClientProperties httpClientProperties, ConnectionStatistics connectionStatistics,
 									 @Value("${server.ssl.enabled:false}") boolean isSSLEnabled) {
 		super();
 		this.ocspTrustManagerFactory = ocspTrustManagerFactory;
+		this.peerCallGuard = peerCallGuard;
+		this.httpClientProperties = httpClientProperties;
+		this.connectionStatistics = connectionStatistics;
 		this.isSSLEnabled = isSSLEnabled;
 	}
 
@@ -75,16 +88,14 @@ public class OkHttpClientConfiguration {
 		// Create SSL context with OCSP-enabled trust managers
 		SSLContext sslContext = SSLContext.getInstance("TLS");
 		sslContext.init(null, trustManagers, new java.security.SecureRandom());
+		configureSessionResumption(sslContext);
 		log.debug("SSLContext initialized with TLS protocol");
 
 		// Create OkHttpClient with OCSP validation
 		OkHttpClient client;
 		//@formatter:off
-		client = new OkHttpClient.Builder()
+		client = builder()
 				.connectionSpecs(Collections.singletonList(ConnectionSpec.MODERN_TLS))
-				.connectTimeout(60, TimeUnit.SECONDS)
-		        .writeTimeout(60, TimeUnit.SECONDS)
-		        .readTimeout(60, TimeUnit.SECONDS)
 		        .sslSocketFactory(sslContext.getSocketFactory(), (X509TrustManager) trustManagers[0])
 		        .hostnameVerifier(OkHostnameVerifier.INSTANCE)
 		        .build();
@@ -122,18 +133,55 @@ public class OkHttpClientConfiguration {
 			};
 		SSLContext sslContextTrustAllCerts = SSLContext.getInstance("TLS");
 		sslContextTrustAllCerts.init(null, trustAllCerts, new java.security.SecureRandom());
+		configureSessionResumption(sslContextTrustAllCerts);
 				
 		OkHttpClient client;
 		//@formatter:off
-		client = new OkHttpClient.Builder()
+		client = builder()
 				.connectionSpecs(Arrays.asList(ConnectionSpec.MODERN_TLS, ConnectionSpec.CLEARTEXT))
-				.connectTimeout(60, TimeUnit.SECONDS)
-		        .writeTimeout(60, TimeUnit.SECONDS)
-		        .readTimeout(60, TimeUnit.SECONDS)
 		        .sslSocketFactory(sslContextTrustAllCerts.getSocketFactory(), (X509TrustManager) trustAllCerts[0])
 		        .hostnameVerifier((hostname, session) -> true)
 		        .build();
 		//@formatter:on
 		return client;
 	}
+	
+	/**
+	 * Settings shared by secure and insecure client: timeouts, connection pool, dispatcher limits, protocols,
+	 * statistics and per peer isolation of calls.
+	 * 
+	 * @return client builder
+	 */
+	private OkHttpClient.Builder builder() {
+		Dispatcher dispatcher = new Dispatcher();
+		dispatcher.setMaxRequests(httpClientProperties.getMaxRequests());
+		dispatcher.setMaxRequestsPerHost(httpClientProperties.getMaxRequestsPerHost());
+		log.info("HTTP client pool: {} idle connections kept for {} s, HTTP/2 {}", httpClientProperties.getMaxIdleConnections(),
+				httpClientProperties.getKeepAliveSeconds(), httpClientProperties.isHttp2() ? "enabled" : "disabled");
+		//@formatter:off
+		return new OkHttpClient.Builder()
+				.connectTimeout(60, TimeUnit.SECONDS)
+		        .writeTimeout(60, TimeUnit.SECONDS)
+		        .readTimeout(60, TimeUnit.SECONDS)
+		        .connectionPool(new ConnectionPool(httpClientProperties.getMaxIdleConnections(),
+		        		httpClientProperties.getKeepAliveSeconds(), TimeUnit.SECONDS))
+		        .dispatcher(dispatcher)
+		        .protocols(httpClientProperties.isHttp2()
+		        		? Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1)
+		        		: Collections.singletonList(Protocol.HTTP_1_1))
+		        .eventListener(connectionStatistics)
+		        .addInterceptor(peerCallGuard);
+		//@formatter:on
+	}
+	
+	/**
+	 * Keeps TLS sessions, so reconnecting to a peer resumes the session instead of a full handshake with certificate
+	 * (and OCSP) validation.
+	 * 
+	 * @param sslContext SSL context of the client
+	 */
+	private void configureSessionResumption(SSLContext sslContext) {
+		sslContext.getClientSessionContext().setSessionCacheSize(httpClientProperties.getTlsSessionCacheSize());
+		sslContext.getClientSessionContext().setSessionTimeout(httpClientProperties.getTlsSessionTimeoutSeconds());
+	}
 }
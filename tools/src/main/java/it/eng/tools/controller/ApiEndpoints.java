@@ -60,4 +60,9 @@ public interface ApiEndpoints {
     public static final String PROPERTIES_V1 = "/api/v1/properties";
 
     public static final String AUDIT_V1 = "/api/v1/audit";
+
+    /**
+     * Tools module - v1 API end point for transfer and negotiation state change notifications.
+     */
+    public static final String NOTIFICATIONS_V1 = "/api/v1/notifications";
 }
@@ -3,13 +3,14 @@ package it.eng.tools.daps;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.security.interfaces.RSAPublicKey;
+import java.util.concurrent.TimeUnit;
 
 import org.springframework.stereotype.Component;
 
 import com.auth0.jwk.Jwk;
 import com.auth0.jwk.JwkException;
 import com.auth0.jwk.JwkProvider;
-import com.auth0.jwk.UrlJwkProvider;
+import com.auth0.jwk.JwkProviderBuilder;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.interfaces.DecodedJWT;
 
@@ -24,6 +25,8 @@ public class DapsProperties {
 
 	private final ApplicationPropertiesService service;
 
+	private volatile CachedJwkProvider jwkProvider;
+
 	public DapsProperties(ApplicationPropertiesService service) {
 		this.service = service;
 	}
@@ -121,7 +124,7 @@ public class DapsProperties {
 	}
 
 	public Algorithm getAlogirthm(DecodedJWT jwt) {
-		JwkProvider provider = new UrlJwkProvider(getDapsJWKSUrl());
+		JwkProvider provider = jwkProvider();
 		Jwk jwk;
 		Algorithm algorithm = null;
 		try {
@@ -133,4 +136,26 @@ public class DapsProperties {
 		return algorithm;
 	}
 
+	/**
+	 * JWKS provider of the DAPS, created on first token validation and kept while the JWKS URL is unchanged.
+	 * Keys are cached, so the JWKS is fetched again only for an unknown key id.
+	 *
+	 * @return JWKS provider
+	 */
+	JwkProvider jwkProvider() {
+		URL url = getDapsJWKSUrl();
+		CachedJwkProvider current = jwkProvider;
+		// compare as strings, URL.equals resolves host names
+		if (current == null || !current.url().equals(url.toString())) {
+			current = new CachedJwkProvider(url.toString(), new JwkProviderBuilder(url)
+					.cached(10, 24, TimeUnit.HOURS)
+					.rateLimited(10, 1, TimeUnit.MINUTES)
+					.build());
+			jwkProvider = current;
+		}
+		return current.provider();
+	}
+
+	private record CachedJwkProvider(String url, JwkProvider provider) {
+	}
 }
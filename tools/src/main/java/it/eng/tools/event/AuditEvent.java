@@ -11,6 +11,8 @@ import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.IndexDirection;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
@@ -30,6 +32,7 @@ public class AuditEvent {
     @NotNull
     private AuditEventType eventType;     // LOGIN, ACTION, MODIFICATION, etc.
     private String username;      // who performed the action
+    @Indexed(name = "audit_events_timestamp", direction = IndexDirection.DESCENDING)
     private LocalDateTime timestamp;
     private String description;
     private Map<String, Object> details; // flexible structure for additional data
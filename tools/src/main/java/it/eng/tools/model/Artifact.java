@@ -48,6 +48,10 @@ public class Artifact implements Serializable{
 	private String authorization;
 	@JsonProperty(HttpHeaders.CONTENT_TYPE)
 	private String contentType;
+	/**
+	 * Base64 encoded SHA-256 of the file content, computed when file is stored.
+	 */
+	private String checksum;
 	@CreatedDate
 	private Instant created;
 	@LastModifiedDate
@@ -101,6 +105,11 @@ public class Artifact implements Serializable{
         	return this;
         }
 		
+		public Builder checksum(String checksum) {
+        	artifact.checksum = checksum;
+        	return this;
+        }
+		
 		public Builder created(Instant created) {
         	artifact.created = created;
         	return this;
@@ -1,10 +1,13 @@
 package it.eng.tools.model;
 
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 
+import java.util.function.Supplier;
+
 @Getter
 @JsonDeserialize(builder = RequestInfo.Builder.class)
 @NoArgsConstructor
@@ -12,10 +15,33 @@ import lombok.NoArgsConstructor;
 public class RequestInfo {
 
     private String method;
-    private String remoteAddress;
+    private volatile String remoteAddress;
     private String remoteHost;
     private String username;
 
+    // resolves remote address on first access, so requests not producing audit events do not pay for it
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    private transient volatile Supplier<String> remoteAddressResolver;
+
+    /**
+     * Remote address of the client, resolved on first access.
+     *
+     * @return remote address
+     */
+    public String getRemoteAddress() {
+        Supplier<String> resolver = remoteAddressResolver;
+        if (resolver != null) {
+            synchronized (this) {
+                if (remoteAddressResolver != null) {
+                    remoteAddress = remoteAddressResolver.get();
+                    remoteAddressResolver = null;
+                }
+            }
+        }
+        return remoteAddress;
+    }
+
     public static class Builder {
         private final RequestInfo requestInfo;
 
@@ -34,6 +60,18 @@ public class RequestInfo {
 
         public RequestInfo.Builder remoteAddress(String remoteAddress) {
             requestInfo.remoteAddress = remoteAddress;
+            requestInfo.remoteAddressResolver = null;
+            return this;
+        }
+
+        /**
+         * Remote address resolved on first access.
+         *
+         * @param remoteAddressResolver resolves remote address
+         * @return builder
+         */
+        public RequestInfo.Builder remoteAddressResolver(Supplier<String> remoteAddressResolver) {
+            requestInfo.remoteAddressResolver = remoteAddressResolver;
             return this;
         }
 
@@ -0,0 +1,51 @@
+package it.eng.tools.notification;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+/**
+ * Configuration properties for the state change notification stream.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "application.notification")
+public class NotificationProperties {
+
+    /**
+     * Maximum number of notifications buffered per subscriber.
+     * A subscriber whose buffer overflows is considered a slow consumer and is evicted.
+     */
+    private int queueCapacity = 256;
+
+    /**
+     * Maximum number of concurrently connected subscribers.
+     */
+    private int maxSubscribers = 1000;
+
+    /**
+     * Number of threads delivering notifications to subscribers.
+     */
+    private int dispatcherThreads = 4;
+
+    /**
+     * Interval in seconds between heartbeats sent to idle subscribers.
+     */
+    private long heartbeatSeconds = 15;
+
+    /**
+     * Timeout in minutes after which the stream is closed and the client has to reconnect.
+     */
+    private long streamTimeoutMinutes = 30;
+
+    /**
+     * Maximum number of notifications kept in the capped collection used for resuming.
+     */
+    private long historyMaxDocuments = 10000;
+
+    /**
+     * Maximum size in bytes of the capped collection used for resuming.
+     */
+    private long historyMaxBytes = 16 * 1024 * 1024;
+}
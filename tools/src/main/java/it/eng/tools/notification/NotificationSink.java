@@ -0,0 +1,29 @@
+package it.eng.tools.notification;
+
+import java.io.IOException;
+
+/**
+ * Transport used to deliver notifications to a single subscriber (e.g. a Server-Sent Events connection).
+ */
+public interface NotificationSink {
+
+    /**
+     * Delivers notification to the subscriber.
+     *
+     * @param notification notification to send
+     * @throws IOException if the subscriber can not be reached anymore
+     */
+    void send(StateChangeNotification notification) throws IOException;
+
+    /**
+     * Sends keep-alive message to the subscriber.
+     *
+     * @throws IOException if the subscriber can not be reached anymore
+     */
+    void heartbeat() throws IOException;
+
+    /**
+     * Closes the underlying connection.
+     */
+    void close();
+}
@@ -0,0 +1,81 @@
+package it.eng.tools.notification;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import lombok.Getter;
+
+/**
+ * Connected subscriber with its own bounded buffer of pending notifications.<br>
+ * At most one dispatcher thread delivers to a subscriber at a time, guarded by the <code>delivering</code> flag.
+ */
+class NotificationSubscriber {
+
+    @Getter
+    private final String id;
+    @Getter
+    private final NotificationSink sink;
+    private final BlockingQueue<StateChangeNotification> queue;
+    private final AtomicBoolean delivering = new AtomicBoolean(false);
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+    private volatile long lastActivity = System.currentTimeMillis();
+
+    NotificationSubscriber(String id, NotificationSink sink, int queueCapacity) {
+        this.id = id;
+        this.sink = sink;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    /**
+     * Buffers notification without blocking.
+     *
+     * @param notification notification to buffer
+     * @return false if buffer is full
+     */
+    boolean offer(StateChangeNotification notification) {
+        return queue.offer(notification);
+    }
+
+    StateChangeNotification poll() {
+        return queue.poll();
+    }
+
+    boolean hasPending() {
+        return !queue.isEmpty();
+    }
+
+    int pending() {
+        return queue.size();
+    }
+
+    boolean tryStartDelivery() {
+        return delivering.compareAndSet(false, true);
+    }
+
+    void endDelivery() {
+        delivering.set(false);
+    }
+
+    void touch() {
+        lastActivity = System.currentTimeMillis();
+    }
+
+    long getLastActivity() {
+        return lastActivity;
+    }
+
+    boolean isClosed() {
+        return closed.get();
+    }
+
+    /**
+     * Releases buffered notifications and closes the sink; only the first call has effect.
+     */
+    void close() {
+        if (closed.compareAndSet(false, true)) {
+            queue.clear();
+            sink.close();
+        }
+    }
+}
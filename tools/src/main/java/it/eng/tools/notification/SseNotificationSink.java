@@ -0,0 +1,36 @@
+package it.eng.tools.notification;
+
+import java.io.IOException;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Delivers notifications as Server-Sent Events; the notification id is used as SSE event id.
+ */
+public class SseNotificationSink implements NotificationSink {
+
+    private final SseEmitter emitter;
+
+    public SseNotificationSink(SseEmitter emitter) {
+        this.emitter = emitter;
+    }
+
+    @Override
+    public void send(StateChangeNotification notification) throws IOException {
+        emitter.send(SseEmitter.event()
+                .id(notification.getId())
+                .name(notification.getResourceType())
+                .data(notification, MediaType.APPLICATION_JSON));
+    }
+
+    @Override
+    public void heartbeat() throws IOException {
+        emitter.send(SseEmitter.event().comment("heartbeat"));
+    }
+
+    @Override
+    public void close() {
+        emitter.complete();
+    }
+}
@@ -0,0 +1,98 @@
+package it.eng.tools.notification;
+
+import java.time.Instant;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * State change of a transfer process or contract negotiation, pushed to notification stream subscribers.<br>
+ * Stored in a capped collection so that reconnecting clients can resume from the last event id they received.
+ */
+@Getter
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+@Document(collection = "state_change_notifications")
+public class StateChangeNotification {
+
+    public static final String TRANSFER_PROCESS = "TRANSFER_PROCESS";
+    public static final String CONTRACT_NEGOTIATION = "CONTRACT_NEGOTIATION";
+
+    @Id
+    private String id;
+    private String resourceType;
+    private String resourceId;
+    private String consumerPid;
+    private String providerPid;
+    private String role;
+    private String oldState;
+    private String newState;
+    private Instant timestamp;
+
+    public static class Builder {
+        private final StateChangeNotification notification;
+
+        public static Builder newInstance() {
+            return new Builder();
+        }
+
+        private Builder() {
+            notification = new StateChangeNotification();
+        }
+
+        public Builder id(String id) {
+            notification.id = id;
+            return this;
+        }
+
+        public Builder resourceType(String resourceType) {
+            notification.resourceType = resourceType;
+            return this;
+        }
+
+        public Builder resourceId(String resourceId) {
+            notification.resourceId = resourceId;
+            return this;
+        }
+
+        public Builder consumerPid(String consumerPid) {
+            notification.consumerPid = consumerPid;
+            return this;
+        }
+
+        public Builder providerPid(String providerPid) {
+            notification.providerPid = providerPid;
+            return this;
+        }
+
+        public Builder role(String role) {
+            notification.role = role;
+            return this;
+        }
+
+        public Builder oldState(String oldState) {
+            notification.oldState = oldState;
+            return this;
+        }
+
+        public Builder newState(String newState) {
+            notification.newState = newState;
+            return this;
+        }
+
+        public Builder timestamp(Instant timestamp) {
+            notification.timestamp = timestamp;
+            return this;
+        }
+
+        public StateChangeNotification build() {
+            if (notification.timestamp == null) {
+                notification.timestamp = Instant.now();
+            }
+            return notification;
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package it.eng.tools.notification;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.commons.lang3.StringUtils;
+import org.bson.types.ObjectId;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.CollectionOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Pushes transfer process and contract negotiation state changes to connected subscribers.<br>
+ * Every subscriber has a bounded buffer; subscribers not keeping up are evicted instead of growing the heap.
+ * Published notifications are kept in a capped collection, so a reconnecting client can resume from the last
+ * event id it received.
+ */
+@Service
+@Slf4j
+public class StateChangeNotificationService {
+
+    private final MongoTemplate mongoTemplate;
+    private final NotificationProperties properties;
+
+    private final Map<String, NotificationSubscriber> subscribers = new ConcurrentHashMap<>();
+    // serializes id assignment and fan-out so that every subscriber sees the same order; history is written outside
+    private final ReentrantLock publishLock = new ReentrantLock();
+    // last fanned out notifications, guarded by publishLock; resume replays them too, as their history write may be pending
+    private final Deque<StateChangeNotification> recent = new ArrayDeque<>();
+    private final ExecutorService dispatcher;
+    private final ScheduledExecutorService heartbeatScheduler;
+
+    public StateChangeNotificationService(MongoTemplate mongoTemplate, NotificationProperties properties) {
+        this.mongoTemplate = mongoTemplate;
+        this.properties = properties;
+        CustomizableThreadFactory dispatcherThreadFactory = new CustomizableThreadFactory("notification-dispatcher-");
+        dispatcherThreadFactory.setDaemon(true);
+        this.dispatcher = Executors.newFixedThreadPool(properties.getDispatcherThreads(), dispatcherThreadFactory);
+        CustomizableThreadFactory heartbeatThreadFactory = new CustomizableThreadFactory("notification-heartbeat-");
+        heartbeatThreadFactory.setDaemon(true);
+        this.heartbeatScheduler = Executors.newSingleThreadScheduledExecutor(heartbeatThreadFactory);
+    }
+
+    /**
+     * Creates capped history collection, if missing, and starts heartbeat task.
+     */
+    @PostConstruct
+    public void init() {
+        try {
+            if (!mongoTemplate.collectionExists(StateChangeNotification.class)) {
+                mongoTemplate.createCollection(StateChangeNotification.class, CollectionOptions.empty()
+                        .capped()
+                        .size(properties.getHistoryMaxBytes())
+                        .maxDocuments(properties.getHistoryMaxDocuments()));
+                log.info("Created capped collection for state change notifications");
+            }
+        } catch (DataAccessException e) {
+            log.warn("Could not create state change notification history, resume will not be available: {}", e.getMessage());
+        }
+        heartbeatScheduler.scheduleWithFixedDelay(this::sendHeartbeats,
+                properties.getHeartbeatSeconds(), properties.getHeartbeatSeconds(), TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeatScheduler.shutdownNow();
+        dispatcher.shutdownNow();
+        subscribers.values().forEach(NotificationSubscriber::close);
+        subscribers.clear();
+    }
+
+    /**
+     * Registers new subscriber.
+     *
+     * @param sink        transport used to deliver notifications
+     * @param lastEventId id of the last notification the client received, if reconnecting; can be null
+     * @return subscriber id, or empty if maximum number of subscribers is reached
+     */
+    public Optional<String> subscribe(NotificationSink sink, String lastEventId) {
+        NotificationSubscriber subscriber;
+        publishLock.lock();
+        try {
+            if (subscribers.size() >= properties.getMaxSubscribers()) {
+                log.warn("Maximum number of notification subscribers ({}) reached", properties.getMaxSubscribers());
+                return Optional.empty();
+            }
+            subscriber = new NotificationSubscriber(UUID.randomUUID().toString(), sink, properties.getQueueCapacity());
+            // replay while holding the lock, so no notification is lost or duplicated between history and live stream
+            findMissedNotifications(lastEventId).forEach(subscriber::offer);
+            subscribers.put(subscriber.getId(), subscriber);
+        } finally {
+            publishLock.unlock();
+        }
+        log.debug("Notification subscriber {} registered", subscriber.getId());
+        if (subscriber.hasPending()) {
+            scheduleDelivery(subscriber);
+        }
+        return Optional.of(subscriber.getId());
+    }
+
+    /**
+     * Removes subscriber and closes its sink.
+     *
+     * @param subscriberId subscriber id
+     */
+    public void unsubscribe(String subscriberId) {
+        NotificationSubscriber subscriber = subscribers.remove(subscriberId);
+        if (subscriber != null) {
+            subscriber.close();
+            log.debug("Notification subscriber {} unregistered", subscriberId);
+        }
+    }
+
+    /**
+     * Pushes notification to all subscribers and stores it in history.<br>
+     * Only event id assignment and fan-out are serialized; history is written after the lock is released.
+     *
+     * @param notification state change notification
+     * @return notification with assigned event id
+     */
+    public StateChangeNotification publish(StateChangeNotification notification) {
+        StateChangeNotification stored;
+        publishLock.lock();
+        try {
+            stored = withEventId(notification);
+            recent.addLast(stored);
+            if (recent.size() > properties.getQueueCapacity()) {
+                recent.removeFirst();
+            }
+            for (NotificationSubscriber subscriber : subscribers.values()) {
+                if (subscriber.offer(stored)) {
+                    scheduleDelivery(subscriber);
+                } else {
+                    evict(subscriber, "buffer of " + properties.getQueueCapacity() + " notifications is full");
+                }
+            }
+        } finally {
+            publishLock.unlock();
+        }
+        try {
+            mongoTemplate.insert(stored);
+        } catch (DataAccessException e) {
+            log.warn("Could not store state change notification {}, it will not be available for resume: {}",
+                    stored.getId(), e.getMessage());
+        }
+        return stored;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Total number of notifications buffered and not yet delivered, across all subscribers.
+     *
+     * @return number of buffered notifications
+     */
+    public int getBufferedNotificationCount() {
+        return subscribers.values().stream().mapToInt(NotificationSubscriber::pending).sum();
+    }
+
+    private List<StateChangeNotification> findMissedNotifications(String lastEventId) {
+        if (StringUtils.isBlank(lastEventId)) {
+            return Collections.emptyList();
+        }
+        if (!ObjectId.isValid(lastEventId)) {
+            log.debug("Ignoring invalid Last-Event-ID {}", lastEventId);
+            return Collections.emptyList();
+        }
+        ObjectId last = new ObjectId(lastEventId);
+        Query query = new Query(Criteria.where("_id").gt(last))
+                .with(Sort.by(Sort.Direction.ASC, "_id"))
+                .limit(properties.getQueueCapacity());
+        TreeMap<ObjectId, StateChangeNotification> missed = new TreeMap<>();
+        try {
+            mongoTemplate.find(query, StateChangeNotification.class)
+                    .forEach(stored -> missed.put(new ObjectId(stored.getId()), stored));
+        } catch (DataAccessException e) {
+            log.warn("Could not load missed state change notifications: {}", e.getMessage());
+        }
+        // fanned out, but possibly not yet stored
+        for (StateChangeNotification notification : recent) {
+            ObjectId id = new ObjectId(notification.getId());
+            if (id.compareTo(last) > 0) {
+                missed.putIfAbsent(id, notification);
+            }
+        }
+        if (missed.size() >= properties.getQueueCapacity()) {
+            log.warn("Subscriber resuming from {} missed more notifications than can be replayed", lastEventId);
+        }
+        return new ArrayList<>(missed.values()).subList(0, Math.min(missed.size(), properties.getQueueCapacity()));
+    }
+
+    private void scheduleDelivery(NotificationSubscriber subscriber) {
+        if (subscriber.tryStartDelivery()) {
+            try {
+                dispatcher.execute(() -> deliver(subscriber));
+            } catch (RejectedExecutionException e) {
+                subscriber.endDelivery();
+            }
+        }
+    }
+
+    private void deliver(NotificationSubscriber subscriber) {
+        try {
+            StateChangeNotification notification;
+            while (!subscriber.isClosed() && (notification = subscriber.poll()) != null) {
+                subscriber.getSink().send(notification);
+                subscriber.touch();
+            }
+        } catch (IOException | RuntimeException e) {
+            subscriber.endDelivery();
+            evict(subscriber, "delivery failed - " + e.getMessage());
+            return;
+        }
+        subscriber.endDelivery();
+        // notification might have arrived after the last poll but before delivery flag was released
+        if (subscriber.hasPending() && !subscriber.isClosed()) {
+            scheduleDelivery(subscriber);
+        }
+    }
+
+    void sendHeartbeats() {
+        long idleThreshold = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(properties.getHeartbeatSeconds());
+        for (NotificationSubscriber subscriber : subscribers.values()) {
+            // subscribers currently receiving notifications do not need a heartbeat
+            if (subscriber.getLastActivity() > idleThreshold || !subscriber.tryStartDelivery()) {
+                continue;
+            }
+            try {
+                subscriber.getSink().heartbeat();
+                subscriber.touch();
+            } catch (IOException | RuntimeException e) {
+                subscriber.endDelivery();
+                evict(subscriber, "heartbeat failed - " + e.getMessage());
+                continue;
+            }
+            subscriber.endDelivery();
+            if (subscriber.hasPending()) {
+                scheduleDelivery(subscriber);
+            }
+        }
+    }
+
+    private void evict(NotificationSubscriber subscriber, String reason) {
+        if (subscribers.remove(subscriber.getId(), subscriber)) {
+            log.info("Evicting notification subscriber {}: {}", subscriber.getId(), reason);
+        }
+        subscriber.close();
+    }
+
+    private StateChangeNotification withEventId(StateChangeNotification notification) {
+        return StateChangeNotification.Builder.newInstance()
+                .id(new ObjectId().toHexString())
+                .resourceType(notification.getResourceType())
+                .resourceId(notification.getResourceId())
+                .consumerPid(notification.getConsumerPid())
+                .providerPid(notification.getProviderPid())
+                .role(notification.getRole())
+                .oldState(notification.getOldState())
+                .newState(notification.getNewState())
+                .timestamp(notification.getTimestamp())
+                .build();
+    }
+}
@@ -0,0 +1,122 @@
+package it.eng.tools.outbox;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.bson.types.ObjectId;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Repository
+@Slf4j
+public class MongoOutboxMessageRepository implements OutboxMessageRepository {
+
+    private static final List<OutboxMessageStatus> UNDELIVERED = List.of(OutboxMessageStatus.PENDING, OutboxMessageStatus.IN_FLIGHT);
+
+    private final MongoTemplate mongoTemplate;
+
+    public MongoOutboxMessageRepository(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void insert(OutboxMessage message) {
+        mongoTemplate.insert(message);
+    }
+
+    @Override
+    public List<OutboxMessage> findDue(Instant now, Collection<String> excludedPeers, int limit) {
+        Criteria criteria = Criteria.where("status").is(OutboxMessageStatus.PENDING).and("nextAttemptAt").lte(now);
+        if (!excludedPeers.isEmpty()) {
+            criteria = criteria.and("peer").nin(excludedPeers);
+        }
+        Query query = new Query(criteria)
+                .with(Sort.by(Sort.Direction.ASC, "_id"))
+                .limit(limit);
+        return mongoTemplate.find(query, OutboxMessage.class);
+    }
+
+    @Override
+    public boolean hasEarlierUndelivered(OutboxMessage message) {
+        if (message.getAggregateId() == null) {
+            return false;
+        }
+        Query query = new Query(Criteria.where("aggregateId").is(message.getAggregateId())
+                .and("status").in(UNDELIVERED)
+                .and("_id").lt(new ObjectId(message.getId())));
+        return mongoTemplate.exists(query, OutboxMessage.class);
+    }
+
+    @Override
+    public Optional<OutboxMessage> claim(String id, Instant now) {
+        Query query = new Query(Criteria.where("_id").is(id).and("status").is(OutboxMessageStatus.PENDING));
+        Update update = new Update()
+                .set("status", OutboxMessageStatus.IN_FLIGHT)
+                .set("claimedAt", now);
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), OutboxMessage.class));
+    }
+
+    @Override
+    public void delete(String id) {
+        mongoTemplate.remove(new Query(Criteria.where("_id").is(id)), OutboxMessage.class);
+    }
+
+    @Override
+    public void reschedule(String id, int attempts, Instant nextAttemptAt, String lastError) {
+        Update update = new Update()
+                .set("status", OutboxMessageStatus.PENDING)
+                .set("attempts", attempts)
+                .set("nextAttemptAt", nextAttemptAt)
+                .set("lastError", lastError)
+                .unset("claimedAt");
+        mongoTemplate.updateFirst(inFlight(id), update, OutboxMessage.class);
+    }
+
+    @Override
+    public void markFailed(String id, int attempts, String lastError) {
+        Update update = new Update()
+                .set("status", OutboxMessageStatus.FAILED)
+                .set("attempts", attempts)
+                .set("lastError", lastError)
+                .unset("claimedAt");
+        mongoTemplate.updateFirst(inFlight(id), update, OutboxMessage.class);
+    }
+
+    @Override
+    public long releaseStaleClaims(Instant claimedBefore) {
+        Query query = new Query(Criteria.where("status").is(OutboxMessageStatus.IN_FLIGHT).and("claimedAt").lt(claimedBefore));
+        Update update = new Update()
+                .set("status", OutboxMessageStatus.PENDING)
+                .unset("claimedAt");
+        return mongoTemplate.updateMulti(query, update, OutboxMessage.class).getModifiedCount();
+    }
+
+    @Override
+    public void createIndexes() {
+        try {
+            IndexOperations indexOperations = mongoTemplate.indexOps(OutboxMessage.class);
+            new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext())
+                    .resolveIndexFor(OutboxMessage.class)
+                    .forEach(index -> log.debug("Outbox index {} ready", indexOperations.createIndex(index)));
+        } catch (DataAccessException e) {
+            log.warn("Could not create outbox indexes: {}", e.getMessage());
+        }
+    }
+
+    private Query inFlight(String id) {
+        return new Query(Criteria.where("_id").is(id).and("status").is(OutboxMessageStatus.IN_FLIGHT));
+    }
+}
@@ -0,0 +1,227 @@
+package it.eng.tools.outbox;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import it.eng.tools.client.rest.OkHttpRestClient;
+import it.eng.tools.client.rest.ProtocolResponse;
+import it.eng.tools.event.AuditEventType;
+import it.eng.tools.service.AuditEventPublisher;
+import it.eng.tools.util.CredentialUtils;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Delivers outbox messages to peer connectors.<br>
+ * Due messages are claimed one by one and handed to a fixed pool of delivery threads; no more messages are claimed
+ * than there are free threads, and deliveries to the same peer are limited separately, so a slow peer cannot occupy
+ * the whole pool. Transient failures are retried with exponential backoff, messages of the same aggregate are
+ * delivered in the order they were stored.
+ */
+@Component
+@Slf4j
+public class OutboxDispatcher {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final OutboxMessageRepository repository;
+    private final OkHttpRestClient okHttpRestClient;
+    private final CredentialUtils credentialUtils;
+    private final AuditEventPublisher auditEventPublisher;
+    private final OutboxProperties properties;
+
+    private final ExecutorService deliveryExecutor;
+    private final ScheduledExecutorService poller;
+    private final Semaphore deliverySlots;
+    private final Map<String, Semaphore> peerSlots = new ConcurrentHashMap<>();
+    private final AtomicBoolean wakeUpPending = new AtomicBoolean();
+
+    public OutboxDispatcher(OutboxMessageRepository repository, OkHttpRestClient okHttpRestClient,
+                            CredentialUtils credentialUtils, AuditEventPublisher auditEventPublisher,
+                            OutboxProperties properties) {
+        this.repository = repository;
+        this.okHttpRestClient = okHttpRestClient;
+        this.credentialUtils = credentialUtils;
+        this.auditEventPublisher = auditEventPublisher;
+        this.properties = properties;
+        CustomizableThreadFactory deliveryThreadFactory = new CustomizableThreadFactory("outbox-dispatcher-");
+        deliveryThreadFactory.setDaemon(true);
+        this.deliveryExecutor = Executors.newFixedThreadPool(properties.getDispatcherThreads(), deliveryThreadFactory);
+        CustomizableThreadFactory pollerThreadFactory = new CustomizableThreadFactory("outbox-poller-");
+        pollerThreadFactory.setDaemon(true);
+        this.poller = Executors.newSingleThreadScheduledExecutor(pollerThreadFactory);
+        this.deliverySlots = new Semaphore(properties.getDispatcherThreads());
+    }
+
+    /**
+     * Creates indexes and starts polling for due messages, including messages left over from a previous run.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        repository.createIndexes();
+        poller.scheduleWithFixedDelay(this::poll, 0, properties.getPollIntervalMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        poller.shutdownNow();
+        deliveryExecutor.shutdownNow();
+    }
+
+    /**
+     * Looks for due messages without waiting for the next poll; i.e. after a message was stored.
+     */
+    public void wakeUp() {
+        if (wakeUpPending.compareAndSet(false, true)) {
+            try {
+                poller.execute(() -> {
+                    wakeUpPending.set(false);
+                    poll();
+                });
+            } catch (RejectedExecutionException e) {
+                wakeUpPending.set(false);
+            }
+        }
+    }
+
+    private void poll() {
+        try {
+            dispatchDueMessages();
+        } catch (RuntimeException e) {
+            log.warn("Could not dispatch outbox messages: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Claims due messages and starts their delivery, as long as there are free delivery slots.
+     *
+     * @return number of messages handed to delivery threads
+     */
+    int dispatchDueMessages() {
+        Instant now = Instant.now();
+        long released = repository.releaseStaleClaims(now.minusSeconds(properties.getInFlightTimeoutSeconds()));
+        if (released > 0) {
+            log.warn("Released {} outbox messages not completed within {} seconds", released, properties.getInFlightTimeoutSeconds());
+        }
+        if (deliverySlots.availablePermits() == 0) {
+            return 0;
+        }
+        List<String> busyPeers = peerSlots.entrySet().stream()
+                .filter(entry -> entry.getValue().availablePermits() == 0)
+                .map(Map.Entry::getKey)
+                .toList();
+        int dispatched = 0;
+        for (OutboxMessage message : repository.findDue(now, busyPeers, properties.getBatchSize())) {
+            if (!deliverySlots.tryAcquire()) {
+                break;
+            }
+            Semaphore peer = peerSlots.computeIfAbsent(message.getPeer(), key -> new Semaphore(properties.getMaxConcurrentPerPeer()));
+            if (!peer.tryAcquire()) {
+                deliverySlots.release();
+                continue;
+            }
+            Optional<OutboxMessage> claimed = repository.hasEarlierUndelivered(message)
+                    ? Optional.empty()
+                    : repository.claim(message.getId(), now);
+            if (claimed.isEmpty()) {
+                peer.release();
+                deliverySlots.release();
+                continue;
+            }
+            try {
+                deliveryExecutor.execute(() -> {
+                    try {
+                        deliver(claimed.get());
+                    } finally {
+                        peer.release();
+                        deliverySlots.release();
+                    }
+                    // next message of the same aggregate, or one skipped for lack of slots, can go now
+                    wakeUp();
+                });
+                dispatched++;
+            } catch (RejectedExecutionException e) {
+                // shutting down; claim is released after in flight timeout
+                peer.release();
+                deliverySlots.release();
+                break;
+            }
+        }
+        return dispatched;
+    }
+
+    void deliver(OutboxMessage message) {
+        int attempt = message.getAttempts() + 1;
+        ProtocolResponse response;
+        try {
+            response = okHttpRestClient.sendIdempotentRequestProtocol(message.getTargetAddress(), message.getPayload(),
+                    credentialUtils.getConnectorCredentials(), message.getId());
+        } catch (RuntimeException e) {
+            response = new ProtocolResponse(0, e.getMessage());
+        }
+        try {
+            if (response.isSuccessful()) {
+                repository.delete(message.getId());
+                log.info("Outbox message {} delivered to {} in {} attempt(s)", message.getId(), message.getTargetAddress(), attempt);
+            } else if (response.isRetryable() && attempt < properties.getMaxAttempts()) {
+                Duration delay = backoff(attempt);
+                repository.reschedule(message.getId(), attempt, Instant.now().plus(delay), errorOf(response));
+                log.warn("Delivery of outbox message {} to {} failed ({}), attempt {} of {}, retrying in {} ms", message.getId(),
+                        message.getTargetAddress(), errorOf(response), attempt, properties.getMaxAttempts(), delay.toMillis());
+            } else {
+                repository.markFailed(message.getId(), attempt, errorOf(response));
+                log.error("Delivery of outbox message {} to {} failed ({}) after {} attempt(s), giving up", message.getId(),
+                        message.getTargetAddress(), errorOf(response), attempt);
+                auditEventPublisher.publishEvent(AuditEventType.PROTOCOL_MESSAGE_DELIVERY_FAILED,
+                        "Protocol message delivery failed",
+                        Map.of("messageId", message.getId(),
+                                "aggregateId", StringUtils.defaultString(message.getAggregateId()),
+                                "targetAddress", message.getTargetAddress(),
+                                "attempts", attempt,
+                                "errorMessage", errorOf(response)));
+            }
+        } catch (RuntimeException e) {
+            // message stays in flight and is delivered again, with the same idempotency key, after in flight timeout
+            log.error("Could not update outbox message {}: {}", message.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Exponential backoff with jitter; half of the delay is random, so messages failing together are not all retried
+     * at the same moment.
+     *
+     * @param attempt number of attempts made
+     * @return delay before the next attempt
+     */
+    Duration backoff(int attempt) {
+        double exponential = properties.getInitialBackoffMillis() * Math.pow(properties.getBackoffMultiplier(), attempt - 1);
+        double capped = Math.min(exponential, properties.getMaxBackoffMillis());
+        return Duration.ofMillis((long) (capped / 2 + ThreadLocalRandom.current().nextDouble() * capped / 2));
+    }
+
+    private String errorOf(ProtocolResponse response) {
+        String body = StringUtils.abbreviate(StringUtils.defaultString(response.body()), MAX_ERROR_LENGTH);
+        if (response.code() == 0) {
+            return StringUtils.defaultIfBlank(body, "Peer not reachable");
+        }
+        return StringUtils.isBlank(body) ? "HTTP " + response.code() : "HTTP " + response.code() + " - " + body;
+    }
+}
@@ -0,0 +1,143 @@
+package it.eng.tools.outbox;
+
+import java.net.URI;
+import java.time.Instant;
+
+import org.bson.types.ObjectId;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Protocol message waiting to be delivered to a peer connector.<br>
+ * Stored together with the state change it announces; the id is sent as <code>Idempotency-Key</code> header and does
+ * not change between delivery attempts, so the peer can recognize redelivery of the same message.
+ */
+@Getter
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+@Document(collection = "outbox_messages")
+@CompoundIndexes({
+        @CompoundIndex(name = "outbox_messages_due", def = "{'status': 1, 'nextAttemptAt': 1}"),
+        @CompoundIndex(name = "outbox_messages_aggregate", def = "{'aggregateId': 1, 'status': 1}")
+})
+public class OutboxMessage {
+
+    @Id
+    private String id;
+    /**
+     * Id of the entity (i.e. contract negotiation) the message belongs to; messages of the same entity are delivered
+     * in the order they were stored.
+     */
+    private String aggregateId;
+    private String targetAddress;
+    /**
+     * Scheme, host and port of the target address, used to limit concurrent deliveries to the same peer.
+     */
+    private String peer;
+    private String payload;
+    private OutboxMessageStatus status;
+    private int attempts;
+    private Instant nextAttemptAt;
+    private Instant claimedAt;
+    private String lastError;
+    private Instant created;
+
+    public static class Builder {
+        private final OutboxMessage message;
+
+        public static Builder newInstance() {
+            return new Builder();
+        }
+
+        private Builder() {
+            message = new OutboxMessage();
+        }
+
+        public Builder id(String id) {
+            message.id = id;
+            return this;
+        }
+
+        public Builder aggregateId(String aggregateId) {
+            message.aggregateId = aggregateId;
+            return this;
+        }
+
+        public Builder targetAddress(String targetAddress) {
+            message.targetAddress = targetAddress;
+            return this;
+        }
+
+        public Builder payload(String payload) {
+            message.payload = payload;
+            return this;
+        }
+
+        public Builder status(OutboxMessageStatus status) {
+            message.status = status;
+            return this;
+        }
+
+        public Builder attempts(int attempts) {
+            message.attempts = attempts;
+            return this;
+        }
+
+        public Builder nextAttemptAt(Instant nextAttemptAt) {
+            message.nextAttemptAt = nextAttemptAt;
+            return this;
+        }
+
+        public Builder claimedAt(Instant claimedAt) {
+            message.claimedAt = claimedAt;
+            return this;
+        }
+
+        public Builder lastError(String lastError) {
+            message.lastError = lastError;
+            return this;
+        }
+
+        public Builder created(Instant created) {
+            message.created = created;
+            return this;
+        }
+
+        public OutboxMessage build() {
+            if (message.targetAddress == null) {
+                throw new IllegalArgumentException("Outbox message target address is required");
+            }
+            if (message.id == null) {
+                message.id = new ObjectId().toHexString();
+            }
+            if (message.status == null) {
+                message.status = OutboxMessageStatus.PENDING;
+            }
+            if (message.created == null) {
+                message.created = Instant.now();
+            }
+            if (message.nextAttemptAt == null) {
+                message.nextAttemptAt = message.created;
+            }
+            message.peer = peerOf(message.targetAddress);
+            return message;
+        }
+
+        private static String peerOf(String targetAddress) {
+            try {
+                URI uri = URI.create(targetAddress);
+                if (uri.getHost() != null) {
+                    return uri.getScheme() + "://" + uri.getHost() + (uri.getPort() != -1 ? ":" + uri.getPort() : "");
+                }
+            } catch (IllegalArgumentException e) {
+                // not a valid URI, delivery will fail and the message will be marked as failed
+            }
+            return targetAddress;
+        }
+    }
+}
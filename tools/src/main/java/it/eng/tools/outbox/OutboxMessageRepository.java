@@ -0,0 +1,76 @@
+package it.eng.tools.outbox;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Storage of outbox messages. Status changes are conditional on the current status, so several instances can share
+ * the same outbox without delivering a message twice at the same time.
+ */
+public interface OutboxMessageRepository {
+
+    /**
+     * @param message new message
+     */
+    void insert(OutboxMessage message);
+
+    /**
+     * @param now           current time
+     * @param excludedPeers peers not accepting more deliveries at the moment
+     * @param limit         maximum number of messages
+     * @return pending messages due for delivery, oldest first
+     */
+    List<OutboxMessage> findDue(Instant now, Collection<String> excludedPeers, int limit);
+
+    /**
+     * @param message outbox message
+     * @return true if an older message of the same aggregate is not delivered yet
+     */
+    boolean hasEarlierUndelivered(OutboxMessage message);
+
+    /**
+     * Marks pending message as in flight.
+     *
+     * @param id  message id
+     * @param now current time
+     * @return claimed message, or empty if the message is no longer pending (i.e. claimed by another instance)
+     */
+    Optional<OutboxMessage> claim(String id, Instant now);
+
+    /**
+     * @param id id of the delivered message
+     */
+    void delete(String id);
+
+    /**
+     * Makes in flight message pending again.
+     *
+     * @param id            message id
+     * @param attempts      number of attempts made
+     * @param nextAttemptAt time of the next attempt
+     * @param lastError     error of the last attempt
+     */
+    void reschedule(String id, int attempts, Instant nextAttemptAt, String lastError);
+
+    /**
+     * @param id        message id
+     * @param attempts  number of attempts made
+     * @param lastError error of the last attempt
+     */
+    void markFailed(String id, int attempts, String lastError);
+
+    /**
+     * Makes messages claimed before the given time pending again.
+     *
+     * @param claimedBefore claim time limit
+     * @return number of released messages
+     */
+    long releaseStaleClaims(Instant claimedBefore);
+
+    /**
+     * Creates indexes used by the dispatcher.
+     */
+    void createIndexes();
+}
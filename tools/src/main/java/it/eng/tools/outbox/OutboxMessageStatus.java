@@ -0,0 +1,16 @@
+package it.eng.tools.outbox;
+
+public enum OutboxMessageStatus {
+    /**
+     * Waiting for delivery or for the next retry.
+     */
+    PENDING,
+    /**
+     * Claimed by a dispatcher, delivery in progress.
+     */
+    IN_FLIGHT,
+    /**
+     * Rejected by the peer or not delivered within the maximum number of attempts.
+     */
+    FAILED
+}
@@ -0,0 +1,67 @@
+package it.eng.tools.outbox;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+/**
+ * Configuration properties for delivery of outbound protocol messages stored in the outbox.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "application.outbox")
+public class OutboxProperties {
+
+    /**
+     * Store state change and outbound message in one MongoDB transaction. Requires a replica set.
+     * When disabled, the message is stored right after the state change.
+     */
+    private boolean transactional = false;
+
+    /**
+     * Number of threads delivering messages; at most this many messages are in flight at once.
+     */
+    private int dispatcherThreads = 4;
+
+    /**
+     * Maximum number of messages delivered concurrently to the same peer (scheme, host and port).
+     */
+    private int maxConcurrentPerPeer = 2;
+
+    /**
+     * Maximum number of due messages loaded in one poll.
+     */
+    private int batchSize = 50;
+
+    /**
+     * Interval in milliseconds between polls for due messages. Newly stored messages are dispatched immediately.
+     */
+    private long pollIntervalMillis = 1000;
+
+    /**
+     * Delay in milliseconds before the first retry.
+     */
+    private long initialBackoffMillis = 1000;
+
+    /**
+     * Factor the retry delay grows by after every failed attempt.
+     */
+    private double backoffMultiplier = 2.0;
+
+    /**
+     * Upper bound in milliseconds of the retry delay.
+     */
+    private long maxBackoffMillis = 5 * 60 * 1000;
+
+    /**
+     * Number of delivery attempts after which the message is marked as failed.
+     */
+    private int maxAttempts = 10;
+
+    /**
+     * Time in seconds after which a message claimed for delivery, but neither delivered nor rescheduled
+     * (i.e. the instance delivering it stopped), is delivered again.
+     */
+    private long inFlightTimeoutSeconds = 300;
+}
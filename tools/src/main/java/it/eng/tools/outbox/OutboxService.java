@@ -0,0 +1,67 @@
+package it.eng.tools.outbox;
+
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Stores outbound protocol messages together with the state change they announce.<br>
+ * The caller returns as soon as both are stored, delivery to the peer is done by {@link OutboxDispatcher}.
+ */
+@Service
+@Slf4j
+public class OutboxService {
+
+    private final OutboxMessageRepository repository;
+    private final OutboxDispatcher dispatcher;
+    private final TransactionTemplate transactionTemplate;
+
+    public OutboxService(OutboxMessageRepository repository, OutboxDispatcher dispatcher,
+                         ObjectProvider<MongoTransactionManager> transactionManager) {
+        this.repository = repository;
+        this.dispatcher = dispatcher;
+        MongoTransactionManager mongoTransactionManager = transactionManager.getIfAvailable();
+        this.transactionTemplate = mongoTransactionManager != null ? new TransactionTemplate(mongoTransactionManager) : null;
+    }
+
+    /**
+     * Applies the state change and stores the message to be delivered to the peer.<br>
+     * With <code>application.outbox.transactional</code> both are written in one transaction; otherwise the message is
+     * stored after the state change succeeded, so a message is never sent for a state change that was not stored.
+     *
+     * @param aggregateId   id of the entity the message belongs to; messages of the same entity are delivered in order
+     * @param targetAddress peer protocol address
+     * @param payload       message body
+     * @param stateChange   stores the new state
+     * @param <T>           type of the state change result
+     * @return result of the state change
+     */
+    public <T> T saveAndEnqueue(String aggregateId, String targetAddress, JsonNode payload, Supplier<T> stateChange) {
+        OutboxMessage message = OutboxMessage.Builder.newInstance()
+                .aggregateId(aggregateId)
+                .targetAddress(targetAddress)
+                .payload(payload != null ? payload.toString() : null)
+                .build();
+        T result;
+        if (transactionTemplate != null) {
+            result = transactionTemplate.execute(status -> {
+                T changed = stateChange.get();
+                repository.insert(message);
+                return changed;
+            });
+        } else {
+            result = stateChange.get();
+            repository.insert(message);
+        }
+        log.debug("Outbox message {} for {} stored", message.getId(), targetAddress);
+        dispatcher.wakeUp();
+        return result;
+    }
+}
@@ -0,0 +1,40 @@
+package it.eng.tools.property;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Configuration properties for dynamic filtering of entity listings from request parameters.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "application.filter")
+public class FilterProperties {
+
+    /**
+     * What to do when filtering on a field not covered by an index.
+     */
+    public enum UnindexedFieldPolicy {
+        /** Filter is applied silently. */
+        ALLOW,
+        /** Filter is applied and a warning is logged once per entity and field. */
+        WARN,
+        /** Request is rejected, protecting MongoDB from collection scans. */
+        REJECT
+    }
+
+    private UnindexedFieldPolicy unindexedFieldPolicy = UnindexedFieldPolicy.WARN;
+
+    /**
+     * Fields indexed outside of entity annotations (i.e. created by database scripts), per collection name.
+     * Fields annotated with <code>@Indexed</code>, leading fields of <code>@CompoundIndex</code> and <code>_id</code>
+     * are always considered indexed.
+     */
+    private Map<String, List<String>> indexedFields = new HashMap<>();
+}
@@ -0,0 +1,86 @@
+package it.eng.tools.property;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+/**
+ * Configuration properties for connection reuse of the HTTP client used to call other connectors.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "application.http-client")
+public class HttpClientProperties {
+
+    /**
+     * Maximum number of idle connections kept in the pool, over all peers.
+     */
+    private int maxIdleConnections = 20;
+
+    /**
+     * Time in seconds an idle connection is kept in the pool.
+     */
+    private long keepAliveSeconds = 300;
+
+    /**
+     * Maximum number of asynchronous requests executed at once.
+     */
+    private int maxRequests = 64;
+
+    /**
+     * Maximum number of asynchronous requests executed at once to the same host.
+     */
+    private int maxRequestsPerHost = 10;
+
+    /**
+     * Offer HTTP/2 when negotiating TLS, so all calls to a peer supporting it share one connection.
+     * When disabled only HTTP/1.1 is used.
+     */
+    private boolean http2 = true;
+
+    /**
+     * Maximum number of TLS sessions cached for resumption, which skips certificate exchange and validation when
+     * reconnecting to a peer. 0 means no limit.
+     */
+    private int tlsSessionCacheSize = 1000;
+
+    /**
+     * Time in seconds a cached TLS session can be resumed.
+     */
+    private int tlsSessionTimeoutSeconds = 3600;
+
+    /**
+     * Base addresses of peers connected to at startup, so the first calls to them find an established connection.
+     */
+    private List<String> prewarmPeers = new ArrayList<>();
+
+    /**
+     * Maximum size in bytes of responses to protocol and other JSON requests.
+     */
+    private long maxProtocolResponseBytes = 10L * 1024 * 1024;
+
+    /**
+     * Maximum size in bytes of responses to conditional requests, used to fetch catalogs of other connectors.
+     */
+    private long maxCatalogResponseBytes = 64L * 1024 * 1024;
+
+    /**
+     * Maximum size in bytes of data downloaded into memory.
+     */
+    private long maxDownloadBytes = 256L * 1024 * 1024;
+
+    /**
+     * Maximum time in seconds for reading a JSON response body, so a peer sending it slowly cannot hold the caller.
+     * The read timeout only limits the pause between two received packets.
+     */
+    private long responseReadTimeoutSeconds = 120;
+
+    /**
+     * Maximum number of characters of a response body written to the debug log.
+     */
+    private int loggedBodyLength = 1000;
+}
@@ -0,0 +1,77 @@
+package it.eng.tools.property;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+/**
+ * Configuration properties for isolating outgoing calls per peer (scheme, host and port), so a slow or unreachable
+ * connector does not hold threads needed for calls to other connectors.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "application.peer-resilience")
+public class PeerResilienceProperties {
+
+    /**
+     * Apply circuit breaker, concurrency limit and adaptive timeout to outgoing calls.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Maximum number of calls to the same peer waiting for a response at once.
+     */
+    private int maxConcurrentCallsPerPeer = 20;
+
+    /**
+     * Time in milliseconds a call waits for a free slot when the peer is at its concurrency limit, before failing.
+     */
+    private long maxWaitMillis = 1000;
+
+    /**
+     * Number of failed calls, out of the last <code>failureThresholdingCapacity</code> calls, that opens the circuit.
+     * Failures are I/O errors, including timeouts, and 5xx responses.
+     */
+    private int failureThreshold = 5;
+
+    /**
+     * Number of most recent calls the failure threshold is evaluated on.
+     */
+    private int failureThresholdingCapacity = 10;
+
+    /**
+     * Time in seconds calls to the peer fail immediately after the circuit opened, before trial calls are let through.
+     */
+    private long openDurationSeconds = 30;
+
+    /**
+     * Number of successful trial calls that close the circuit again.
+     */
+    private int successThreshold = 1;
+
+    /**
+     * Percentile of observed response times the read timeout is derived from.
+     */
+    private double latencyPercentile = 99.0;
+
+    /**
+     * Factor applied to the latency percentile to get the read timeout.
+     */
+    private double timeoutMultiplier = 3.0;
+
+    /**
+     * Lower bound in milliseconds of the adaptive read timeout. The upper bound is the read timeout of the HTTP client.
+     */
+    private long minTimeoutMillis = 2000;
+
+    /**
+     * Number of most recent response times kept per peer.
+     */
+    private int latencySamples = 100;
+
+    /**
+     * Number of response times needed before the read timeout is adapted; until then the client read timeout is used.
+     */
+    private int minLatencySamples = 20;
+}
@@ -0,0 +1,31 @@
+package it.eng.tools.property;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration properties for extracting client information from incoming requests.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "application.request-info")
+public class RequestInfoProperties {
+
+    /**
+     * Addresses or CIDR ranges of reverse proxies allowed to set <code>X-Forwarded-For</code>.
+     * When empty, the first <code>X-Forwarded-For</code> entry is used, whoever sent it.
+     * When set, forwarding headers are only honored from these proxies, and the client address is the right-most
+     * <code>X-Forwarded-For</code> entry that is not a trusted proxy.
+     */
+    private List<String> trustedProxies = new ArrayList<>();
+
+    /**
+     * Interval in seconds after which the cached local host address, reported for loopback callers, is resolved again.
+     */
+    private long localAddressRefreshSeconds = 300;
+}
@@ -0,0 +1,38 @@
+package it.eng.tools.repository;
+
+import it.eng.tools.event.AuditEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates indexes declared on {@link AuditEvent}, since automatic index creation is not enabled.<br>
+ * The timestamp index serves time range listings and exports of the audit log, which grows without bound.
+ */
+@Component
+@Slf4j
+public class AuditEventIndexInitializer {
+
+    private final MongoTemplate mongoTemplate;
+
+    public AuditEventIndexInitializer(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createIndexes() {
+        try {
+            IndexOperations indexOperations = mongoTemplate.indexOps(AuditEvent.class);
+            new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext())
+                    .resolveIndexFor(AuditEvent.class)
+                    .forEach(index -> log.debug("Audit event index {} ready", indexOperations.createIndex(index)));
+        } catch (DataAccessException e) {
+            log.warn("Could not create audit event indexes: {}", e.getMessage());
+        }
+    }
+}
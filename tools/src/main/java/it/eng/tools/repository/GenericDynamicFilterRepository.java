@@ -2,8 +2,11 @@ package it.eng.tools.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
+import java.util.Collection;
 import java.util.Map;
+import java.util.stream.Stream;
 
 public interface GenericDynamicFilterRepository<T, ID> {
     /**
@@ -17,4 +20,30 @@ public interface GenericDynamicFilterRepository<T, ID> {
      */
     Page<T> findWithDynamicFilters(Map<String, Object> filters, Class<T> entityClass, Pageable pageable);
 
+    /**
+     * Generic dynamic filtering, loading only the given fields of each entity.
+     * Intended for list views that do not need the whole document.
+     *
+     * @param filters     Map of field names to filter values
+     * @param entityClass Class of the entity to filter
+     * @param pageable    Pagination information
+     * @param fields      Fields to load; all fields when empty
+     * @return Page of entities matching the provided criteria, with only the given fields set
+     */
+    Page<T> findWithDynamicFilters(Map<String, Object> filters, Class<T> entityClass, Pageable pageable,
+                                   Collection<String> fields);
+
+    /**
+     * Streams all entities matching the filters from a MongoDB cursor, without counting or paging.
+     * Intended for exports; the stream must be closed to release the cursor.
+     *
+     * @param filters     Map of field names to filter values
+     * @param entityClass Class of the entity to filter
+     * @param sort        Sort order
+     * @param fields      Fields to load; all fields when empty
+     * @return Stream of entities matching the provided criteria
+     */
+    Stream<T> streamWithDynamicFilters(Map<String, Object> filters, Class<T> entityClass, Sort sort,
+                                       Collection<String> fields);
+
 }
@@ -4,6 +4,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
@@ -16,11 +17,14 @@ import java.time.ZoneOffset;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 @Repository
 @Slf4j
 public class GenericDynamicFilterRepositoryImpl<T, ID> implements GenericDynamicFilterRepository<T, ID> {
 
+    private static final int STREAM_BATCH_SIZE = 500;
+
     private final MongoTemplate mongoTemplate;
 
     public GenericDynamicFilterRepositoryImpl(MongoTemplate mongoTemplate) {
@@ -29,25 +33,55 @@ public class GenericDynamicFilterRepositoryImpl<T, ID> implements GenericDynamic
 
     @Override
     public Page<T> findWithDynamicFilters(Map<String, Object> filters, Class<T> entityClass, Pageable pageable) {
-        Query query = new Query();
+        return findWithDynamicFilters(filters, entityClass, pageable, List.of());
+    }
 
-        // Build criteria based on value types - no null checks needed (filter builder handles this)
-        filters.forEach((fieldName, value) -> {
-            Criteria criteria = buildCriteriaByValueType(fieldName, value);
-            query.addCriteria(criteria);
-        });
+    @Override
+    public Page<T> findWithDynamicFilters(Map<String, Object> filters, Class<T> entityClass, Pageable pageable,
+                                          Collection<String> fields) {
+        Query query = buildQuery(filters);
 
         log.debug("Executing MongoDB query: {}", query);
 
         // Get total count before applying pagination
         long total = mongoTemplate.count(query, entityClass);
 
-        // Apply pagination and sorting to query
+        // Apply pagination, sorting and projection to query
         query.with(pageable);
+        includeFields(query, fields);
         List<T> content = mongoTemplate.find(query, entityClass);
         return new PageImpl<>(content, pageable, total);
     }
 
+    @Override
+    public Stream<T> streamWithDynamicFilters(Map<String, Object> filters, Class<T> entityClass, Sort sort,
+                                              Collection<String> fields) {
+        Query query = buildQuery(filters);
+        query.with(sort);
+        includeFields(query, fields);
+        query.cursorBatchSize(STREAM_BATCH_SIZE);
+
+        log.debug("Streaming MongoDB query: {}", query);
+        return mongoTemplate.stream(query, entityClass);
+    }
+
+    private Query buildQuery(Map<String, Object> filters) {
+        Query query = new Query();
+
+        // Build criteria based on value types - no null checks needed (filter builder handles this)
+        filters.forEach((fieldName, value) -> {
+            Criteria criteria = buildCriteriaByValueType(fieldName, value);
+            query.addCriteria(criteria);
+        });
+        return query;
+    }
+
+    private void includeFields(Query query, Collection<String> fields) {
+        if (fields != null) {
+            fields.forEach(field -> query.fields().include(field));
+        }
+    }
+
     /**
      * Build criteria based on VALUE TYPE, not field name.
      *
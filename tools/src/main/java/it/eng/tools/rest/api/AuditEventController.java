@@ -4,6 +4,7 @@ import it.eng.tools.controller.ApiEndpoints;
 import it.eng.tools.event.AuditEvent;
 import it.eng.tools.event.AuditEventTypeDTO;
 import it.eng.tools.response.GenericApiResponse;
+import it.eng.tools.service.AuditEventExportService;
 import it.eng.tools.service.AuditEventService;
 import it.eng.tools.service.GenericFilterBuilder;
 import jakarta.servlet.http.HttpServletRequest;
@@ -15,13 +16,19 @@ import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.Collection;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE,
@@ -29,17 +36,22 @@ import java.util.stream.Collectors;
 @Slf4j
 public class AuditEventController {
 
+    private static final String FORMAT_PARAMETER = "format";
+
     private final GenericFilterBuilder filterBuilder;
     private final AuditEventService auditEventService;
     private final PagedResourcesAssembler<AuditEvent> pagedResourcesAssembler;
     private final AuditEventResourceAssembler plainAssembler;
+    private final AuditEventExportService auditEventExportService;
 
     public AuditEventController(GenericFilterBuilder filterBuilder, AuditEventService auditEventService,
-                                PagedResourcesAssembler<AuditEvent> pagedResourcesAssembler, AuditEventResourceAssembler plainAssembler) {
+                                PagedResourcesAssembler<AuditEvent> pagedResourcesAssembler, AuditEventResourceAssembler plainAssembler,
+                                AuditEventExportService auditEventExportService) {
         this.filterBuilder = filterBuilder;
         this.auditEventService = auditEventService;
         this.pagedResourcesAssembler = pagedResourcesAssembler;
         this.plainAssembler = plainAssembler;
+        this.auditEventExportService = auditEventExportService;
     }
 
     @GetMapping(path = "/{auditEventId}")
@@ -64,7 +76,7 @@ public class AuditEventController {
         Sort sorting = Sort.by(direction, sort[0]);
         Pageable pageable = PageRequest.of(page, size, sorting);
         // Build filter map automatically from ALL request parameters
-        Map<String, Object> filters = filterBuilder.buildFromRequest(request);
+        Map<String, Object> filters = filterBuilder.buildFromRequest(request, AuditEvent.class);
 
         Page<AuditEvent> auditEvents = auditEventService.getAuditEvents(filters, pageable);
         PagedModel<EntityModel<Object>> pagedModel = pagedResourcesAssembler.toModel(auditEvents, plainAssembler);
@@ -81,6 +93,92 @@ public class AuditEventController {
 
     }
 
+    /**
+     * Exports all audit events matching the filters in a single response, oldest first.<br>
+     * Filters are the same as for the listing, i.e. <code>timestamp.from</code> and <code>timestamp.to</code> for a
+     * time range. Response is gzip compressed when the client accepts it.
+     *
+     * @param request        request with filter parameters
+     * @param format         <code>ndjson</code> (default) or <code>csv</code>
+     * @param acceptEncoding Accept-Encoding header
+     * @return streamed audit events
+     */
+    @GetMapping(path = "/export", consumes = MediaType.ALL_VALUE,
+            produces = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    public ResponseEntity<StreamingResponseBody> exportAuditEvents(HttpServletRequest request,
+                                                                   @RequestParam(name = FORMAT_PARAMETER, defaultValue = "ndjson") String format,
+                                                                   @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        Optional<AuditEventExportService.Format> exportFormat = AuditEventExportService.Format.fromString(format);
+        if (exportFormat.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        Map<String, Object> filters = filterBuilder.buildFromRequest(request, AuditEvent.class, Set.of(FORMAT_PARAMETER));
+        log.info("Exporting audit events as {}, filters: {}", exportFormat.get(), filters);
+
+        boolean gzip = acceptsGzip(acceptEncoding);
+        StreamingResponseBody body = outputStream -> {
+            if (gzip) {
+                GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream, 8192);
+                auditEventExportService.export(filters, exportFormat.get(), gzipOutputStream);
+                gzipOutputStream.finish();
+            } else {
+                auditEventExportService.export(filters, exportFormat.get(), outputStream);
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.get().getMediaType()))
+                // body depends on Accept-Encoding, caches must not serve it to clients asking for another encoding
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("audit-events." + exportFormat.get().getExtension())
+                        .build()
+                        .toString());
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    /**
+     * Whether Accept-Encoding header accepts gzip, explicitly or through <code>*</code>; coding with
+     * <code>q=0</code> is not acceptable (RFC 9110, section 12.5.3).
+     *
+     * @param acceptEncoding Accept-Encoding header
+     * @return true if response may be gzip compressed
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Float gzipQuality = null;
+        Float wildcardQuality = null;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String coding = parts[0].trim().toLowerCase();
+            float quality = 1.0f;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim().toLowerCase();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        quality = Float.parseFloat(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0.0f;
+                    }
+                }
+            }
+            if ("gzip".equals(coding) || "x-gzip".equals(coding)) {
+                gzipQuality = quality;
+            } else if ("*".equals(coding)) {
+                wildcardQuality = quality;
+            }
+        }
+        if (gzipQuality != null) {
+            return gzipQuality > 0;
+        }
+        return wildcardQuality != null && wildcardQuality > 0;
+    }
+
     @GetMapping("/types")
     public ResponseEntity<GenericApiResponse<Collection<AuditEventTypeDTO>>> getAuditEventTypes() {
         return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON)
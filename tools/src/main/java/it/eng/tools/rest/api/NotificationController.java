@@ -0,0 +1,56 @@
+package it.eng.tools.rest.api;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import it.eng.tools.controller.ApiEndpoints;
+import it.eng.tools.notification.NotificationProperties;
+import it.eng.tools.notification.SseNotificationSink;
+import it.eng.tools.notification.StateChangeNotificationService;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping(path = ApiEndpoints.NOTIFICATIONS_V1)
+@Slf4j
+public class NotificationController {
+
+    private final StateChangeNotificationService notificationService;
+    private final NotificationProperties notificationProperties;
+
+    public NotificationController(StateChangeNotificationService notificationService,
+                                  NotificationProperties notificationProperties) {
+        this.notificationService = notificationService;
+        this.notificationProperties = notificationProperties;
+    }
+
+    /**
+     * Server-Sent Events stream of transfer process and contract negotiation state changes.
+     *
+     * @param lastEventId id of the last received event, sent by the client when reconnecting
+     * @return event stream, or 503 if maximum number of subscribers is reached
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream(@RequestHeader(name = "Last-Event-ID", required = false) String lastEventId) {
+        SseEmitter emitter = new SseEmitter(Duration.ofMinutes(notificationProperties.getStreamTimeoutMinutes()).toMillis());
+        Optional<String> subscriberId = notificationService.subscribe(new SseNotificationSink(emitter), lastEventId);
+        if (subscriberId.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        log.info("Notification stream opened, subscriber {}", subscriberId.get());
+        emitter.onCompletion(() -> notificationService.unsubscribe(subscriberId.get()));
+        emitter.onTimeout(() -> notificationService.unsubscribe(subscriberId.get()));
+        emitter.onError(e -> notificationService.unsubscribe(subscriberId.get()));
+        return ResponseEntity.ok()
+                .header("X-Accel-Buffering", "no")
+                .body(emitter);
+    }
+}
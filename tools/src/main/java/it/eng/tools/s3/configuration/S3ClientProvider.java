@@ -36,7 +36,7 @@ public class S3ClientProvider {
 
     private final ConcurrentHashMap<String, S3Client> s3ClientCache = new ConcurrentHashMap<>();
     private final ConcurrentHashMap<String, S3AsyncClient> asyncS3ClientCache = new ConcurrentHashMap<>();
-    private final ThreadLocal<S3Client> adminS3ClientCache = ThreadLocal.withInitial(() -> null);
+    private volatile S3Client adminS3Client;
 
     public S3ClientProvider(
             S3Properties s3Properties,
@@ -69,13 +69,20 @@ public class S3ClientProvider {
     /**
      * Creates a S3Client for administrative operations on S3 buckets.
      * This client is used for operations that require admin privileges.
-     * AccessKey and SecretKey are read from the S3Properties configuration.
+     * AccessKey and SecretKey are read from the S3Properties configuration.<br>
+     * The client is created on first use and shared by all threads afterwards.
      *
      * @return a configured administrative privileges S3Client instance
      */
     public S3Client adminS3Client() {
-        S3Client cached = adminS3ClientCache.get();
-        if (cached == null) {
+        S3Client cached = adminS3Client;
+        if (cached != null) {
+            return cached;
+        }
+        synchronized (this) {
+            if (adminS3Client != null) {
+                return adminS3Client;
+            }
             String endpoint = s3Properties.getEndpoint();
             boolean isAws = isAwsEndpoint(endpoint);
 
@@ -99,11 +106,10 @@ public class S3ClientProvider {
                         .endpointOverride(URI.create(endpoint));
             }
 
-            cached = builder.build();
-            adminS3ClientCache.set(cached);
+            adminS3Client = builder.build();
             log.info("Admin S3Client created successfully");
+            return adminS3Client;
         }
-        return cached;
     }
 
     /**
@@ -158,6 +164,15 @@ public class S3ClientProvider {
         asyncS3ClientCache.remove(bucketName);
     }
 
+    /**
+     * Clears cached S3 clients of all buckets.
+     */
+    public void clearAllBucketCaches() {
+        log.info("Clearing S3 client cache for all buckets");
+        s3ClientCache.clear();
+        asyncS3ClientCache.clear();
+    }
+
     private S3Client createS3Client(AwsCredentialsProvider credentialsProvider, String region, String endpointOverride) {
         log.info("Creating S3Client with region: {}, endpointOverride: {}, pathStyle: true, chunkedEncoding: false",
                 region, endpointOverride);
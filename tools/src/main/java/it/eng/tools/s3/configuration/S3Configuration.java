@@ -7,6 +7,7 @@ import okhttp3.OkHttpClient;
                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                                    import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 
 @Configuration
 @Slf4j
@@ -21,11 +22,12 @@ public class S3Configuration {
     }
 
     /**
-     * MinioAdminClient is only created when s3.endpoint is set and is not an AWS endpoint.
+     * MinioAdminClient is only created when s3.endpoint is set and is not an AWS endpoint, on first use.
      *
      * @return the configured MinioAdminClient or null when AWS S3 is detected
      */
     @Bean
+    @Lazy
     @ConditionalOnExpression("T(org.springframework.util.StringUtils).hasText('${s3.endpoint:}') and !('${s3.endpoint:}'.toLowerCase().contains('amazonaws.com'))")
     public MinioAdminClient minioAdminClient() {
         String endpoint = s3Properties.getEndpoint();
@@ -0,0 +1,17 @@
+package it.eng.tools.s3.model;
+
+import java.time.Instant;
+
+/**
+ * Metadata of an object stored in S3.
+ *
+ * @param key                object key
+ * @param size               object size in bytes
+ * @param lastModified       last modification time
+ * @param contentType        content type, can be null
+ * @param contentDisposition content disposition, can be null
+ * @param eTag               entity tag, without quotes; MD5 of the content for objects not uploaded in parts
+ */
+public record S3ObjectInfo(String key, long size, Instant lastModified, String contentType, String contentDisposition,
+                           String eTag) {
+}
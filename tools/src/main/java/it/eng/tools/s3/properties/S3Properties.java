@@ -48,4 +48,26 @@ public class S3Properties {
      * Defaults to SYNC if not specified.
      */
     private String uploadMode = "SYNC";
+
+    /**
+     * Uploads of known size up to this many bytes, and streams of unknown size ending within it,
+     * are stored with a single PutObject; larger uploads use multipart upload.
+     */
+    private long multipartThreshold = 16L * 1024 * 1024;
+
+    /**
+     * The smallest multipart part size. S3 rejects parts smaller than 5 MiB (except the last one).
+     * Part size grows above it as needed to stay within the 10,000 parts limit.
+     */
+    private long minPartSize = 8L * 1024 * 1024;
+
+    /**
+     * Number of parts uploaded in parallel when an ASYNC upload starts.
+     */
+    private int initialUploadConcurrency = 2;
+
+    /**
+     * Upper bound for parts uploaded in parallel in ASYNC mode; parallelism grows towards it while throughput improves.
+     */
+    private int maxUploadConcurrency = 16;
 }
@@ -0,0 +1,80 @@
+package it.eng.tools.s3.service;
+
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import it.eng.tools.s3.configuration.S3ClientProvider;
+import it.eng.tools.s3.model.BucketCredentialsEntity;
+import it.eng.tools.util.MongoChangeStreamWatcher;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Watches bucket credentials collection and evicts cached credentials and S3 clients of a bucket when another
+ * replica changes its credentials.<br>
+ * Change streams require MongoDB replica set or sharded cluster, so the listener is enabled only with
+ * <code>s3.credentials-change-stream.enabled=true</code>.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "s3.credentials-change-stream.enabled", havingValue = "true")
+public class BucketCredentialsChangeStreamListener {
+
+    private final BucketCredentialsService bucketCredentialsService;
+    private final S3ClientProvider s3ClientProvider;
+    private final MongoChangeStreamWatcher watcher;
+
+    public BucketCredentialsChangeStreamListener(MongoTemplate mongoTemplate,
+                                                 BucketCredentialsService bucketCredentialsService,
+                                                 S3ClientProvider s3ClientProvider,
+                                                 @Value("${s3.credentials-change-stream.retry-delay-millis:5000}") long retryDelayMillis) {
+        this.bucketCredentialsService = bucketCredentialsService;
+        this.s3ClientProvider = s3ClientProvider;
+        this.watcher = new MongoChangeStreamWatcher(mongoTemplate,
+                mongoTemplate.getCollectionName(BucketCredentialsEntity.class),
+                retryDelayMillis,
+                // changes made while the stream was not open are not known, start over
+                this::evictAll,
+                this::evict);
+    }
+
+    /**
+     * Starts watching for changes.
+     */
+    @PostConstruct
+    public void start() {
+        watcher.start();
+    }
+
+    /**
+     * Stops watching for changes.
+     */
+    @PreDestroy
+    public void stop() {
+        watcher.stop();
+    }
+
+    void evict(ChangeStreamDocument<Document> change) {
+        BsonDocument documentKey = change.getDocumentKey();
+        BsonValue bucketName = documentKey != null ? documentKey.get("_id") : null;
+        if (bucketName == null || !bucketName.isString()) {
+            // collection dropped, renamed or stream invalidated
+            evictAll();
+            return;
+        }
+        log.info("Bucket credentials for {} changed, evicting cached credentials and clients", bucketName.asString().getValue());
+        bucketCredentialsService.evictBucketCredentials(bucketName.asString().getValue());
+        s3ClientProvider.clearBucketCache(bucketName.asString().getValue());
+    }
+
+    private void evictAll() {
+        bucketCredentialsService.evictAllBucketCredentials();
+        s3ClientProvider.clearAllBucketCaches();
+    }
+}
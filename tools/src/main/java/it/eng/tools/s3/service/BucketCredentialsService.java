@@ -5,34 +5,100 @@ import it.eng.tools.s3.model.BucketCredentialsEntity;
 import it.eng.tools.s3.repository.BucketCredentialsRepository;
 import it.eng.tools.service.FieldEncryptionService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 @Service
 @Slf4j
 public class BucketCredentialsService {
 
+    static final String SECRET_KEY_FIELD = "secretKey";
+    static final String VERSION_FIELD = "version";
+
     private final FieldEncryptionService fieldEncryptionService;
     private final BucketCredentialsRepository bucketCredentialsRepository;
+    private final MongoTemplate mongoTemplate;
 
-    public BucketCredentialsService(FieldEncryptionService fieldEncryptionService, BucketCredentialsRepository bucketCredentialsRepository) {
+    // decrypted credentials per bucket, so S3 operations do not hit MongoDB and decrypt the secret every time
+    private final Map<String, BucketCredentialsEntity> credentialsCache = new ConcurrentHashMap<>();
+
+    public BucketCredentialsService(FieldEncryptionService fieldEncryptionService, BucketCredentialsRepository bucketCredentialsRepository,
+                                    MongoTemplate mongoTemplate) {
         this.fieldEncryptionService = fieldEncryptionService;
         this.bucketCredentialsRepository = bucketCredentialsRepository;
+        this.mongoTemplate = mongoTemplate;
     }
 
+    /**
+     * Get bucket credentials with decrypted secret key.<br>
+     * Credentials are cached after first lookup, until evicted by {@link #evictBucketCredentials(String)} or replaced
+     * by {@link #saveBucketCredentials(BucketCredentialsEntity)}.
+     *
+     * @param bucketName bucket name
+     * @return bucket credentials
+     */
     public BucketCredentialsEntity getBucketCredentials(String bucketName) {
+        BucketCredentialsEntity cached = credentialsCache.get(bucketName);
+        if (cached != null) {
+            return cached;
+        }
+        // computeIfAbsent makes an eviction wait for a concurrent load, so stale credentials are not cached
+        return credentialsCache.computeIfAbsent(bucketName, this::loadBucketCredentials);
+    }
+
+    private BucketCredentialsEntity loadBucketCredentials(String bucketName) {
         BucketCredentialsEntity bucketCredentials = bucketCredentialsRepository.findByBucketName(bucketName)
                 .orElse(null);
         if (bucketCredentials == null) {
             log.error("Bucket credentials not found for bucket: {}", bucketName);
             throw new S3ServerException("Bucket credentials not found for bucket: " + bucketName);
         }
+        String secretKey = fieldEncryptionService.decrypt(bucketCredentials.getSecretKey());
+        if (fieldEncryptionService.isLegacy(bucketCredentials.getSecretKey())) {
+            reEncrypt(bucketCredentials, secretKey);
+        }
         return BucketCredentialsEntity.Builder.newInstance()
                 .accessKey(bucketCredentials.getAccessKey())
-                .secretKey(fieldEncryptionService.decrypt(bucketCredentials.getSecretKey()))
+                .secretKey(secretKey)
                 .bucketName(bucketCredentials.getBucketName())
                 .build();
     }
 
+    /**
+     * Stores secret key encrypted in legacy format again, in current format.<br>
+     * Only the secret key is updated (and the version, if the document has one), and only while it still holds the
+     * legacy value, so documents stored without version are migrated too and concurrent changes are not overwritten.
+     * Failure is not fatal, the legacy value can still be decrypted.
+     *
+     * @param bucketCredentials stored bucket credentials
+     * @param secretKey         decrypted secret key
+     */
+    private void reEncrypt(BucketCredentialsEntity bucketCredentials, String secretKey) {
+        try {
+            log.info("Re-encrypting bucket credentials for bucket: {}", bucketCredentials.getBucketName());
+            Query query = Query.query(Criteria.where("_id").is(bucketCredentials.getBucketName())
+                    .and(SECRET_KEY_FIELD).is(bucketCredentials.getSecretKey()));
+            Update update = new Update().set(SECRET_KEY_FIELD, fieldEncryptionService.encrypt(secretKey));
+            if (bucketCredentials.getVersion() != null) {
+                update.inc(VERSION_FIELD, 1L);
+            }
+            // collection name instead of entity class, so the version is not added to documents without one
+            long modified = mongoTemplate.updateFirst(query, update,
+                    mongoTemplate.getCollectionName(BucketCredentialsEntity.class)).getModifiedCount();
+            if (modified == 0) {
+                log.debug("Bucket credentials for bucket {} changed meanwhile, not re-encrypted", bucketCredentials.getBucketName());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not re-encrypt bucket credentials for bucket {}: {}", bucketCredentials.getBucketName(), e.getMessage());
+        }
+    }
+
     public BucketCredentialsEntity saveBucketCredentials(BucketCredentialsEntity bucketCredentials) {
         log.info("Saving bucket credentials for bucket: {}", bucketCredentials.getBucketName());
         BucketCredentialsEntity savedBucketCredentials = BucketCredentialsEntity.Builder.newInstance()
@@ -40,7 +106,25 @@ public class BucketCredentialsService {
                 .secretKey(fieldEncryptionService.encrypt(bucketCredentials.getSecretKey()))
                 .bucketName(bucketCredentials.getBucketName())
                 .build();
-        return bucketCredentialsRepository.save(savedBucketCredentials);
+        BucketCredentialsEntity stored = bucketCredentialsRepository.save(savedBucketCredentials);
+        evictBucketCredentials(bucketCredentials.getBucketName());
+        return stored;
+    }
+
+    /**
+     * Removes cached credentials of a bucket; next lookup reads them from MongoDB.
+     *
+     * @param bucketName bucket name
+     */
+    public void evictBucketCredentials(String bucketName) {
+        credentialsCache.remove(bucketName);
+    }
+
+    /**
+     * Removes all cached credentials.
+     */
+    public void evictAllBucketCredentials() {
+        credentialsCache.clear();
     }
 
     public boolean bucketCredentialsExist(String bucketName) {
@@ -6,13 +6,15 @@ import it.eng.tools.exception.S3ServerException;
 import it.eng.tools.s3.model.BucketCredentialsEntity;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
 /**
  * Minio-specific IAM user management.
- * Only active when MinioAdminClient bean exists.
+ * Only active when MinioAdminClient bean exists. Created on first use.
  */
 @Component
+@Lazy
 @ConditionalOnBean(MinioAdminClient.class)
 @Slf4j
 public class MinioUserManagementService implements IamUserManagementService {
@@ -5,6 +5,7 @@ import it.eng.tools.s3.configuration.S3ClientProvider;
 import it.eng.tools.s3.model.BucketCredentialsEntity;
 import it.eng.tools.s3.properties.S3Properties;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import software.amazon.awssdk.awscore.exception.AwsServiceException;
 import software.amazon.awssdk.services.s3.S3Client;
@@ -24,9 +25,18 @@ public class S3BucketProvisionService {
     private final BucketCredentialsService bucketCredentialsService;
     private final IamUserManagementService iamUserManagementService;
 
+    /**
+     * IAM user management, and the Minio admin client behind it, is created on first bucket provisioning rather than
+     * at startup.
+     *
+     * @param s3ClientProvider         S3 client provider
+     * @param s3Properties             S3 properties
+     * @param bucketCredentialsService bucket credentials service
+     * @param iamUserManagementService IAM user management, resolved lazily
+     */
     public S3BucketProvisionService(S3ClientProvider s3ClientProvider, S3Properties s3Properties,
                                     BucketCredentialsService bucketCredentialsService,
-                                    IamUserManagementService iamUserManagementService) {
+                                    @Lazy IamUserManagementService iamUserManagementService) {
         this.s3ClientProvider = s3ClientProvider;
         this.s3Properties = s3Properties;
         this.bucketCredentialsService = bucketCredentialsService;
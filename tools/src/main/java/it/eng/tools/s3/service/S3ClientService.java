@@ -1,11 +1,13 @@
 package it.eng.tools.s3.service;
 
+import it.eng.tools.s3.model.S3ObjectInfo;
 import jakarta.servlet.http.HttpServletResponse;
 
 import java.io.InputStream;
 import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -14,7 +16,7 @@ import java.util.concurrent.CompletableFuture;
 public interface S3ClientService {
 
     /**
-     * Uploads a file to the specified bucket with the specified object key.
+     * Uploads a file of unknown length to the specified bucket with the specified object key.
      * <p>
      * After stream is processed, it will be closed automatically.
      *
@@ -24,10 +26,32 @@ public interface S3ClientService {
      * @param contentDisposition the content disposition of the file
      * @return a CompletableFuture that completes with the ETag of the uploaded object
      */
+    default CompletableFuture<String> uploadFile(InputStream inputStream,
+                                                 Map<String, String> destinationS3Properties,
+                                                 String contentType,
+                                                 String contentDisposition) {
+        return uploadFile(inputStream, destinationS3Properties, contentType, contentDisposition, -1);
+    }
+
+    /**
+     * Uploads a file to the specified bucket with the specified object key.<br>
+     * Known content length lets small files be stored with a single request and large files use parts sized
+     * to fit into the S3 part limit.
+     * <p>
+     * After stream is processed, it will be closed automatically.
+     *
+     * @param inputStream        the input stream of the file to upload
+     * @param destinationS3Properties the properties of the destination S3 bucket
+     * @param contentType        the content type of the file
+     * @param contentDisposition the content disposition of the file
+     * @param contentLength      the length of the file, or negative if not known
+     * @return a CompletableFuture that completes with the ETag of the uploaded object
+     */
     CompletableFuture<String> uploadFile(InputStream inputStream,
                                          Map<String, String> destinationS3Properties,
                                          String contentType,
-                                         String contentDisposition);
+                                         String contentDisposition,
+                                         long contentLength);
 
     /**
      * Downloads a file from the specified bucket with the specified object key.
@@ -38,6 +62,26 @@ public interface S3ClientService {
      */
     void downloadFile(String bucketName, String objectKey, HttpServletResponse response);
 
+    /**
+     * Opens a stream over the object content, starting at the given offset (ranged GET).<br>
+     * Caller must close the stream; closing it before the end aborts the download.
+     *
+     * @param bucketName the name of the bucket
+     * @param objectKey  the key of the object
+     * @param offset     position of the first byte to read
+     * @return stream of object content from offset to the end of the object
+     */
+    InputStream getObjectStream(String bucketName, String objectKey, long offset);
+
+    /**
+     * Reads metadata of the object, without its content.
+     *
+     * @param bucketName the name of the bucket
+     * @param objectKey  the key of the object
+     * @return object metadata, or empty if object does not exist
+     */
+    Optional<S3ObjectInfo> getObjectInfo(String bucketName, String objectKey);
+
     /**
      * Deletes a file from the specified bucket with the specified object key.
      *
@@ -46,6 +90,13 @@ public interface S3ClientService {
      */
     void deleteFile(String bucketName, String objectKey);
 
+    /**
+     * Deletes a file from the destination S3 bucket, using the credentials of the destination.
+     *
+     * @param destinationS3Properties the properties of the destination S3 bucket, including the object key
+     */
+    void deleteFile(Map<String, String> destinationS3Properties);
+
     /**
      * Checks if a file with the specified object key exists in the specified bucket.
      *
@@ -3,6 +3,7 @@ package it.eng.tools.s3.service;
 import it.eng.tools.s3.configuration.S3ClientProvider;
 import it.eng.tools.s3.model.BucketCredentialsEntity;
 import it.eng.tools.s3.model.S3ClientRequest;
+import it.eng.tools.s3.model.S3ObjectInfo;
 import it.eng.tools.s3.model.S3UploadMode;
 import it.eng.tools.s3.properties.S3Properties;
 import it.eng.tools.s3.service.upload.S3UploadStrategy;
@@ -11,6 +12,7 @@ import it.eng.tools.s3.util.S3Utils;
 import it.eng.tools.service.ApplicationPropertiesService;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
@@ -29,6 +31,7 @@ import java.net.URI;
 import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -71,13 +74,8 @@ public class S3ClientServiceImpl implements S3ClientService {
     public CompletableFuture<String> uploadFile(InputStream inputStream,
                                                 Map<String, String> destinationS3Properties,
                                                 String contentType,
-                                                String contentDisposition) {
-
-        BucketCredentialsEntity bucketCredentials = BucketCredentialsEntity.Builder.newInstance()
-                    .bucketName(destinationS3Properties.get(S3Utils.BUCKET_NAME))
-                    .accessKey(destinationS3Properties.get(S3Utils.ACCESS_KEY))
-                    .secretKey(destinationS3Properties.get(S3Utils.SECRET_KEY))
-                    .build();
+                                                String contentDisposition,
+                                                long contentLength) {
 
         String bucketName = destinationS3Properties.get(S3Utils.BUCKET_NAME);
         String objectKey = destinationS3Properties.get(S3Utils.OBJECT_KEY);
@@ -85,17 +83,16 @@ public class S3ClientServiceImpl implements S3ClientService {
         // Determine upload mode from configuration
         S3UploadMode uploadMode = getUploadMode();
 
-        log.info("Uploading file {} to bucket {} using {} mode", objectKey, bucketName, uploadMode);
+        log.info("Uploading file {} ({} bytes) to bucket {} using {} mode", objectKey,
+                contentLength >= 0 ? contentLength : "unknown", bucketName, uploadMode);
 
-        S3ClientRequest s3ClientRequest = S3ClientRequest.from(
-                destinationS3Properties.get(S3Utils.REGION),
-                destinationS3Properties.get(S3Utils.ENDPOINT_OVERRIDE),
-                bucketCredentials);
+        S3ClientRequest s3ClientRequest = destinationClientRequest(destinationS3Properties);
 
         // Get appropriate strategy from factory based on upload mode
         S3UploadStrategy strategy = uploadStrategyFactory.getStrategy(uploadMode);
 
-        return strategy.uploadFile(inputStream, s3ClientRequest, bucketName, objectKey, contentType, contentDisposition);
+        return strategy.uploadFile(inputStream, s3ClientRequest, bucketName, objectKey, contentType, contentDisposition,
+                contentLength);
     }
 
     /**
@@ -106,10 +103,9 @@ public class S3ClientServiceImpl implements S3ClientService {
      */
     private S3UploadMode getUploadMode() {
         try {
-            // First, try to get from MongoDB
-            return applicationPropertiesService.getPropertyByKey(S3_UPLOAD_MODE_PROPERTY_KEY)
-                    .map(property -> {
-                        String value = property.getValue();
+            // First, try MongoDB properties, from in-memory snapshot
+            return applicationPropertiesService.getSnapshot().getString(S3_UPLOAD_MODE_PROPERTY_KEY)
+                    .map(value -> {
                         log.debug("Using S3 upload mode from MongoDB: {}", value);
                         return S3UploadMode.fromString(value);
                     })
@@ -161,6 +157,44 @@ public class S3ClientServiceImpl implements S3ClientService {
         }
     }
 
+    @Override
+    public InputStream getObjectStream(String bucketName, String objectKey, long offset) {
+        validateBucketName(bucketName);
+        try {
+            GetObjectRequest.Builder getObjectRequest = GetObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(objectKey);
+            if (offset > 0) {
+                getObjectRequest.range("bytes=" + offset + "-");
+            }
+            return getS3Client(bucketName).getObject(getObjectRequest.build());
+        } catch (NoSuchKeyException e) {
+            log.error("File {} not found in bucket {}", objectKey, bucketName);
+            throw new RuntimeException("File not found: " + e.getMessage(), e);
+        } catch (Exception e) {
+            log.error("Error reading file {} from bucket {}: {}", objectKey, bucketName, e.getMessage());
+            throw new RuntimeException("Error reading file: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Optional<S3ObjectInfo> getObjectInfo(String bucketName, String objectKey) {
+        validateBucketName(bucketName);
+        try {
+            HeadObjectResponse head = getS3Client(bucketName).headObject(HeadObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(objectKey)
+                    .build());
+            return Optional.of(new S3ObjectInfo(objectKey, head.contentLength(), head.lastModified(),
+                    head.contentType(), head.contentDisposition(), StringUtils.strip(head.eTag(), "\"")));
+        } catch (NoSuchKeyException e) {
+            return Optional.empty();
+        } catch (Exception e) {
+            log.error("Error reading metadata of file {} in bucket {}: {}", objectKey, bucketName, e.getMessage());
+            throw new RuntimeException("Error reading file metadata: " + e.getMessage(), e);
+        }
+    }
+
     @Override
     public void deleteFile(String bucketName, String objectKey) {
         validateBucketName(bucketName);
@@ -182,6 +216,35 @@ public class S3ClientServiceImpl implements S3ClientService {
         }
     }
 
+    @Override
+    public void deleteFile(Map<String, String> destinationS3Properties) {
+        String bucketName = destinationS3Properties.get(S3Utils.BUCKET_NAME);
+        String objectKey = destinationS3Properties.get(S3Utils.OBJECT_KEY);
+        try {
+            s3ClientProvider.s3Client(destinationClientRequest(destinationS3Properties))
+                    .deleteObject(DeleteObjectRequest.builder()
+                            .bucket(bucketName)
+                            .key(objectKey)
+                            .build());
+            log.info("File {} deleted successfully from destination bucket {}", objectKey, bucketName);
+        } catch (Exception e) {
+            log.error("Error deleting file {} from destination bucket {}: {}", objectKey, bucketName, e.getMessage());
+            throw new RuntimeException("Error deleting file: " + e.getMessage(), e);
+        }
+    }
+
+    private S3ClientRequest destinationClientRequest(Map<String, String> destinationS3Properties) {
+        BucketCredentialsEntity bucketCredentials = BucketCredentialsEntity.Builder.newInstance()
+                .bucketName(destinationS3Properties.get(S3Utils.BUCKET_NAME))
+                .accessKey(destinationS3Properties.get(S3Utils.ACCESS_KEY))
+                .secretKey(destinationS3Properties.get(S3Utils.SECRET_KEY))
+                .build();
+        return S3ClientRequest.from(
+                destinationS3Properties.get(S3Utils.REGION),
+                destinationS3Properties.get(S3Utils.ENDPOINT_OVERRIDE),
+                bucketCredentials);
+    }
+
     @Override
     public boolean fileExists(String bucketName, String objectKey) {
         validateBucketName(bucketName);
@@ -202,7 +265,6 @@ public class S3ClientServiceImpl implements S3ClientService {
     }
 
     private S3Client getS3Client(String bucketName) {
-        log.info("Getting S3 Client for bucket {}", bucketName);
         BucketCredentialsEntity bucketCredentials = bucketCredentialsService.getBucketCredentials(bucketName);
         S3ClientRequest s3ClientRequest = S3ClientRequest.from(s3Properties.getRegion(),
                 s3Properties.getEndpoint(),
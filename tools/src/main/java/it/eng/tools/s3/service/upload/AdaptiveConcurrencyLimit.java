@@ -0,0 +1,111 @@
+package it.eng.tools.s3.service.upload;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Limits parts uploaded in parallel, adjusting the limit from measured throughput, in the spirit of TCP congestion
+ * control (additive increase, multiplicative decrease).<br>
+ * The limit is evaluated once per round, that is after as many parts completed as the limit allowed in flight:
+ * <ul>
+ * <li>throughput improved by at least 5% - one more part in parallel</li>
+ * <li>latency per byte more than doubled compared to the best observed - the link is congested, limit is halved</li>
+ * <li>a part failed - limit is halved</li>
+ * </ul>
+ */
+final class AdaptiveConcurrencyLimit {
+
+    private static final double THROUGHPUT_GAIN = 1.05;
+    private static final double CONGESTION_LATENCY_FACTOR = 2.0;
+
+    private final int maxLimit;
+    private final LongSupplier nanoClock;
+
+    private int limit;
+    private int inFlight;
+
+    private long roundStart;
+    private long roundBytes;
+    private long roundLatency;
+    private int roundCompleted;
+    private double lastThroughput;
+    private double minLatencyPerByte = Double.MAX_VALUE;
+
+    AdaptiveConcurrencyLimit(int initialLimit, int maxLimit) {
+        this(initialLimit, maxLimit, System::nanoTime);
+    }
+
+    AdaptiveConcurrencyLimit(int initialLimit, int maxLimit, LongSupplier nanoClock) {
+        this.maxLimit = Math.max(1, maxLimit);
+        this.limit = Math.max(1, Math.min(initialLimit, this.maxLimit));
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Waits until another part may be uploaded.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    synchronized void acquire() throws InterruptedException {
+        while (inFlight >= limit) {
+            wait();
+        }
+        if (roundStart == 0) {
+            roundStart = nanoClock.getAsLong();
+        }
+        inFlight++;
+    }
+
+    /**
+     * Records successfully uploaded part.
+     *
+     * @param bytes        part size
+     * @param latencyNanos time the part upload took
+     */
+    synchronized void release(long bytes, long latencyNanos) {
+        inFlight--;
+        roundBytes += bytes;
+        roundLatency += latencyNanos;
+        roundCompleted++;
+        if (roundCompleted >= limit) {
+            adjust();
+        }
+        notifyAll();
+    }
+
+    /**
+     * Records failed part upload.
+     */
+    synchronized void releaseFailed() {
+        inFlight--;
+        limit = Math.max(1, limit / 2);
+        resetRound();
+        notifyAll();
+    }
+
+    synchronized int getLimit() {
+        return limit;
+    }
+
+    private void adjust() {
+        long elapsed = Math.max(1, nanoClock.getAsLong() - roundStart);
+        double throughput = (double) roundBytes / elapsed;
+        double latencyPerByte = roundBytes > 0 ? (double) roundLatency / roundBytes : 0;
+        if (latencyPerByte > 0) {
+            minLatencyPerByte = Math.min(minLatencyPerByte, latencyPerByte);
+        }
+        if (latencyPerByte > minLatencyPerByte * CONGESTION_LATENCY_FACTOR) {
+            limit = Math.max(1, limit / 2);
+        } else if (throughput > lastThroughput * THROUGHPUT_GAIN) {
+            limit = Math.min(maxLimit, limit + 1);
+        }
+        lastThroughput = throughput;
+        resetRound();
+    }
+
+    private void resetRound() {
+        roundStart = inFlight > 0 ? nanoClock.getAsLong() : 0;
+        roundBytes = 0;
+        roundLatency = 0;
+        roundCompleted = 0;
+    }
+}
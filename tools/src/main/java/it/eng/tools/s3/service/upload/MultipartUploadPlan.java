@@ -0,0 +1,82 @@
+package it.eng.tools.s3.service.upload;
+
+import it.eng.tools.s3.properties.S3Properties;
+
+/**
+ * Decides part sizes of an upload from its content length, within S3 multipart limits.<br>
+ * For known length one part size is chosen so that the object fits into 10,000 parts. For unknown length parts start
+ * at the minimal size and double every {@value #PARTS_PER_SIZE_STEP} parts, so small streams do not buffer large
+ * parts while a 5 TiB stream still fits into the part limit.
+ */
+final class MultipartUploadPlan {
+
+    static final long UNKNOWN_LENGTH = -1;
+    static final int MAX_PARTS = 10_000;
+    static final long MIN_PART_SIZE = 5L * 1024 * 1024;
+    static final long MAX_OBJECT_SIZE = 5L * 1024 * 1024 * 1024 * 1024;
+    // parts are buffered in a byte array, which keeps them well below the 5 GiB S3 part limit
+    static final int MAX_PART_SIZE = 1024 * 1024 * 1024;
+    static final int PARTS_PER_SIZE_STEP = 500;
+
+    private static final long MIB = 1024 * 1024;
+
+    private final int firstPartSize;
+    private final int minPartSize;
+    private final int fixedPartSize;
+
+    private MultipartUploadPlan(int firstPartSize, int minPartSize, int fixedPartSize) {
+        this.firstPartSize = firstPartSize;
+        this.minPartSize = minPartSize;
+        this.fixedPartSize = fixedPartSize;
+    }
+
+    /**
+     * Creates plan for an upload.
+     *
+     * @param contentLength length of the content, or {@link #UNKNOWN_LENGTH}
+     * @param s3Properties  configured threshold and minimal part size
+     * @return upload plan
+     */
+    static MultipartUploadPlan of(long contentLength, S3Properties s3Properties) {
+        if (contentLength > MAX_OBJECT_SIZE) {
+            throw new IllegalArgumentException("Content length " + contentLength + " exceeds maximum S3 object size");
+        }
+        int minPartSize = (int) clamp(s3Properties.getMinPartSize(), MIN_PART_SIZE, MAX_PART_SIZE);
+        int threshold = (int) clamp(s3Properties.getMultipartThreshold(), minPartSize, MAX_PART_SIZE);
+        if (contentLength < 0) {
+            return new MultipartUploadPlan(threshold, minPartSize, 0);
+        }
+        if (contentLength <= threshold) {
+            // read up to threshold, so the upload is still valid if the stream is longer than announced
+            return new MultipartUploadPlan(threshold, minPartSize, threshold);
+        }
+        long partSize = roundUpToMib((contentLength + MAX_PARTS - 1) / MAX_PARTS);
+        int fixedPartSize = (int) clamp(partSize, minPartSize, MAX_PART_SIZE);
+        return new MultipartUploadPlan(fixedPartSize, minPartSize, fixedPartSize);
+    }
+
+    /**
+     * Size of the given part; the last part may be shorter.
+     *
+     * @param partNumber part number, starting from 1
+     * @return part size in bytes
+     */
+    int partSize(int partNumber) {
+        if (partNumber == 1) {
+            return firstPartSize;
+        }
+        if (fixedPartSize > 0) {
+            return fixedPartSize;
+        }
+        int step = Math.min((partNumber - 1) / PARTS_PER_SIZE_STEP, 30);
+        return (int) Math.min((long) minPartSize << step, MAX_PART_SIZE);
+    }
+
+    private static long roundUpToMib(long size) {
+        return (size + MIB - 1) / MIB * MIB;
+    }
+
+    private static long clamp(long value, long min, long max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
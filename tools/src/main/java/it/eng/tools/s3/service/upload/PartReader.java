@@ -0,0 +1,63 @@
+package it.eng.tools.s3.service.upload;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads the upload stream part by part, sized by {@link MultipartUploadPlan}.<br>
+ * One part is read ahead, so the caller knows whether the current part is the last one; a stream fitting into the
+ * first part is stored with a single PutObject.
+ */
+final class PartReader {
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final InputStream inputStream;
+    private final MultipartUploadPlan plan;
+    private byte[] lookahead;
+    private int partNumber;
+
+    PartReader(InputStream inputStream, MultipartUploadPlan plan) {
+        this.inputStream = inputStream;
+        this.plan = plan;
+    }
+
+    /**
+     * Reads next part.
+     *
+     * @return next part, or null when the stream is exhausted; first part is returned even for an empty stream
+     * @throws IOException if reading fails or the stream does not fit into {@value MultipartUploadPlan#MAX_PARTS} parts
+     */
+    Part next() throws IOException {
+        byte[] data;
+        if (partNumber == 0) {
+            data = read(1);
+        } else if (lookahead.length == 0) {
+            return null;
+        } else {
+            data = lookahead;
+        }
+        partNumber++;
+        if (partNumber > MultipartUploadPlan.MAX_PARTS) {
+            throw new IOException("Stream exceeds " + MultipartUploadPlan.MAX_PARTS + " parts of "
+                    + plan.partSize(partNumber - 1) + " bytes");
+        }
+        // short part means end of stream, no need to block on another read
+        lookahead = data.length < plan.partSize(partNumber) ? EMPTY : read(partNumber + 1);
+        return new Part(partNumber, data, lookahead.length == 0);
+    }
+
+    private byte[] read(int part) throws IOException {
+        return inputStream.readNBytes(plan.partSize(part));
+    }
+
+    /**
+     * Part of the upload.
+     *
+     * @param number part number, starting from 1
+     * @param data   part content
+     * @param last   true if no more parts follow
+     */
+    record Part(int number, byte[] data, boolean last) {
+    }
+}
@@ -2,13 +2,13 @@ package it.eng.tools.s3.service.upload;
 
 import it.eng.tools.s3.configuration.S3ClientProvider;
 import it.eng.tools.s3.model.S3ClientRequest;
+import it.eng.tools.s3.properties.S3Properties;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import software.amazon.awssdk.core.async.AsyncRequestBody;
 import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.model.*;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
@@ -19,6 +19,8 @@ import java.util.concurrent.CompletionException;
 /**
  * Asynchronous S3 upload strategy implementation.
  * Uses S3AsyncClient with parallel part uploads for better performance.
+ * Number of parts in flight adapts to measured throughput (see {@link AdaptiveConcurrencyLimit}),
+ * which also bounds memory used by buffered parts.
  * Faster but may have issues with Minio behind reverse proxies.
  */
 @Component
@@ -26,9 +28,11 @@ import java.util.concurrent.CompletionException;
 public class S3AsyncUploadStrategy implements S3UploadStrategy {
 
     private final S3ClientProvider s3ClientProvider;
+    private final S3Properties s3Properties;
 
-    public S3AsyncUploadStrategy(S3ClientProvider s3ClientProvider) {
+    public S3AsyncUploadStrategy(S3ClientProvider s3ClientProvider, S3Properties s3Properties) {
         this.s3ClientProvider = s3ClientProvider;
+        this.s3Properties = s3Properties;
     }
 
     @Override
@@ -37,11 +41,44 @@ public class S3AsyncUploadStrategy implements S3UploadStrategy {
                                                String bucketName,
                                                String objectKey,
                                                String contentType,
-                                               String contentDisposition) {
+                                               String contentDisposition,
+                                               long contentLength) {
         S3AsyncClient s3AsyncClient = s3ClientProvider.s3AsyncClient(s3ClientRequest);
 
+        return CompletableFuture.supplyAsync(() -> {
+                    PartReader parts = new PartReader(inputStream, MultipartUploadPlan.of(contentLength, s3Properties));
+                    return new UploadSource(parts, readPart(parts));
+                })
+                .thenComposeAsync(source -> {
+                    if (source.firstPart().last()) {
+                        return putObject(s3AsyncClient, bucketName, objectKey, contentType, contentDisposition,
+                                source.firstPart().data());
+                    }
+                    return multipartUpload(s3AsyncClient, bucketName, objectKey, contentType, contentDisposition, source);
+                })
+                .exceptionally(throwable -> {
+                    log.error("Failed to upload file (ASYNC) {}: {}", objectKey, throwable.getMessage());
+                    throw new CompletionException("Failed to upload file", throwable);
+                })
+                .whenComplete((result, throwable) -> {
+                    try {
+                        inputStream.close();
+                    } catch (IOException e) {
+                        log.error("Failed to close input stream: {}", e.getMessage());
+                    }
+                });
+    }
+
+    private CompletableFuture<String> multipartUpload(S3AsyncClient s3AsyncClient,
+                                                      String bucketName,
+                                                      String objectKey,
+                                                      String contentType,
+                                                      String contentDisposition,
+                                                      UploadSource source) {
         CreateMultipartUploadRequest createMultipartUploadRequest = CreateMultipartUploadRequest.builder()
                 .bucket(bucketName)
+                // every part carries CRC32C which S3 verifies on receipt
+                .checksumAlgorithm(ChecksumAlgorithm.CRC32_C)
                 .contentType(contentType)
                 .contentDisposition(contentDisposition)
                 .key(objectKey)
@@ -54,111 +91,123 @@ public class S3AsyncUploadStrategy implements S3UploadStrategy {
                     String uploadId = response.uploadId();
                     log.info("Created multipart upload (ASYNC) for key: {} with uploadId: {}", objectKey, uploadId);
 
-                    return uploadParts(inputStream, s3AsyncClient, bucketName, objectKey, uploadId);
-                })
-                .thenComposeAsync(uploadResult -> {
-                    return completeMultipartUpload(
-                            s3AsyncClient,
-                            bucketName,
-                            objectKey,
-                            uploadResult.uploadId(),
-                            uploadResult.completedParts());
-                })
-                .exceptionally(throwable -> {
-                    log.error("Failed to upload file (ASYNC) {}: {}", objectKey, throwable.getMessage());
-                    throw new CompletionException("Failed to upload file", throwable);
-                })
-                .whenComplete((result, throwable) -> {
-                    try {
-                        inputStream.close();
-                    } catch (IOException e) {
-                        log.error("Failed to close input stream: {}", e.getMessage());
-                    }
+                    return uploadParts(source, s3AsyncClient, bucketName, objectKey, uploadId)
+                            .thenComposeAsync(uploadResult -> completeMultipartUpload(
+                                    s3AsyncClient,
+                                    bucketName,
+                                    objectKey,
+                                    uploadResult.uploadId(),
+                                    uploadResult.completedParts()))
+                            .whenComplete((eTag, throwable) -> {
+                                if (throwable != null) {
+                                    abortMultipartUpload(s3AsyncClient, bucketName, objectKey, uploadId);
+                                }
+                            });
+                });
+    }
+
+    /**
+     * Stores content, which fits into one part, with a single request.
+     *
+     * @param s3AsyncClient      the S3 async client
+     * @param bucketName         the bucket name
+     * @param objectKey          the object key
+     * @param contentType        the content type
+     * @param contentDisposition the content disposition
+     * @param data               the content
+     * @return a CompletableFuture with the ETag of the object
+     */
+    private CompletableFuture<String> putObject(S3AsyncClient s3AsyncClient,
+                                                String bucketName,
+                                                String objectKey,
+                                                String contentType,
+                                                String contentDisposition,
+                                                byte[] data) {
+        PutObjectRequest putObjectRequest = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .checksumAlgorithm(ChecksumAlgorithm.CRC32_C)
+                .contentType(contentType)
+                .contentDisposition(contentDisposition)
+                .key(objectKey)
+                .build();
+
+        log.info("Uploading key: {} with single request (ASYNC) ({} bytes)", objectKey, data.length);
+
+        return s3AsyncClient.putObject(putObjectRequest, AsyncRequestBody.fromBytes(data))
+                .thenApply(response -> {
+                    log.info("Upload completed successfully for key: {} with ETag: {}", objectKey, response.eTag());
+                    return response.eTag();
                 });
     }
 
     /**
-     * Reads the input stream and uploads parts asynchronously in parallel.
+     * Reads the input stream and uploads parts asynchronously in parallel.<br>
+     * Next part is read only when the concurrency limit allows another upload, so at most limit + 2 parts
+     * (the ones in flight, the one waiting and the read-ahead) are held in memory.
      *
-     * @param inputStream   the input stream to read from
+     * @param source        the part reader and already read first part
      * @param s3AsyncClient the S3 async client
      * @param bucketName    the bucket name
      * @param objectKey     the object key
      * @param uploadId      the upload ID
      * @return a CompletableFuture with the upload result
      */
-    private CompletableFuture<UploadResult> uploadParts(InputStream inputStream,
+    private CompletableFuture<UploadResult> uploadParts(UploadSource source,
                                                         S3AsyncClient s3AsyncClient,
                                                         String bucketName,
                                                         String objectKey,
                                                         String uploadId) {
         return CompletableFuture.supplyAsync(() -> {
-            try {
-                List<CompletableFuture<CompletedPart>> partFutures = new ArrayList<>();
-                int partNumber = 1;
-                byte[] buffer = new byte[CHUNK_SIZE];
-                int bytesRead;
-
-                ByteArrayOutputStream accumulator = new ByteArrayOutputStream();
-
-                log.debug("Reading stream and initiating parallel uploads...");
-                // Read stream and create upload futures for each part
-                while ((bytesRead = inputStream.read(buffer)) > 0) {
-                    accumulator.write(buffer, 0, bytesRead);
-
-                    // Upload part when accumulator reaches buffer size
-                    if (accumulator.size() >= CHUNK_SIZE) {
-                        byte[] partData = accumulator.toByteArray();
-                        final int currentPartNumber = partNumber;
-
-                        // Create async upload for this part (non-blocking)
-                        CompletableFuture<CompletedPart> partFuture = uploadPart(
-                                s3AsyncClient,
-                                bucketName,
-                                objectKey,
-                                uploadId,
-                                currentPartNumber,
-                                partData);
-
-                        partFutures.add(partFuture);
-                        partNumber++;
-                        accumulator.reset();
-                    }
-                }
+            AdaptiveConcurrencyLimit concurrencyLimit = new AdaptiveConcurrencyLimit(
+                    s3Properties.getInitialUploadConcurrency(), s3Properties.getMaxUploadConcurrency());
+            List<CompletableFuture<CompletedPart>> partFutures = new ArrayList<>();
+            CompletableFuture<Void> failure = new CompletableFuture<>();
 
-                // Upload any remaining data as the last part
-                if (accumulator.size() > 0) {
-                    byte[] partData = accumulator.toByteArray();
-                    final int currentPartNumber = partNumber;
+            log.debug("Reading stream and initiating parallel uploads...");
+            try {
+                for (PartReader.Part part = source.firstPart(); part != null && !failure.isDone();
+                     part = source.parts().next()) {
+                    concurrencyLimit.acquire();
+                    long started = System.nanoTime();
+                    int partSize = part.data().length;
 
+                    // Create async upload for this part (non-blocking)
                     CompletableFuture<CompletedPart> partFuture = uploadPart(
                             s3AsyncClient,
                             bucketName,
                             objectKey,
                             uploadId,
-                            currentPartNumber,
-                            partData);
+                            part.number(),
+                            part.data())
+                            .whenComplete((completedPart, throwable) -> {
+                                if (throwable == null) {
+                                    concurrencyLimit.release(partSize, System.nanoTime() - started);
+                                } else {
+                                    concurrencyLimit.releaseFailed();
+                                    failure.completeExceptionally(throwable);
+                                }
+                            });
 
                     partFutures.add(partFuture);
                 }
-
-                // Wait for all parts to complete in parallel
-                CompletableFuture<Void> allParts = CompletableFuture.allOf(
-                        partFutures.toArray(new CompletableFuture[0]));
-
-                return allParts.thenApply(v -> {
-                    // Collect all completed parts
-                    List<CompletedPart> completedParts = partFutures.stream()
-                            .map(CompletableFuture::join)
-                            .toList();
-
-                    log.info("All {} parts uploaded successfully for key: {}", completedParts.size(), objectKey);
-                    return new UploadResult(uploadId, completedParts);
-                }).join();
-
             } catch (IOException e) {
                 throw new CompletionException("Failed to read input stream", e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException("Interrupted while uploading parts", e);
             }
+
+            // Wait for all parts to complete in parallel
+            CompletableFuture.allOf(partFutures.toArray(new CompletableFuture[0])).join();
+
+            // Collect all completed parts
+            List<CompletedPart> completedParts = partFutures.stream()
+                    .map(CompletableFuture::join)
+                    .toList();
+
+            log.info("All {} parts uploaded successfully for key: {} (final parallelism {})",
+                    completedParts.size(), objectKey, concurrencyLimit.getLimit());
+            return new UploadResult(uploadId, completedParts);
         });
     }
 
@@ -181,6 +230,7 @@ public class S3AsyncUploadStrategy implements S3UploadStrategy {
                                                         byte[] partData) {
         UploadPartRequest uploadPartRequest = UploadPartRequest.builder()
                 .bucket(bucketName)
+                .checksumAlgorithm(ChecksumAlgorithm.CRC32_C)
                 .key(objectKey)
                 .uploadId(uploadId)
                 .partNumber(partNumber)
@@ -194,6 +244,7 @@ public class S3AsyncUploadStrategy implements S3UploadStrategy {
                     return CompletedPart.builder()
                             .partNumber(partNumber)
                             .eTag(response.eTag())
+                            .checksumCRC32C(response.checksumCRC32C())
                             .build();
                 });
     }
@@ -233,10 +284,48 @@ public class S3AsyncUploadStrategy implements S3UploadStrategy {
                 });
     }
 
+    /**
+     * Aborts multipart upload, so already uploaded parts are not kept (and billed) by S3.
+     *
+     * @param s3AsyncClient the S3 async client
+     * @param bucketName    the bucket name
+     * @param objectKey     the object key
+     * @param uploadId      the upload ID
+     */
+    private void abortMultipartUpload(S3AsyncClient s3AsyncClient, String bucketName, String objectKey, String uploadId) {
+        AbortMultipartUploadRequest abortRequest = AbortMultipartUploadRequest.builder()
+                .bucket(bucketName)
+                .key(objectKey)
+                .uploadId(uploadId)
+                .build();
+        s3AsyncClient.abortMultipartUpload(abortRequest)
+                .whenComplete((response, throwable) -> {
+                    if (throwable != null) {
+                        log.warn("Failed to abort multipart upload {} for key {}: {}", uploadId, objectKey, throwable.getMessage());
+                    } else {
+                        log.info("Aborted multipart upload for key: {} with uploadId: {}", objectKey, uploadId);
+                    }
+                });
+    }
+
+    private static PartReader.Part readPart(PartReader parts) {
+        try {
+            return parts.next();
+        } catch (IOException e) {
+            throw new CompletionException("Failed to read input stream", e);
+        }
+    }
+
     /**
      * Helper record for passing upload state between async stages.
      */
     private record UploadResult(String uploadId, List<CompletedPart> completedParts) {
     }
+
+    /**
+     * Helper record holding the stream being uploaded and its first part, read before choosing single or multipart upload.
+     */
+    private record UploadSource(PartReader parts, PartReader.Part firstPart) {
+    }
 }
 
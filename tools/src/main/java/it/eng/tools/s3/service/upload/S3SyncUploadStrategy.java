@@ -2,12 +2,13 @@ package it.eng.tools.s3.service.upload;
 
 import it.eng.tools.s3.configuration.S3ClientProvider;
 import it.eng.tools.s3.model.S3ClientRequest;
+import it.eng.tools.s3.properties.S3Properties;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.*;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
@@ -25,9 +26,11 @@ import java.util.concurrent.CompletionException;
 public class S3SyncUploadStrategy implements S3UploadStrategy {
 
     private final S3ClientProvider s3ClientProvider;
+    private final S3Properties s3Properties;
 
-    public S3SyncUploadStrategy(S3ClientProvider s3ClientProvider) {
+    public S3SyncUploadStrategy(S3ClientProvider s3ClientProvider, S3Properties s3Properties) {
         this.s3ClientProvider = s3ClientProvider;
+        this.s3Properties = s3Properties;
     }
 
     @Override
@@ -36,15 +39,24 @@ public class S3SyncUploadStrategy implements S3UploadStrategy {
                                                String bucketName,
                                                String objectKey,
                                                String contentType,
-                                               String contentDisposition) {
+                                               String contentDisposition,
+                                               long contentLength) {
         return CompletableFuture.supplyAsync(() -> {
             S3Client s3Client = s3ClientProvider.s3Client(s3ClientRequest);
 
             try {
+                PartReader parts = new PartReader(inputStream, MultipartUploadPlan.of(contentLength, s3Properties));
+                PartReader.Part firstPart = parts.next();
+                if (firstPart.last()) {
+                    return putObject(s3Client, bucketName, objectKey, contentType, contentDisposition, firstPart.data());
+                }
+
                 log.info("Creating multipart upload (SYNC) for key: {}", objectKey);
 
                 CreateMultipartUploadRequest createRequest = CreateMultipartUploadRequest.builder()
                         .bucket(bucketName)
+                        // every part carries CRC32C which S3 verifies on receipt
+                        .checksumAlgorithm(ChecksumAlgorithm.CRC32_C)
                         .contentType(contentType)
                         .contentDisposition(contentDisposition)
                         .key(objectKey)
@@ -55,51 +67,37 @@ public class S3SyncUploadStrategy implements S3UploadStrategy {
 
                 log.info("Created multipart upload (SYNC) for key: {} with uploadId: {}", objectKey, uploadId);
 
-                List<CompletedPart> completedParts = new ArrayList<>();
-                int partNumber = 1;
-                byte[] buffer = new byte[CHUNK_SIZE];
-                int bytesRead;
-                ByteArrayOutputStream accumulator = new ByteArrayOutputStream();
-
-                while ((bytesRead = inputStream.read(buffer)) > 0) {
-                    accumulator.write(buffer, 0, bytesRead);
-
-                    if (accumulator.size() >= CHUNK_SIZE) {
-                        byte[] partData = accumulator.toByteArray();
-                        CompletedPart part = uploadPart(s3Client, bucketName, objectKey, uploadId, partNumber, partData);
-                        completedParts.add(part);
-                        partNumber++;
-                        accumulator.reset();
+                try {
+                    List<CompletedPart> completedParts = new ArrayList<>();
+                    for (PartReader.Part part = firstPart; part != null; part = parts.next()) {
+                        completedParts.add(uploadPart(s3Client, bucketName, objectKey, uploadId, part.number(), part.data()));
                     }
-                }
 
-                if (accumulator.size() > 0) {
-                    byte[] partData = accumulator.toByteArray();
-                    CompletedPart part = uploadPart(s3Client, bucketName, objectKey, uploadId, partNumber, partData);
-                    completedParts.add(part);
-                }
+                    log.info("All {} parts uploaded successfully (SYNC) for key: {}", completedParts.size(), objectKey);
 
-                log.info("All {} parts uploaded successfully (SYNC) for key: {}", completedParts.size(), objectKey);
+                    CompletedMultipartUpload completedUpload = CompletedMultipartUpload.builder()
+                            .parts(completedParts)
+                            .build();
 
-                CompletedMultipartUpload completedUpload = CompletedMultipartUpload.builder()
-                        .parts(completedParts)
-                        .build();
+                    CompleteMultipartUploadRequest completeRequest = CompleteMultipartUploadRequest.builder()
+                            .bucket(bucketName)
+                            .key(objectKey)
+                            .uploadId(uploadId)
+                            .multipartUpload(completedUpload)
+                            .build();
 
-                CompleteMultipartUploadRequest completeRequest = CompleteMultipartUploadRequest.builder()
-                        .bucket(bucketName)
-                        .key(objectKey)
-                        .uploadId(uploadId)
-                        .multipartUpload(completedUpload)
-                        .build();
+                    log.info("Completing multipart upload (SYNC) for key: {} with uploadId: {}", objectKey, uploadId);
 
-                log.info("Completing multipart upload (SYNC) for key: {} with uploadId: {}", objectKey, uploadId);
+                    CompleteMultipartUploadResponse completeResponse = s3Client.completeMultipartUpload(completeRequest);
+                    String eTag = completeResponse.eTag();
 
-                CompleteMultipartUploadResponse completeResponse = s3Client.completeMultipartUpload(completeRequest);
-                String eTag = completeResponse.eTag();
+                    log.info("Upload completed successfully (SYNC) for key: {} with ETag: {}", objectKey, eTag);
 
-                log.info("Upload completed successfully (SYNC) for key: {} with ETag: {}", objectKey, eTag);
-
-                return eTag;
+                    return eTag;
+                } catch (IOException | RuntimeException e) {
+                    abortMultipartUpload(s3Client, bucketName, objectKey, uploadId);
+                    throw e;
+                }
 
             } catch (IOException e) {
                 log.error("Failed to upload file (SYNC) {}: {}", objectKey, e.getMessage());
@@ -117,6 +115,40 @@ public class S3SyncUploadStrategy implements S3UploadStrategy {
         });
     }
 
+    /**
+     * Stores content, which fits into one part, with a single request.
+     *
+     * @param s3Client           the S3 client
+     * @param bucketName         the bucket name
+     * @param objectKey          the object key
+     * @param contentType        the content type
+     * @param contentDisposition the content disposition
+     * @param data               the content
+     * @return the ETag of the object
+     */
+    private String putObject(S3Client s3Client,
+                             String bucketName,
+                             String objectKey,
+                             String contentType,
+                             String contentDisposition,
+                             byte[] data) {
+        PutObjectRequest putObjectRequest = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .checksumAlgorithm(ChecksumAlgorithm.CRC32_C)
+                .contentType(contentType)
+                .contentDisposition(contentDisposition)
+                .key(objectKey)
+                .build();
+
+        log.info("Uploading key: {} with single request (SYNC) ({} bytes)", objectKey, data.length);
+
+        PutObjectResponse response = s3Client.putObject(putObjectRequest, RequestBody.fromBytes(data));
+
+        log.info("Upload completed successfully (SYNC) for key: {} with ETag: {}", objectKey, response.eTag());
+
+        return response.eTag();
+    }
+
     /**
      * Uploads a single part synchronously using S3Client.
      *
@@ -136,6 +168,7 @@ public class S3SyncUploadStrategy implements S3UploadStrategy {
                                     byte[] partData) {
         UploadPartRequest uploadPartRequest = UploadPartRequest.builder()
                 .bucket(bucketName)
+                .checksumAlgorithm(ChecksumAlgorithm.CRC32_C)
                 .key(objectKey)
                 .uploadId(uploadId)
                 .partNumber(partNumber)
@@ -143,15 +176,35 @@ public class S3SyncUploadStrategy implements S3UploadStrategy {
 
         log.debug("Uploading part {} (SYNC) for key: {} ({} bytes)", partNumber, objectKey, partData.length);
 
-        UploadPartResponse response = s3Client.uploadPart(uploadPartRequest,
-                software.amazon.awssdk.core.sync.RequestBody.fromBytes(partData));
+        UploadPartResponse response = s3Client.uploadPart(uploadPartRequest, RequestBody.fromBytes(partData));
 
         log.debug("Part {} uploaded successfully (SYNC) with ETag: {}", partNumber, response.eTag());
 
         return CompletedPart.builder()
                 .partNumber(partNumber)
                 .eTag(response.eTag())
+                .checksumCRC32C(response.checksumCRC32C())
                 .build();
     }
-}
 
+    /**
+     * Aborts multipart upload, so already uploaded parts are not kept (and billed) by S3.
+     *
+     * @param s3Client   the S3 client
+     * @param bucketName the bucket name
+     * @param objectKey  the object key
+     * @param uploadId   the upload ID
+     */
+    private void abortMultipartUpload(S3Client s3Client, String bucketName, String objectKey, String uploadId) {
+        try {
+            s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(objectKey)
+                    .uploadId(uploadId)
+                    .build());
+            log.info("Aborted multipart upload (SYNC) for key: {} with uploadId: {}", objectKey, uploadId);
+        } catch (Exception e) {
+            log.warn("Failed to abort multipart upload (SYNC) {} for key {}: {}", uploadId, objectKey, e.getMessage());
+        }
+    }
+}
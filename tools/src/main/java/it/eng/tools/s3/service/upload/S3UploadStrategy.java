@@ -12,12 +12,9 @@ import java.util.concurrent.CompletableFuture;
 public interface S3UploadStrategy {
 
     /**
-     * Chunk size for multipart uploads (50MB).
-     */
-    int CHUNK_SIZE = 50 * 1024 * 1024; // 50MB chunks
-
-    /**
-     * Uploads a file to S3 using the specific strategy implementation.
+     * Uploads a file to S3 using the specific strategy implementation.<br>
+     * Content fitting into the first part is stored with a single PutObject, larger content with multipart upload;
+     * part size is chosen from the content length, see {@link MultipartUploadPlan}.
      *
      * @param inputStream        the input stream to upload
      * @param s3ClientRequest    the S3 client request configuration
@@ -25,6 +22,7 @@ public interface S3UploadStrategy {
      * @param objectKey          the object key
      * @param contentType        the content type
      * @param contentDisposition the content disposition
+     * @param contentLength      the content length, or negative if not known
      * @return a CompletableFuture with the ETag
      */
     CompletableFuture<String> uploadFile(InputStream inputStream,
@@ -32,6 +30,7 @@ public interface S3UploadStrategy {
                                         String bucketName,
                                         String objectKey,
                                         String contentType,
-                                        String contentDisposition);
+                                        String contentDisposition,
+                                        long contentLength);
 }
 
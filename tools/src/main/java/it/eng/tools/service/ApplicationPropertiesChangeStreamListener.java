@@ -0,0 +1,50 @@
+package it.eng.tools.service;
+
+import it.eng.tools.model.ApplicationProperty;
+import it.eng.tools.util.MongoChangeStreamWatcher;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Watches application properties collection and refreshes the in-memory snapshot when another replica changes
+ * a property.<br>
+ * Change streams require MongoDB replica set or sharded cluster, so the listener is enabled only with
+ * <code>application.properties.change-stream.enabled=true</code>.
+ */
+@Service
+@ConditionalOnProperty(name = "application.properties.change-stream.enabled", havingValue = "true")
+public class ApplicationPropertiesChangeStreamListener {
+
+    private final MongoChangeStreamWatcher watcher;
+
+    public ApplicationPropertiesChangeStreamListener(MongoTemplate mongoTemplate,
+                                                     ApplicationPropertiesService applicationPropertiesService,
+                                                     @Value("${application.properties.change-stream.retry-delay-millis:5000}") long retryDelayMillis) {
+        this.watcher = new MongoChangeStreamWatcher(mongoTemplate,
+                mongoTemplate.getCollectionName(ApplicationProperty.class),
+                retryDelayMillis,
+                // changes made while the stream was not open are picked up here
+                applicationPropertiesService::refreshSnapshot,
+                change -> applicationPropertiesService.refreshSnapshot());
+    }
+
+    /**
+     * Starts watching for changes.
+     */
+    @PostConstruct
+    public void start() {
+        watcher.start();
+    }
+
+    /**
+     * Stops watching for changes.
+     */
+    @PreDestroy
+    public void stop() {
+        watcher.stop();
+    }
+}
@@ -8,6 +8,7 @@ import it.eng.tools.model.ApplicationProperty;
 import it.eng.tools.repository.ApplicationPropertiesRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.context.event.EventListener;
 import org.springframework.core.env.*;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
@@ -29,6 +30,9 @@ public class ApplicationPropertiesService {
     private final AuditEventPublisher eventPublisher;
     private final AuthenticationFacade authenticationFacade;
 
+    // replaced as a whole on every change, hot path reads are a single volatile read
+    private volatile ApplicationPropertiesSnapshot snapshot;
+
     private Sort sortByIdAsc() {
         return Sort.by("id");
     }
@@ -112,7 +116,61 @@ public class ApplicationPropertiesService {
 
     private ApplicationProperty addPropertyOnMongo(ApplicationProperty property) {
         eventPublisher.publishEvent(property);
-        return repository.save(property);
+        ApplicationProperty stored = repository.save(property);
+        applyToSnapshot(stored != null ? stored : property);
+        return stored;
+    }
+
+    /**
+     * In-memory snapshot of application properties, loaded from MongoDB on first access.<br>
+     * Use it for properties read on hot paths; it is kept up to date on property changes and does not query MongoDB.
+     *
+     * @return current snapshot
+     */
+    public ApplicationPropertiesSnapshot getSnapshot() {
+        ApplicationPropertiesSnapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                current = snapshot;
+                if (current == null) {
+                    current = loadSnapshot();
+                    snapshot = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Reloads snapshot from MongoDB and replaces the current one.
+     *
+     * @return new snapshot
+     */
+    public synchronized ApplicationPropertiesSnapshot refreshSnapshot() {
+        ApplicationPropertiesSnapshot refreshed = loadSnapshot();
+        snapshot = refreshed;
+        return refreshed;
+    }
+
+    /**
+     * Refreshes snapshot when application property is changed.
+     *
+     * @param event property change event
+     */
+    @EventListener
+    public void onApplicationPropertyChange(ApplicationPropertyChangeEvent event) {
+        log.debug("Refreshing application properties snapshot");
+        refreshSnapshot();
+    }
+
+    private ApplicationPropertiesSnapshot loadSnapshot() {
+        return ApplicationPropertiesSnapshot.of(repository.findAll(), env);
+    }
+
+    private synchronized void applyToSnapshot(ApplicationProperty property) {
+        if (snapshot != null) {
+            snapshot = snapshot.with(property);
+        }
     }
 
     /**
@@ -0,0 +1,112 @@
+package it.eng.tools.service;
+
+import it.eng.tools.model.ApplicationProperty;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.springframework.core.env.PropertyResolver;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Immutable, in-memory view of application properties.<br>
+ * Values stored in MongoDB take precedence; keys missing there are resolved from the environment, if one is given.
+ * A new snapshot is built on every change, so readers never see a partially applied update.
+ */
+public final class ApplicationPropertiesSnapshot {
+
+    public static final ApplicationPropertiesSnapshot EMPTY = new ApplicationPropertiesSnapshot(Map.of(), null);
+
+    private final Map<String, String> values;
+    private final PropertyResolver fallback;
+
+    private ApplicationPropertiesSnapshot(Map<String, String> values, PropertyResolver fallback) {
+        this.values = values;
+        this.fallback = fallback;
+    }
+
+    /**
+     * Creates snapshot from stored properties.
+     *
+     * @param properties properties stored in MongoDB
+     * @param fallback   resolver for keys not stored in MongoDB, can be null
+     * @return snapshot
+     */
+    public static ApplicationPropertiesSnapshot of(Collection<ApplicationProperty> properties, PropertyResolver fallback) {
+        Map<String, String> values = new HashMap<>();
+        for (ApplicationProperty property : properties) {
+            if (property.getKey() != null && property.getValue() != null) {
+                values.put(property.getKey(), property.getValue());
+            }
+        }
+        return new ApplicationPropertiesSnapshot(Map.copyOf(values), fallback);
+    }
+
+    /**
+     * Creates snapshot from plain key/value pairs, without fallback.
+     *
+     * @param values property values
+     * @return snapshot
+     */
+    public static ApplicationPropertiesSnapshot of(Map<String, String> values) {
+        return new ApplicationPropertiesSnapshot(Map.copyOf(values), null);
+    }
+
+    /**
+     * Returns copy of this snapshot with a single property added or replaced.
+     *
+     * @param property changed property
+     * @return new snapshot
+     */
+    public ApplicationPropertiesSnapshot with(ApplicationProperty property) {
+        if (property.getKey() == null || property.getValue() == null) {
+            return this;
+        }
+        Map<String, String> changed = new HashMap<>(values);
+        changed.put(property.getKey(), property.getValue());
+        return new ApplicationPropertiesSnapshot(Map.copyOf(changed), fallback);
+    }
+
+    /**
+     * Get property value.
+     *
+     * @param key property key
+     * @return value, empty when property is not set
+     */
+    public Optional<String> getString(String key) {
+        String value = values.get(key);
+        if (value == null && fallback != null) {
+            value = fallback.getProperty(key);
+        }
+        return Optional.ofNullable(value);
+    }
+
+    /**
+     * Get property value as boolean.
+     *
+     * @param key          property key
+     * @param defaultValue value used when property is not set or blank
+     * @return value
+     */
+    public boolean getBoolean(String key, boolean defaultValue) {
+        return getString(key)
+                .filter(StringUtils::isNotBlank)
+                .map(value -> Boolean.parseBoolean(value.trim()))
+                .orElse(defaultValue);
+    }
+
+    /**
+     * Get property value as int.
+     *
+     * @param key          property key
+     * @param defaultValue value used when property is not set or not a number
+     * @return value
+     */
+    public int getInt(String key, int defaultValue) {
+        return getString(key)
+                .map(value -> NumberUtils.toInt(value.trim(), defaultValue))
+                .orElse(defaultValue);
+    }
+}
@@ -0,0 +1,150 @@
+package it.eng.tools.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import it.eng.tools.event.AuditEvent;
+import it.eng.tools.repository.AuditEventRepository;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Exports audit events as NDJSON or CSV.<br>
+ * Events are read from a MongoDB cursor and written as they arrive, so memory usage does not depend on the number of
+ * exported events.
+ */
+@Service
+@Slf4j
+public class AuditEventExportService {
+
+    @Getter
+    public enum Format {
+        NDJSON(MediaType.APPLICATION_NDJSON_VALUE, "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String mediaType;
+        private final String extension;
+
+        Format(String mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        /**
+         * @param value format name, case insensitive
+         * @return format, or empty if not supported
+         */
+        public static Optional<Format> fromString(String value) {
+            return Arrays.stream(values())
+                    .filter(format -> format.name().equalsIgnoreCase(value))
+                    .findFirst();
+        }
+    }
+
+    private static final String[] CSV_COLUMNS = {
+            "id", "timestamp", "eventType", "username", "source", "ipAddress", "description", "details"
+    };
+    private static final Sort EXPORT_SORT = Sort.by(Sort.Direction.ASC, "timestamp");
+    private static final int WRITER_BUFFER_SIZE = 64 * 1024;
+
+    private final AuditEventRepository auditEventRepository;
+    private final ObjectMapper objectMapper;
+
+    public AuditEventExportService(AuditEventRepository auditEventRepository, ObjectMapper objectMapper) {
+        this.auditEventRepository = auditEventRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Writes audit events matching the filters to the output stream, oldest first.<br>
+     * The output stream is flushed but not closed.
+     *
+     * @param filters filters as built by {@link GenericFilterBuilder}
+     * @param format  output format
+     * @param out     output stream
+     * @return number of exported events
+     * @throws IOException if writing fails
+     */
+    public long export(Map<String, Object> filters, Format format, OutputStream out) throws IOException {
+        try (Stream<AuditEvent> events = auditEventRepository.streamWithDynamicFilters(filters, AuditEvent.class,
+                EXPORT_SORT, List.of())) {
+            long count = write(events, format, out);
+            log.info("Exported {} audit events as {}", count, format);
+            return count;
+        }
+    }
+
+    long write(Stream<AuditEvent> events, Format format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITER_BUFFER_SIZE);
+        if (format == Format.CSV) {
+            writer.write(String.join(",", CSV_COLUMNS));
+            writer.write('\n');
+        }
+        long count = 0;
+        Iterator<AuditEvent> iterator = events.iterator();
+        while (iterator.hasNext()) {
+            AuditEvent event = iterator.next();
+            if (format == Format.CSV) {
+                writeCsv(event, writer);
+            } else {
+                writer.write(objectMapper.writeValueAsString(event));
+            }
+            writer.write('\n');
+            count++;
+        }
+        writer.flush();
+        return count;
+    }
+
+    private void writeCsv(AuditEvent event, Writer writer) throws IOException {
+        writeCsvValue(event.getId(), writer);
+        writer.write(',');
+        writeCsvValue(event.getTimestamp() != null ? event.getTimestamp().toString() : null, writer);
+        writer.write(',');
+        writeCsvValue(event.getEventType() != null ? event.getEventType().toString() : null, writer);
+        writer.write(',');
+        writeCsvValue(event.getUsername(), writer);
+        writer.write(',');
+        writeCsvValue(event.getSource(), writer);
+        writer.write(',');
+        writeCsvValue(event.getIpAddress(), writer);
+        writer.write(',');
+        writeCsvValue(event.getDescription(), writer);
+        writer.write(',');
+        writeCsvValue(event.getDetails() != null ? objectMapper.writeValueAsString(event.getDetails()) : null, writer);
+    }
+
+    /**
+     * Values containing separators, quotes or line breaks are quoted, as described in RFC 4180.
+     *
+     * @param value  value to write, null is written as empty
+     * @param writer writer
+     * @throws IOException if writing fails
+     */
+    private void writeCsvValue(String value, Writer writer) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -1,26 +1,45 @@
 package it.eng.tools.service;
 
 import lombok.extern.slf4j.Slf4j;
-import org.bouncycastle.crypto.engines.AESEngine;
-import org.bouncycastle.crypto.modes.CBCBlockCipher;
-import org.bouncycastle.crypto.paddings.PKCS7Padding;
-import org.bouncycastle.crypto.paddings.PaddedBufferedBlockCipher;
-import org.bouncycastle.crypto.params.KeyParameter;
-import org.bouncycastle.crypto.params.ParametersWithIV;
-import org.bouncycastle.util.encoders.Base64;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
 
+/**
+ * Encrypts field values with AES-GCM, using a random nonce for every value.<br>
+ * Encrypted value format is <code>v2:</code> followed by Base64 of nonce and ciphertext with authentication tag.
+ * Values encrypted by previous versions (Base64 of AES-CBC ciphertext with IV derived from the key) are still
+ * decrypted; {@link #isLegacy(String)} tells callers to store such values again, encrypted in the current format.<br>
+ * JCA ciphers are used so AES runs on JDK intrinsics (AES-NI); instances are reused per thread.
+ */
 @Service
 @Slf4j
 public class FieldEncryptionService {
 
-    private final byte[] key;
-    private final byte[] iv;
+    static final String VERSION_PREFIX = "v2:";
+
+    private static final String GCM_TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final String LEGACY_TRANSFORMATION = "AES/CBC/PKCS5Padding";
+    private static final int NONCE_LENGTH = 12;
+    private static final int TAG_LENGTH_BITS = 128;
+
+    private final SecretKeySpec key;
+    private final IvParameterSpec legacyIv;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    private final ThreadLocal<Cipher> gcmCipher = ThreadLocal.withInitial(() -> cipher(GCM_TRANSFORMATION));
+    private final ThreadLocal<Cipher> legacyCipher = ThreadLocal.withInitial(() -> cipher(LEGACY_TRANSFORMATION));
 
     public FieldEncryptionService(
             @Value("${application.encryption.key}") String encryptionKey)
@@ -28,53 +47,90 @@ public class FieldEncryptionService {
         try {
             // Generate a consistent 256-bit key from the encryption key
             MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            this.key = digest.digest(encryptionKey.getBytes(StandardCharsets.UTF_8));
+            this.key = new SecretKeySpec(digest.digest(encryptionKey.getBytes(StandardCharsets.UTF_8)), "AES");
 
-            // Generate a consistent IV from the encryption key
+            // IV derived from the encryption key, only used to decrypt legacy values
             MessageDigest ivDigest = MessageDigest.getInstance("MD5");
-            this.iv = ivDigest.digest(encryptionKey.getBytes(StandardCharsets.UTF_8));
+            this.legacyIv = new IvParameterSpec(ivDigest.digest(encryptionKey.getBytes(StandardCharsets.UTF_8)));
         } catch (Exception e) {
             throw new RuntimeException("Failed to initialize encryption", e);
         }
     }
 
+    /**
+     * Encrypts value in current format.
+     *
+     * @param value plain value
+     * @return encrypted value
+     */
     public String encrypt(String value) {
         try {
-            log.debug("encrypting: {}", value);
-            PaddedBufferedBlockCipher cipher = new PaddedBufferedBlockCipher(
-                    new CBCBlockCipher(new AESEngine()),
-                    new PKCS7Padding());
-
-            cipher.init(true, new ParametersWithIV(new KeyParameter(key), iv));
+            byte[] nonce = new byte[NONCE_LENGTH];
+            secureRandom.nextBytes(nonce);
 
-            byte[] input = value.getBytes();
-            byte[] output = new byte[cipher.getOutputSize(input.length)];
+            Cipher cipher = gcmCipher.get();
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH_BITS, nonce));
+            byte[] input = value.getBytes(StandardCharsets.UTF_8);
+            ByteBuffer output = ByteBuffer.allocate(NONCE_LENGTH + cipher.getOutputSize(input.length));
+            output.put(nonce);
+            cipher.doFinal(ByteBuffer.wrap(input), output);
 
-            int processed = cipher.processBytes(input, 0, input.length, output, 0);
-            cipher.doFinal(output, processed);
-            return Base64.toBase64String(output);
+            return VERSION_PREFIX + Base64.getEncoder().encodeToString(output.array());
         } catch (Exception e) {
             throw new RuntimeException("Encryption failed", e);
         }
     }
 
+    /**
+     * Decrypts value encrypted in current or legacy format.
+     *
+     * @param encrypted encrypted value
+     * @return plain value
+     */
     public String decrypt(String encrypted) {
+        if (isLegacy(encrypted)) {
+            return decryptLegacy(encrypted);
+        }
         try {
-            PaddedBufferedBlockCipher cipher = new PaddedBufferedBlockCipher(
-                    new CBCBlockCipher(new AESEngine()),
-                    new PKCS7Padding());
+            byte[] input = Base64.getDecoder().decode(encrypted.substring(VERSION_PREFIX.length()));
+
+            Cipher cipher = gcmCipher.get();
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH_BITS, input, 0, NONCE_LENGTH));
+            byte[] output = cipher.doFinal(input, NONCE_LENGTH, input.length - NONCE_LENGTH);
 
-            cipher.init(false, new ParametersWithIV(new KeyParameter(key), iv));
+            return new String(output, StandardCharsets.UTF_8);
+        } catch (Exception e) {
+            throw new RuntimeException("Decryption failed", e);
+        }
+    }
 
-            byte[] input = Base64.decode(encrypted);
-            byte[] output = new byte[cipher.getOutputSize(input.length)];
+    /**
+     * Checks if value is encrypted in legacy format and should be encrypted again.
+     *
+     * @param encrypted encrypted value
+     * @return true if value is in legacy format
+     */
+    public boolean isLegacy(String encrypted) {
+        return encrypted != null && !encrypted.startsWith(VERSION_PREFIX);
+    }
 
-            int processed = cipher.processBytes(input, 0, input.length, output, 0);
-            int finalProcessed = cipher.doFinal(output, processed);
+    private String decryptLegacy(String encrypted) {
+        try {
+            Cipher cipher = legacyCipher.get();
+            cipher.init(Cipher.DECRYPT_MODE, key, legacyIv);
+            byte[] output = cipher.doFinal(Base64.getDecoder().decode(encrypted));
 
-            return new String(output, 0, processed + finalProcessed).trim();
+            return new String(output, StandardCharsets.UTF_8).trim();
         } catch (Exception e) {
             throw new RuntimeException("Decryption failed", e);
         }
     }
+
+    private static Cipher cipher(String transformation) {
+        try {
+            return Cipher.getInstance(transformation);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cipher " + transformation + " not available", e);
+        }
+    }
 }
@@ -0,0 +1,248 @@
+package it.eng.tools.service;
+
+import org.bson.Document;
+import org.springframework.core.ResolvableType;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.DBRef;
+import org.springframework.data.mongodb.core.mapping.DocumentReference;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.util.StringUtils;
+
+import java.lang.reflect.Modifier;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.util.*;
+
+/**
+ * Filterable fields of a MongoDB document class, derived once by reflection.
+ * <p>
+ * Each field is mapped to the type its filter values are converted to, so request parameters do not have to be
+ * guessed by their format. Fields not found in the schema (i.e. keys of a <code>Map</code>) are left
+ * {@link FieldType#UNTYPED}.
+ */
+final class FilterSchema {
+
+    /**
+     * Schema without any known field; every parameter is converted by inferring its type from the value.
+     */
+    static final FilterSchema NONE = new FilterSchema(null, Map.of(), Set.of());
+
+    private static final int MAX_NESTING = 3;
+
+    enum FieldType {
+        STRING, BOOLEAN, INTEGER, DECIMAL, DATE_TIME, ENUM, UNTYPED
+    }
+
+    /**
+     * Filterable field.
+     *
+     * @param path          field path as stored in MongoDB
+     * @param type          type filter values are converted to
+     * @param enumConstants constant names when type is {@link FieldType#ENUM}, empty otherwise
+     */
+    record FieldSpec(String path, FieldType type, List<String> enumConstants) {
+    }
+
+    private final String collection;
+    private final Map<String, FieldSpec> fields;
+    private final Set<String> indexedPaths;
+
+    private FilterSchema(String collection, Map<String, FieldSpec> fields, Set<String> indexedPaths) {
+        this.collection = collection;
+        this.fields = fields;
+        this.indexedPaths = indexedPaths;
+    }
+
+    /**
+     * Derives the schema of a document class.
+     *
+     * @param entityClass             MongoDB document class
+     * @param configuredIndexedFields paths of fields indexed without annotations, per collection name
+     * @return filter schema
+     */
+    static FilterSchema of(Class<?> entityClass, Map<String, List<String>> configuredIndexedFields) {
+        String collection = collectionName(entityClass);
+        Map<String, FieldSpec> fields = new HashMap<>();
+        Set<String> indexedPaths = new HashSet<>();
+        indexedPaths.add("_id");
+        collectFields(entityClass, "", "", 0, new HashSet<>(), fields, indexedPaths);
+        indexedPaths.addAll(compoundIndexPrefixes(entityClass));
+        indexedPaths.addAll(configuredIndexedFields.getOrDefault(collection, List.of()));
+        return new FilterSchema(collection, Map.copyOf(fields), Set.copyOf(indexedPaths));
+    }
+
+    /**
+     * @param name request parameter name, with dots for nested fields
+     * @return field, or an untyped field stored under the parameter name when not part of the schema
+     */
+    FieldSpec field(String name) {
+        FieldSpec field = fields.get(name);
+        return field != null ? field : new FieldSpec(name, FieldType.UNTYPED, List.of());
+    }
+
+    /**
+     * @param path field path as stored in MongoDB
+     * @return true if MongoDB can serve a filter on this field from an index
+     */
+    boolean isIndexed(String path) {
+        return indexedPaths.contains(path);
+    }
+
+    /**
+     * @return true if index usage can be checked; false for {@link #NONE}
+     */
+    boolean isIndexAware() {
+        return collection != null;
+    }
+
+    String getCollection() {
+        return collection;
+    }
+
+    private static void collectFields(Class<?> type, String namePrefix, String pathPrefix, int depth,
+                                      Set<Class<?>> visiting, Map<String, FieldSpec> fields, Set<String> indexedPaths) {
+        if (depth > MAX_NESTING || !visiting.add(type)) {
+            return;
+        }
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (java.lang.reflect.Field field : current.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()) || Modifier.isTransient(field.getModifiers())
+                        || field.isAnnotationPresent(Transient.class) || field.isSynthetic()) {
+                    continue;
+                }
+                String name = namePrefix + field.getName();
+                if (fields.containsKey(name)) {
+                    // field hidden by subclass
+                    continue;
+                }
+                String path = pathPrefix + storedName(field, depth);
+                Class<?> valueType = valueType(field);
+                FieldType fieldType = fieldType(valueType);
+                fields.put(name, new FieldSpec(path, fieldType, enumConstants(valueType)));
+                if (field.isAnnotationPresent(Indexed.class)) {
+                    indexedPaths.add(path);
+                }
+                if (fieldType == FieldType.UNTYPED && isNestedDocument(field, valueType)) {
+                    collectFields(valueType, name + ".", path + ".", depth + 1, visiting, fields, indexedPaths);
+                }
+            }
+        }
+        visiting.remove(type);
+    }
+
+    private static String storedName(java.lang.reflect.Field field, int depth) {
+        if (depth == 0 && field.isAnnotationPresent(Id.class)) {
+            return "_id";
+        }
+        Field mapping = field.getAnnotation(Field.class);
+        if (mapping != null && StringUtils.hasText(mapping.value())) {
+            return mapping.value();
+        }
+        if (mapping != null && StringUtils.hasText(mapping.name())) {
+            return mapping.name();
+        }
+        return field.getName();
+    }
+
+    /**
+     * @param field entity field
+     * @return type of the field, or element type for collections and arrays
+     */
+    private static Class<?> valueType(java.lang.reflect.Field field) {
+        ResolvableType type = ResolvableType.forField(field);
+        if (type.isArray()) {
+            return type.getComponentType().toClass();
+        }
+        if (Collection.class.isAssignableFrom(type.toClass())) {
+            return type.asCollection().getGeneric(0).toClass();
+        }
+        return type.toClass();
+    }
+
+    private static FieldType fieldType(Class<?> type) {
+        if (type == String.class || type == Character.class || type == char.class) {
+            return FieldType.STRING;
+        }
+        if (type == Boolean.class || type == boolean.class) {
+            return FieldType.BOOLEAN;
+        }
+        if (type == Long.class || type == long.class || type == Integer.class || type == int.class
+                || type == Short.class || type == short.class) {
+            return FieldType.INTEGER;
+        }
+        if (type == Double.class || type == double.class || type == Float.class || type == float.class) {
+            return FieldType.DECIMAL;
+        }
+        if (type == Instant.class || type == LocalDateTime.class || type == LocalDate.class
+                || type == OffsetDateTime.class || type == ZonedDateTime.class || type == Date.class) {
+            return FieldType.DATE_TIME;
+        }
+        if (type.isEnum()) {
+            return FieldType.ENUM;
+        }
+        return FieldType.UNTYPED;
+    }
+
+    private static List<String> enumConstants(Class<?> type) {
+        if (!type.isEnum()) {
+            return List.of();
+        }
+        return Arrays.stream(type.getEnumConstants())
+                .map(constant -> ((Enum<?>) constant).name())
+                .toList();
+    }
+
+    private static boolean isNestedDocument(java.lang.reflect.Field field, Class<?> type) {
+        if (field.isAnnotationPresent(DBRef.class) || field.isAnnotationPresent(DocumentReference.class)) {
+            // referenced documents are stored in other collections, their fields cannot be filtered on
+            return false;
+        }
+        return !type.isPrimitive() && !type.isInterface() && !Map.class.isAssignableFrom(type)
+                && !type.getName().startsWith("java.");
+    }
+
+    private static String collectionName(Class<?> entityClass) {
+        org.springframework.data.mongodb.core.mapping.Document document =
+                entityClass.getAnnotation(org.springframework.data.mongodb.core.mapping.Document.class);
+        if (document != null && StringUtils.hasText(document.collection())) {
+            return document.collection();
+        }
+        if (document != null && StringUtils.hasText(document.value())) {
+            return document.value();
+        }
+        return StringUtils.uncapitalize(entityClass.getSimpleName());
+    }
+
+    /**
+     * Only the leading field of a compound index can serve a filter on its own.
+     *
+     * @param entityClass MongoDB document class
+     * @return leading fields of compound indexes declared on the class
+     */
+    private static Set<String> compoundIndexPrefixes(Class<?> entityClass) {
+        List<CompoundIndex> compoundIndexes = new ArrayList<>();
+        CompoundIndex single = entityClass.getAnnotation(CompoundIndex.class);
+        if (single != null) {
+            compoundIndexes.add(single);
+        }
+        CompoundIndexes multiple = entityClass.getAnnotation(CompoundIndexes.class);
+        if (multiple != null) {
+            compoundIndexes.addAll(Arrays.asList(multiple.value()));
+        }
+        Set<String> prefixes = new HashSet<>();
+        for (CompoundIndex compoundIndex : compoundIndexes) {
+            if (StringUtils.hasText(compoundIndex.def())) {
+                Document definition = Document.parse(compoundIndex.def());
+                definition.keySet().stream().findFirst().ifPresent(prefixes::add);
+            }
+        }
+        return prefixes;
+    }
+}
@@ -1,7 +1,9 @@
 package it.eng.tools.service;
 
 import jakarta.servlet.http.HttpServletRequest;
+import it.eng.tools.property.FilterProperties;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.time.DateTimeException;
@@ -9,6 +11,8 @@ import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 /**
@@ -30,20 +34,103 @@ import java.util.stream.Collectors;
 public class GenericFilterBuilder {
 
     private static final int MAX_PARAMETERS = 50;
+    private static final int MAX_CACHED_PLANS = 1024;
     private static final Set<String> EXCLUDED_PARAMETERS = Set.of("page", "size", "sort", "_", "timestamp");
     private static final Set<String> NULL_REPRESENTATIONS = Set.of("null", "undefined", "nil", "none");
+    private static final Set<String> BOOLEAN_REPRESENTATIONS = Set.of("true", "false", "yes", "no");
+    private static final Set<String> TRUE_REPRESENTATIONS = Set.of("true", "yes");
+    private static final Set<String> SPECIAL_NUMBERS = Set.of("infinity", "-infinity", "nan");
+    private static final Set<String> RANGE_OPERATORS = Set.of("from", "to");
     private static final String[] SUSPICIOUS_PATTERNS = {
             "$where", "javascript:", "<script", "drop table", "insert into", "delete from",
             "update set", "create table", "alter table", "exec", "union select"
     };
 
+    private static final Pattern TIMEZONE_SUFFIX = Pattern.compile(".*[+-]\\d{2}:?\\d{2}$");
+    private static final Pattern DATE_ONLY = Pattern.compile("\\d{4}-\\d{2}-\\d{2}$");
+    private static final Pattern UNIX_TIMESTAMP = Pattern.compile("\\d{10,13}$");
+    private static final Pattern SCIENTIFIC = Pattern.compile("-?\\d+(\\.\\d+)?[eE][+-]?\\d+$");
+    private static final Pattern INTEGER = Pattern.compile("-?\\d+$");
+    private static final Pattern DECIMAL = Pattern.compile("-?\\d+\\.\\d+$|-?\\d+\\.$|-?\\.\\d+$");
+    private static final Instant MAX_INSTANT = Instant.parse("2100-01-01T00:00:00Z");
+
+    /**
+     * Parameter of a compiled filter plan.
+     *
+     * @param parameter     request parameter name
+     * @param key           filter key, the field name
+     * @param rangeOperator <code>from</code> or <code>to</code> for range parameters, null for exact match
+     * @param field         schema field the values are converted for
+     */
+    private record PlanEntry(String parameter, String key, String rangeOperator, FilterSchema.FieldSpec field) {
+    }
+
+    private record PlanKey(FilterSchema schema, Set<String> parameterNames) {
+    }
+
+    private final FilterProperties filterProperties;
+    private final Map<Class<?>, FilterSchema> schemas = new ConcurrentHashMap<>();
+    // parameter names are client controlled, so the number of cached plans is bounded
+    private final Map<PlanKey, List<PlanEntry>> plans = new ConcurrentHashMap<>();
+    private final Set<String> reportedUnindexedFields = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public GenericFilterBuilder(FilterProperties filterProperties) {
+        this.filterProperties = filterProperties;
+    }
+
+    public GenericFilterBuilder() {
+        this(new FilterProperties());
+    }
+
     /**
      * Build filter map from HttpServletRequest with comprehensive edge case handling.
+     * Value types are inferred from the values themselves.
      *
      * @param request the HTTP servlet request containing query parameters
      * @return a map of validated and converted filter parameters
      */
     public Map<String, Object> buildFromRequest(HttpServletRequest request) {
+        return buildFromRequest(request, FilterSchema.NONE, Set.of());
+    }
+
+    /**
+     * Build filter map from HttpServletRequest for the given MongoDB document class.
+     * Values of known fields are converted to the type of the field; values that cannot be converted, and values
+     * of fields not declared by the class, are converted as in {@link #buildFromRequest(HttpServletRequest)}.
+     * Filtering on fields not covered by an index is handled according to
+     * <code>application.filter.unindexed-field-policy</code>.
+     *
+     * @param request     the HTTP servlet request containing query parameters
+     * @param entityClass the MongoDB document class being filtered
+     * @return a map of validated and converted filter parameters
+     * @throws IllegalArgumentException if too many parameters are provided, or a field is not indexed and
+     *                                  unindexed fields are rejected
+     */
+    public Map<String, Object> buildFromRequest(HttpServletRequest request, Class<?> entityClass) {
+        return buildFromRequest(request, entityClass, Set.of());
+    }
+
+    /**
+     * Build filter map from HttpServletRequest for the given MongoDB document class, skipping parameters handled by
+     * the endpoint itself.
+     *
+     * @param request           the HTTP servlet request containing query parameters
+     * @param entityClass       the MongoDB document class being filtered
+     * @param ignoredParameters names of request parameters that are not filters
+     * @return a map of validated and converted filter parameters
+     * @throws IllegalArgumentException if too many parameters are provided, or a field is not indexed and
+     *                                  unindexed fields are rejected
+     */
+    public Map<String, Object> buildFromRequest(HttpServletRequest request, Class<?> entityClass,
+                                                Set<String> ignoredParameters) {
+        FilterSchema schema = schemas.computeIfAbsent(entityClass,
+                type -> FilterSchema.of(type, filterProperties.getIndexedFields()));
+        return buildFromRequest(request, schema, ignoredParameters);
+    }
+
+    private Map<String, Object> buildFromRequest(HttpServletRequest request, FilterSchema schema,
+                                                 Set<String> ignoredParameters) {
         Map<String, String[]> parameterMap = request.getParameterMap();
 
         // Limit number of parameters to prevent abuse
@@ -55,43 +142,88 @@ public class GenericFilterBuilder {
         Map<String, Object> filters = new HashMap<>();
         Map<String, Map<String, Object>> rangeFilters = new HashMap<>();
 
-        parameterMap.forEach((paramName, paramValues) -> {
-            if (isValidFieldName(paramName) && isValidParameter(paramName, paramValues)) {
-
-                String[] parts = paramName.split("\\.");
-
-                // Check if this is a range query (field.from or field.to)
-                if (parts.length == 2 && (parts[1].equals("from") || parts[1].equals("to"))) {
-                    String fieldName = parts[0];
-                    String operator = parts[1];
-
-                    Map<String, Object> rangeMap = rangeFilters.computeIfAbsent(
-                            fieldName, k -> new HashMap<>()
-                    );
-
-                    Object convertedValue = handleMultipleValues(paramValues);
-                    if (isValidValue(convertedValue)) {
-                        rangeMap.put(operator, convertedValue);
-                    }
-                } else {
-                    Object convertedValue = handleMultipleValues(paramValues);
-                    if (isValidValue(convertedValue)) {
-                        filters.put(paramName, convertedValue);
-                    }
-                }
+        for (PlanEntry entry : getPlan(schema, parameterMap.keySet(), ignoredParameters)) {
+            String[] paramValues = parameterMap.get(entry.parameter());
+            if (paramValues == null || paramValues.length == 0) {
+                continue;
+            }
+            Object convertedValue = handleMultipleValues(entry.field(), paramValues);
+            if (!isValidValue(convertedValue)) {
+                continue;
+            }
+            if (entry.rangeOperator() != null) {
+                rangeFilters.computeIfAbsent(entry.key(), k -> new HashMap<>())
+                        .put(entry.rangeOperator(), convertedValue);
+            } else {
+                filters.put(entry.key(), convertedValue);
             }
-        });
+        }
 
         // Merge range filters into main filters
-        rangeFilters.forEach((fieldName, rangeMap) -> {
-            if (!rangeMap.isEmpty()) {
-                filters.put(fieldName, rangeMap);
-            }
-        });
+        filters.putAll(rangeFilters);
 
         return filters;
     }
 
+    /**
+     * Requests with the same parameter names share the plan: names are validated, split into field and range
+     * operator, and resolved against the schema only once.
+     *
+     * @param schema            schema of the filtered document class
+     * @param parameterNames    request parameter names
+     * @param ignoredParameters names of request parameters that are not filters
+     * @return plan entries for the valid parameters
+     */
+    private List<PlanEntry> getPlan(FilterSchema schema, Set<String> parameterNames, Set<String> ignoredParameters) {
+        Set<String> filterNames = parameterNames;
+        if (!ignoredParameters.isEmpty()) {
+            filterNames = new HashSet<>(parameterNames);
+            filterNames.removeAll(ignoredParameters);
+        }
+        PlanKey planKey = new PlanKey(schema, Set.copyOf(filterNames));
+        List<PlanEntry> plan = plans.get(planKey);
+        if (plan == null) {
+            plan = compilePlan(schema, planKey.parameterNames());
+            if (plans.size() < MAX_CACHED_PLANS) {
+                plans.putIfAbsent(planKey, plan);
+            }
+        }
+        return plan;
+    }
+
+    private List<PlanEntry> compilePlan(FilterSchema schema, Set<String> parameterNames) {
+        List<PlanEntry> plan = new ArrayList<>();
+        for (String paramName : parameterNames) {
+            if (!isValidFieldName(paramName) || isExcludedParameter(paramName)) {
+                continue;
+            }
+            String[] parts = paramName.split("\\.");
+            // Check if this is a range query (field.from or field.to)
+            PlanEntry entry = parts.length == 2 && RANGE_OPERATORS.contains(parts[1])
+                    ? new PlanEntry(paramName, parts[0], parts[1], schema.field(parts[0]))
+                    : new PlanEntry(paramName, paramName, null, schema.field(paramName));
+            checkIndexed(schema, entry.field());
+            plan.add(entry);
+        }
+        return List.copyOf(plan);
+    }
+
+    private void checkIndexed(FilterSchema schema, FilterSchema.FieldSpec field) {
+        FilterProperties.UnindexedFieldPolicy policy = filterProperties.getUnindexedFieldPolicy();
+        if (!schema.isIndexAware() || policy == FilterProperties.UnindexedFieldPolicy.ALLOW
+                || schema.isIndexed(field.path())) {
+            return;
+        }
+        if (policy == FilterProperties.UnindexedFieldPolicy.REJECT) {
+            log.warn("Rejected filter on field {} of {}, field is not indexed", field.path(), schema.getCollection());
+            throw new IllegalArgumentException("Filtering on field '" + field.path() + "' is not allowed");
+        }
+        if (reportedUnindexedFields.add(schema.getCollection() + "/" + field.path())) {
+            log.warn("Filtering on field {} of {} which is not indexed, queries may scan the whole collection",
+                    field.path(), schema.getCollection());
+        }
+    }
+
     private boolean isValidFieldName(String fieldName) {
         if (fieldName == null || fieldName.trim().isEmpty()) {
             return false;
@@ -114,24 +246,18 @@ public class GenericFilterBuilder {
         return true;
     }
 
-    private boolean isValidParameter(String paramName, String[] paramValues) {
-        return !isExcludedParameter(paramName) &&
-                paramValues != null &&
-                paramValues.length > 0;
-    }
-
     private boolean isExcludedParameter(String paramName) {
         return EXCLUDED_PARAMETERS.contains(paramName);
     }
 
-    private Object handleMultipleValues(String[] paramValues) {
+    private Object handleMultipleValues(FilterSchema.FieldSpec field, String[] paramValues) {
         if (paramValues.length == 1) {
-            return convertByType(paramValues[0]);
+            return convert(field, paramValues[0]);
         }
 
         // Multiple values → convert to list for IN query
         List<Object> convertedValues = Arrays.stream(paramValues)
-                .map(this::convertByType)
+                .map(value -> convert(field, value))
                 .filter(Objects::nonNull)
                 .collect(Collectors.toList());
 
@@ -173,6 +299,62 @@ public class GenericFilterBuilder {
                 .anyMatch(lower::contains);
     }
 
+    /**
+     * Convert value to the type of the schema field, falling back to type detection when the field is untyped or
+     * the value is not valid for its type.
+     *
+     * @param field the schema field
+     * @param value the string value to convert
+     * @return the converted value, or null if conversion fails
+     */
+    private Object convert(FilterSchema.FieldSpec field, String value) {
+        if (value == null) return null;
+
+        String trimmedValue = value.trim();
+        if (trimmedValue.isEmpty()) return null;
+
+        Object converted = switch (field.type()) {
+            case STRING -> trimmedValue;
+            case BOOLEAN -> tryConvertToBoolean(trimmedValue);
+            case INTEGER -> tryConvertToInteger(trimmedValue);
+            case DECIMAL -> tryConvertToDecimal(trimmedValue);
+            case DATE_TIME -> tryConvertToDateTime(trimmedValue);
+            case ENUM -> tryConvertToEnum(field.enumConstants(), trimmedValue);
+            case UNTYPED -> null;
+        };
+        return converted != null ? converted : convertByType(trimmedValue);
+    }
+
+    private Object tryConvertToInteger(String value) {
+        if (!INTEGER.matcher(value).matches()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            log.debug("Integer overflow detected: {}", value);
+            return null;
+        }
+    }
+
+    private Object tryConvertToDecimal(String value) {
+        if (INTEGER.matcher(value).matches() || DECIMAL.matcher(value).matches()
+                || SCIENTIFIC.matcher(value).matches()) {
+            double d = Double.parseDouble(value);
+            return Double.isFinite(d) ? d : null;
+        }
+        return null;
+    }
+
+    private Object tryConvertToEnum(List<String> constants, String value) {
+        for (String constant : constants) {
+            if (constant.equalsIgnoreCase(value)) {
+                return constant;
+            }
+        }
+        return null;
+    }
+
     /**
      * Convert value based on detected type with comprehensive edge case handling.
      *
@@ -206,17 +388,17 @@ public class GenericFilterBuilder {
         // STRICT: Only unambiguous datetime formats
 
         // ISO format with timezone (must have T and Z or +/- timezone)
-        if (value.contains("T") && (value.endsWith("Z") || value.matches(".*[+-]\\d{2}:?\\d{2}$"))) {
+        if (value.contains("T") && (value.endsWith("Z") || TIMEZONE_SUFFIX.matcher(value).matches())) {
             return true;
         }
 
         // Date only format (strict: exactly YYYY-MM-DD)
-        if (value.matches("\\d{4}-\\d{2}-\\d{2}$")) {
+        if (DATE_ONLY.matcher(value).matches()) {
             return true;
         }
 
         // Unix timestamp (strict: 10-13 digits only, no other numeric patterns)
-        if (value.matches("\\d{10,13}$")) {
+        if (UNIX_TIMESTAMP.matcher(value).matches()) {
             return true;
         }
 
@@ -228,17 +410,17 @@ public class GenericFilterBuilder {
 
         // Reject special cases that should not be treated as numbers
         String lower = value.toLowerCase();
-        if (Set.of("infinity", "-infinity", "nan").contains(lower)) {
+        if (SPECIAL_NUMBERS.contains(lower)) {
             return true; // These look like numbers but will be rejected
         }
 
         // Scientific notation (strict: must have e/E with exponent)
-        if (value.matches("-?\\d+(\\.\\d+)?[eE][+-]?\\d+$")) {
+        if (SCIENTIFIC.matcher(value).matches()) {
             return true;
         }
 
         // Integer pattern (strict: digits only, excluding timestamps which are handled by datetime)
-        if (value.matches("-?\\d+$")) {
+        if (INTEGER.matcher(value).matches()) {
             // Exclude unix timestamps (10-13 digits) - those are dates
             int digitCount = value.replaceAll("-", "").length();
             if (digitCount >= 10 && digitCount <= 13) {
@@ -248,7 +430,7 @@ public class GenericFilterBuilder {
         }
 
         // Decimal pattern (strict: must have decimal point with digits on at least one side)
-        if (value.matches("-?\\d+\\.\\d+$") || value.matches("-?\\d+\\.$") || value.matches("-?\\.\\d+$")) {
+        if (DECIMAL.matcher(value).matches()) {
             return true;
         }
 
@@ -266,12 +448,12 @@ public class GenericFilterBuilder {
             }
 
             // ISO format with timezone (strict validation)
-            if (value.contains("T") && (value.endsWith("Z") || value.matches(".*[+-]\\d{2}:?\\d{2}$"))) {
+            if (value.contains("T") && (value.endsWith("Z") || TIMEZONE_SUFFIX.matcher(value).matches())) {
                 Instant instant = Instant.parse(value);
 
                 // Strict range validation (1970-2100)
                 if (instant.isBefore(Instant.EPOCH) ||
-                        instant.isAfter(Instant.parse("2100-01-01T00:00:00Z"))) {
+                        instant.isAfter(MAX_INSTANT)) {
                     log.debug("Date outside valid range (1970-2100): {}", value);
                     return null;
                 }
@@ -279,7 +461,7 @@ public class GenericFilterBuilder {
             }
 
             // Date only format (strict: YYYY-MM-DD)
-            if (value.matches("\\d{4}-\\d{2}-\\d{2}$")) {
+            if (DATE_ONLY.matcher(value).matches()) {
                 LocalDate date = LocalDate.parse(value);
 
                 // Strict range validation
@@ -299,7 +481,7 @@ public class GenericFilterBuilder {
             }
 
             // Unix timestamp (strict: 10-13 digits)
-            if (value.matches("\\d{10,13}$")) {
+            if (UNIX_TIMESTAMP.matcher(value).matches()) {
                 long timestamp = Long.parseLong(value);
 
                 // Strict timestamp bounds validation
@@ -329,8 +511,8 @@ public class GenericFilterBuilder {
         try {
             String lower = value.toLowerCase();
             // Only convert unambiguous boolean values (exclude "1" and "0" to avoid number conflict)
-            if (Set.of("true", "false", "yes", "no").contains(lower)) {
-                return Set.of("true", "yes").contains(lower);
+            if (BOOLEAN_REPRESENTATIONS.contains(lower)) {
+                return TRUE_REPRESENTATIONS.contains(lower);
             }
         } catch (Exception e) {
             log.debug("Boolean parsing error: {}", value);
@@ -344,13 +526,13 @@ public class GenericFilterBuilder {
 
             // Reject special numeric values that should not be allowed
             String lower = value.toLowerCase();
-            if (Set.of("infinity", "-infinity", "nan").contains(lower)) {
+            if (SPECIAL_NUMBERS.contains(lower)) {
                 log.debug("Rejecting special numeric value: {}", value);
                 return null;
             }
 
             // Scientific notation (strict: must match exact pattern)
-            if (value.matches("-?\\d+(\\.\\d+)?[eE][+-]?\\d+$")) {
+            if (SCIENTIFIC.matcher(value).matches()) {
                 double d = Double.parseDouble(value);
                 if (!Double.isFinite(d)) {
                     log.debug("Scientific notation resulted in non-finite value: {}", value);
@@ -360,7 +542,7 @@ public class GenericFilterBuilder {
             }
 
             // Integer pattern (strict: digits only, with overflow protection)
-            if (value.matches("-?\\d+$")) {
+            if (INTEGER.matcher(value).matches()) {
                 // Strict length check to prevent overflow
                 String digits = value.replaceAll("-", "");
                 if (digits.length() > 18) { // Long.MAX_VALUE has 19 digits, be conservative
@@ -378,7 +560,7 @@ public class GenericFilterBuilder {
             }
 
             // Decimal pattern (strict: must have proper decimal format)
-            if (value.matches("-?\\d+\\.\\d+$") || value.matches("-?\\d+\\.$") || value.matches("-?\\.\\d+$")) {
+            if (DECIMAL.matcher(value).matches()) {
                 double d = Double.parseDouble(value);
                 if (!Double.isFinite(d)) {
                     log.debug("Decimal resulted in non-finite value: {}", value);
@@ -1,13 +1,26 @@
 package it.eng.tools.service;
 
 import it.eng.tools.model.RequestInfo;
+import it.eng.tools.property.RequestInfoProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
 import org.springframework.stereotype.Service;
 
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
 
 @Service
 @Slf4j
@@ -17,6 +30,65 @@ public class RequestInfoService {
     private final String LOCALHOST_IPV4 = "127.0.0.1";
     private final String LOCALHOST_IPV6 = "0:0:0:0:0:0:0:1";
 
+    private static final String X_FORWARDED_FOR = "X-Forwarded-For";
+    private static final String PROXY_CLIENT_IP = "Proxy-Client-IP";
+    private static final String WL_PROXY_CLIENT_IP = "WL-Proxy-Client-IP";
+
+    /**
+     * Resolves address of the local host; may block on DNS or hosts file lookup.
+     */
+    @FunctionalInterface
+    interface LocalHostResolver {
+        InetAddress resolve() throws UnknownHostException;
+    }
+
+    private final List<IpAddressMatcher> trustedProxies;
+    private final LocalHostResolver localHostResolver;
+    private final LongSupplier nanoClock;
+    private final long refreshNanos;
+    private final ExecutorService resolver;
+    private final AtomicBoolean resolving = new AtomicBoolean();
+
+    // local host address is resolved in background, request threads only read the cached value
+    private volatile String localAddress;
+    private volatile long localAddressResolvedAt;
+    private volatile boolean localAddressAttempted;
+
+    @Autowired
+    public RequestInfoService(RequestInfoProperties properties) {
+        this(properties, InetAddress::getLocalHost, System::nanoTime);
+    }
+
+    RequestInfoService(RequestInfoProperties properties, LocalHostResolver localHostResolver, LongSupplier nanoClock) {
+        this.trustedProxies = properties.getTrustedProxies().stream()
+                .map(String::trim)
+                .filter(StringUtils::isNotBlank)
+                .map(IpAddressMatcher::new)
+                .toList();
+        this.localHostResolver = localHostResolver;
+        this.nanoClock = nanoClock;
+        this.refreshNanos = TimeUnit.SECONDS.toNanos(properties.getLocalAddressRefreshSeconds());
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("local-address-resolver-");
+        threadFactory.setDaemon(true);
+        this.resolver = Executors.newSingleThreadExecutor(threadFactory);
+    }
+
+    /**
+     * Resolves local host address in background, so it is usually known before the first loopback request.
+     */
+    @PostConstruct
+    public void init() {
+        refreshLocalAddress();
+    }
+
+    /**
+     * Stops background resolution.
+     */
+    @PreDestroy
+    public void shutdown() {
+        resolver.shutdownNow();
+    }
+
     /**
      * Gets request information from the current request.
      * This method can be called from anywhere in the application, including service classes.
@@ -29,48 +101,121 @@ public class RequestInfoService {
 
     /**
      * Gets request information from the provided HttpServletRequest.
-     * This method is primarily used by the RequestContextFilter.
+     * This method is primarily used by the RequestContextFilter.<br>
+     * Client address is only determined when it is read, usually when an audit event is published.
      *
      * @param request the HTTP servlet request
      * @return the request information
      */
     public RequestInfo getRequestInfo(HttpServletRequest request) {
+        // raw values are captured now, the request object must not be used once the request is completed
+        String remoteAddr = request.getRemoteAddr();
+        String forwardedFor = request.getHeader(X_FORWARDED_FOR);
+        String proxyClientIp = request.getHeader(PROXY_CLIENT_IP);
+        String wlProxyClientIp = request.getHeader(WL_PROXY_CLIENT_IP);
         return RequestInfo.Builder.newInstance()
                 .method(request.getMethod())
-                .remoteAddress(getClientIp(request))
+                .remoteAddressResolver(() -> getClientIp(remoteAddr, forwardedFor, proxyClientIp, wlProxyClientIp))
                 .remoteHost(request.getRemoteHost())
                 .username(request.getRemoteUser())
                 .build();
     }
 
-    private String getClientIp(HttpServletRequest request) {
-        String ipAddress = request.getHeader("X-Forwarded-For");
-        if (StringUtils.isEmpty(ipAddress) || UNKNOWN.equalsIgnoreCase(ipAddress)) {
-            ipAddress = request.getHeader("Proxy-Client-IP");
+    String getClientIp(String remoteAddr, String forwardedFor, String proxyClientIp, String wlProxyClientIp) {
+        if (!trustedProxies.isEmpty() && !isTrustedProxy(remoteAddr)) {
+            // forwarding headers set by anyone but a trusted proxy cannot be relied on
+            return replaceLoopback(remoteAddr);
         }
 
-        if (StringUtils.isEmpty(ipAddress) || UNKNOWN.equalsIgnoreCase(ipAddress)) {
-            ipAddress = request.getHeader("WL-Proxy-Client-IP");
+        if (isPresent(forwardedFor)) {
+            return clientFromForwardedFor(forwardedFor);
         }
+        if (isPresent(proxyClientIp)) {
+            return proxyClientIp.trim();
+        }
+        if (isPresent(wlProxyClientIp)) {
+            return wlProxyClientIp.trim();
+        }
+        return replaceLoopback(remoteAddr);
+    }
 
-        if (StringUtils.isEmpty(ipAddress) || UNKNOWN.equalsIgnoreCase(ipAddress)) {
-            ipAddress = request.getRemoteAddr();
-            if (LOCALHOST_IPV4.equals(ipAddress) || LOCALHOST_IPV6.equals(ipAddress)) {
-                try {
-                    InetAddress inetAddress = InetAddress.getLocalHost();
-                    ipAddress = inetAddress.getHostAddress();
-                } catch (UnknownHostException e) {
-                    log.error(e.getMessage(), e);
-                }
+    private String clientFromForwardedFor(String forwardedFor) {
+        String[] hops = forwardedFor.split(",");
+        if (trustedProxies.isEmpty()) {
+            return hops[0].trim();
+        }
+        // right-most entry not added by a trusted proxy is the client
+        for (int i = hops.length - 1; i > 0; i--) {
+            String hop = hops[i].trim();
+            if (!isTrustedProxy(hop)) {
+                return hop;
             }
         }
+        return hops[0].trim();
+    }
 
-        if (!StringUtils.isEmpty(ipAddress)
-                && ipAddress.length() > 15
-                && ipAddress.indexOf(",") > 0) {
-            ipAddress = ipAddress.substring(0, ipAddress.indexOf(","));
+    private boolean isTrustedProxy(String address) {
+        if (!isIpLiteral(address)) {
+            return false;
         }
+        for (IpAddressMatcher trustedProxy : trustedProxies) {
+            if (trustedProxy.matches(address)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Prevents matching from resolving host names; only IPv4 and IPv6 literals are compared.
+     *
+     * @param address address from request
+     * @return true if address is an IP literal
+     */
+    private boolean isIpLiteral(String address) {
+        if (StringUtils.isEmpty(address)) {
+            return false;
+        }
+        if (address.indexOf(':') >= 0) {
+            return StringUtils.containsOnly(address.toLowerCase(), "0123456789abcdef:.%");
+        }
+        return StringUtils.containsOnly(address, "0123456789.") && StringUtils.countMatches(address, '.') == 3;
+    }
 
-        return ipAddress;
+    private boolean isPresent(String header) {
+        return !StringUtils.isEmpty(header) && !UNKNOWN.equalsIgnoreCase(header);
+    }
+
+    private String replaceLoopback(String remoteAddr) {
+        if (!LOCALHOST_IPV4.equals(remoteAddr) && !LOCALHOST_IPV6.equals(remoteAddr)) {
+            return remoteAddr;
+        }
+        String cached = localAddress;
+        if (!localAddressAttempted || nanoClock.getAsLong() - localAddressResolvedAt > refreshNanos) {
+            refreshLocalAddress();
+        }
+        // until local host is resolved, loopback address is reported as is
+        return cached != null ? cached : remoteAddr;
+    }
+
+    private void refreshLocalAddress() {
+        if (!resolving.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            resolver.execute(() -> {
+                try {
+                    localAddress = localHostResolver.resolve().getHostAddress();
+                } catch (UnknownHostException e) {
+                    log.error(e.getMessage(), e);
+                } finally {
+                    localAddressResolvedAt = nanoClock.getAsLong();
+                    localAddressAttempted = true;
+                    resolving.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            resolving.set(false);
+        }
     }
 }
@@ -0,0 +1,22 @@
+package it.eng.tools.usagecontrol;
+
+/**
+ * Data of a successful agreement enforcement response, telling the caller whether the decision may be reused.
+ */
+public final class AgreementEnforcement {
+
+    /**
+     * Agreement is valid; the decision does not depend on the number of accesses and may be reused until the agreement
+     * changes.
+     */
+    public static final String VALID = "Agreement enforcement is valid";
+
+    /**
+     * Agreement is valid for this access only; the decision depends on the number of accesses and must be evaluated
+     * for every access.
+     */
+    public static final String VALID_PER_ACCESS = "Agreement enforcement is valid for this access";
+
+    private AgreementEnforcement() {
+    }
+}
@@ -0,0 +1,113 @@
+package it.eng.tools.util;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Helpers for HTTP digest fields carrying SHA-256 of the transferred content.<br>
+ * Supports <code>Repr-Digest</code> (RFC 9530, e.g. <code>sha-256=:base64:</code>) and the older
+ * <code>Digest</code> header (RFC 3230, e.g. <code>SHA-256=base64</code>).
+ */
+public final class ContentDigest {
+
+    public static final String REPR_DIGEST = "Repr-Digest";
+    public static final String DIGEST = "Digest";
+    public static final String SHA_256 = "sha-256";
+
+    private ContentDigest() {
+    }
+
+    /**
+     * New SHA-256 message digest.
+     *
+     * @return message digest
+     */
+    public static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 is mandatory for every Java platform
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Repr-Digest header value for the given content.
+     *
+     * @param content content
+     * @return Repr-Digest header value
+     */
+    public static String reprDigest(byte[] content) {
+        return reprDigestValue(Base64.getEncoder().encodeToString(newSha256().digest(content)));
+    }
+
+    /**
+     * Repr-Digest header value for already computed digest.
+     *
+     * @param base64Sha256 Base64 encoded SHA-256 digest
+     * @return Repr-Digest header value
+     */
+    public static String reprDigestValue(String base64Sha256) {
+        return SHA_256 + "=:" + base64Sha256 + ":";
+    }
+
+    /**
+     * Finds SHA-256 digest advertised in response headers; Repr-Digest is preferred over Digest.
+     *
+     * @param headers response headers, header names are compared case-insensitive
+     * @return Base64 encoded SHA-256 digest, if advertised
+     */
+    public static Optional<String> sha256(Map<String, List<String>> headers) {
+        if (headers == null) {
+            return Optional.empty();
+        }
+        Optional<String> reprDigest = headerValues(headers, REPR_DIGEST).stream()
+                .map(ContentDigest::parseReprDigest)
+                .flatMap(Optional::stream)
+                .findFirst();
+        if (reprDigest.isPresent()) {
+            return reprDigest;
+        }
+        return headerValues(headers, DIGEST).stream()
+                .map(ContentDigest::parseDigest)
+                .flatMap(Optional::stream)
+                .findFirst();
+    }
+
+    static Optional<String> parseReprDigest(String value) {
+        for (String member : StringUtils.split(StringUtils.defaultString(value), ',')) {
+            int separator = member.indexOf('=');
+            if (separator > 0 && SHA_256.equalsIgnoreCase(member.substring(0, separator).trim())) {
+                // structured field byte sequence, delimited with colons
+                String digest = StringUtils.strip(member.substring(separator + 1).trim(), ":");
+                return StringUtils.isNotBlank(digest) ? Optional.of(digest) : Optional.empty();
+            }
+        }
+        return Optional.empty();
+    }
+
+    static Optional<String> parseDigest(String value) {
+        for (String member : StringUtils.split(StringUtils.defaultString(value), ',')) {
+            int separator = member.indexOf('=');
+            if (separator > 0 && SHA_256.equalsIgnoreCase(member.substring(0, separator).trim())) {
+                String digest = member.substring(separator + 1).trim();
+                return StringUtils.isNotBlank(digest) ? Optional.of(digest) : Optional.empty();
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static List<String> headerValues(Map<String, List<String>> headers, String name) {
+        return headers.entrySet().stream()
+                .filter(entry -> entry.getKey() != null && entry.getKey().equalsIgnoreCase(name))
+                .findFirst()
+                .map(Map.Entry::getValue)
+                .orElse(List.of());
+    }
+}
@@ -0,0 +1,95 @@
+package it.eng.tools.util;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+/**
+ * Input stream computing SHA-256 digest and counting bytes while they are read.<br>
+ * Used to verify streamed transfers without buffering or reading the data twice.
+ */
+public class DigestingInputStream extends FilterInputStream {
+
+    private final MessageDigest messageDigest;
+    private long byteCount;
+    private byte[] digest;
+
+    public DigestingInputStream(InputStream in) {
+        super(in);
+        this.messageDigest = ContentDigest.newSha256();
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b != -1) {
+            messageDigest.update((byte) b);
+            byteCount++;
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int read = super.read(b, off, len);
+        if (read > 0) {
+            messageDigest.update(b, off, read);
+            byteCount += read;
+        }
+        return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        // skipped bytes would be missing from the digest
+        byte[] buffer = new byte[(int) Math.min(8192, Math.max(n, 0))];
+        long skipped = 0;
+        while (skipped < n) {
+            int read = read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+            if (read < 0) {
+                break;
+            }
+            skipped += read;
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public synchronized void mark(int readlimit) {
+        // not supported, replayed bytes would be digested twice
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        throw new IOException("mark/reset not supported");
+    }
+
+    /**
+     * Number of bytes read so far.
+     *
+     * @return byte count
+     */
+    public long getByteCount() {
+        return byteCount;
+    }
+
+    /**
+     * SHA-256 digest of all bytes read, Base64 encoded.<br>
+     * Completes the digest, so it should be called once the stream is fully consumed.
+     *
+     * @return Base64 encoded SHA-256 digest
+     */
+    public synchronized String getDigest() {
+        if (digest == null) {
+            digest = messageDigest.digest();
+        }
+        return Base64.getEncoder().encodeToString(digest);
+    }
+}
@@ -0,0 +1,101 @@
+package it.eng.tools.util;
+
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Watches a MongoDB collection through a change stream on a daemon thread, so in-memory caches of one instance
+ * can follow changes made by other instances.<br>
+ * The stream is reopened after failures; since changes made while it was closed are not replayed, the
+ * <code>onOpen</code> callback is invoked every time the stream is (re)opened to resynchronize the cache.
+ * Change streams require MongoDB replica set or sharded cluster.
+ */
+@Slf4j
+public class MongoChangeStreamWatcher {
+
+    private final MongoTemplate mongoTemplate;
+    private final String collectionName;
+    private final long retryDelayMillis;
+    private final Runnable onOpen;
+    private final Consumer<ChangeStreamDocument<Document>> onChange;
+    private final ExecutorService watcher;
+
+    private volatile boolean running;
+
+    /**
+     * Constructor.
+     *
+     * @param mongoTemplate    MongoTemplate
+     * @param collectionName   collection to watch
+     * @param retryDelayMillis delay before reopening failed stream
+     * @param onOpen           invoked when stream is opened
+     * @param onChange         invoked for every change
+     */
+    public MongoChangeStreamWatcher(MongoTemplate mongoTemplate, String collectionName, long retryDelayMillis,
+                                    Runnable onOpen, Consumer<ChangeStreamDocument<Document>> onChange) {
+        this.mongoTemplate = mongoTemplate;
+        this.collectionName = collectionName;
+        this.retryDelayMillis = retryDelayMillis;
+        this.onOpen = onOpen;
+        this.onChange = onChange;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(collectionName + "-watcher-");
+        threadFactory.setDaemon(true);
+        this.watcher = Executors.newSingleThreadExecutor(threadFactory);
+    }
+
+    /**
+     * Starts watching for changes.
+     */
+    public void start() {
+        running = true;
+        watcher.execute(this::watch);
+    }
+
+    /**
+     * Stops watching for changes.
+     */
+    public void stop() {
+        running = false;
+        watcher.shutdownNow();
+    }
+
+    private void watch() {
+        while (running) {
+            try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = mongoTemplate
+                    .getCollection(collectionName)
+                    .watch()
+                    .maxAwaitTime(1, TimeUnit.SECONDS)
+                    .cursor()) {
+                log.info("Watching {} for changes", collectionName);
+                onOpen.run();
+                while (running) {
+                    ChangeStreamDocument<Document> change = cursor.tryNext();
+                    if (change != null) {
+                        log.debug("{} changed ({})", collectionName, change.getOperationType());
+                        onChange.accept(change);
+                    }
+                }
+            } catch (RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Change stream on {} failed, retrying in {} ms: {}", collectionName, retryDelayMillis, e.getMessage());
+                try {
+                    Thread.sleep(retryDelayMillis);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+}
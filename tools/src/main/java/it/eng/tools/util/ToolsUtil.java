@@ -1,7 +1,12 @@
 package it.eng.tools.util;
 
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.UUID;
 
+import org.apache.commons.lang3.StringUtils;
+
 public class ToolsUtil {
 
     /**
@@ -12,4 +17,40 @@ public class ToolsUtil {
     public static String generateUniqueId() {
         return "urn:uuid:" + UUID.randomUUID().toString();
     }
+
+    /**
+     * Computes strong entity tag for the given representation, as quoted SHA-256 hex digest.
+     *
+     * @param content serialized representation
+     * @return ETag header value
+     */
+    public static String strongETag(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            return "\"" + HexFormat.of().formatHex(digest) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 is mandatory for every Java platform
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Checks if an If-None-Match header value matches the current entity tag.
+     *
+     * @param ifNoneMatch If-None-Match header value, can contain several comma separated tags or *
+     * @param eTag        current entity tag
+     * @return true if the client already has the current representation
+     */
+    public static boolean eTagMatches(String ifNoneMatch, String eTag) {
+        if (StringUtils.isBlank(ifNoneMatch) || StringUtils.isBlank(eTag)) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if ("*".equals(tag) || eTag.equals(tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.net.HttpHeaders;
 import it.eng.tools.model.ExternalData;
+import it.eng.tools.property.HttpClientProperties;
 import it.eng.tools.response.GenericApiResponse;
 import it.eng.tools.util.CredentialUtils;
 import okhttp3.*;
@@ -11,13 +12,12 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpMethod;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -44,14 +44,12 @@ public class OkHttpRestClientTest {
     private Call call;
     @Mock
     private Response response;
-    @Mock
-    private ResponseBody responseBody;
 
     private OkHttpRestClient okHttpRestClient;
 
     @BeforeEach
     public void setup() {
-        okHttpRestClient = new OkHttpRestClient(okHttpClient, credentialUtils, "123", false);
+        okHttpRestClient = new OkHttpRestClient(okHttpClient, credentialUtils, new HttpClientProperties(), "123", false);
     }
 
     @Test
@@ -82,8 +80,7 @@ public class OkHttpRestClientTest {
         when(call.execute()).thenReturn(response);
 
         when(response.code()).thenReturn(200);
-        when(response.body()).thenReturn(responseBody);
-        when(responseBody.string()).thenReturn("This is answer from test");
+        when(response.body()).thenReturn(ResponseBody.create("This is answer from test", null));
         when(response.isSuccessful()).thenReturn(true);
 
         GenericApiResponse<String> apiResponse = okHttpRestClient.sendRequestProtocol(TARGET_ADDRESS, jsonNode, BASIC_AUTH);
@@ -103,8 +100,7 @@ public class OkHttpRestClientTest {
         when(call.execute()).thenReturn(response);
 
         when(response.code()).thenReturn(400);
-        when(response.body()).thenReturn(responseBody);
-        when(responseBody.string()).thenReturn("This is ERROR answer from test");
+        when(response.body()).thenReturn(ResponseBody.create("This is ERROR answer from test", null));
         when(response.isSuccessful()).thenReturn(false);
 
         GenericApiResponse<String> apiResponse = okHttpRestClient.sendRequestProtocol(TARGET_ADDRESS, jsonNode, BASIC_AUTH);
@@ -119,8 +115,7 @@ public class OkHttpRestClientTest {
         when(okHttpClient.newCall(any(Request.class))).thenReturn(call);
         when(call.execute()).thenReturn(response);
         when(response.code()).thenReturn(200);
-        when(response.body()).thenReturn(responseBody);
-        when(responseBody.string()).thenReturn("Success");
+        when(response.body()).thenReturn(ResponseBody.create("Success", null));
         when(response.isSuccessful()).thenReturn(true);
 
         GenericApiResponse<String> apiResponse = okHttpRestClient.sendRequestProtocol(TARGET_ADDRESS, null, BASIC_AUTH);
@@ -146,6 +141,37 @@ public class OkHttpRestClientTest {
         assertEquals("Network error", apiResponse.getMessage());
     }
 
+    @Test
+    @DisplayName("Send idempotent protocol request - key header and status code")
+    public void sendIdempotentRequestProtocol_status() throws IOException {
+        ArgumentCaptor<Request> requestCaptor = ArgumentCaptor.forClass(Request.class);
+        when(okHttpClient.newCall(requestCaptor.capture())).thenReturn(call);
+        when(call.execute()).thenReturn(response);
+        when(response.code()).thenReturn(503);
+        when(response.body()).thenReturn(ResponseBody.create("unavailable", null));
+
+        ProtocolResponse protocolResponse = okHttpRestClient.sendIdempotentRequestProtocol(TARGET_ADDRESS, "{}", BASIC_AUTH, "key-1");
+
+        assertEquals(503, protocolResponse.code());
+        assertTrue(protocolResponse.isRetryable());
+        assertFalse(protocolResponse.isSuccessful());
+        assertEquals("key-1", requestCaptor.getValue().header(OkHttpRestClient.IDEMPOTENCY_KEY));
+        assertEquals(BASIC_AUTH, requestCaptor.getValue().header(HttpHeaders.AUTHORIZATION));
+    }
+
+    @Test
+    @DisplayName("Send idempotent protocol request - IOException is retryable")
+    public void sendIdempotentRequestProtocol_IOException() throws IOException {
+        when(okHttpClient.newCall(any(Request.class))).thenReturn(call);
+        when(call.execute()).thenThrow(new IOException("Network error"));
+
+        ProtocolResponse protocolResponse = okHttpRestClient.sendIdempotentRequestProtocol(TARGET_ADDRESS, "{}", BASIC_AUTH, "key-1");
+
+        assertEquals(0, protocolResponse.code());
+        assertTrue(protocolResponse.isRetryable());
+        assertFalse(new ProtocolResponse(400, null).isRetryable());
+    }
+
     @Test
     @DisplayName("Send GET request - success")
     public void sendGETRequest_success() throws IOException {
@@ -153,8 +179,7 @@ public class OkHttpRestClientTest {
         when(call.execute()).thenReturn(response);
 
         when(response.code()).thenReturn(200);
-        when(response.body()).thenReturn(responseBody);
-        when(responseBody.string()).thenReturn("This is answer from test");
+        when(response.body()).thenReturn(ResponseBody.create("This is answer from test", null));
         when(response.isSuccessful()).thenReturn(true);
 
         GenericApiResponse<String> apiResponse = okHttpRestClient.sendGETRequest(TARGET_ADDRESS, BASIC_AUTH);
@@ -170,8 +195,7 @@ public class OkHttpRestClientTest {
         when(call.execute()).thenReturn(response);
 
         when(response.code()).thenReturn(400);
-        when(response.body()).thenReturn(responseBody);
-        when(responseBody.string()).thenReturn("This is ERROR answer from test");
+        when(response.body()).thenReturn(ResponseBody.create("This is ERROR answer from test", null));
         when(response.isSuccessful()).thenReturn(false);
 
         GenericApiResponse<String> apiResponse = okHttpRestClient.sendGETRequest(TARGET_ADDRESS, BASIC_AUTH);
@@ -200,12 +224,8 @@ public class OkHttpRestClientTest {
         when(call.execute()).thenReturn(response);
 
         byte[] bodyBytes = "This is answer from test".getBytes();
-        InputStream stream = new ByteArrayInputStream(bodyBytes);
         when(response.code()).thenReturn(200);
-        when(response.body()).thenReturn(responseBody);
-//        when(responseBody.byteStream()).thenReturn(stream);
-        when(response.body().contentType()).thenReturn(MediaType.get("text/plain"));
-        when(response.body().bytes()).thenReturn(bodyBytes);
+        when(response.body()).thenReturn(ResponseBody.create(bodyBytes, MediaType.get("text/plain")));
         when(response.isSuccessful()).thenReturn(true);
 
         GenericApiResponse<ExternalData> apiResponse = okHttpRestClient.downloadData(TARGET_ADDRESS, BASIC_AUTH);
@@ -255,12 +275,8 @@ public class OkHttpRestClientTest {
         when(call.execute()).thenReturn(response);
 
         byte[] bodyBytes = "This is answer from test".getBytes();
-        InputStream stream = new ByteArrayInputStream(bodyBytes);
         when(response.code()).thenReturn(200);
-        when(response.body()).thenReturn(responseBody);
-//        when(responseBody.byteStream()).thenReturn(stream);
-        when(response.body().bytes()).thenReturn(bodyBytes);
-        when(response.body().contentType()).thenReturn(MediaType.get("text/plain"));
+        when(response.body()).thenReturn(ResponseBody.create(bodyBytes, MediaType.get("text/plain")));
         when(response.isSuccessful()).thenReturn(true);
         when(response.header(HttpHeaders.CONTENT_DISPOSITION)).thenReturn(null);
 
@@ -292,8 +308,7 @@ public class OkHttpRestClientTest {
         when(okHttpClient.newCall(any(Request.class))).thenReturn(call);
         when(call.execute()).thenReturn(response);
         when(response.code()).thenReturn(200);
-        when(response.body()).thenReturn(responseBody);
-        when(responseBody.string()).thenReturn("Success");
+        when(response.body()).thenReturn(ResponseBody.create("Success", null));
         when(credentialUtils.getAPICredentials()).thenReturn("Bearer token");
 
         String result = okHttpRestClient.sendInternalRequest("/api/test", HttpMethod.GET, null);
@@ -314,8 +329,7 @@ public class OkHttpRestClientTest {
         when(okHttpClient.newCall(any(Request.class))).thenReturn(call);
         when(call.execute()).thenReturn(response);
         when(response.code()).thenReturn(200);
-        when(response.body()).thenReturn(responseBody);
-        when(responseBody.string()).thenReturn("Success");
+        when(response.body()).thenReturn(ResponseBody.create("Success", null));
         when(credentialUtils.getAPICredentials()).thenReturn("Bearer token");
 
         String result = okHttpRestClient.sendInternalRequest("/api/test", HttpMethod.POST, jsonNode);
@@ -330,13 +344,12 @@ public class OkHttpRestClientTest {
     @Test
     @DisplayName("Send internal request - SSL enabled")
     public void sendInternalRequest_SSL() throws IOException {
-        OkHttpRestClient sslClient = new OkHttpRestClient(okHttpClient, credentialUtils, "8443", true);
+        OkHttpRestClient sslClient = new OkHttpRestClient(okHttpClient, credentialUtils, new HttpClientProperties(), "8443", true);
 
         when(okHttpClient.newCall(any(Request.class))).thenReturn(call);
         when(call.execute()).thenReturn(response);
         when(response.code()).thenReturn(200);
-        when(response.body()).thenReturn(responseBody);
-        when(responseBody.string()).thenReturn("Success");
+        when(response.body()).thenReturn(ResponseBody.create("Success", null));
         when(credentialUtils.getAPICredentials()).thenReturn("Bearer token");
 
         String result = sslClient.sendInternalRequest("/api/test", HttpMethod.GET, null);
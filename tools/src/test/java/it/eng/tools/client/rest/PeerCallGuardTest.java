@@ -0,0 +1,233 @@
+package it.eng.tools.client.rest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import dev.failsafe.CircuitBreaker;
+import it.eng.tools.property.PeerResilienceProperties;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Calls a healthy peer and a blackholed peer, one accepting connections but never answering, through the same client
+ * and the same pool of calling threads.
+ */
+class PeerCallGuardTest {
+
+    private static final int CLIENT_READ_TIMEOUT_MILLIS = 1000;
+
+    private final CountDownLatch releaseBlackhole = new CountDownLatch(1);
+
+    private HttpServer healthyPeer;
+    private HttpServer blackholedPeer;
+    private PeerResilienceProperties properties;
+    private ExecutorService callingThreads;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        healthyPeer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        healthyPeer.createContext("/", this::respond);
+        healthyPeer.setExecutor(Executors.newCachedThreadPool());
+        healthyPeer.start();
+
+        blackholedPeer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        blackholedPeer.createContext("/", this::neverRespond);
+        blackholedPeer.setExecutor(Executors.newCachedThreadPool());
+        blackholedPeer.start();
+
+        properties = new PeerResilienceProperties();
+        properties.setMaxConcurrentCallsPerPeer(2);
+        properties.setMaxWaitMillis(0);
+        properties.setFailureThreshold(2);
+        properties.setFailureThresholdingCapacity(2);
+        properties.setOpenDurationSeconds(60);
+        callingThreads = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        releaseBlackhole.countDown();
+        callingThreads.shutdownNow();
+        healthyPeer.stop(0);
+        blackholedPeer.stop(0);
+    }
+
+    @Test
+    @DisplayName("Blackholed peer does not delay calls to healthy peer sharing the calling threads")
+    void blackholedPeer_healthyPeerNotDelayed() throws Exception {
+        OkHttpClient client = client(new PeerCallGuard(properties));
+
+        long healthyMillis = callBothPeers(client);
+
+        assertTrue(healthyMillis < CLIENT_READ_TIMEOUT_MILLIS / 2, "Calls to healthy peer took " + healthyMillis + " ms");
+    }
+
+    @Test
+    @DisplayName("Without guard, blackholed peer holds calling threads and delays calls to healthy peer")
+    void blackholedPeer_withoutGuard_healthyPeerDelayed() throws Exception {
+        properties.setEnabled(false);
+        OkHttpClient client = client(new PeerCallGuard(properties));
+
+        long healthyMillis = callBothPeers(client);
+
+        assertTrue(healthyMillis >= CLIENT_READ_TIMEOUT_MILLIS, "Calls to healthy peer took " + healthyMillis + " ms");
+    }
+
+    @Test
+    @DisplayName("Circuit opens after timeouts, further calls fail immediately, other peers are not affected")
+    void blackholedPeer_circuitOpen_failFast() throws Exception {
+        PeerCallGuard guard = new PeerCallGuard(properties);
+        OkHttpClient client = client(guard);
+
+        for (int i = 0; i < 2; i++) {
+            assertThrows(InterruptedIOException.class, () -> call(client, address(blackholedPeer, "/")));
+        }
+
+        long start = System.nanoTime();
+        assertThrows(PeerUnavailableException.class, () -> call(client, address(blackholedPeer, "/")));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 100);
+        assertEquals(CircuitBreaker.State.OPEN, guard.circuitState(peer(blackholedPeer)));
+        assertEquals(200, call(client, address(healthyPeer, "/")));
+        assertEquals(CircuitBreaker.State.CLOSED, guard.circuitState(peer(healthyPeer)));
+    }
+
+    @Test
+    @DisplayName("Server errors open the circuit, client errors do not")
+    void serverErrors_circuitOpen() throws Exception {
+        PeerCallGuard guard = new PeerCallGuard(properties);
+        OkHttpClient client = client(guard);
+
+        assertEquals(404, call(client, address(healthyPeer, "/404")));
+        assertEquals(404, call(client, address(healthyPeer, "/404")));
+        assertEquals(CircuitBreaker.State.CLOSED, guard.circuitState(peer(healthyPeer)));
+
+        assertEquals(503, call(client, address(healthyPeer, "/503")));
+        assertEquals(503, call(client, address(healthyPeer, "/503")));
+        assertEquals(CircuitBreaker.State.OPEN, guard.circuitState(peer(healthyPeer)));
+        assertThrows(PeerUnavailableException.class, () -> call(client, address(healthyPeer, "/")));
+    }
+
+    @Test
+    @DisplayName("Read timeout adapts to observed response times")
+    void readTimeout_adaptsToLatency() throws Exception {
+        properties.setMinLatencySamples(5);
+        properties.setMinTimeoutMillis(200);
+        // first call includes client initialization
+        properties.setLatencyPercentile(50);
+        PeerCallGuard guard = new PeerCallGuard(properties);
+        OkHttpClient client = client(guard);
+        PeerCallGuard.PeerState state = guard.peerState(peer(healthyPeer));
+
+        assertEquals(CLIENT_READ_TIMEOUT_MILLIS, guard.readTimeout(state, CLIENT_READ_TIMEOUT_MILLIS));
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, call(client, address(healthyPeer, "/")));
+        }
+        assertEquals(200, guard.readTimeout(state, CLIENT_READ_TIMEOUT_MILLIS));
+
+        long start = System.nanoTime();
+        assertThrows(InterruptedIOException.class, () -> call(client, address(healthyPeer, "/slow")));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < CLIENT_READ_TIMEOUT_MILLIS);
+    }
+
+    @Test
+    @DisplayName("Latency percentile")
+    void latencyWindow_percentile() {
+        LatencyWindow window = new LatencyWindow(10);
+        for (int i = 1; i <= 15; i++) {
+            window.record(i);
+        }
+
+        assertEquals(10, window.count());
+        assertEquals(15, window.percentile(99));
+        assertEquals(10, window.percentile(50));
+        assertEquals(6, window.percentile(0));
+    }
+
+    /**
+     * Submits calls to the blackholed peer followed by calls to the healthy peer to the shared calling threads.
+     *
+     * @return time in milliseconds until all calls to the healthy peer completed
+     */
+    private long callBothPeers(OkHttpClient client) throws Exception {
+        // client initialization is not counted
+        assertEquals(200, call(client, address(healthyPeer, "/")));
+        long start = System.nanoTime();
+        for (int i = 0; i < 10; i++) {
+            callingThreads.submit(() -> call(client, address(blackholedPeer, "/")));
+        }
+        List<Future<Integer>> healthyCalls = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            healthyCalls.add(callingThreads.submit(() -> call(client, address(healthyPeer, "/"))));
+        }
+        for (Future<Integer> healthyCall : healthyCalls) {
+            assertEquals(200, healthyCall.get(10, TimeUnit.SECONDS));
+        }
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    private OkHttpClient client(PeerCallGuard guard) {
+        return new OkHttpClient.Builder()
+                .readTimeout(CLIENT_READ_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)
+                .addInterceptor(guard)
+                .build();
+    }
+
+    private int call(OkHttpClient client, String address) throws IOException {
+        try (Response response = client.newCall(new Request.Builder().url(address).build()).execute()) {
+            return response.code();
+        }
+    }
+
+    private void respond(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        try {
+            if (path.equals("/slow")) {
+                Thread.sleep(CLIENT_READ_TIMEOUT_MILLIS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        int status = path.length() == 4 && Character.isDigit(path.charAt(1)) ? Integer.parseInt(path.substring(1)) : 200;
+        exchange.sendResponseHeaders(status, -1);
+        exchange.close();
+    }
+
+    private void neverRespond(HttpExchange exchange) {
+        try {
+            releaseBlackhole.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        exchange.close();
+    }
+
+    private static String address(HttpServer server, String path) {
+        return "http://localhost:" + server.getAddress().getPort() + path;
+    }
+
+    private static String peer(HttpServer server) {
+        return PeerCallGuard.peerOf(HttpUrl.get(address(server, "/")));
+    }
+}
@@ -0,0 +1,190 @@
+package it.eng.tools.client.rest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import it.eng.tools.model.ExternalData;
+import it.eng.tools.property.HttpClientProperties;
+import it.eng.tools.response.GenericApiResponse;
+import it.eng.tools.util.CredentialUtils;
+import okhttp3.OkHttpClient;
+
+/**
+ * Reads responses of a local HTTP server sending oversized bodies, with or without Content-Length, and bodies dripping
+ * in slowly.
+ */
+@ExtendWith(MockitoExtension.class)
+class ResponseBodyLimitTest {
+
+    private static final int LIMIT = 1024;
+    private static final String CATALOG = "{\"@type\":\"Catalog\",\"dataset\":[{\"@id\":\"urn:uuid:1\"}]}";
+
+    @Mock
+    private CredentialUtils credentialUtils;
+
+    private HttpServer peer;
+    private HttpClientProperties properties;
+    private OkHttpRestClient okHttpRestClient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        peer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        peer.createContext("/", this::handle);
+        peer.setExecutor(Executors.newCachedThreadPool());
+        peer.start();
+
+        properties = new HttpClientProperties();
+        properties.setMaxProtocolResponseBytes(LIMIT);
+        properties.setMaxCatalogResponseBytes(LIMIT);
+        properties.setMaxDownloadBytes(LIMIT);
+        properties.setResponseReadTimeoutSeconds(1);
+        OkHttpClient okHttpClient = new OkHttpClient.Builder()
+                .readTimeout(5, TimeUnit.SECONDS)
+                .build();
+        okHttpRestClient = new OkHttpRestClient(okHttpClient, credentialUtils, properties, "8080", false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        peer.stop(0);
+    }
+
+    @Test
+    @DisplayName("Response within limit is returned")
+    void withinLimit() {
+        GenericApiResponse<String> response = okHttpRestClient.sendRequestProtocol(address("/fixed/" + LIMIT), null, null);
+
+        assertTrue(response.isSuccess());
+        assertEquals(LIMIT, response.getData().length());
+    }
+
+    @Test
+    @DisplayName("Response with Content-Length over limit is rejected before reading the body")
+    void oversized_contentLength() {
+        GenericApiResponse<String> response = okHttpRestClient.sendRequestProtocol(address("/fixed/" + (LIMIT + 1)), null, null);
+
+        assertFalse(response.isSuccess());
+        assertTrue(response.getMessage().contains("exceeds limit"), response.getMessage());
+    }
+
+    @Test
+    @DisplayName("Chunked response growing over limit is rejected once the limit is passed")
+    void oversized_chunked() {
+        GenericApiResponse<String> response = okHttpRestClient.sendGETRequest(address("/chunked/" + 100 * LIMIT), null);
+
+        assertFalse(response.isSuccess());
+        assertTrue(response.getMessage().contains("exceeds limit"), response.getMessage());
+    }
+
+    @Test
+    @DisplayName("Download over limit is rejected")
+    void oversized_download() {
+        GenericApiResponse<ExternalData> response = okHttpRestClient.downloadData(address("/chunked/" + 100 * LIMIT), null);
+
+        assertFalse(response.isSuccess());
+        assertTrue(response.getMessage().contains("exceeds limit"), response.getMessage());
+    }
+
+    @Test
+    @DisplayName("Body dripping in slower than the response read timeout is abandoned")
+    void slowDrip() {
+        long start = System.nanoTime();
+
+        GenericApiResponse<String> response = okHttpRestClient.sendRequestProtocol(address("/drip"), null, null);
+
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertFalse(response.isSuccess());
+        assertTrue(millis < 3000, millis + " ms");
+    }
+
+    @Test
+    @DisplayName("Conditional response is parsed from the stream")
+    void conditional_json() {
+        ConditionalResponse response = okHttpRestClient.sendConditionalRequestProtocol(address("/catalog"), null, null, null);
+
+        assertEquals(200, response.code());
+        assertEquals("Catalog", response.body().get("@type").asText());
+        assertEquals("urn:uuid:1", response.body().get("dataset").get(0).get("@id").asText());
+    }
+
+    @Test
+    @DisplayName("Conditional response over limit is rejected")
+    void conditional_oversized() {
+        ConditionalResponse response = okHttpRestClient.sendConditionalRequestProtocol(address("/chunked/" + 100 * LIMIT), null, null, null);
+
+        assertEquals(0, response.code());
+        assertNull(response.body());
+    }
+
+    @Test
+    @DisplayName("Body is shortened for logging")
+    void forLog() {
+        assertEquals("abc...", ResponseBodyReader.forLog("abcdefghij", 6));
+        assertEquals("abc", ResponseBodyReader.forLog("abc", 6));
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String[] path = exchange.getRequestURI().getPath().split("/");
+        exchange.getRequestBody().readAllBytes();
+        try (OutputStream body = exchange.getResponseBody()) {
+            switch (path[1]) {
+                case "fixed" -> {
+                    int size = Integer.parseInt(path[2]);
+                    exchange.sendResponseHeaders(200, size);
+                    body.write("x".repeat(size).getBytes(StandardCharsets.UTF_8));
+                }
+                case "chunked" -> {
+                    exchange.sendResponseHeaders(200, 0);
+                    // whitespace, so a JSON parser keeps reading until the limit
+                    byte[] chunk = " ".repeat(LIMIT / 4).getBytes(StandardCharsets.UTF_8);
+                    for (int written = 0; written < Integer.parseInt(path[2]); written += chunk.length) {
+                        body.write(chunk);
+                        body.flush();
+                    }
+                }
+                case "drip" -> {
+                    exchange.sendResponseHeaders(200, 0);
+                    for (int i = 0; i < 100; i++) {
+                        body.write('x');
+                        body.flush();
+                        Thread.sleep(100);
+                    }
+                }
+                case "catalog" -> {
+                    byte[] catalog = CATALOG.getBytes(StandardCharsets.UTF_8);
+                    exchange.sendResponseHeaders(200, catalog.length);
+                    body.write(catalog);
+                }
+                default -> exchange.sendResponseHeaders(404, -1);
+            }
+        } catch (IOException e) {
+            // client stopped reading
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private String address(String path) {
+        return "http://localhost:" + peer.getAddress().getPort() + path;
+    }
+}
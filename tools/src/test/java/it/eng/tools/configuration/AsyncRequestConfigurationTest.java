@@ -0,0 +1,25 @@
+package it.eng.tools.configuration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+
+class AsyncRequestConfigurationTest {
+
+    @Test
+    @DisplayName("Async request default timeout is the export timeout")
+    void configureAsyncSupport() {
+        AsyncRequestConfiguration configuration = new AsyncRequestConfiguration(45);
+        AsyncSupportConfigurer configurer = new AsyncSupportConfigurer();
+
+        configuration.configureAsyncSupport(configurer);
+
+        assertEquals(Duration.ofMinutes(45), configuration.getExportTimeout());
+        assertEquals(Duration.ofMinutes(45).toMillis(), ReflectionTestUtils.getField(configurer, "timeout"));
+    }
+}
@@ -0,0 +1,186 @@
+package it.eng.tools.configuration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.InetSocketAddress;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.KeyStore;
+import java.security.cert.X509Certificate;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
+import org.bouncycastle.cert.jcajce.JcaX509v3CertificateBuilder;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpsConfigurator;
+import com.sun.net.httpserver.HttpsServer;
+
+import it.eng.tools.client.rest.ConnectionPrewarmer;
+import it.eng.tools.client.rest.ConnectionStatistics;
+import it.eng.tools.client.rest.ConnectionStatistics.ConnectionPoolSnapshot;
+import it.eng.tools.client.rest.PeerCallGuard;
+import it.eng.tools.property.HttpClientProperties;
+import it.eng.tools.property.PeerResilienceProperties;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Counts TLS handshakes of the configured client against a local TLS server, with and without connection pooling.<br>
+ * Request counts are kept small so the check runs with every build; handshakes are reported per 10k requests.
+ */
+@Slf4j
+class ConnectionReuseBenchmarkTest {
+
+    private static final int REQUESTS = 1_000;
+    private static final int UNPOOLED_REQUESTS = 40;
+    private static final int REPORTED_REQUESTS = 10_000;
+    private static final int THREADS = 8;
+
+    private HttpsServer server;
+    private ExecutorService callingThreads;
+    private HttpClientProperties properties;
+    private ConnectionStatistics statistics;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpsServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setHttpsConfigurator(new HttpsConfigurator(serverSslContext()));
+        server.createContext("/", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.setExecutor(Executors.newFixedThreadPool(THREADS));
+        server.start();
+        callingThreads = Executors.newFixedThreadPool(THREADS);
+        properties = new HttpClientProperties();
+        statistics = new ConnectionStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        callingThreads.shutdownNow();
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Pooled connections: handshakes bounded by concurrency, not by number of requests")
+    void pooled_handshakesBoundedByConcurrency() throws Exception {
+        OkHttpClient client = client();
+
+        long millis = send(client, REQUESTS);
+
+        ConnectionPoolSnapshot snapshot = statistics.snapshot(client.connectionPool());
+        log.info("Pooled: {} requests in {} ms, {} TLS handshakes, {} reused", REQUESTS, millis,
+                snapshot.tlsHandshakes(), snapshot.connectionsReused());
+        assertEquals(REQUESTS, snapshot.calls());
+        assertTrue(snapshot.tlsHandshakes() <= THREADS, snapshot.tlsHandshakes() + " handshakes");
+        assertEquals(REQUESTS - snapshot.connectionsOpened(), snapshot.connectionsReused());
+    }
+
+    @Test
+    @DisplayName("Without pooling every request makes a TLS handshake")
+    void unpooled_handshakePerRequest() throws Exception {
+        properties.setMaxIdleConnections(0);
+        OkHttpClient client = client();
+
+        long millis = send(client, UNPOOLED_REQUESTS);
+
+        ConnectionPoolSnapshot snapshot = statistics.snapshot(client.connectionPool());
+        log.info("Not pooled: {} requests in {} ms, {} TLS handshakes, {} per 10k requests", UNPOOLED_REQUESTS, millis,
+                snapshot.tlsHandshakes(), snapshot.tlsHandshakes() * REPORTED_REQUESTS / UNPOOLED_REQUESTS);
+        assertTrue(snapshot.tlsHandshakes() > UNPOOLED_REQUESTS / 2, snapshot.tlsHandshakes() + " handshakes");
+    }
+
+    @Test
+    @DisplayName("Prewarmed peer is called over the connection opened at startup")
+    void prewarm_connectionReused() throws Exception {
+        properties.setPrewarmPeers(List.of(address()));
+        OkHttpClient client = client();
+
+        new ConnectionPrewarmer(client, properties).prewarm();
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (client.connectionPool().idleConnectionCount() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, statistics.snapshot(client.connectionPool()).tlsHandshakes());
+
+        send(client, 1);
+
+        ConnectionPoolSnapshot snapshot = statistics.snapshot(client.connectionPool());
+        assertEquals(1, snapshot.tlsHandshakes());
+        assertEquals(1, snapshot.connectionsReused());
+    }
+
+    private OkHttpClient client() throws Exception {
+        PeerResilienceProperties resilience = new PeerResilienceProperties();
+        resilience.setMaxConcurrentCallsPerPeer(THREADS);
+        // insecure client, trusting the self-signed server certificate, does not use the OCSP trust managers
+        return new OkHttpClientConfiguration(null, new PeerCallGuard(resilience),
+                properties, statistics, false).okHttpClient();
+    }
+
+    private long send(OkHttpClient client, int requests) throws Exception {
+        long start = System.nanoTime();
+        List<Future<Integer>> calls = new ArrayList<>();
+        for (int i = 0; i < requests; i++) {
+            calls.add(callingThreads.submit(() -> call(client)));
+        }
+        for (Future<Integer> call : calls) {
+            assertEquals(200, call.get(30, TimeUnit.SECONDS));
+        }
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    private int call(OkHttpClient client) throws IOException {
+        try (Response response = client.newCall(new Request.Builder().url(address()).build()).execute()) {
+            return response.code();
+        }
+    }
+
+    private String address() {
+        return "https://localhost:" + server.getAddress().getPort() + "/";
+    }
+
+    private static SSLContext serverSslContext() throws Exception {
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(2048);
+        KeyPair keyPair = keyPairGenerator.generateKeyPair();
+        X500Name name = new X500Name("CN=localhost");
+        Instant now = Instant.now();
+        X509Certificate certificate = new JcaX509CertificateConverter().getCertificate(
+                new JcaX509v3CertificateBuilder(name, BigInteger.valueOf(now.toEpochMilli()), Date.from(now),
+                        Date.from(now.plus(1, ChronoUnit.DAYS)), name, keyPair.getPublic())
+                        .build(new JcaContentSignerBuilder("SHA256withRSA").build(keyPair.getPrivate())));
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        keyStore.load(null, null);
+        keyStore.setKeyEntry("server", keyPair.getPrivate(), "password".toCharArray(), new X509Certificate[] {certificate});
+        KeyManagerFactory keyManagerFactory = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        keyManagerFactory.init(keyStore, "password".toCharArray());
+        SSLContext sslContext = SSLContext.getInstance("TLS");
+        sslContext.init(keyManagerFactory.getKeyManagers(), null, null);
+        return sslContext;
+    }
+}
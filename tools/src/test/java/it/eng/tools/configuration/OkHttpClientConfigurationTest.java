@@ -8,10 +8,14 @@ import static org.mockito.Mockito.when;
 import java.security.KeyManagementException;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
+import java.util.List;
 
 import javax.net.ssl.TrustManager;
 import javax.net.ssl.X509TrustManager;
 
+import it.eng.tools.client.rest.ConnectionStatistics;
+import it.eng.tools.client.rest.PeerCallGuard;
+import it.eng.tools.property.HttpClientProperties;
 import it.eng.tools.ssl.ocsp.OcspTrustManagerFactory;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -21,6 +25,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.ssl.NoSuchSslBundleException;
 
 import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
 
 @ExtendWith(MockitoExtension.class)
 class OkHttpClientConfigurationTest {
@@ -29,11 +34,15 @@ class OkHttpClientConfigurationTest {
 
     @Mock
     private OcspTrustManagerFactory ocspTrustManagerFactory;
+    @Mock
+    private PeerCallGuard peerCallGuard;
+
+    private final ConnectionStatistics connectionStatistics = new ConnectionStatistics();
 
     @Test
     @DisplayName("Should create OkHttpClient")
     void testOkHttpClient() throws KeyStoreException, NoSuchSslBundleException, KeyManagementException, NoSuchAlgorithmException {
-        configuration = new OkHttpClientConfiguration(ocspTrustManagerFactory, false);
+        configuration = new OkHttpClientConfiguration(ocspTrustManagerFactory, peerCallGuard, new HttpClientProperties(), connectionStatistics, false);
 
         // Act
         OkHttpClient client = configuration.okHttpClient();
@@ -50,6 +59,27 @@ class OkHttpClientConfigurationTest {
         // Verify hostname verifier accepts any hostname (insecure)
         assertTrue(client.hostnameVerifier().verify("any-hostname", null), "Insecure client should accept any hostname");
         assertTrue(client.hostnameVerifier().verify("test.example.com", null), "Insecure client should accept any hostname");
+
+        assertTrue(client.interceptors().contains(peerCallGuard), "Outgoing calls should be guarded per peer");
+        assertEquals(List.of(Protocol.HTTP_2, Protocol.HTTP_1_1), client.protocols());
+        assertEquals(10, client.dispatcher().getMaxRequestsPerHost());
+    }
+
+    @Test
+    @DisplayName("Should apply connection pool and protocol settings")
+    void testConnectionSettings() throws KeyStoreException, NoSuchSslBundleException, KeyManagementException, NoSuchAlgorithmException {
+        HttpClientProperties properties = new HttpClientProperties();
+        properties.setHttp2(false);
+        properties.setMaxRequests(100);
+        properties.setMaxRequestsPerHost(20);
+        configuration = new OkHttpClientConfiguration(ocspTrustManagerFactory, peerCallGuard, properties, connectionStatistics, false);
+
+        OkHttpClient client = configuration.okHttpClient();
+
+        assertEquals(List.of(Protocol.HTTP_1_1), client.protocols());
+        assertEquals(100, client.dispatcher().getMaxRequests());
+        assertEquals(20, client.dispatcher().getMaxRequestsPerHost());
+        assertEquals(0, client.connectionPool().connectionCount());
     }
     
     @Test
@@ -74,7 +104,7 @@ class OkHttpClientConfigurationTest {
         // Mock the ocspTrustManagerFactory to return the mock trust manager
         when(ocspTrustManagerFactory.createTrustManagers()).thenReturn(new TrustManager[]{mockTrustManager});
 
-        configuration = new OkHttpClientConfiguration(ocspTrustManagerFactory, true);
+        configuration = new OkHttpClientConfiguration(ocspTrustManagerFactory, peerCallGuard, new HttpClientProperties(), connectionStatistics, true);
 
         // Act
         OkHttpClient client = configuration.okHttpClient();
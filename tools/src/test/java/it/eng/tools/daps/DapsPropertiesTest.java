@@ -0,0 +1,48 @@
+package it.eng.tools.daps;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.auth0.jwk.JwkProvider;
+
+import it.eng.tools.property.ApplicationPropertyKeys;
+import it.eng.tools.service.ApplicationPropertiesService;
+
+@ExtendWith(MockitoExtension.class)
+public class DapsPropertiesTest {
+
+	@InjectMocks
+	private DapsProperties dapsProperties;
+
+	@Mock
+	private ApplicationPropertiesService service;
+
+	@Test
+	@DisplayName("JWKS provider is created once and reused while the JWKS URL is unchanged")
+	public void jwkProvider_reused() {
+		when(service.get(ApplicationPropertyKeys.DAPS_JWKS_URL_KEY)).thenReturn("https://daps.example.com/.well-known/jwks.json");
+
+		JwkProvider provider = dapsProperties.jwkProvider();
+
+		assertSame(provider, dapsProperties.jwkProvider());
+	}
+
+	@Test
+	@DisplayName("JWKS provider is replaced when the JWKS URL changes")
+	public void jwkProvider_urlChanged() {
+		when(service.get(ApplicationPropertyKeys.DAPS_JWKS_URL_KEY))
+				.thenReturn("https://daps.example.com/.well-known/jwks.json", "https://daps2.example.com/.well-known/jwks.json");
+
+		JwkProvider provider = dapsProperties.jwkProvider();
+
+		assertNotSame(provider, dapsProperties.jwkProvider());
+	}
+}
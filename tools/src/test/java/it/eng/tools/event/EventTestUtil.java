@@ -10,7 +10,6 @@ import it.eng.tools.event.applicationproperties.ApplicationPropertyChangeEvent;
 import it.eng.tools.event.contractnegotiation.ContractNegotationOfferRequestEvent;
 import it.eng.tools.event.contractnegotiation.ContractNegotiationOfferResponseEvent;
 import it.eng.tools.event.datatransfer.InitializeTransferProcess;
-import it.eng.tools.event.policyenforcement.ArtifactConsumedEvent;
 import it.eng.tools.model.ApplicationProperty;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -65,10 +64,6 @@ public class EventTestUtil {
         return new InitializeTransferProcess(TEST_CALLBACK_ADDRESS, TEST_AGREEMENT_ID, TEST_DATASET_ID, TEST_ROLE);
     }
     
-    public static ArtifactConsumedEvent createTestArtifactConsumedEvent() throws Exception {
-        return new ArtifactConsumedEvent(TEST_AGREEMENT_ID);
-    }
-    
     public static void setField(Object object, String fieldName, Object value) throws Exception {
         Field field = object.getClass().getDeclaredField(fieldName);
         field.setAccessible(true);
@@ -0,0 +1,77 @@
+package it.eng.tools.filter;
+
+import it.eng.tools.model.RequestInfo;
+import it.eng.tools.property.RequestInfoProperties;
+import it.eng.tools.service.RequestContextHolder;
+import it.eng.tools.service.RequestInfoService;
+import jakarta.servlet.FilterChain;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+class RequestInformationContextFilterTest {
+
+    private RequestInfoService requestInfoService;
+    private RequestInformationContextFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        requestInfoService = new RequestInfoService(new RequestInfoProperties());
+        filter = new RequestInformationContextFilter(requestInfoService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        requestInfoService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Request information is available during the request and cleared after")
+    void requestInfoAvailableDuringRequest() throws Exception {
+        MockHttpServletRequest request = loopbackRequest();
+        request.addHeader("X-Forwarded-For", "203.0.113.7");
+        AtomicReference<RequestInfo> seen = new AtomicReference<>();
+
+        filter.doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> seen.set(requestInfoService.getCurrentRequestInfo()));
+
+        assertEquals("POST", seen.get().getMethod());
+        assertEquals("203.0.113.7", seen.get().getRemoteAddress());
+        assertNull(RequestContextHolder.getRequestInfo());
+    }
+
+    @Test
+    @DisplayName("100k loopback requests through the filter")
+    void loopbackRequests_100k() throws Exception {
+        FilterChain chain = (req, res) -> {
+        };
+        MockHttpServletRequest request = loopbackRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 100_000; i++) {
+            filter.doFilter(request, response, chain);
+            request.removeAttribute(filter.getClass().getName() + ".FILTERED");
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertNull(RequestContextHolder.getRequestInfo());
+        log.info("100k loopback requests through the filter took {} ms", elapsedMillis);
+    }
+
+    private MockHttpServletRequest loopbackRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/catalog/request");
+        request.setRemoteAddr("127.0.0.1");
+        return request;
+    }
+}
@@ -0,0 +1,329 @@
+package it.eng.tools.notification;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.CollectionOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+@ExtendWith(MockitoExtension.class)
+class StateChangeNotificationServiceTest {
+
+    private static final int SUBSCRIBERS = 1000;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private NotificationProperties properties;
+    private StateChangeNotificationService service;
+
+    @BeforeEach
+    void setUp() {
+        properties = new NotificationProperties();
+        properties.setQueueCapacity(8);
+        properties.setDispatcherThreads(4);
+        properties.setHeartbeatSeconds(3600);
+        service = new StateChangeNotificationService(mongoTemplate, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    @DisplayName("Create capped history collection on startup")
+    void init_createsCappedCollection() {
+        when(mongoTemplate.collectionExists(StateChangeNotification.class)).thenReturn(false);
+
+        service.init();
+
+        verify(mongoTemplate).createCollection(eq(StateChangeNotification.class), any(CollectionOptions.class));
+    }
+
+    @Test
+    @DisplayName("Every one of 1000 subscribers receives all notifications in order")
+    void publish_thousandSubscribers() throws InterruptedException {
+        int notifications = 50;
+        properties.setQueueCapacity(notifications);
+        CountDownLatch delivered = new CountDownLatch(SUBSCRIBERS * notifications);
+        List<CollectingSink> sinks = new ArrayList<>();
+        for (int i = 0; i < SUBSCRIBERS; i++) {
+            CollectingSink sink = new CollectingSink(delivered);
+            sinks.add(sink);
+            assertTrue(service.subscribe(sink, null).isPresent());
+        }
+
+        List<String> published = new ArrayList<>();
+        for (int i = 0; i < notifications; i++) {
+            published.add(service.publish(notification("STARTED")).getId());
+            assertTrue(service.getBufferedNotificationCount() <= SUBSCRIBERS * properties.getQueueCapacity());
+        }
+
+        assertTrue(delivered.await(30, TimeUnit.SECONDS));
+        assertEquals(SUBSCRIBERS, service.getSubscriberCount());
+        assertEquals(0, service.getBufferedNotificationCount());
+        for (CollectingSink sink : sinks) {
+            assertEquals(published, sink.received.stream().map(StateChangeNotification::getId).toList());
+        }
+        verify(mongoTemplate, times(notifications)).insert(any(StateChangeNotification.class));
+    }
+
+    @Test
+    @DisplayName("Slow subscriber is evicted instead of buffering without limit")
+    void publish_slowSubscriberEvicted() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch blocked = new CountDownLatch(1);
+        BlockingSink slowSink = new BlockingSink(blocked, release);
+        CountDownLatch delivered = new CountDownLatch(20);
+        CollectingSink fastSink = new CollectingSink(delivered);
+        service.subscribe(slowSink, null);
+        service.subscribe(fastSink, null);
+
+        service.publish(notification("REQUESTED"));
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+        for (int i = 1; i < 20; i++) {
+            service.publish(notification("STARTED"));
+            // slow subscriber never holds more than its queue capacity
+            assertTrue(service.getBufferedNotificationCount() <= 2 * properties.getQueueCapacity());
+            int expected = i + 1;
+            waitFor(() -> fastSink.received.size() == expected);
+        }
+
+        assertTrue(slowSink.closed);
+        assertEquals(1, service.getSubscriberCount());
+        release.countDown();
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        assertEquals(20, fastSink.received.size());
+    }
+
+    @Test
+    @DisplayName("Subscriber failing to receive is evicted")
+    void publish_failingSubscriberEvicted() throws InterruptedException {
+        CollectingSink failingSink = new CollectingSink(new CountDownLatch(1));
+        failingSink.fail = true;
+        service.subscribe(failingSink, null);
+
+        service.publish(notification("STARTED"));
+
+        assertTrue(failingSink.closedLatch.await(5, TimeUnit.SECONDS));
+        assertEquals(0, service.getSubscriberCount());
+    }
+
+    @Test
+    @DisplayName("Reconnecting subscriber receives notifications missed since Last-Event-ID")
+    void subscribe_resumeFromLastEventId() throws InterruptedException {
+        StateChangeNotification missed1 = StateChangeNotification.Builder.newInstance()
+                .id(new ObjectId().toHexString()).resourceType(StateChangeNotification.TRANSFER_PROCESS).newState("STARTED").build();
+        StateChangeNotification missed2 = StateChangeNotification.Builder.newInstance()
+                .id(new ObjectId().toHexString()).resourceType(StateChangeNotification.TRANSFER_PROCESS).newState("COMPLETED").build();
+        when(mongoTemplate.find(any(Query.class), eq(StateChangeNotification.class))).thenReturn(List.of(missed1, missed2));
+        CountDownLatch delivered = new CountDownLatch(3);
+        CollectingSink sink = new CollectingSink(delivered);
+
+        service.subscribe(sink, new ObjectId().toHexString());
+        StateChangeNotification live = service.publish(notification("TERMINATED"));
+
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(missed1.getId(), missed2.getId(), live.getId()),
+                sink.received.stream().map(StateChangeNotification::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Invalid Last-Event-ID does not query history")
+    void subscribe_invalidLastEventId() {
+        service.subscribe(new CollectingSink(new CountDownLatch(1)), "not-an-id");
+
+        verify(mongoTemplate, never()).find(any(Query.class), eq(StateChangeNotification.class));
+    }
+
+    @Test
+    @DisplayName("Subscription rejected when maximum number of subscribers is reached")
+    void subscribe_maxSubscribers() {
+        properties.setMaxSubscribers(1);
+
+        assertTrue(service.subscribe(new CollectingSink(new CountDownLatch(1)), null).isPresent());
+        assertFalse(service.subscribe(new CollectingSink(new CountDownLatch(1)), null).isPresent());
+    }
+
+    @Test
+    @DisplayName("Unsubscribe closes sink")
+    void unsubscribe() {
+        CollectingSink sink = new CollectingSink(new CountDownLatch(1));
+        Optional<String> id = service.subscribe(sink, null);
+
+        service.unsubscribe(id.get());
+
+        assertEquals(0, service.getSubscriberCount());
+        assertEquals(0, sink.closedLatch.getCount());
+    }
+
+    @Test
+    @DisplayName("Notification is delivered even if history can not be stored")
+    void publish_historyFailure() throws InterruptedException {
+        when(mongoTemplate.insert(any(StateChangeNotification.class))).thenThrow(new DataAccessResourceFailureException("down"));
+        CountDownLatch delivered = new CountDownLatch(1);
+        CollectingSink sink = new CollectingSink(delivered);
+        service.subscribe(sink, null);
+
+        StateChangeNotification published = service.publish(notification("STARTED"));
+
+        assertNotNull(published.getId());
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("History is written outside the publish lock, resume replays notifications not yet stored")
+    void publish_historyWriteOutsideLock() throws Exception {
+        String lastEventId = new ObjectId().toHexString();
+        CountDownLatch inserting = new CountDownLatch(1);
+        CountDownLatch releaseInsert = new CountDownLatch(1);
+        when(mongoTemplate.insert(any(StateChangeNotification.class))).thenAnswer(invocation -> {
+            inserting.countDown();
+            releaseInsert.await(5, TimeUnit.SECONDS);
+            return invocation.getArgument(0);
+        });
+        when(mongoTemplate.find(any(Query.class), eq(StateChangeNotification.class))).thenReturn(List.of());
+        CompletableFuture<StateChangeNotification> published =
+                CompletableFuture.supplyAsync(() -> service.publish(notification("STARTED")));
+        assertTrue(inserting.await(5, TimeUnit.SECONDS));
+
+        // history write still pending - neither subscribe nor another publish waits for it
+        CountDownLatch delivered = new CountDownLatch(2);
+        CollectingSink sink = new CollectingSink(delivered);
+        CompletableFuture.runAsync(() -> service.subscribe(sink, lastEventId)).get(5, TimeUnit.SECONDS);
+        releaseInsert.countDown();
+        StateChangeNotification live = service.publish(notification("COMPLETED"));
+
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(published.get(5, TimeUnit.SECONDS).getId(), live.getId()),
+                sink.received.stream().map(StateChangeNotification::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Idle subscribers receive heartbeat, unreachable ones are evicted")
+    void sendHeartbeats() {
+        properties.setHeartbeatSeconds(0);
+        CollectingSink alive = new CollectingSink(new CountDownLatch(1));
+        CollectingSink dead = new CollectingSink(new CountDownLatch(1));
+        dead.fail = true;
+        service.subscribe(alive, null);
+        service.subscribe(dead, null);
+
+        service.sendHeartbeats();
+
+        assertEquals(1, alive.heartbeats);
+        assertEquals(1, service.getSubscriberCount());
+        assertEquals(0, dead.closedLatch.getCount());
+    }
+
+    private void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+
+    private StateChangeNotification notification(String newState) {
+        return StateChangeNotification.Builder.newInstance()
+                .resourceType(StateChangeNotification.TRANSFER_PROCESS)
+                .resourceId("tp-id")
+                .consumerPid("urn:uuid:consumer")
+                .providerPid("urn:uuid:provider")
+                .newState(newState)
+                .build();
+    }
+
+    private static class CollectingSink implements NotificationSink {
+        private final List<StateChangeNotification> received = new CopyOnWriteArrayList<>();
+        private final CountDownLatch delivered;
+        private final CountDownLatch closedLatch = new CountDownLatch(1);
+        private volatile boolean fail;
+        private volatile int heartbeats;
+
+        CollectingSink(CountDownLatch delivered) {
+            this.delivered = delivered;
+        }
+
+        @Override
+        public void send(StateChangeNotification notification) throws IOException {
+            if (fail) {
+                throw new IOException("Broken pipe");
+            }
+            received.add(notification);
+            delivered.countDown();
+        }
+
+        @Override
+        public void heartbeat() throws IOException {
+            if (fail) {
+                throw new IOException("Broken pipe");
+            }
+            heartbeats++;
+        }
+
+        @Override
+        public void close() {
+            closedLatch.countDown();
+        }
+    }
+
+    private static class BlockingSink implements NotificationSink {
+        private final CountDownLatch blocked;
+        private final CountDownLatch release;
+        private volatile boolean closed;
+
+        BlockingSink(CountDownLatch blocked, CountDownLatch release) {
+            this.blocked = blocked;
+            this.release = release;
+        }
+
+        @Override
+        public void send(StateChangeNotification notification) throws IOException {
+            blocked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void heartbeat() {
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package it.eng.tools.outbox;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Outbox repository keeping messages in memory, with the same conditional status changes as the MongoDB one.
+ */
+class InMemoryOutboxMessageRepository implements OutboxMessageRepository {
+
+    private final Map<String, OutboxMessage> messages = new TreeMap<>();
+
+    @Override
+    public synchronized void insert(OutboxMessage message) {
+        messages.put(message.getId(), message);
+    }
+
+    @Override
+    public synchronized List<OutboxMessage> findDue(Instant now, Collection<String> excludedPeers, int limit) {
+        return messages.values().stream()
+                .filter(message -> message.getStatus() == OutboxMessageStatus.PENDING)
+                .filter(message -> !message.getNextAttemptAt().isAfter(now))
+                .filter(message -> !excludedPeers.contains(message.getPeer()))
+                .sorted(Comparator.comparing(OutboxMessage::getId))
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public synchronized boolean hasEarlierUndelivered(OutboxMessage message) {
+        return messages.values().stream()
+                .anyMatch(other -> other.getAggregateId().equals(message.getAggregateId())
+                        && other.getId().compareTo(message.getId()) < 0
+                        && other.getStatus() != OutboxMessageStatus.FAILED);
+    }
+
+    @Override
+    public synchronized Optional<OutboxMessage> claim(String id, Instant now) {
+        OutboxMessage message = messages.get(id);
+        if (message == null || message.getStatus() != OutboxMessageStatus.PENDING) {
+            return Optional.empty();
+        }
+        OutboxMessage claimed = copy(message).status(OutboxMessageStatus.IN_FLIGHT).claimedAt(now).build();
+        messages.put(id, claimed);
+        return Optional.of(claimed);
+    }
+
+    @Override
+    public synchronized void delete(String id) {
+        messages.remove(id);
+    }
+
+    @Override
+    public synchronized void reschedule(String id, int attempts, Instant nextAttemptAt, String lastError) {
+        OutboxMessage message = messages.get(id);
+        if (message != null && message.getStatus() == OutboxMessageStatus.IN_FLIGHT) {
+            messages.put(id, copy(message).status(OutboxMessageStatus.PENDING).attempts(attempts)
+                    .nextAttemptAt(nextAttemptAt).lastError(lastError).claimedAt(null).build());
+        }
+    }
+
+    @Override
+    public synchronized void markFailed(String id, int attempts, String lastError) {
+        OutboxMessage message = messages.get(id);
+        if (message != null && message.getStatus() == OutboxMessageStatus.IN_FLIGHT) {
+            messages.put(id, copy(message).status(OutboxMessageStatus.FAILED).attempts(attempts)
+                    .lastError(lastError).claimedAt(null).build());
+        }
+    }
+
+    @Override
+    public synchronized long releaseStaleClaims(Instant claimedBefore) {
+        List<OutboxMessage> stale = messages.values().stream()
+                .filter(message -> message.getStatus() == OutboxMessageStatus.IN_FLIGHT)
+                .filter(message -> message.getClaimedAt().isBefore(claimedBefore))
+                .toList();
+        stale.forEach(message -> messages.put(message.getId(),
+                copy(message).status(OutboxMessageStatus.PENDING).claimedAt(null).build()));
+        return stale.size();
+    }
+
+    @Override
+    public void createIndexes() {
+        // nothing to create
+    }
+
+    synchronized List<OutboxMessage> all() {
+        return List.copyOf(messages.values());
+    }
+
+    private static OutboxMessage.Builder copy(OutboxMessage message) {
+        return OutboxMessage.Builder.newInstance()
+                .id(message.getId())
+                .aggregateId(message.getAggregateId())
+                .targetAddress(message.getTargetAddress())
+                .payload(message.getPayload())
+                .status(message.getStatus())
+                .attempts(message.getAttempts())
+                .nextAttemptAt(message.getNextAttemptAt())
+                .claimedAt(message.getClaimedAt())
+                .lastError(message.getLastError())
+                .created(message.getCreated());
+    }
+}
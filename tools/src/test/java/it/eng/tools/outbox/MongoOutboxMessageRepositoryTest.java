@@ -0,0 +1,136 @@
+package it.eng.tools.outbox;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import com.mongodb.client.result.UpdateResult;
+
+@ExtendWith(MockitoExtension.class)
+class MongoOutboxMessageRepositoryTest {
+
+    private static final Instant NOW = Instant.parse("2025-03-01T10:00:00Z");
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private MongoOutboxMessageRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new MongoOutboxMessageRepository(mongoTemplate);
+    }
+
+    @Test
+    @DisplayName("Due messages are pending, not scheduled later and not for busy peers, oldest first")
+    void findDue() {
+        ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+        when(mongoTemplate.find(queryCaptor.capture(), eq(OutboxMessage.class))).thenReturn(List.of());
+
+        repository.findDue(NOW, List.of("https://busy.com"), 20);
+
+        Query query = queryCaptor.getValue();
+        assertEquals(OutboxMessageStatus.PENDING, query.getQueryObject().get("status"));
+        assertEquals(new Document("$lte", NOW), query.getQueryObject().get("nextAttemptAt"));
+        assertEquals(new Document("$nin", List.of("https://busy.com")), query.getQueryObject().get("peer"));
+        assertEquals(new Document("_id", 1), query.getSortObject());
+        assertEquals(20, query.getLimit());
+    }
+
+    @Test
+    @DisplayName("Message waits for older undelivered messages of the same aggregate")
+    void hasEarlierUndelivered() {
+        OutboxMessage message = message();
+        ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+        when(mongoTemplate.exists(queryCaptor.capture(), eq(OutboxMessage.class))).thenReturn(true);
+
+        assertTrue(repository.hasEarlierUndelivered(message));
+
+        Document queryObject = queryCaptor.getValue().getQueryObject();
+        assertEquals("negotiation-1", queryObject.get("aggregateId"));
+        assertEquals(new Document("$in", List.of(OutboxMessageStatus.PENDING, OutboxMessageStatus.IN_FLIGHT)), queryObject.get("status"));
+        assertEquals(new Document("$lt", new ObjectId(message.getId())), queryObject.get("_id"));
+    }
+
+    @Test
+    @DisplayName("Only pending message can be claimed")
+    void claim() {
+        OutboxMessage message = message();
+        ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<UpdateDefinition> updateCaptor = ArgumentCaptor.forClass(UpdateDefinition.class);
+        when(mongoTemplate.findAndModify(queryCaptor.capture(), updateCaptor.capture(), any(FindAndModifyOptions.class), eq(OutboxMessage.class)))
+                .thenReturn(null);
+
+        Optional<OutboxMessage> claimed = repository.claim(message.getId(), NOW);
+
+        assertFalse(claimed.isPresent());
+        assertEquals(OutboxMessageStatus.PENDING, queryCaptor.getValue().getQueryObject().get("status"));
+        Document set = (Document) updateCaptor.getValue().getUpdateObject().get("$set");
+        assertEquals(OutboxMessageStatus.IN_FLIGHT, set.get("status"));
+        assertEquals(NOW, set.get("claimedAt"));
+    }
+
+    @Test
+    @DisplayName("Rescheduling applies only to message still in flight")
+    void reschedule() {
+        ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<UpdateDefinition> updateCaptor = ArgumentCaptor.forClass(UpdateDefinition.class);
+        when(mongoTemplate.updateFirst(queryCaptor.capture(), updateCaptor.capture(), eq(OutboxMessage.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        repository.reschedule("id", 2, NOW, "HTTP 503");
+
+        assertEquals(OutboxMessageStatus.IN_FLIGHT, queryCaptor.getValue().getQueryObject().get("status"));
+        Document update = updateCaptor.getValue().getUpdateObject();
+        Document set = (Document) update.get("$set");
+        assertEquals(OutboxMessageStatus.PENDING, set.get("status"));
+        assertEquals(2, set.get("attempts"));
+        assertEquals(NOW, set.get("nextAttemptAt"));
+        assertEquals("HTTP 503", set.get("lastError"));
+        assertTrue(((Document) update.get("$unset")).containsKey("claimedAt"));
+    }
+
+    @Test
+    @DisplayName("Messages claimed too long ago are released")
+    void releaseStaleClaims() {
+        ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+        when(mongoTemplate.updateMulti(queryCaptor.capture(), any(UpdateDefinition.class), eq(OutboxMessage.class)))
+                .thenReturn(UpdateResult.acknowledged(3, 3L, null));
+
+        assertEquals(3, repository.releaseStaleClaims(NOW));
+
+        assertEquals(OutboxMessageStatus.IN_FLIGHT, queryCaptor.getValue().getQueryObject().get("status"));
+        assertEquals(new Document("$lt", NOW), queryCaptor.getValue().getQueryObject().get("claimedAt"));
+        verify(mongoTemplate, never()).remove(any(Query.class), eq(OutboxMessage.class));
+    }
+
+    private OutboxMessage message() {
+        return OutboxMessage.Builder.newInstance()
+                .aggregateId("negotiation-1")
+                .targetAddress("https://consumer.com/negotiations/1/agreement")
+                .build();
+    }
+}
@@ -0,0 +1,242 @@
+package it.eng.tools.outbox;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.mongodb.MongoTransactionManager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import it.eng.tools.client.rest.OkHttpRestClient;
+import it.eng.tools.event.AuditEventType;
+import it.eng.tools.property.HttpClientProperties;
+import it.eng.tools.service.AuditEventPublisher;
+import it.eng.tools.util.CredentialUtils;
+import okhttp3.OkHttpClient;
+
+/**
+ * Delivers messages stored through {@link OutboxService} to a local HTTP server acting as a flaky peer.
+ */
+@ExtendWith(MockitoExtension.class)
+class OutboxDispatcherTest {
+
+    private static final String CREDENTIALS = "Bearer token";
+
+    @Mock
+    private CredentialUtils credentialUtils;
+    @Mock
+    private AuditEventPublisher auditEventPublisher;
+    @Mock
+    private ObjectProvider<MongoTransactionManager> transactionManager;
+
+    private final InMemoryOutboxMessageRepository repository = new InMemoryOutboxMessageRepository();
+    private final Queue<ReceivedRequest> received = new ConcurrentLinkedQueue<>();
+    private final Queue<Integer> responseCodes = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger concurrentRequests = new AtomicInteger();
+    private final AtomicInteger maxConcurrentRequests = new AtomicInteger();
+    private volatile long responseDelayMillis;
+
+    private HttpServer peer;
+    private OutboxProperties properties;
+    private OutboxDispatcher dispatcher;
+    private OutboxService outboxService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        peer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        peer.createContext("/", this::handle);
+        peer.setExecutor(Executors.newCachedThreadPool());
+        peer.start();
+
+        properties = new OutboxProperties();
+        properties.setPollIntervalMillis(20);
+        properties.setInitialBackoffMillis(20);
+        properties.setMaxBackoffMillis(100);
+        properties.setMaxAttempts(5);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+        peer.stop(0);
+    }
+
+    @Test
+    @DisplayName("Message is delivered after peer recovers; state changed once, same idempotency key on every attempt")
+    void flakyPeer_eventualDelivery() throws Exception {
+        startDispatcher();
+        responseCodes.addAll(List.of(503, 503, 200));
+        AtomicInteger stateChanges = new AtomicInteger();
+
+        String result = outboxService.saveAndEnqueue("negotiation-1", peerAddress("/negotiations/1/agreement"),
+                new ObjectMapper().readTree("{\"@type\":\"ContractAgreementMessage\"}"),
+                () -> "AGREED-" + stateChanges.incrementAndGet());
+
+        assertEquals("AGREED-1", result);
+        waitFor(() -> repository.all().isEmpty());
+        assertEquals(1, stateChanges.get());
+        assertEquals(3, received.size());
+        String messageKey = received.peek().idempotencyKey();
+        assertTrue(received.stream().allMatch(request -> messageKey.equals(request.idempotencyKey())));
+        assertTrue(received.stream().allMatch(request -> CREDENTIALS.equals(request.authorization())));
+        assertTrue(received.stream().allMatch(request -> request.body().equals("{\"@type\":\"ContractAgreementMessage\"}")));
+        verify(auditEventPublisher, never()).publishEvent(eq(AuditEventType.PROTOCOL_MESSAGE_DELIVERY_FAILED), eq("Protocol message delivery failed"), anyMap());
+    }
+
+    @Test
+    @DisplayName("Messages of the same aggregate are delivered in order, later one waits for retries of the earlier")
+    void sameAggregate_deliveredInOrder() throws Exception {
+        startDispatcher();
+        responseCodes.addAll(List.of(503, 200, 200));
+
+        outboxService.saveAndEnqueue("negotiation-1", peerAddress("/agreement"), null, () -> null);
+        outboxService.saveAndEnqueue("negotiation-1", peerAddress("/finalize"), null, () -> null);
+
+        waitFor(() -> repository.all().isEmpty());
+        assertEquals(List.of("/agreement", "/agreement", "/finalize"), received.stream().map(ReceivedRequest::path).toList());
+    }
+
+    @Test
+    @DisplayName("Message rejected by the peer is not retried and is marked as failed")
+    void rejected_markedFailed() throws Exception {
+        startDispatcher();
+        responseCodes.add(400);
+
+        outboxService.saveAndEnqueue("negotiation-1", peerAddress("/terminate"), null, () -> null);
+
+        waitFor(() -> repository.all().stream().allMatch(message -> message.getStatus() == OutboxMessageStatus.FAILED));
+        OutboxMessage failed = repository.all().get(0);
+        assertEquals(1, failed.getAttempts());
+        assertEquals("HTTP 400 - rejected", failed.getLastError());
+        assertEquals(1, received.size());
+        verify(auditEventPublisher).publishEvent(eq(AuditEventType.PROTOCOL_MESSAGE_DELIVERY_FAILED), eq("Protocol message delivery failed"), anyMap());
+    }
+
+    @Test
+    @DisplayName("Message still failing after maximum number of attempts is marked as failed")
+    void unavailable_maxAttempts() throws Exception {
+        properties.setMaxAttempts(3);
+        startDispatcher();
+        responseCodes.addAll(List.of(503, 503, 503, 503));
+
+        outboxService.saveAndEnqueue("negotiation-1", peerAddress("/terminate"), null, () -> null);
+
+        waitFor(() -> repository.all().stream().allMatch(message -> message.getStatus() == OutboxMessageStatus.FAILED));
+        assertEquals(3, repository.all().get(0).getAttempts());
+        assertEquals(3, received.size());
+    }
+
+    @Test
+    @DisplayName("Concurrent deliveries to the same peer are limited")
+    void slowPeer_concurrencyLimited() throws Exception {
+        properties.setDispatcherThreads(4);
+        properties.setMaxConcurrentPerPeer(2);
+        startDispatcher();
+        responseDelayMillis = 50;
+
+        for (int i = 0; i < 10; i++) {
+            outboxService.saveAndEnqueue("negotiation-" + i, peerAddress("/events"), null, () -> null);
+        }
+
+        waitFor(() -> repository.all().isEmpty());
+        assertEquals(10, received.size());
+        assertEquals(2, maxConcurrentRequests.get());
+    }
+
+    @Test
+    @DisplayName("Backoff grows exponentially up to the maximum, with jitter")
+    void backoff() {
+        properties.setInitialBackoffMillis(1000);
+        properties.setMaxBackoffMillis(10_000);
+        dispatcher = new OutboxDispatcher(repository, null, credentialUtils, auditEventPublisher, properties);
+
+        for (int i = 0; i < 100; i++) {
+            assertBetween(500, 1000, dispatcher.backoff(1));
+            assertBetween(2000, 4000, dispatcher.backoff(3));
+            assertBetween(5000, 10_000, dispatcher.backoff(20));
+        }
+    }
+
+    private void startDispatcher() {
+        when(credentialUtils.getConnectorCredentials()).thenReturn(CREDENTIALS);
+        OkHttpClient okHttpClient = new OkHttpClient.Builder()
+                .readTimeout(5, TimeUnit.SECONDS)
+                .build();
+        OkHttpRestClient okHttpRestClient = new OkHttpRestClient(okHttpClient, credentialUtils, new HttpClientProperties(), "8080", false);
+        dispatcher = new OutboxDispatcher(repository, okHttpRestClient, credentialUtils, auditEventPublisher, properties);
+        outboxService = new OutboxService(repository, dispatcher, transactionManager);
+        dispatcher.start();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        int concurrent = concurrentRequests.incrementAndGet();
+        maxConcurrentRequests.accumulateAndGet(concurrent, Math::max);
+        try {
+            received.add(new ReceivedRequest(exchange.getRequestURI().getPath(),
+                    exchange.getRequestHeaders().getFirst(OkHttpRestClient.IDEMPOTENCY_KEY),
+                    exchange.getRequestHeaders().getFirst("Authorization"),
+                    new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8)));
+            if (responseDelayMillis > 0) {
+                Thread.sleep(responseDelayMillis);
+            }
+            Integer code = responseCodes.poll();
+            int status = code != null ? code : 200;
+            byte[] body = (status == 400 ? "rejected" : "").getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status, body.length > 0 ? body.length : -1);
+            if (body.length > 0) {
+                exchange.getResponseBody().write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            concurrentRequests.decrementAndGet();
+            exchange.close();
+        }
+    }
+
+    private String peerAddress(String path) {
+        return "http://localhost:" + peer.getAddress().getPort() + path;
+    }
+
+    private void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+
+    private static void assertBetween(long min, long max, Duration duration) {
+        assertTrue(duration.toMillis() >= min && duration.toMillis() <= max, duration.toMillis() + " ms");
+    }
+
+    private record ReceivedRequest(String path, String idempotencyKey, String authorization, String body) {
+    }
+}
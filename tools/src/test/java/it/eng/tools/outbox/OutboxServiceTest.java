@@ -0,0 +1,118 @@
+package it.eng.tools.outbox;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxServiceTest {
+
+    private static final String TARGET_ADDRESS = "https://provider.com:8443/negotiations/1/events";
+
+    @Mock
+    private OutboxMessageRepository repository;
+    @Mock
+    private OutboxDispatcher dispatcher;
+    @Mock
+    private ObjectProvider<MongoTransactionManager> transactionManagerProvider;
+    @Mock
+    private MongoTransactionManager transactionManager;
+    @Mock
+    private Runnable stateChange;
+
+    @Test
+    @DisplayName("Message is stored after the state change and dispatcher is woken up")
+    void saveAndEnqueue_withoutTransaction() throws Exception {
+        OutboxService outboxService = new OutboxService(repository, dispatcher, transactionManagerProvider);
+
+        String result = outboxService.saveAndEnqueue("negotiation-1", TARGET_ADDRESS,
+                new ObjectMapper().readTree("{\"a\": 1}"), () -> {
+                    stateChange.run();
+                    return "changed";
+                });
+
+        assertEquals("changed", result);
+        ArgumentCaptor<OutboxMessage> messageCaptor = ArgumentCaptor.forClass(OutboxMessage.class);
+        InOrder inOrder = inOrder(stateChange, repository, dispatcher);
+        inOrder.verify(stateChange).run();
+        inOrder.verify(repository).insert(messageCaptor.capture());
+        inOrder.verify(dispatcher).wakeUp();
+        OutboxMessage message = messageCaptor.getValue();
+        assertEquals("negotiation-1", message.getAggregateId());
+        assertEquals("https://provider.com:8443", message.getPeer());
+        assertEquals("{\"a\":1}", message.getPayload());
+        assertEquals(OutboxMessageStatus.PENDING, message.getStatus());
+        assertEquals(0, message.getAttempts());
+    }
+
+    @Test
+    @DisplayName("Message is not stored when the state change fails")
+    void saveAndEnqueue_stateChangeFails() {
+        OutboxService outboxService = new OutboxService(repository, dispatcher, transactionManagerProvider);
+
+        assertThrows(IllegalStateException.class, () -> outboxService.saveAndEnqueue("negotiation-1", TARGET_ADDRESS, null,
+                () -> {
+                    throw new IllegalStateException("optimistic locking");
+                }));
+
+        verify(repository, never()).insert(any(OutboxMessage.class));
+        verify(dispatcher, never()).wakeUp();
+    }
+
+    @Test
+    @DisplayName("State change and message are written in one transaction when transactions are enabled")
+    void saveAndEnqueue_transactional() {
+        TransactionStatus transactionStatus = mock(TransactionStatus.class);
+        when(transactionManagerProvider.getIfAvailable()).thenReturn(transactionManager);
+        when(transactionManager.getTransaction(any())).thenReturn(transactionStatus);
+        OutboxService outboxService = new OutboxService(repository, dispatcher, transactionManagerProvider);
+
+        outboxService.saveAndEnqueue("negotiation-1", TARGET_ADDRESS, null, () -> {
+            stateChange.run();
+            return null;
+        });
+
+        InOrder inOrder = inOrder(transactionManager, stateChange, repository, dispatcher);
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(stateChange).run();
+        inOrder.verify(repository).insert(any(OutboxMessage.class));
+        inOrder.verify(transactionManager).commit(transactionStatus);
+        inOrder.verify(dispatcher).wakeUp();
+    }
+
+    @Test
+    @DisplayName("Transaction is rolled back when storing the message fails")
+    void saveAndEnqueue_transactionRolledBack() {
+        TransactionStatus transactionStatus = mock(TransactionStatus.class);
+        when(transactionManagerProvider.getIfAvailable()).thenReturn(transactionManager);
+        when(transactionManager.getTransaction(any())).thenReturn(transactionStatus);
+        doThrow(new IllegalStateException("write failed")).when(repository).insert(any(OutboxMessage.class));
+        OutboxService outboxService = new OutboxService(repository, dispatcher, transactionManagerProvider);
+
+        assertThrows(IllegalStateException.class,
+                () -> outboxService.saveAndEnqueue("negotiation-1", TARGET_ADDRESS, null, () -> null));
+
+        verify(transactionManager).rollback(transactionStatus);
+        verify(transactionManager, never()).commit(transactionStatus);
+        verify(dispatcher, never()).wakeUp();
+    }
+}
@@ -3,6 +3,7 @@ package it.eng.tools.repository;
 import it.eng.tools.event.AuditEventType;
 import it.eng.tools.model.IConstants;
 import lombok.Data;
+import org.bson.Document;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -21,10 +22,12 @@ import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -418,6 +421,55 @@ class GenericDynamicFilterRepositoryImplTest {
         assertTrue(queryString.contains("datasetId"));
     }
 
+    @Test
+    @DisplayName("Find with dynamic filters - only given fields are loaded")
+    void findWithDynamicFilters_projection() {
+        Map<String, Object> filters = Map.of("stringField", "test value");
+
+        when(mongoTemplate.find(any(Query.class), eq(TestEntity.class)))
+                .thenReturn(List.of(createMockEntity()));
+
+        repository.findWithDynamicFilters(filters, TestEntity.class, pageable, List.of("id", "stringField"));
+
+        verify(mongoTemplate).find(queryCaptor.capture(), eq(TestEntity.class));
+        assertEquals(new Document(Map.of("id", 1, "stringField", 1)), queryCaptor.getValue().getFieldsObject());
+        assertEquals(new Document("stringField", "test value"), queryCaptor.getValue().getQueryObject());
+    }
+
+    @Test
+    @DisplayName("Find with dynamic filters - whole documents are loaded by default")
+    void findWithDynamicFilters_noProjection() {
+        when(mongoTemplate.find(any(Query.class), eq(TestEntity.class)))
+                .thenReturn(List.of(createMockEntity()));
+
+        repository.findWithDynamicFilters(Map.of(), TestEntity.class, pageable);
+
+        verify(mongoTemplate).find(queryCaptor.capture(), eq(TestEntity.class));
+        assertTrue(queryCaptor.getValue().getFieldsObject().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Stream with dynamic filters - cursor without count or paging")
+    void streamWithDynamicFilters() {
+        Map<String, Object> filters = Map.of("booleanField", true);
+        when(mongoTemplate.stream(any(Query.class), eq(TestEntity.class)))
+                .thenReturn(Stream.of(createMockEntity(), createMockEntity()));
+
+        try (Stream<TestEntity> result = repository.streamWithDynamicFilters(filters, TestEntity.class,
+                pageable.getSort(), List.of("stringField"))) {
+            assertEquals(2, result.count());
+        }
+
+        verify(mongoTemplate).stream(queryCaptor.capture(), eq(TestEntity.class));
+        Query capturedQuery = queryCaptor.getValue();
+        assertEquals(new Document("booleanField", true), capturedQuery.getQueryObject());
+        assertEquals(new Document("stringField", 1), capturedQuery.getFieldsObject());
+        assertEquals(new Document("timestamp", -1), capturedQuery.getSortObject());
+        assertEquals(0, capturedQuery.getLimit());
+        assertTrue(capturedQuery.getMeta().getCursorBatchSize() > 0);
+        verify(mongoTemplate, never()).count(any(Query.class), eq(TestEntity.class));
+    }
+
     private TestEntity createMockEntity() {
         TestEntity entity = new TestEntity();
         entity.setId("test-id");
@@ -1,10 +1,13 @@
 package it.eng.tools.rest.api;
 
+import it.eng.tools.configuration.AsyncRequestConfiguration;
+import it.eng.tools.controller.ApiEndpoints;
 import it.eng.tools.event.AuditEvent;
 import it.eng.tools.event.AuditEventType;
 import it.eng.tools.event.AuditEventTypeDTO;
 import it.eng.tools.exception.ResourceNotFoundException;
 import it.eng.tools.response.GenericApiResponse;
+import it.eng.tools.service.AuditEventExportService;
 import it.eng.tools.service.AuditEventService;
 import it.eng.tools.service.GenericFilterBuilder;
 import jakarta.servlet.http.HttpServletRequest;
@@ -19,17 +22,37 @@ import org.springframework.data.domain.*;
 import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
 public class AuditEventControllerTest {
@@ -46,6 +69,8 @@ public class AuditEventControllerTest {
     private PagedResourcesAssembler<AuditEvent> pagedResourcesAssembler;
     @Mock
     private AuditEventResourceAssembler plainAssembler;
+    @Mock
+    private AuditEventExportService auditEventExportService;
 
     @InjectMocks
     private AuditEventController auditEventController;
@@ -83,7 +108,7 @@ public class AuditEventControllerTest {
                 .collect(Collectors.toList());
         PagedModel<EntityModel<AuditEvent>> pagedModel = PagedModel.of(content, metadata);
 
-        when(filterBuilder.buildFromRequest(request)).thenReturn(filters);
+        when(filterBuilder.buildFromRequest(request, AuditEvent.class)).thenReturn(filters);
         when(auditEventService.getAuditEvents(filters, pageable)).thenReturn(auditEventPage);
         when(pagedResourcesAssembler.toModel(auditEventPage, plainAssembler)).thenReturn((PagedModel) pagedModel);
 
@@ -95,11 +120,129 @@ public class AuditEventControllerTest {
         assertTrue(response.getBody().getResponse().isSuccess());
         assertEquals(pagedModel, response.getBody().getResponse().getData());
 
-        verify(filterBuilder).buildFromRequest(request);
+        verify(filterBuilder).buildFromRequest(request, AuditEvent.class);
         verify(auditEventService).getAuditEvents(filters, pageable);
         verify(pagedResourcesAssembler).toModel(auditEventPage, plainAssembler);
     }
 
+    @Test
+    @DisplayName("exportAuditEvents should stream events in requested format")
+    void exportAuditEvents_csv() throws Exception {
+        when(filterBuilder.buildFromRequest(request, AuditEvent.class, Set.of("format"))).thenReturn(filters);
+        when(auditEventExportService.export(eq(filters), eq(AuditEventExportService.Format.CSV), any(OutputStream.class)))
+                .thenAnswer(invocation -> {
+                    invocation.getArgument(2, OutputStream.class).write("id,timestamp\n".getBytes(StandardCharsets.UTF_8));
+                    return 1L;
+                });
+
+        ResponseEntity<StreamingResponseBody> response = auditEventController.exportAuditEvents(request, "CSV", null);
+
+        assertEquals(HttpStatusCode.valueOf(200), response.getStatusCode());
+        assertEquals(MediaType.parseMediaType("text/csv"), response.getHeaders().getContentType());
+        assertEquals("attachment; filename=\"audit-events.csv\"",
+                response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION));
+        assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        assertEquals("id,timestamp\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("exportAuditEvents should be streamed asynchronously with export timeout")
+    void exportAuditEvents_asyncDispatch() throws Exception {
+        Duration exportTimeout = new AsyncRequestConfiguration(45).getExportTimeout();
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(auditEventController)
+                .setAsyncRequestTimeout(exportTimeout.toMillis())
+                .build();
+        when(filterBuilder.buildFromRequest(any(HttpServletRequest.class), eq(AuditEvent.class), eq(Set.of("format"))))
+                .thenReturn(filters);
+        when(auditEventExportService.export(eq(filters), eq(AuditEventExportService.Format.CSV), any(OutputStream.class)))
+                .thenAnswer(invocation -> {
+                    invocation.getArgument(2, OutputStream.class).write("id,timestamp\n".getBytes(StandardCharsets.UTF_8));
+                    return 1L;
+                });
+
+        MvcResult mvcResult = mockMvc.perform(get(ApiEndpoints.AUDIT_V1 + "/export").param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertEquals(exportTimeout.toMillis(), mvcResult.getRequest().getAsyncContext().getTimeout());
+
+        MockHttpServletResponse response = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv"))
+                .andReturn()
+                .getResponse();
+        assertEquals("attachment; filename=\"audit-events.csv\"", response.getHeader(HttpHeaders.CONTENT_DISPOSITION));
+        assertEquals("id,timestamp\n", response.getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("exportAuditEvents should compress when client accepts gzip")
+    void exportAuditEvents_gzip() throws Exception {
+        when(filterBuilder.buildFromRequest(request, AuditEvent.class, Set.of("format"))).thenReturn(filters);
+        when(auditEventExportService.export(eq(filters), eq(AuditEventExportService.Format.NDJSON), any(OutputStream.class)))
+                .thenAnswer(invocation -> {
+                    invocation.getArgument(2, OutputStream.class).write("{}\n".getBytes(StandardCharsets.UTF_8));
+                    return 1L;
+                });
+
+        ResponseEntity<StreamingResponseBody> response = auditEventController.exportAuditEvents(request, "ndjson", "gzip, deflate");
+
+        assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+        assertEquals("gzip", response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(List.of(HttpHeaders.ACCEPT_ENCODING), response.getHeaders().getVary());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            assertEquals("{}\n", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    @DisplayName("exportAuditEvents should not compress when gzip is refused with q=0")
+    void exportAuditEvents_gzipRefused() throws Exception {
+        when(filterBuilder.buildFromRequest(request, AuditEvent.class, Set.of("format"))).thenReturn(filters);
+        when(auditEventExportService.export(eq(filters), eq(AuditEventExportService.Format.NDJSON), any(OutputStream.class)))
+                .thenAnswer(invocation -> {
+                    invocation.getArgument(2, OutputStream.class).write("{}\n".getBytes(StandardCharsets.UTF_8));
+                    return 1L;
+                });
+
+        ResponseEntity<StreamingResponseBody> response = auditEventController.exportAuditEvents(request, "ndjson", "gzip;q=0, identity");
+
+        assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(List.of(HttpHeaders.ACCEPT_ENCODING), response.getHeaders().getVary());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        assertEquals("{}\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Accept-Encoding q-values decide whether gzip is accepted")
+    void acceptsGzip() {
+        assertTrue(AuditEventController.acceptsGzip("gzip"));
+        assertTrue(AuditEventController.acceptsGzip("deflate, GZIP;q=0.5"));
+        assertTrue(AuditEventController.acceptsGzip("*"));
+        assertTrue(AuditEventController.acceptsGzip("x-gzip ; q=1.0"));
+        assertFalse(AuditEventController.acceptsGzip(null));
+        assertFalse(AuditEventController.acceptsGzip("identity"));
+        assertFalse(AuditEventController.acceptsGzip("gzip;q=0"));
+        assertFalse(AuditEventController.acceptsGzip("gzip; q=0.000, *"));
+        assertFalse(AuditEventController.acceptsGzip("*;q=0"));
+        assertFalse(AuditEventController.acceptsGzip("gzip;q=invalid"));
+    }
+
+    @Test
+    @DisplayName("exportAuditEvents should reject unknown format")
+    void exportAuditEvents_unknownFormat() {
+        ResponseEntity<StreamingResponseBody> response = auditEventController.exportAuditEvents(request, "xml", null);
+
+        assertEquals(HttpStatusCode.valueOf(400), response.getStatusCode());
+        verifyNoInteractions(filterBuilder, auditEventExportService);
+    }
+
     @Test
     @DisplayName("getAuditEventTypes should return audit event types with success response")
     public void getAuditEventTypes_shouldReturnAuditEventTypesWithSuccessResponse() {
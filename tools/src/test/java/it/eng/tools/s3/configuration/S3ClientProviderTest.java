@@ -0,0 +1,48 @@
+package it.eng.tools.s3.configuration;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import it.eng.tools.s3.properties.S3Properties;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+import software.amazon.awssdk.services.s3.S3Client;
+
+@ExtendWith(MockitoExtension.class)
+class S3ClientProviderTest {
+
+    @Mock
+    private SdkHttpClient sdkHttpClient;
+    @Mock
+    private SdkAsyncHttpClient sdkAsyncHttpClient;
+
+    @Test
+    @DisplayName("Admin client is created once and shared by all threads")
+    void adminS3Client_sharedAcrossThreads() throws Exception {
+        S3Properties s3Properties = new S3Properties();
+        s3Properties.setEndpoint("http://localhost:9000");
+        s3Properties.setRegion("us-east-1");
+        s3Properties.setAccessKey("minioadmin");
+        s3Properties.setSecretKey("minioadmin");
+        S3ClientProvider provider = new S3ClientProvider(s3Properties, sdkHttpClient, sdkAsyncHttpClient);
+        ExecutorService threads = Executors.newFixedThreadPool(4);
+        try {
+            S3Client client = provider.adminS3Client();
+
+            for (int i = 0; i < 8; i++) {
+                assertSame(client, CompletableFuture.supplyAsync(provider::adminS3Client, threads).get());
+            }
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+}
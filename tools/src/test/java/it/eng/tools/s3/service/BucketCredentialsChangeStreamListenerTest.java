@@ -0,0 +1,63 @@
+package it.eng.tools.s3.service;
+
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import it.eng.tools.s3.configuration.S3ClientProvider;
+import it.eng.tools.s3.model.BucketCredentialsEntity;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BucketCredentialsChangeStreamListenerTest {
+
+    private static final String BUCKET_NAME = "test-bucket";
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+    @Mock
+    private BucketCredentialsService bucketCredentialsService;
+    @Mock
+    private S3ClientProvider s3ClientProvider;
+    @Mock
+    private ChangeStreamDocument<Document> change;
+
+    private BucketCredentialsChangeStreamListener listener;
+
+    @BeforeEach
+    void setUp() {
+        when(mongoTemplate.getCollectionName(BucketCredentialsEntity.class)).thenReturn("bucket_credentials");
+        listener = new BucketCredentialsChangeStreamListener(mongoTemplate, bucketCredentialsService, s3ClientProvider, 10);
+    }
+
+    @Test
+    @DisplayName("Changed bucket credentials evict cached credentials and clients of that bucket")
+    void evict_bucket() {
+        when(change.getDocumentKey()).thenReturn(new BsonDocument("_id", new BsonString(BUCKET_NAME)));
+
+        listener.evict(change);
+
+        verify(bucketCredentialsService).evictBucketCredentials(BUCKET_NAME);
+        verify(s3ClientProvider).clearBucketCache(BUCKET_NAME);
+        verifyNoMoreInteractions(bucketCredentialsService, s3ClientProvider);
+    }
+
+    @Test
+    @DisplayName("Change without document key evicts all buckets")
+    void evict_all() {
+        when(change.getDocumentKey()).thenReturn(null);
+
+        listener.evict(change);
+
+        verify(bucketCredentialsService).evictAllBucketCredentials();
+        verify(s3ClientProvider).clearAllBucketCaches();
+    }
+}
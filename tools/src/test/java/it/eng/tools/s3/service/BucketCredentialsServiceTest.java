@@ -0,0 +1,203 @@
+package it.eng.tools.s3.service;
+
+import com.mongodb.client.result.UpdateResult;
+import it.eng.tools.exception.S3ServerException;
+import it.eng.tools.s3.configuration.S3ClientProvider;
+import it.eng.tools.s3.model.BucketCredentialsEntity;
+import it.eng.tools.s3.model.S3ClientRequest;
+import it.eng.tools.s3.properties.S3Properties;
+import it.eng.tools.s3.repository.BucketCredentialsRepository;
+import it.eng.tools.service.FieldEncryptionService;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+
+import java.security.NoSuchAlgorithmException;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@Slf4j
+class BucketCredentialsServiceTest {
+
+    private static final String BUCKET_NAME = "test-bucket";
+    private static final String SECRET_KEY = "secretKey";
+
+    @Mock
+    private BucketCredentialsRepository bucketCredentialsRepository;
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private FieldEncryptionService fieldEncryptionService;
+    private BucketCredentialsService bucketCredentialsService;
+    private BucketCredentialsEntity stored;
+
+    @BeforeEach
+    void setUp() throws NoSuchAlgorithmException {
+        fieldEncryptionService = spy(new FieldEncryptionService("test-encryption-key"));
+        bucketCredentialsService = new BucketCredentialsService(fieldEncryptionService, bucketCredentialsRepository, mongoTemplate);
+        stored = BucketCredentialsEntity.Builder.newInstance()
+                .bucketName(BUCKET_NAME)
+                .accessKey("accessKey")
+                .secretKey(fieldEncryptionService.encrypt(SECRET_KEY))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Credentials are read and decrypted once")
+    void getBucketCredentials_cached() {
+        when(bucketCredentialsRepository.findByBucketName(BUCKET_NAME)).thenReturn(Optional.of(stored));
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(SECRET_KEY, bucketCredentialsService.getBucketCredentials(BUCKET_NAME).getSecretKey());
+        }
+
+        verify(bucketCredentialsRepository, times(1)).findByBucketName(BUCKET_NAME);
+        verify(fieldEncryptionService, times(1)).decrypt(any());
+    }
+
+    @Test
+    @DisplayName("Missing credentials are not cached")
+    void getBucketCredentials_notFound() {
+        when(bucketCredentialsRepository.findByBucketName(BUCKET_NAME))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(stored));
+
+        assertThrows(S3ServerException.class, () -> bucketCredentialsService.getBucketCredentials(BUCKET_NAME));
+        assertEquals(SECRET_KEY, bucketCredentialsService.getBucketCredentials(BUCKET_NAME).getSecretKey());
+    }
+
+    @Test
+    @DisplayName("Saving credentials evicts cached ones")
+    void saveBucketCredentials_evicts() {
+        BucketCredentialsEntity rotated = BucketCredentialsEntity.Builder.newInstance()
+                .bucketName(BUCKET_NAME)
+                .accessKey("newAccessKey")
+                .secretKey(fieldEncryptionService.encrypt("newSecretKey"))
+                .build();
+        when(bucketCredentialsRepository.findByBucketName(BUCKET_NAME))
+                .thenReturn(Optional.of(stored))
+                .thenReturn(Optional.of(rotated));
+        when(bucketCredentialsRepository.save(any(BucketCredentialsEntity.class))).thenReturn(rotated);
+        bucketCredentialsService.getBucketCredentials(BUCKET_NAME);
+
+        bucketCredentialsService.saveBucketCredentials(BucketCredentialsEntity.Builder.newInstance()
+                .bucketName(BUCKET_NAME)
+                .accessKey("newAccessKey")
+                .secretKey("newSecretKey")
+                .build());
+
+        BucketCredentialsEntity credentials = bucketCredentialsService.getBucketCredentials(BUCKET_NAME);
+        assertEquals("newAccessKey", credentials.getAccessKey());
+        assertEquals("newSecretKey", credentials.getSecretKey());
+    }
+
+    @Test
+    @DisplayName("Credentials encrypted in legacy format are stored again in current format")
+    void getBucketCredentials_reEncryptsLegacy() {
+        Update update = reEncryptLegacy(3L);
+
+        Document set = (Document) update.getUpdateObject().get("$set");
+        assertEquals(1, set.size());
+        String secretKey = set.getString(BucketCredentialsService.SECRET_KEY_FIELD);
+        assertFalse(fieldEncryptionService.isLegacy(secretKey));
+        assertEquals(SECRET_KEY, fieldEncryptionService.decrypt(secretKey));
+        assertEquals(new Document(BucketCredentialsService.VERSION_FIELD, 1L), update.getUpdateObject().get("$inc"));
+    }
+
+    @Test
+    @DisplayName("Legacy credentials stored without version are re-encrypted without adding a version")
+    void getBucketCredentials_reEncryptsLegacyWithoutVersion() {
+        Update update = reEncryptLegacy(null);
+
+        Document set = (Document) update.getUpdateObject().get("$set");
+        assertEquals(Set.of(BucketCredentialsService.SECRET_KEY_FIELD), set.keySet());
+        assertEquals(SECRET_KEY, fieldEncryptionService.decrypt(set.getString(BucketCredentialsService.SECRET_KEY_FIELD)));
+        assertFalse(update.getUpdateObject().containsKey("$inc"));
+    }
+
+    private Update reEncryptLegacy(Long version) {
+        BucketCredentialsEntity legacy = BucketCredentialsEntity.Builder.newInstance()
+                .bucketName(BUCKET_NAME)
+                .accessKey("accessKey")
+                .secretKey("legacy-secret")
+                .version(version)
+                .build();
+        doReturn(true).when(fieldEncryptionService).isLegacy("legacy-secret");
+        doReturn(SECRET_KEY).when(fieldEncryptionService).decrypt("legacy-secret");
+        when(bucketCredentialsRepository.findByBucketName(BUCKET_NAME)).thenReturn(Optional.of(legacy));
+        when(mongoTemplate.getCollectionName(BucketCredentialsEntity.class)).thenReturn("bucket_credentials");
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq("bucket_credentials")))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        assertEquals(SECRET_KEY, bucketCredentialsService.getBucketCredentials(BUCKET_NAME).getSecretKey());
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(query.capture(), update.capture(), eq("bucket_credentials"));
+        verify(bucketCredentialsRepository, never()).save(any());
+        // updated only while it still holds the legacy value
+        assertEquals(new Document("_id", BUCKET_NAME).append(BucketCredentialsService.SECRET_KEY_FIELD, "legacy-secret"),
+                query.getValue().getQueryObject());
+        return update.getValue();
+    }
+
+    @Test
+    @DisplayName("100k fileExists calls query MongoDB and decrypt the secret only once")
+    void fileExists_100k() {
+        when(bucketCredentialsRepository.findByBucketName(BUCKET_NAME)).thenReturn(Optional.of(stored));
+        S3Client s3Client = new S3Client() {
+            @Override
+            public HeadObjectResponse headObject(HeadObjectRequest headObjectRequest) {
+                return HeadObjectResponse.builder().build();
+            }
+
+            @Override
+            public String serviceName() {
+                return SERVICE_NAME;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        S3Properties s3Properties = new S3Properties();
+        s3Properties.setAccessKey("adminAccessKey");
+        s3Properties.setSecretKey("adminSecretKey");
+        S3ClientProvider s3ClientProvider = new S3ClientProvider(s3Properties, null, null) {
+            @Override
+            public S3Client s3Client(S3ClientRequest s3ClientRequest) {
+                return s3Client;
+            }
+        };
+        S3ClientServiceImpl s3ClientService = new S3ClientServiceImpl(s3ClientProvider, s3Properties,
+                bucketCredentialsService, null, null);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 100_000; i++) {
+            assertTrue(s3ClientService.fileExists(BUCKET_NAME, "file-" + i));
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        verify(bucketCredentialsRepository, times(1)).findByBucketName(BUCKET_NAME);
+        verify(fieldEncryptionService, times(1)).decrypt(any());
+        log.info("100k fileExists calls took {} ms", elapsedMillis);
+    }
+}
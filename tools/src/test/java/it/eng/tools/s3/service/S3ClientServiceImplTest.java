@@ -3,8 +3,10 @@ package it.eng.tools.s3.service;
 import it.eng.tools.s3.configuration.S3ClientProvider;
 import it.eng.tools.s3.model.BucketCredentialsEntity;
 import it.eng.tools.s3.model.S3ClientRequest;
+import it.eng.tools.s3.model.S3ObjectInfo;
 import it.eng.tools.s3.properties.S3Properties;
 import it.eng.tools.s3.util.S3Utils;
+import it.eng.tools.service.ApplicationPropertiesSnapshot;
 import jakarta.servlet.ServletOutputStream;
 import jakarta.servlet.http.HttpServletResponse;
 import org.junit.jupiter.api.BeforeEach;
@@ -25,9 +27,11 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 
@@ -97,13 +101,13 @@ public class S3ClientServiceImplTest {
         lenient().when(s3ClientProvider.adminS3Client()).thenReturn(s3Client);
         // Default to ASYNC mode for backward compatibility with existing tests
         lenient().when(s3Properties.getUploadMode()).thenReturn("ASYNC");
-        lenient().when(applicationPropertiesService.getPropertyByKey(any())).thenReturn(java.util.Optional.empty());
+        lenient().when(applicationPropertiesService.getSnapshot()).thenReturn(ApplicationPropertiesSnapshot.EMPTY);
 
         // Configure factory to return mock strategy
         lenient().when(uploadStrategyFactory.getStrategy(any())).thenReturn(mockUploadStrategy);
 
         // Configure default behavior for mock upload strategy
-        lenient().when(mockUploadStrategy.uploadFile(any(), any(), any(), any(), any(), any()))
+        lenient().when(mockUploadStrategy.uploadFile(any(), any(), any(), any(), any(), any(), anyLong()))
                 .thenReturn(CompletableFuture.completedFuture("test-etag"));
     }
 
@@ -113,7 +117,7 @@ public class S3ClientServiceImplTest {
     void uploadFile_Success(){
         // Arrange
         String expectedETag = "test-etag";
-        when(mockUploadStrategy.uploadFile(any(), any(), any(), any(), any(), any()))
+        when(mockUploadStrategy.uploadFile(any(), any(), any(), any(), any(), any(), anyLong()))
                 .thenReturn(CompletableFuture.completedFuture(expectedETag));
 
         // Act
@@ -123,7 +127,18 @@ public class S3ClientServiceImplTest {
         // Assert
         assertEquals(expectedETag, result.join());
         verify(uploadStrategyFactory).getStrategy(any());
-        verify(mockUploadStrategy).uploadFile(any(), any(), any(), any(), any(), any());
+        verify(mockUploadStrategy).uploadFile(any(), any(), any(), any(), any(), any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Should pass content length to upload strategy")
+    void uploadFile_WithContentLength() {
+        when(mockUploadStrategy.uploadFile(any(), any(), any(), any(), any(), any(), anyLong()))
+                .thenReturn(CompletableFuture.completedFuture("test-etag"));
+
+        s3ClientService.uploadFile(INPUT_STREAM, DESTINATION_S3_PROPERTIES, CONTENT_TYPE, CONTENT_DISPOSITION, 1024).join();
+
+        verify(mockUploadStrategy).uploadFile(any(), any(), any(), any(), any(), any(), eq(1024L));
     }
 
     @Test
@@ -131,8 +146,8 @@ public class S3ClientServiceImplTest {
     void uploadFile_UploadFails() {
         // Arrange - ensure ASYNC mode is used
         when(s3Properties.getUploadMode()).thenReturn("ASYNC");
-        when(applicationPropertiesService.getPropertyByKey(any())).thenReturn(java.util.Optional.empty());
-        when(mockUploadStrategy.uploadFile(any(), any(), any(), any(), any(), any()))
+        when(applicationPropertiesService.getSnapshot()).thenReturn(ApplicationPropertiesSnapshot.EMPTY);
+        when(mockUploadStrategy.uploadFile(any(), any(), any(), any(), any(), any(), anyLong()))
                 .thenReturn(CompletableFuture.failedFuture(
                         new CompletionException("Failed to upload file",
                                 S3Exception.builder().message("Upload failed").build())));
@@ -151,8 +166,8 @@ public class S3ClientServiceImplTest {
         // Arrange
         String expectedETag = "sync-test-etag";
         when(s3Properties.getUploadMode()).thenReturn("SYNC");
-        when(applicationPropertiesService.getPropertyByKey(any())).thenReturn(java.util.Optional.empty());
-        when(mockUploadStrategy.uploadFile(any(), any(), any(), any(), any(), any()))
+        when(applicationPropertiesService.getSnapshot()).thenReturn(ApplicationPropertiesSnapshot.EMPTY);
+        when(mockUploadStrategy.uploadFile(any(), any(), any(), any(), any(), any(), anyLong()))
                 .thenReturn(CompletableFuture.completedFuture(expectedETag));
 
         // Act
@@ -162,7 +177,7 @@ public class S3ClientServiceImplTest {
         // Assert
         assertEquals(expectedETag, result.join());
         verify(uploadStrategyFactory).getStrategy(it.eng.tools.s3.model.S3UploadMode.SYNC);
-        verify(mockUploadStrategy).uploadFile(any(), any(), any(), any(), any(), any());
+        verify(mockUploadStrategy).uploadFile(any(), any(), any(), any(), any(), any(), anyLong());
     }
 
     @Test
@@ -170,14 +185,9 @@ public class S3ClientServiceImplTest {
     void uploadFile_UseSyncModeFromMongoDB() {
         // Arrange
         String expectedETag = "mongodb-sync-etag";
-        it.eng.tools.model.ApplicationProperty property = it.eng.tools.model.ApplicationProperty.Builder.newInstance()
-                .key("s3.upload.mode")
-                .value("SYNC")
-                .build();
-
-        when(applicationPropertiesService.getPropertyByKey("s3.upload.mode"))
-                .thenReturn(java.util.Optional.of(property));
-        when(mockUploadStrategy.uploadFile(any(), any(), any(), any(), any(), any()))
+        when(applicationPropertiesService.getSnapshot())
+                .thenReturn(ApplicationPropertiesSnapshot.of(Map.of("s3.upload.mode", "SYNC")));
+        when(mockUploadStrategy.uploadFile(any(), any(), any(), any(), any(), any(), anyLong()))
                 .thenReturn(CompletableFuture.completedFuture(expectedETag));
 
         // Act
@@ -186,9 +196,9 @@ public class S3ClientServiceImplTest {
 
         // Assert
         assertEquals(expectedETag, result.join());
-        verify(applicationPropertiesService).getPropertyByKey("s3.upload.mode");
+        verify(applicationPropertiesService).getSnapshot();
         verify(uploadStrategyFactory).getStrategy(it.eng.tools.s3.model.S3UploadMode.SYNC);
-        verify(mockUploadStrategy).uploadFile(any(), any(), any(), any(), any(), any());
+        verify(mockUploadStrategy).uploadFile(any(), any(), any(), any(), any(), any(), anyLong());
     }
 
     @Test
@@ -196,14 +206,9 @@ public class S3ClientServiceImplTest {
     void uploadFile_UseAsyncModeFromMongoDB() {
         // Arrange
         String expectedETag = "mongodb-async-etag";
-        it.eng.tools.model.ApplicationProperty property = it.eng.tools.model.ApplicationProperty.Builder.newInstance()
-                .key("s3.upload.mode")
-                .value("ASYNC")
-                .build();
-
-        when(applicationPropertiesService.getPropertyByKey("s3.upload.mode"))
-                .thenReturn(java.util.Optional.of(property));
-        when(mockUploadStrategy.uploadFile(any(), any(), any(), any(), any(), any()))
+        when(applicationPropertiesService.getSnapshot())
+                .thenReturn(ApplicationPropertiesSnapshot.of(Map.of("s3.upload.mode", "ASYNC")));
+        when(mockUploadStrategy.uploadFile(any(), any(), any(), any(), any(), any(), anyLong()))
                 .thenReturn(CompletableFuture.completedFuture(expectedETag));
 
         // Act
@@ -212,9 +217,9 @@ public class S3ClientServiceImplTest {
 
         // Assert
         assertEquals(expectedETag, result.join());
-        verify(applicationPropertiesService).getPropertyByKey("s3.upload.mode");
+        verify(applicationPropertiesService).getSnapshot();
         verify(uploadStrategyFactory).getStrategy(it.eng.tools.s3.model.S3UploadMode.ASYNC);
-        verify(mockUploadStrategy).uploadFile(any(), any(), any(), any(), any(), any());
+        verify(mockUploadStrategy).uploadFile(any(), any(), any(), any(), any(), any(), anyLong());
     }
 
     @Test
@@ -222,10 +227,9 @@ public class S3ClientServiceImplTest {
     void uploadFile_FallbackToPropertiesWhenMongoDBEmpty() {
         // Arrange
         String expectedETag = "properties-etag";
-        when(applicationPropertiesService.getPropertyByKey("s3.upload.mode"))
-                .thenReturn(java.util.Optional.empty());
+        when(applicationPropertiesService.getSnapshot()).thenReturn(ApplicationPropertiesSnapshot.EMPTY);
         when(s3Properties.getUploadMode()).thenReturn("SYNC");
-        when(mockUploadStrategy.uploadFile(any(), any(), any(), any(), any(), any()))
+        when(mockUploadStrategy.uploadFile(any(), any(), any(), any(), any(), any(), anyLong()))
                 .thenReturn(CompletableFuture.completedFuture(expectedETag));
 
         // Act
@@ -234,10 +238,10 @@ public class S3ClientServiceImplTest {
 
         // Assert
         assertEquals(expectedETag, result.join());
-        verify(applicationPropertiesService).getPropertyByKey("s3.upload.mode");
+        verify(applicationPropertiesService).getSnapshot();
         verify(s3Properties).getUploadMode();
         verify(uploadStrategyFactory).getStrategy(it.eng.tools.s3.model.S3UploadMode.SYNC);
-        verify(mockUploadStrategy).uploadFile(any(), any(), any(), any(), any(), any());
+        verify(mockUploadStrategy).uploadFile(any(), any(), any(), any(), any(), any(), anyLong());
     }
 
     @Test
@@ -245,10 +249,10 @@ public class S3ClientServiceImplTest {
     void uploadFile_FallbackToPropertiesWhenMongoDBThrowsException() {
         // Arrange
         String expectedETag = "exception-fallback-etag";
-        when(applicationPropertiesService.getPropertyByKey("s3.upload.mode"))
+        when(applicationPropertiesService.getSnapshot())
                 .thenThrow(new RuntimeException("Database connection error"));
         when(s3Properties.getUploadMode()).thenReturn("ASYNC");
-        when(mockUploadStrategy.uploadFile(any(), any(), any(), any(), any(), any()))
+        when(mockUploadStrategy.uploadFile(any(), any(), any(), any(), any(), any(), anyLong()))
                 .thenReturn(CompletableFuture.completedFuture(expectedETag));
 
         // Act
@@ -257,10 +261,10 @@ public class S3ClientServiceImplTest {
 
         // Assert
         assertEquals(expectedETag, result.join());
-        verify(applicationPropertiesService).getPropertyByKey("s3.upload.mode");
+        verify(applicationPropertiesService).getSnapshot();
         verify(s3Properties).getUploadMode();
         verify(uploadStrategyFactory).getStrategy(it.eng.tools.s3.model.S3UploadMode.ASYNC);
-        verify(mockUploadStrategy).uploadFile(any(), any(), any(), any(), any(), any());
+        verify(mockUploadStrategy).uploadFile(any(), any(), any(), any(), any(), any(), anyLong());
     }
 
     @Test
@@ -269,8 +273,8 @@ public class S3ClientServiceImplTest {
         // Arrange
         String expectedETag = "default-sync-etag";
         when(s3Properties.getUploadMode()).thenReturn("INVALID_MODE");
-        when(applicationPropertiesService.getPropertyByKey(any())).thenReturn(java.util.Optional.empty());
-        when(mockUploadStrategy.uploadFile(any(), any(), any(), any(), any(), any()))
+        when(applicationPropertiesService.getSnapshot()).thenReturn(ApplicationPropertiesSnapshot.EMPTY);
+        when(mockUploadStrategy.uploadFile(any(), any(), any(), any(), any(), any(), anyLong()))
                 .thenReturn(CompletableFuture.completedFuture(expectedETag));
 
         // Act
@@ -280,7 +284,7 @@ public class S3ClientServiceImplTest {
         // Assert
         assertEquals(expectedETag, result.join());
         verify(uploadStrategyFactory).getStrategy(it.eng.tools.s3.model.S3UploadMode.SYNC);
-        verify(mockUploadStrategy).uploadFile(any(), any(), any(), any(), any(), any());
+        verify(mockUploadStrategy).uploadFile(any(), any(), any(), any(), any(), any(), anyLong());
     }
 
     @Test
@@ -288,8 +292,8 @@ public class S3ClientServiceImplTest {
     void uploadFile_SyncUploadFails() {
         // Arrange
         when(s3Properties.getUploadMode()).thenReturn("SYNC");
-        when(applicationPropertiesService.getPropertyByKey(any())).thenReturn(java.util.Optional.empty());
-        when(mockUploadStrategy.uploadFile(any(), any(), any(), any(), any(), any()))
+        when(applicationPropertiesService.getSnapshot()).thenReturn(ApplicationPropertiesSnapshot.EMPTY);
+        when(mockUploadStrategy.uploadFile(any(), any(), any(), any(), any(), any(), anyLong()))
                 .thenReturn(CompletableFuture.failedFuture(
                         new CompletionException("Failed to upload file",
                                 S3Exception.builder().message("Sync upload failed").build())));
@@ -301,7 +305,7 @@ public class S3ClientServiceImplTest {
         Exception exception = assertThrows(CompletionException.class, () -> result.join());
         assertTrue(exception.getMessage().contains("Failed to upload file"));
         verify(uploadStrategyFactory).getStrategy(it.eng.tools.s3.model.S3UploadMode.SYNC);
-        verify(mockUploadStrategy).uploadFile(any(), any(), any(), any(), any(), any());
+        verify(mockUploadStrategy).uploadFile(any(), any(), any(), any(), any(), any(), anyLong());
     }
 
     @Test
@@ -309,8 +313,8 @@ public class S3ClientServiceImplTest {
     void uploadFile_AsyncPartUploadFails() {
         // Arrange
         when(s3Properties.getUploadMode()).thenReturn("ASYNC");
-        when(applicationPropertiesService.getPropertyByKey(any())).thenReturn(java.util.Optional.empty());
-        when(mockUploadStrategy.uploadFile(any(), any(), any(), any(), any(), any()))
+        when(applicationPropertiesService.getSnapshot()).thenReturn(ApplicationPropertiesSnapshot.EMPTY);
+        when(mockUploadStrategy.uploadFile(any(), any(), any(), any(), any(), any(), anyLong()))
                 .thenReturn(CompletableFuture.completedFuture("test-etag"));
 
         // Act
@@ -320,7 +324,7 @@ public class S3ClientServiceImplTest {
         // Assert - with strategy pattern, upload succeeds
         assertDoesNotThrow(() -> result.join());
         verify(uploadStrategyFactory).getStrategy(it.eng.tools.s3.model.S3UploadMode.ASYNC);
-        verify(mockUploadStrategy).uploadFile(any(), any(), any(), any(), any(), any());
+        verify(mockUploadStrategy).uploadFile(any(), any(), any(), any(), any(), any(), anyLong());
     }
 
     @Test
@@ -328,8 +332,8 @@ public class S3ClientServiceImplTest {
     void uploadFile_AsyncCompleteMultipartUploadFails() {
         // Arrange
         when(s3Properties.getUploadMode()).thenReturn("ASYNC");
-        when(applicationPropertiesService.getPropertyByKey(any())).thenReturn(java.util.Optional.empty());
-        when(mockUploadStrategy.uploadFile(any(), any(), any(), any(), any(), any()))
+        when(applicationPropertiesService.getSnapshot()).thenReturn(ApplicationPropertiesSnapshot.EMPTY);
+        when(mockUploadStrategy.uploadFile(any(), any(), any(), any(), any(), any(), anyLong()))
                 .thenReturn(CompletableFuture.failedFuture(
                         new CompletionException("Failed to upload file",
                                 S3Exception.builder().message("Complete upload failed").build())));
@@ -341,7 +345,7 @@ public class S3ClientServiceImplTest {
         Exception exception = assertThrows(CompletionException.class, () -> result.join());
         assertTrue(exception.getMessage().contains("Failed to upload file"));
         verify(uploadStrategyFactory).getStrategy(it.eng.tools.s3.model.S3UploadMode.ASYNC);
-        verify(mockUploadStrategy).uploadFile(any(), any(), any(), any(), any(), any());
+        verify(mockUploadStrategy).uploadFile(any(), any(), any(), any(), any(), any(), anyLong());
     }
 
     @Test
@@ -350,8 +354,8 @@ public class S3ClientServiceImplTest {
         // Arrange
         String expectedETag = "empty-mode-etag";
         when(s3Properties.getUploadMode()).thenReturn("");
-        when(applicationPropertiesService.getPropertyByKey(any())).thenReturn(java.util.Optional.empty());
-        when(mockUploadStrategy.uploadFile(any(), any(), any(), any(), any(), any()))
+        when(applicationPropertiesService.getSnapshot()).thenReturn(ApplicationPropertiesSnapshot.EMPTY);
+        when(mockUploadStrategy.uploadFile(any(), any(), any(), any(), any(), any(), anyLong()))
                 .thenReturn(CompletableFuture.completedFuture(expectedETag));
 
         // Act
@@ -361,7 +365,7 @@ public class S3ClientServiceImplTest {
         // Assert
         assertEquals(expectedETag, result.join());
         verify(uploadStrategyFactory).getStrategy(it.eng.tools.s3.model.S3UploadMode.SYNC);
-        verify(mockUploadStrategy).uploadFile(any(), any(), any(), any(), any(), any());
+        verify(mockUploadStrategy).uploadFile(any(), any(), any(), any(), any(), any(), anyLong());
     }
 
     @Test
@@ -370,8 +374,8 @@ public class S3ClientServiceImplTest {
         // Arrange
         String expectedETag = "null-mode-etag";
         when(s3Properties.getUploadMode()).thenReturn(null);
-        when(applicationPropertiesService.getPropertyByKey(any())).thenReturn(java.util.Optional.empty());
-        when(mockUploadStrategy.uploadFile(any(), any(), any(), any(), any(), any()))
+        when(applicationPropertiesService.getSnapshot()).thenReturn(ApplicationPropertiesSnapshot.EMPTY);
+        when(mockUploadStrategy.uploadFile(any(), any(), any(), any(), any(), any(), anyLong()))
                 .thenReturn(CompletableFuture.completedFuture(expectedETag));
 
         // Act
@@ -381,7 +385,7 @@ public class S3ClientServiceImplTest {
         // Assert
         assertEquals(expectedETag, result.join());
         verify(uploadStrategyFactory).getStrategy(it.eng.tools.s3.model.S3UploadMode.SYNC);
-        verify(mockUploadStrategy).uploadFile(any(), any(), any(), any(), any(), any());
+        verify(mockUploadStrategy).uploadFile(any(), any(), any(), any(), any(), any(), anyLong());
     }
 
     // downloadFile tests
@@ -629,7 +633,54 @@ public class S3ClientServiceImplTest {
         verifyNoInteractions(s3Client);
     }
 
-    // fileExists tests
+    @Test
+    @DisplayName("Should request object range from offset")
+    void getObjectStream_FromOffset() {
+        when(s3Client.getObject(any(GetObjectRequest.class))).thenReturn(responseInputStream);
+
+        InputStream result = s3ClientService.getObjectStream(bucketName, KEY, 100);
+
+        assertSame(responseInputStream, result);
+        verify(s3Client).getObject(argThat((GetObjectRequest request) -> "bytes=100-".equals(request.range())
+                && KEY.equals(request.key())));
+    }
+
+    @Test
+    @DisplayName("Should request whole object when offset is zero")
+    void getObjectStream_WholeObject() {
+        when(s3Client.getObject(any(GetObjectRequest.class))).thenReturn(responseInputStream);
+
+        s3ClientService.getObjectStream(bucketName, KEY, 0);
+
+        verify(s3Client).getObject(argThat((GetObjectRequest request) -> request.range() == null));
+    }
+
+    @Test
+    @DisplayName("Should return object metadata")
+    void getObjectInfo_Exists() {
+        Instant lastModified = Instant.now();
+        when(s3Client.headObject(any(HeadObjectRequest.class))).thenReturn(HeadObjectResponse.builder()
+                .contentLength(42L)
+                .lastModified(lastModified)
+                .contentType(CONTENT_TYPE)
+                .build());
+
+        Optional<S3ObjectInfo> result = s3ClientService.getObjectInfo(bucketName, KEY);
+
+        assertTrue(result.isPresent());
+        assertEquals(42L, result.get().size());
+        assertEquals(lastModified, result.get().lastModified());
+        assertEquals(CONTENT_TYPE, result.get().contentType());
+    }
+
+    @Test
+    @DisplayName("Should return empty metadata for missing object")
+    void getObjectInfo_Missing() {
+        when(s3Client.headObject(any(HeadObjectRequest.class))).thenThrow(NoSuchKeyException.builder().build());
+
+        assertTrue(s3ClientService.getObjectInfo(bucketName, KEY).isEmpty());
+    }
+
     @Test
     @DisplayName("Should return true when file exists")
     void fileExists_WhenFileExists() {
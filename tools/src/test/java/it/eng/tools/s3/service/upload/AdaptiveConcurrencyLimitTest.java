@@ -0,0 +1,103 @@
+package it.eng.tools.s3.service.upload;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long PART_SIZE = 8 * 1024 * 1024;
+
+    private long now = 1;
+
+    @Test
+    @DisplayName("Parallelism grows until the link is saturated")
+    void growsToSaturation() throws InterruptedException {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(1, 16, () -> now);
+
+        // every part can go 10 bytes/ns, link carries 60 bytes/ns
+        for (int round = 0; round < 30; round++) {
+            uploadRound(limit, 10, 60);
+        }
+
+        assertTrue(limit.getLimit() >= 6 && limit.getLimit() <= 7, "limit " + limit.getLimit());
+    }
+
+    @Test
+    @DisplayName("Parallelism never exceeds configured maximum")
+    void boundedByMaximum() throws InterruptedException {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 4, () -> now);
+
+        for (int round = 0; round < 30; round++) {
+            uploadRound(limit, 10, 1000);
+        }
+
+        assertEquals(4, limit.getLimit());
+    }
+
+    @Test
+    @DisplayName("Parallelism is halved when latency shows congestion")
+    void halvedOnCongestion() throws InterruptedException {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(1, 16, () -> now);
+        for (int round = 0; round < 30; round++) {
+            uploadRound(limit, 10, 60);
+        }
+        int saturated = limit.getLimit();
+
+        // link bandwidth drops to a third
+        uploadRound(limit, 10, 20);
+
+        assertEquals(saturated / 2, limit.getLimit());
+    }
+
+    @Test
+    @DisplayName("Parallelism is halved when a part fails")
+    void halvedOnFailure() throws InterruptedException {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(4, 16, () -> now);
+
+        limit.acquire();
+        limit.releaseFailed();
+
+        assertEquals(2, limit.getLimit());
+    }
+
+    @Test
+    @DisplayName("Acquire waits while limit is reached")
+    void acquireBlocks() throws InterruptedException {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(1, 1);
+        limit.acquire();
+        CountDownLatch acquired = new CountDownLatch(1);
+        Thread waiting = new Thread(() -> {
+            try {
+                limit.acquire();
+                acquired.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        waiting.start();
+
+        assertFalse(acquired.await(100, TimeUnit.MILLISECONDS));
+        limit.release(PART_SIZE, 1_000_000);
+        assertTrue(acquired.await(5, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Uploads as many parts in parallel as the limit allows, over a link of given bandwidth.
+     */
+    private void uploadRound(AdaptiveConcurrencyLimit limit, double partRate, double linkRate) throws InterruptedException {
+        int parallel = limit.getLimit();
+        for (int i = 0; i < parallel; i++) {
+            limit.acquire();
+        }
+        long latency = (long) (PART_SIZE / Math.min(partRate, linkRate / parallel));
+        now += latency;
+        for (int i = 0; i < parallel; i++) {
+            limit.release(PART_SIZE, latency);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package it.eng.tools.s3.service.upload;
+
+import it.eng.tools.s3.properties.S3Properties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static it.eng.tools.s3.service.upload.S3LimitsStub.MIB;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MultipartUploadPlanTest {
+
+    private static final long TIB = 1024L * 1024 * MIB;
+
+    private S3Properties s3Properties;
+
+    @BeforeEach
+    void setUp() {
+        s3Properties = new S3Properties();
+    }
+
+    @Test
+    @DisplayName("1 KB file fits into the first part")
+    void smallFile() {
+        MultipartUploadPlan plan = MultipartUploadPlan.of(1024, s3Properties);
+
+        assertEquals(16 * MIB, plan.partSize(1));
+    }
+
+    @Test
+    @DisplayName("100 MB file uses minimal part size")
+    void mediumFile() {
+        MultipartUploadPlan plan = MultipartUploadPlan.of(100 * MIB, s3Properties);
+
+        assertEquals(8 * MIB, plan.partSize(1));
+        assertEquals(8 * MIB, plan.partSize(13));
+    }
+
+    @Test
+    @DisplayName("1 TB file of known length is accepted by S3 in at most 10,000 parts")
+    void terabyteKnownLength() {
+        MultipartUploadPlan plan = MultipartUploadPlan.of(TIB, s3Properties);
+
+        assertEquals(105 * MIB, plan.partSize(1));
+        assertUploadAccepted(plan, TIB);
+    }
+
+    @Test
+    @DisplayName("1 TB stream of unknown length is accepted by S3 in at most 10,000 parts")
+    void terabyteUnknownLength() {
+        MultipartUploadPlan plan = MultipartUploadPlan.of(MultipartUploadPlan.UNKNOWN_LENGTH, s3Properties);
+
+        assertEquals(16 * MIB, plan.partSize(1));
+        assertEquals(8 * MIB, plan.partSize(2));
+        assertUploadAccepted(plan, TIB);
+    }
+
+    @Test
+    @DisplayName("Stream of unknown length reaches maximum object size within 10,000 parts")
+    void maximumObjectSizeUnknownLength() {
+        s3Properties.setMinPartSize(0);
+        MultipartUploadPlan plan = MultipartUploadPlan.of(MultipartUploadPlan.UNKNOWN_LENGTH, s3Properties);
+
+        // minimal part size is raised to S3 minimum
+        assertEquals(5 * MIB, plan.partSize(2));
+        assertUploadAccepted(plan, MultipartUploadPlan.MAX_OBJECT_SIZE);
+    }
+
+    @Test
+    @DisplayName("Content larger than maximum S3 object size is rejected")
+    void tooLarge() {
+        assertThrows(IllegalArgumentException.class,
+                () -> MultipartUploadPlan.of(MultipartUploadPlan.MAX_OBJECT_SIZE + 1, s3Properties));
+    }
+
+    /**
+     * Simulates upload of given length against S3 limits stub, without producing the content.
+     */
+    private void assertUploadAccepted(MultipartUploadPlan plan, long length) {
+        S3LimitsStub s3Limits = new S3LimitsStub();
+        List<CompletedPart> parts = new ArrayList<>();
+        long remaining = length;
+        for (int partNumber = 1; remaining > 0; partNumber++) {
+            long size = Math.min(remaining, plan.partSize(partNumber));
+            s3Limits.startPart();
+            s3Limits.uploadPart(partNumber, size);
+            parts.add(CompletedPart.builder().partNumber(partNumber).build());
+            remaining -= size;
+        }
+        assertEquals("multipart-etag", s3Limits.completeMultipartUpload(parts));
+        assertEquals(length, s3Limits.multipartBytes());
+        assertTrue(s3Limits.partCount() <= MultipartUploadPlan.MAX_PARTS);
+    }
+}
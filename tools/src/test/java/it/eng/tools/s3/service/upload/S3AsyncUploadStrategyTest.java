@@ -2,11 +2,11 @@ package it.eng.tools.s3.service.upload;
 
 import it.eng.tools.s3.configuration.S3ClientProvider;
 import it.eng.tools.s3.model.S3ClientRequest;
+import it.eng.tools.s3.properties.S3Properties;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import software.amazon.awssdk.core.async.AsyncRequestBody;
@@ -17,7 +17,9 @@ import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
 
+import static it.eng.tools.s3.service.upload.S3LimitsStub.MIB;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -44,48 +46,67 @@ public class S3AsyncUploadStrategyTest {
     @Mock
     private S3ClientRequest s3ClientRequest;
 
-    @InjectMocks
+    private S3Properties s3Properties;
     private S3AsyncUploadStrategy asyncUploadStrategy;
+    private S3LimitsStub s3Limits;
 
     @BeforeEach
     void setUp() {
         when(s3ClientProvider.s3AsyncClient(any(S3ClientRequest.class))).thenReturn(s3AsyncClient);
+        s3Properties = new S3Properties();
+        asyncUploadStrategy = new S3AsyncUploadStrategy(s3ClientProvider, s3Properties);
+        s3Limits = new S3LimitsStub();
     }
 
     @Test
-    @DisplayName("Should successfully upload file asynchronously")
-    void uploadFile_Success() {
+    @DisplayName("Should store 1 KB file with single PutObject asynchronously")
+    void uploadFile_SmallFileSinglePut() {
         // Arrange
-        InputStream inputStream = new ByteArrayInputStream("test content".getBytes());
+        InputStream inputStream = new ByteArrayInputStream(new byte[1024]);
 
-        when(s3AsyncClient.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
-                .thenReturn(CompletableFuture.completedFuture(
-                        CreateMultipartUploadResponse.builder().uploadId(UPLOAD_ID).build()));
-
-        lenient().when(s3AsyncClient.uploadPart(any(UploadPartRequest.class), any(AsyncRequestBody.class)))
-                .thenReturn(CompletableFuture.completedFuture(
-                        UploadPartResponse.builder().eTag(ETAG).build()));
-
-        when(s3AsyncClient.completeMultipartUpload(any(CompleteMultipartUploadRequest.class)))
-                .thenReturn(CompletableFuture.completedFuture(
-                        CompleteMultipartUploadResponse.builder().eTag(ETAG).build()));
+        when(s3AsyncClient.putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class))).thenAnswer(invocation -> {
+            AsyncRequestBody body = invocation.getArgument(1);
+            s3Limits.putObject(body.contentLength().orElseThrow());
+            return CompletableFuture.completedFuture(PutObjectResponse.builder().eTag(ETAG).build());
+        });
 
         // Act
         CompletableFuture<String> result = asyncUploadStrategy.uploadFile(
-                inputStream, s3ClientRequest, BUCKET_NAME, OBJECT_KEY, CONTENT_TYPE, CONTENT_DISPOSITION);
+                inputStream, s3ClientRequest, BUCKET_NAME, OBJECT_KEY, CONTENT_TYPE, CONTENT_DISPOSITION, 1024);
 
         // Assert
         assertEquals(ETAG, result.join());
+        assertEquals(1024, s3Limits.putObjectSize());
         verify(s3ClientProvider).s3AsyncClient(s3ClientRequest);
-        verify(s3AsyncClient).createMultipartUpload(any(CreateMultipartUploadRequest.class));
-        verify(s3AsyncClient).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+        verify(s3AsyncClient, never()).createMultipartUpload(any(CreateMultipartUploadRequest.class));
+    }
+
+    @Test
+    @DisplayName("Should upload 100 MB file in parallel parts within S3 and concurrency limits")
+    void uploadFile_100MB() {
+        // Arrange
+        long length = 100 * MIB;
+        s3Properties.setInitialUploadConcurrency(2);
+        s3Properties.setMaxUploadConcurrency(4);
+        stubMultipartUpload();
+
+        // Act
+        CompletableFuture<String> result = asyncUploadStrategy.uploadFile(S3LimitsStub.stream(length),
+                s3ClientRequest, BUCKET_NAME, OBJECT_KEY, CONTENT_TYPE, CONTENT_DISPOSITION, length);
+
+        // Assert
+        assertEquals("multipart-etag", result.join());
+        assertEquals(length, s3Limits.multipartBytes());
+        assertEquals(13, s3Limits.partCount());
+        assertTrue(s3Limits.maxInFlight() <= 4, "parts in flight " + s3Limits.maxInFlight());
+        verify(s3AsyncClient, never()).putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class));
     }
 
     @Test
     @DisplayName("Should handle upload failure asynchronously")
     void uploadFile_UploadFails() {
         // Arrange
-        InputStream inputStream = new ByteArrayInputStream("test content".getBytes());
+        InputStream inputStream = multipartContent();
 
         when(s3AsyncClient.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
                 .thenReturn(CompletableFuture.failedFuture(
@@ -93,7 +114,7 @@ public class S3AsyncUploadStrategyTest {
 
         // Act
         CompletableFuture<String> result = asyncUploadStrategy.uploadFile(
-                inputStream, s3ClientRequest, BUCKET_NAME, OBJECT_KEY, CONTENT_TYPE, CONTENT_DISPOSITION);
+                inputStream, s3ClientRequest, BUCKET_NAME, OBJECT_KEY, CONTENT_TYPE, CONTENT_DISPOSITION, -1);
 
         // Assert
         Exception exception = assertThrows(CompletionException.class, () -> result.join());
@@ -103,16 +124,16 @@ public class S3AsyncUploadStrategyTest {
     }
 
     @Test
-    @DisplayName("Should handle complete multipart upload failure asynchronously")
+    @DisplayName("Should abort multipart upload when complete fails asynchronously")
     void uploadFile_CompleteMultipartUploadFails() {
         // Arrange
-        InputStream inputStream = new ByteArrayInputStream("test content".getBytes());
+        InputStream inputStream = multipartContent();
 
         when(s3AsyncClient.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
                 .thenReturn(CompletableFuture.completedFuture(
                         CreateMultipartUploadResponse.builder().uploadId(UPLOAD_ID).build()));
 
-        lenient().when(s3AsyncClient.uploadPart(any(UploadPartRequest.class), any(AsyncRequestBody.class)))
+        when(s3AsyncClient.uploadPart(any(UploadPartRequest.class), any(AsyncRequestBody.class)))
                 .thenReturn(CompletableFuture.completedFuture(
                         UploadPartResponse.builder().eTag(ETAG).build()));
 
@@ -120,53 +141,26 @@ public class S3AsyncUploadStrategyTest {
                 .thenReturn(CompletableFuture.failedFuture(
                         S3Exception.builder().message("Complete upload failed").build()));
 
+        when(s3AsyncClient.abortMultipartUpload(any(AbortMultipartUploadRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(AbortMultipartUploadResponse.builder().build()));
+
         // Act
         CompletableFuture<String> result = asyncUploadStrategy.uploadFile(
-                inputStream, s3ClientRequest, BUCKET_NAME, OBJECT_KEY, CONTENT_TYPE, CONTENT_DISPOSITION);
+                inputStream, s3ClientRequest, BUCKET_NAME, OBJECT_KEY, CONTENT_TYPE, CONTENT_DISPOSITION, -1);
 
         // Assert
         Exception exception = assertThrows(CompletionException.class, () -> result.join());
         assertTrue(exception.getMessage().contains("Failed to upload file"));
         verify(s3AsyncClient).createMultipartUpload(any(CreateMultipartUploadRequest.class));
         verify(s3AsyncClient).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
-    }
-
-    @Test
-    @DisplayName("Should handle large file with multiple parts asynchronously")
-    void uploadFile_LargeFileMultipleParts() {
-        // Arrange - create data larger than CHUNK_SIZE (50MB)
-        // For test purposes, we'll use smaller chunks
-        byte[] largeData = new byte[100 * 1024]; // 100KB for testing
-        InputStream inputStream = new ByteArrayInputStream(largeData);
-
-        when(s3AsyncClient.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
-                .thenReturn(CompletableFuture.completedFuture(
-                        CreateMultipartUploadResponse.builder().uploadId(UPLOAD_ID).build()));
-
-        when(s3AsyncClient.uploadPart(any(UploadPartRequest.class), any(AsyncRequestBody.class)))
-                .thenReturn(CompletableFuture.completedFuture(
-                        UploadPartResponse.builder().eTag(ETAG).build()));
-
-        when(s3AsyncClient.completeMultipartUpload(any(CompleteMultipartUploadRequest.class)))
-                .thenReturn(CompletableFuture.completedFuture(
-                        CompleteMultipartUploadResponse.builder().eTag(ETAG).build()));
-
-        // Act
-        CompletableFuture<String> result = asyncUploadStrategy.uploadFile(
-                inputStream, s3ClientRequest, BUCKET_NAME, OBJECT_KEY, CONTENT_TYPE, CONTENT_DISPOSITION);
-
-        // Assert
-        assertEquals(ETAG, result.join());
-        verify(s3AsyncClient).createMultipartUpload(any(CreateMultipartUploadRequest.class));
-        verify(s3AsyncClient).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+        verify(s3AsyncClient).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
     }
 
     @Test
     @DisplayName("Should handle part upload failure asynchronously")
     void uploadFile_PartUploadFails() {
         // Arrange
-        byte[] largeData = new byte[60 * 1024 * 1024]; // 60MB to ensure multiple parts
-        InputStream inputStream = new ByteArrayInputStream(largeData);
+        InputStream inputStream = multipartContent();
 
         when(s3AsyncClient.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
                 .thenReturn(CompletableFuture.completedFuture(
@@ -176,14 +170,51 @@ public class S3AsyncUploadStrategyTest {
                 .thenReturn(CompletableFuture.failedFuture(
                         S3Exception.builder().message("Part upload failed").build()));
 
+        when(s3AsyncClient.abortMultipartUpload(any(AbortMultipartUploadRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(AbortMultipartUploadResponse.builder().build()));
+
         // Act
         CompletableFuture<String> result = asyncUploadStrategy.uploadFile(
-                inputStream, s3ClientRequest, BUCKET_NAME, OBJECT_KEY, CONTENT_TYPE, CONTENT_DISPOSITION);
+                inputStream, s3ClientRequest, BUCKET_NAME, OBJECT_KEY, CONTENT_TYPE, CONTENT_DISPOSITION, -1);
 
         // Assert - should fail when part upload fails
         Exception exception = assertThrows(CompletionException.class, () -> result.join());
         assertTrue(exception.getMessage().contains("Failed to") || exception.getCause() instanceof S3Exception);
         verify(s3AsyncClient).createMultipartUpload(any(CreateMultipartUploadRequest.class));
+        verify(s3AsyncClient, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+        verify(s3AsyncClient).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
     }
-}
 
+    /**
+     * Content spanning two parts, with threshold and part size lowered to the S3 minimum.
+     *
+     * @return stream of content
+     */
+    private InputStream multipartContent() {
+        s3Properties.setMultipartThreshold(5 * MIB);
+        s3Properties.setMinPartSize(5 * MIB);
+        return S3LimitsStub.stream(6 * MIB);
+    }
+
+    private void stubMultipartUpload() {
+        when(s3AsyncClient.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(
+                        CreateMultipartUploadResponse.builder().uploadId(UPLOAD_ID).build()));
+        when(s3AsyncClient.uploadPart(any(UploadPartRequest.class), any(AsyncRequestBody.class))).thenAnswer(invocation -> {
+            UploadPartRequest request = invocation.getArgument(0);
+            long size = ((AsyncRequestBody) invocation.getArgument(1)).contentLength().orElseThrow();
+            s3Limits.startPart();
+            // parts complete later, on another thread, like real uploads do
+            return CompletableFuture.supplyAsync(() -> {
+                s3Limits.uploadPart(request.partNumber(), size);
+                return UploadPartResponse.builder().eTag(ETAG + request.partNumber()).build();
+            }, CompletableFuture.delayedExecutor(20, TimeUnit.MILLISECONDS));
+        });
+        when(s3AsyncClient.completeMultipartUpload(any(CompleteMultipartUploadRequest.class))).thenAnswer(invocation -> {
+            CompleteMultipartUploadRequest request = invocation.getArgument(0);
+            return CompletableFuture.completedFuture(CompleteMultipartUploadResponse.builder()
+                    .eTag(s3Limits.completeMultipartUpload(request.multipartUpload().parts()))
+                    .build());
+        });
+    }
+}
@@ -0,0 +1,120 @@
+package it.eng.tools.s3.service.upload;
+
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Records uploaded parts and rejects requests violating S3 limits, the way S3 would.
+ */
+class S3LimitsStub {
+
+    static final long MIB = 1024 * 1024;
+    static final long MIN_PART_SIZE = 5 * MIB;
+    static final long MAX_PART_SIZE = 5 * 1024 * MIB;
+    static final int MAX_PARTS = 10_000;
+
+    private final Map<Integer, Long> parts = new ConcurrentSkipListMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private volatile long putObjectSize = -1;
+
+    void putObject(long size) {
+        if (size > MAX_PART_SIZE) {
+            throw error("EntityTooLarge", "Single PUT larger than 5 GiB");
+        }
+        putObjectSize = size;
+    }
+
+    void startPart() {
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+    }
+
+    void uploadPart(int partNumber, long size) {
+        inFlight.decrementAndGet();
+        if (partNumber < 1 || partNumber > MAX_PARTS) {
+            throw error("InvalidArgument", "Part number must be an integer between 1 and 10000");
+        }
+        if (size > MAX_PART_SIZE) {
+            throw error("EntityTooLarge", "Part " + partNumber + " larger than 5 GiB");
+        }
+        parts.put(partNumber, size);
+    }
+
+    String completeMultipartUpload(List<CompletedPart> completedParts) {
+        if (completedParts.isEmpty()) {
+            throw error("MalformedXML", "No parts");
+        }
+        for (int i = 0; i < completedParts.size(); i++) {
+            CompletedPart part = completedParts.get(i);
+            if (part.partNumber() != i + 1 || !parts.containsKey(part.partNumber())) {
+                throw error("InvalidPartOrder", "Part " + part.partNumber() + " at position " + (i + 1));
+            }
+            if (i < completedParts.size() - 1 && parts.get(part.partNumber()) < MIN_PART_SIZE) {
+                throw error("EntityTooSmall", "Part " + part.partNumber() + " smaller than 5 MiB");
+            }
+        }
+        return "multipart-etag";
+    }
+
+    int partCount() {
+        return parts.size();
+    }
+
+    long partSize(int partNumber) {
+        return parts.get(partNumber);
+    }
+
+    long multipartBytes() {
+        return parts.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    long putObjectSize() {
+        return putObjectSize;
+    }
+
+    int maxInFlight() {
+        return maxInFlight.get();
+    }
+
+    /**
+     * Stream of given length, generated on the fly so large uploads do not need the content in memory.
+     *
+     * @param length stream length
+     * @return generated stream
+     */
+    static InputStream stream(long length) {
+        return new InputStream() {
+            private long position;
+
+            @Override
+            public int read() {
+                return position < length ? (int) (position++ & 0xff) : -1;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                if (position >= length) {
+                    return -1;
+                }
+                int count = (int) Math.min(len, length - position);
+                for (int i = 0; i < count; i++) {
+                    b[off + i] = (byte) (position++ & 0xff);
+                }
+                return count;
+            }
+        };
+    }
+
+    private static S3Exception error(String code, String message) {
+        return (S3Exception) S3Exception.builder()
+                .statusCode(400)
+                .message(code + ": " + message)
+                .build();
+    }
+}
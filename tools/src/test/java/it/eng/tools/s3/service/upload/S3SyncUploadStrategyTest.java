@@ -2,13 +2,14 @@ package it.eng.tools.s3.service.upload;
 
 import it.eng.tools.s3.configuration.S3ClientProvider;
 import it.eng.tools.s3.model.S3ClientRequest;
+import it.eng.tools.s3.properties.S3Properties;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.*;
 
@@ -17,6 +18,7 @@ import java.io.InputStream;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 
+import static it.eng.tools.s3.service.upload.S3LimitsStub.MIB;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -43,52 +45,104 @@ public class S3SyncUploadStrategyTest {
     @Mock
     private S3ClientRequest s3ClientRequest;
 
-    @InjectMocks
+    private S3Properties s3Properties;
     private S3SyncUploadStrategy syncUploadStrategy;
+    private S3LimitsStub s3Limits;
 
     @BeforeEach
     void setUp() {
         when(s3ClientProvider.s3Client(any(S3ClientRequest.class))).thenReturn(s3Client);
+        s3Properties = new S3Properties();
+        syncUploadStrategy = new S3SyncUploadStrategy(s3ClientProvider, s3Properties);
+        s3Limits = new S3LimitsStub();
     }
 
     @Test
-    @DisplayName("Should successfully upload file synchronously")
-    void uploadFile_Success() {
+    @DisplayName("Should store 1 KB file with single PutObject")
+    void uploadFile_SmallFileSinglePut() {
         // Arrange
-        InputStream inputStream = new ByteArrayInputStream("test content".getBytes());
+        InputStream inputStream = new ByteArrayInputStream(new byte[1024]);
+        stubPutObject();
 
-        when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
-                .thenReturn(CreateMultipartUploadResponse.builder().uploadId(UPLOAD_ID).build());
+        // Act
+        CompletableFuture<String> result = syncUploadStrategy.uploadFile(
+                inputStream, s3ClientRequest, BUCKET_NAME, OBJECT_KEY, CONTENT_TYPE, CONTENT_DISPOSITION, 1024);
 
-        lenient().when(s3Client.uploadPart(any(UploadPartRequest.class), any(software.amazon.awssdk.core.sync.RequestBody.class)))
-                .thenReturn(UploadPartResponse.builder().eTag(ETAG).build());
+        // Assert
+        assertEquals(ETAG, result.join());
+        assertEquals(1024, s3Limits.putObjectSize());
+        verify(s3ClientProvider).s3Client(s3ClientRequest);
+        verify(s3Client, never()).createMultipartUpload(any(CreateMultipartUploadRequest.class));
+    }
 
-        when(s3Client.completeMultipartUpload(any(CompleteMultipartUploadRequest.class)))
-                .thenReturn(CompleteMultipartUploadResponse.builder().eTag(ETAG).build());
+    @Test
+    @DisplayName("Should store small stream of unknown length with single PutObject")
+    void uploadFile_SmallStreamUnknownLength() {
+        // Arrange
+        InputStream inputStream = new ByteArrayInputStream("test content".getBytes());
+        stubPutObject();
 
         // Act
         CompletableFuture<String> result = syncUploadStrategy.uploadFile(
-                inputStream, s3ClientRequest, BUCKET_NAME, OBJECT_KEY, CONTENT_TYPE, CONTENT_DISPOSITION);
+                inputStream, s3ClientRequest, BUCKET_NAME, OBJECT_KEY, CONTENT_TYPE, CONTENT_DISPOSITION, -1);
 
         // Assert
         assertEquals(ETAG, result.join());
-        verify(s3ClientProvider).s3Client(s3ClientRequest);
-        verify(s3Client).createMultipartUpload(any(CreateMultipartUploadRequest.class));
-        verify(s3Client).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+        assertEquals("test content".length(), s3Limits.putObjectSize());
+        verify(s3Client, never()).createMultipartUpload(any(CreateMultipartUploadRequest.class));
+    }
+
+    @Test
+    @DisplayName("Should upload 100 MB file in parts sized within S3 limits")
+    void uploadFile_100MB() {
+        // Arrange
+        long length = 100 * MIB;
+        stubMultipartUpload();
+
+        // Act
+        CompletableFuture<String> result = syncUploadStrategy.uploadFile(S3LimitsStub.stream(length),
+                s3ClientRequest, BUCKET_NAME, OBJECT_KEY, CONTENT_TYPE, CONTENT_DISPOSITION, length);
+
+        // Assert
+        assertEquals("multipart-etag", result.join());
+        assertEquals(length, s3Limits.multipartBytes());
+        // default minimal part size of 8 MiB
+        assertEquals(13, s3Limits.partCount());
+        assertEquals(8 * MIB, s3Limits.partSize(1));
+        verify(s3Client, never()).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+    }
+
+    @Test
+    @DisplayName("Should upload 100 MB stream of unknown length within S3 limits")
+    void uploadFile_100MBUnknownLength() {
+        // Arrange
+        long length = 100 * MIB;
+        stubMultipartUpload();
+
+        // Act
+        CompletableFuture<String> result = syncUploadStrategy.uploadFile(S3LimitsStub.stream(length),
+                s3ClientRequest, BUCKET_NAME, OBJECT_KEY, CONTENT_TYPE, CONTENT_DISPOSITION, -1);
+
+        // Assert
+        assertEquals("multipart-etag", result.join());
+        assertEquals(length, s3Limits.multipartBytes());
+        // first part reaches multipart threshold, following ones start at minimal part size
+        assertEquals(16 * MIB, s3Limits.partSize(1));
+        assertEquals(8 * MIB, s3Limits.partSize(2));
     }
 
     @Test
     @DisplayName("Should handle upload failure synchronously")
     void uploadFile_UploadFails() {
         // Arrange
-        InputStream inputStream = new ByteArrayInputStream("test content".getBytes());
+        InputStream inputStream = multipartContent();
 
         when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
                 .thenThrow(S3Exception.builder().message("Sync upload failed").build());
 
         // Act
         CompletableFuture<String> result = syncUploadStrategy.uploadFile(
-                inputStream, s3ClientRequest, BUCKET_NAME, OBJECT_KEY, CONTENT_TYPE, CONTENT_DISPOSITION);
+                inputStream, s3ClientRequest, BUCKET_NAME, OBJECT_KEY, CONTENT_TYPE, CONTENT_DISPOSITION, -1);
 
         // Assert
         Exception exception = assertThrows(CompletionException.class, () -> result.join());
@@ -98,15 +152,15 @@ public class S3SyncUploadStrategyTest {
     }
 
     @Test
-    @DisplayName("Should handle complete multipart upload failure synchronously")
+    @DisplayName("Should abort multipart upload when complete fails synchronously")
     void uploadFile_CompleteMultipartUploadFails() {
         // Arrange
-        InputStream inputStream = new ByteArrayInputStream("test content".getBytes());
+        InputStream inputStream = multipartContent();
 
         when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
                 .thenReturn(CreateMultipartUploadResponse.builder().uploadId(UPLOAD_ID).build());
 
-        lenient().when(s3Client.uploadPart(any(UploadPartRequest.class), any(software.amazon.awssdk.core.sync.RequestBody.class)))
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class)))
                 .thenReturn(UploadPartResponse.builder().eTag(ETAG).build());
 
         when(s3Client.completeMultipartUpload(any(CompleteMultipartUploadRequest.class)))
@@ -114,40 +168,50 @@ public class S3SyncUploadStrategyTest {
 
         // Act
         CompletableFuture<String> result = syncUploadStrategy.uploadFile(
-                inputStream, s3ClientRequest, BUCKET_NAME, OBJECT_KEY, CONTENT_TYPE, CONTENT_DISPOSITION);
+                inputStream, s3ClientRequest, BUCKET_NAME, OBJECT_KEY, CONTENT_TYPE, CONTENT_DISPOSITION, -1);
 
         // Assert
         Exception exception = assertThrows(CompletionException.class, () -> result.join());
         assertTrue(exception.getMessage().contains("Failed to upload file"));
         verify(s3Client).createMultipartUpload(any(CreateMultipartUploadRequest.class));
         verify(s3Client).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+        verify(s3Client).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
     }
 
-    @Test
-    @DisplayName("Should handle large file with multiple parts synchronously")
-    void uploadFile_LargeFileMultipleParts() {
-        // Arrange - create data larger than CHUNK_SIZE (50MB)
-        // For test purposes, we'll use smaller chunks
-        byte[] largeData = new byte[100 * 1024]; // 100KB for testing
-        InputStream inputStream = new ByteArrayInputStream(largeData);
+    /**
+     * Content spanning two parts, with threshold and part size lowered to the S3 minimum.
+     *
+     * @return stream of content
+     */
+    private InputStream multipartContent() {
+        s3Properties.setMultipartThreshold(5 * MIB);
+        s3Properties.setMinPartSize(5 * MIB);
+        return S3LimitsStub.stream(6 * MIB);
+    }
+
+    private void stubPutObject() {
+        when(s3Client.putObject(any(PutObjectRequest.class), any(RequestBody.class))).thenAnswer(invocation -> {
+            RequestBody body = invocation.getArgument(1);
+            s3Limits.putObject(body.optionalContentLength().orElseThrow());
+            return PutObjectResponse.builder().eTag(ETAG).build();
+        });
+    }
 
+    private void stubMultipartUpload() {
         when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
                 .thenReturn(CreateMultipartUploadResponse.builder().uploadId(UPLOAD_ID).build());
-
-        when(s3Client.uploadPart(any(UploadPartRequest.class), any(software.amazon.awssdk.core.sync.RequestBody.class)))
-                .thenReturn(UploadPartResponse.builder().eTag(ETAG).build());
-
-        when(s3Client.completeMultipartUpload(any(CompleteMultipartUploadRequest.class)))
-                .thenReturn(CompleteMultipartUploadResponse.builder().eTag(ETAG).build());
-
-        // Act
-        CompletableFuture<String> result = syncUploadStrategy.uploadFile(
-                inputStream, s3ClientRequest, BUCKET_NAME, OBJECT_KEY, CONTENT_TYPE, CONTENT_DISPOSITION);
-
-        // Assert
-        assertEquals(ETAG, result.join());
-        verify(s3Client).createMultipartUpload(any(CreateMultipartUploadRequest.class));
-        verify(s3Client).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class))).thenAnswer(invocation -> {
+            UploadPartRequest request = invocation.getArgument(0);
+            RequestBody body = invocation.getArgument(1);
+            s3Limits.startPart();
+            s3Limits.uploadPart(request.partNumber(), body.optionalContentLength().orElseThrow());
+            return UploadPartResponse.builder().eTag(ETAG + request.partNumber()).build();
+        });
+        when(s3Client.completeMultipartUpload(any(CompleteMultipartUploadRequest.class))).thenAnswer(invocation -> {
+            CompleteMultipartUploadRequest request = invocation.getArgument(0);
+            return CompleteMultipartUploadResponse.builder()
+                    .eTag(s3Limits.completeMultipartUpload(request.multipartUpload().parts()))
+                    .build();
+        });
     }
 }
-
@@ -0,0 +1,126 @@
+package it.eng.tools.service;
+
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import it.eng.tools.model.ApplicationProperty;
+import it.eng.tools.repository.ApplicationPropertiesRepository;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ApplicationPropertiesChangeStreamListenerTest {
+
+    private static final String KEY = "application.protocol.authentication.enabled";
+    private static final long PROPAGATION_BOUND_MILLIS = 2000;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+    @Mock
+    private MongoCollection<Document> collection;
+    @Mock
+    private ChangeStreamIterable<Document> changeStream;
+    @Mock
+    private MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor;
+    @Mock
+    private ChangeStreamDocument<Document> change;
+    @Mock
+    private ApplicationPropertiesRepository repository;
+
+    private ApplicationPropertiesService applicationPropertiesService;
+    private ApplicationPropertiesChangeStreamListener listener;
+
+    @BeforeEach
+    void setUp() {
+        applicationPropertiesService = new ApplicationPropertiesService(repository, null, null, null);
+        when(mongoTemplate.getCollectionName(ApplicationProperty.class)).thenReturn("application_properties");
+        when(mongoTemplate.getCollection("application_properties")).thenReturn(collection);
+        when(collection.watch()).thenReturn(changeStream);
+        when(changeStream.maxAwaitTime(anyLong(), any(TimeUnit.class))).thenReturn(changeStream);
+        listener = new ApplicationPropertiesChangeStreamListener(mongoTemplate, applicationPropertiesService, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        listener.stop();
+    }
+
+    @Test
+    @DisplayName("Property changed by another replica is visible within bound")
+    void changePropagatesWithinBound() throws InterruptedException {
+        AtomicReference<String> storedValue = new AtomicReference<>("true");
+        CountDownLatch cursorRead = new CountDownLatch(1);
+        CountDownLatch changePublished = new CountDownLatch(1);
+        AtomicBoolean changeDelivered = new AtomicBoolean();
+        when(repository.findAll()).thenAnswer(invocation -> List.of(property(storedValue.get())));
+        when(changeStream.cursor()).thenReturn(cursor);
+        when(cursor.tryNext()).thenAnswer(invocation -> {
+            cursorRead.countDown();
+            if (changePublished.await(10, TimeUnit.MILLISECONDS) && changeDelivered.compareAndSet(false, true)) {
+                return change;
+            }
+            return null;
+        });
+        assertTrue(applicationPropertiesService.getSnapshot().getBoolean(KEY, false));
+        listener.start();
+        // stream is open and its reload done, so only the change read from the stream can bring the new value
+        assertTrue(cursorRead.await(PROPAGATION_BOUND_MILLIS, TimeUnit.MILLISECONDS));
+
+        // another replica stores the new value
+        storedValue.set("false");
+        long changedAt = System.nanoTime();
+        changePublished.countDown();
+
+        while (applicationPropertiesService.getSnapshot().getBoolean(KEY, true)) {
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - changedAt) < PROPAGATION_BOUND_MILLIS,
+                    "change not visible within " + PROPAGATION_BOUND_MILLIS + " ms");
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    @DisplayName("Change stream is reopened after failure")
+    void reopenedAfterFailure() throws InterruptedException {
+        CountDownLatch reopened = new CountDownLatch(1);
+        lenient().when(repository.findAll()).thenReturn(List.of(property("true")));
+        when(changeStream.cursor())
+                .thenThrow(new IllegalStateException("not a replica set"))
+                .thenAnswer(invocation -> {
+                    reopened.countDown();
+                    return cursor;
+                });
+        lenient().when(cursor.tryNext()).thenAnswer(invocation -> {
+            Thread.sleep(10);
+            return null;
+        });
+
+        listener.start();
+
+        assertTrue(reopened.await(PROPAGATION_BOUND_MILLIS, TimeUnit.MILLISECONDS));
+    }
+
+    private ApplicationProperty property(String value) {
+        return ApplicationProperty.Builder.newInstance()
+                .key(KEY)
+                .value(value)
+                .build();
+    }
+}
@@ -1,5 +1,6 @@
 package it.eng.tools.service;
 
+import it.eng.tools.event.applicationproperties.ApplicationPropertyChangeEvent;
 import it.eng.tools.exception.ApplicationPropertyErrorException;
 import it.eng.tools.model.ApplicationProperty;
 import it.eng.tools.repository.ApplicationPropertiesRepository;
@@ -82,4 +83,51 @@ public class ApplicationPropertiesServiceTest {
         verify(applicationEventPublisher).publishEvent(any(ApplicationProperty.class));
     }
 
+    @Test
+    @DisplayName("Steady-state snapshot reads do not query MongoDB")
+    void snapshot_steadyStateReadsNoQueries() {
+        when(repository.findAll()).thenReturn(List.of(property));
+
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(property.getValue(), service.getSnapshot().getString(property.getKey()).orElseThrow());
+        }
+
+        verify(repository, times(1)).findAll();
+        verifyNoMoreInteractions(repository);
+    }
+
+    @Test
+    @DisplayName("Property change event refreshes snapshot")
+    void snapshot_refreshedOnChangeEvent() {
+        ApplicationProperty changed = ApplicationProperty.Builder.newInstance()
+                .key(property.getKey())
+                .value("changed-value")
+                .build();
+        when(repository.findAll()).thenReturn(List.of(property), List.of(changed));
+        assertEquals(property.getValue(), service.getSnapshot().getString(property.getKey()).orElseThrow());
+
+        service.onApplicationPropertyChange(new ApplicationPropertyChangeEvent(property, changed, null));
+
+        assertEquals("changed-value", service.getSnapshot().getString(property.getKey()).orElseThrow());
+        verify(repository, times(2)).findAll();
+    }
+
+    @Test
+    @DisplayName("Updated property is visible in snapshot without reloading")
+    void snapshot_updatedOnSave() {
+        ApplicationProperty changed = ApplicationProperty.Builder.newInstance()
+                .key(property.getKey())
+                .value("changed-value")
+                .build();
+        when(repository.findAll()).thenReturn(List.of(property));
+        when(repository.findById(anyString())).thenReturn(Optional.of(property));
+        when(repository.save(any(ApplicationProperty.class))).thenReturn(changed);
+        service.getSnapshot();
+
+        service.updateProperty(changed, property);
+
+        assertEquals("changed-value", service.getSnapshot().getString(property.getKey()).orElseThrow());
+        verify(repository, times(1)).findAll();
+    }
+
 }
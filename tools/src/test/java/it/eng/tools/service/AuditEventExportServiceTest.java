@@ -0,0 +1,180 @@
+package it.eng.tools.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import it.eng.tools.event.AuditEvent;
+import it.eng.tools.event.AuditEventType;
+import it.eng.tools.repository.AuditEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@Slf4j
+class AuditEventExportServiceTest {
+
+    private static final LocalDateTime TIMESTAMP = LocalDateTime.of(2025, 3, 1, 10, 15, 30);
+
+    @Mock
+    private AuditEventRepository auditEventRepository;
+
+    private AuditEventExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        exportService = new AuditEventExportService(auditEventRepository, objectMapper());
+    }
+
+    @Test
+    @DisplayName("Export streams events from cursor, oldest first, and closes it")
+    void export_closesCursor() throws IOException {
+        Map<String, Object> filters = Map.of("eventType", "APPLICATION_START");
+        AtomicBoolean closed = new AtomicBoolean();
+        when(auditEventRepository.streamWithDynamicFilters(filters, AuditEvent.class,
+                Sort.by(Sort.Direction.ASC, "timestamp"), List.of()))
+                .thenReturn(Stream.of(event("1", "started")).onClose(() -> closed.set(true)));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long count = exportService.export(filters, AuditEventExportService.Format.NDJSON, out);
+
+        assertEquals(1, count);
+        assertTrue(closed.get());
+        assertTrue(out.toString(StandardCharsets.UTF_8).endsWith("\n"));
+    }
+
+    @Test
+    @DisplayName("NDJSON export writes one JSON document per line")
+    void write_ndjson() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = exportService.write(Stream.of(event("1", "first"), event("2", "second")),
+                AuditEventExportService.Format.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, count);
+        assertEquals(2, lines.length);
+        JsonNode first = objectMapper().readTree(lines[0]);
+        assertEquals("1", first.get("id").asText());
+        assertEquals(AuditEventType.APPLICATION_START.toString(), first.get("eventType").asText());
+        assertEquals("2025-03-01T10:15:30", first.get("timestamp").asText());
+        assertEquals("value", first.get("details").get("key").asText());
+        assertEquals("second", objectMapper().readTree(lines[1]).get("description").asText());
+    }
+
+    @Test
+    @DisplayName("CSV export writes header and quotes values when needed")
+    void write_csv() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = exportService.write(Stream.of(event("1", "plain"), event("2", "has, comma and \"quotes\"\nand line")),
+                AuditEventExportService.Format.CSV, out);
+
+        assertEquals(2, count);
+        assertEquals("""
+                id,timestamp,eventType,username,source,ipAddress,description,details
+                1,2025-03-01T10:15:30,Application start,admin,tools,,plain,"{""key"":""value""}"
+                2,2025-03-01T10:15:30,Application start,admin,tools,,"has, comma and ""quotes""
+                and line","{""key"":""value""}"
+                """, out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Export of 1M events runs with 256 MB heap")
+    void write_millionEventsBoundedHeap() throws Exception {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        Process process = new ProcessBuilder(java, "-Xmx256m", "-XX:+ExitOnOutOfMemoryError",
+                "-cp", System.getProperty("java.class.path"), MillionEventsExport.class.getName())
+                .redirectErrorStream(true)
+                .start();
+
+        boolean finished = process.waitFor(5, TimeUnit.MINUTES);
+        String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        if (!finished) {
+            process.destroyForcibly();
+        }
+        log.info(output.trim());
+
+        assertTrue(finished, "export did not finish");
+        assertEquals(0, process.exitValue(), output);
+        assertTrue(output.contains("exported 1000000 events"), output);
+    }
+
+    /**
+     * Exports 1M synthetic events to a discarding stream; run in a separate JVM with limited heap.
+     */
+    static class MillionEventsExport {
+
+        public static void main(String[] args) throws IOException {
+            // building events validates them, which is slow, so a small pool is cycled through
+            List<AuditEvent> pool = IntStream.range(0, 100)
+                    .mapToObj(i -> event(String.valueOf(i), "synthetic event " + i))
+                    .toList();
+            Stream<AuditEvent> events = IntStream.range(0, 1_000_000).mapToObj(i -> pool.get(i % pool.size()));
+            CountingOutputStream out = new CountingOutputStream();
+
+            long start = System.nanoTime();
+            long count = new AuditEventExportService(null, objectMapper())
+                    .write(events, AuditEventExportService.Format.NDJSON, out);
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            Runtime runtime = Runtime.getRuntime();
+            log.info("exported {} events, {} MB in {} ms, max heap {} MB", count, out.bytes / (1024 * 1024),
+                    elapsedMillis, runtime.maxMemory() / (1024 * 1024));
+        }
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+        private long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+
+    private static AuditEvent event(String id, String description) {
+        return AuditEvent.Builder.newInstance()
+                .id(id)
+                .eventType(AuditEventType.APPLICATION_START)
+                .username("admin")
+                .source("tools")
+                .description(description)
+                .details(Map.of("key", "value"))
+                .timestamp(TIMESTAMP)
+                .build();
+    }
+
+    private static ObjectMapper objectMapper() {
+        return new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+}
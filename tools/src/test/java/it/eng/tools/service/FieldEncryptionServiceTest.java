@@ -0,0 +1,133 @@
+package it.eng.tools.service;
+
+import org.bouncycastle.crypto.engines.AESEngine;
+import org.bouncycastle.crypto.modes.CBCBlockCipher;
+import org.bouncycastle.crypto.paddings.PKCS7Padding;
+import org.bouncycastle.crypto.paddings.PaddedBufferedBlockCipher;
+import org.bouncycastle.crypto.params.KeyParameter;
+import org.bouncycastle.crypto.params.ParametersWithIV;
+import org.bouncycastle.util.encoders.Base64;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FieldEncryptionServiceTest {
+
+    private static final String ENCRYPTION_KEY = "test-encryption-key";
+    private static final String SECRET = "7f3c2a9e-1b4d-4c8e-9a6f-2d5e8b1c4a7f";
+
+    private FieldEncryptionService fieldEncryptionService;
+
+    @BeforeEach
+    void setUp() throws NoSuchAlgorithmException {
+        fieldEncryptionService = new FieldEncryptionService(ENCRYPTION_KEY);
+    }
+
+    @Test
+    @DisplayName("Encrypted value is decrypted back")
+    void roundTrip() {
+        String encrypted = fieldEncryptionService.encrypt(SECRET);
+
+        assertTrue(encrypted.startsWith(FieldEncryptionService.VERSION_PREFIX));
+        assertFalse(fieldEncryptionService.isLegacy(encrypted));
+        assertEquals(SECRET, fieldEncryptionService.decrypt(encrypted));
+    }
+
+    @Test
+    @DisplayName("Same value encrypts differently every time")
+    void randomNonce() {
+        String first = fieldEncryptionService.encrypt(SECRET);
+        String second = fieldEncryptionService.encrypt(SECRET);
+
+        assertNotEquals(first, second);
+        assertEquals(SECRET, fieldEncryptionService.decrypt(first));
+        assertEquals(SECRET, fieldEncryptionService.decrypt(second));
+    }
+
+    @Test
+    @DisplayName("Value encrypted by previous versions is decrypted")
+    void legacyValue() throws Exception {
+        String legacy = encryptLegacy(SECRET);
+
+        assertTrue(fieldEncryptionService.isLegacy(legacy));
+        assertEquals(SECRET, fieldEncryptionService.decrypt(legacy));
+
+        String reEncrypted = fieldEncryptionService.encrypt(fieldEncryptionService.decrypt(legacy));
+        assertFalse(fieldEncryptionService.isLegacy(reEncrypted));
+        assertEquals(SECRET, fieldEncryptionService.decrypt(reEncrypted));
+    }
+
+    @Test
+    @DisplayName("Tampered value is rejected")
+    void tampered() {
+        String encrypted = fieldEncryptionService.encrypt(SECRET);
+        byte[] bytes = java.util.Base64.getDecoder().decode(encrypted.substring(FieldEncryptionService.VERSION_PREFIX.length()));
+        bytes[bytes.length - 1] ^= 1;
+        String tampered = FieldEncryptionService.VERSION_PREFIX + java.util.Base64.getEncoder().encodeToString(bytes);
+
+        assertThrows(RuntimeException.class, () -> fieldEncryptionService.decrypt(tampered));
+    }
+
+    @Test
+    @DisplayName("Value encrypted with another key is rejected")
+    void otherKey() throws NoSuchAlgorithmException {
+        String encrypted = new FieldEncryptionService("another-key").encrypt(SECRET);
+
+        assertThrows(RuntimeException.class, () -> fieldEncryptionService.decrypt(encrypted));
+    }
+
+    @Test
+    @DisplayName("Concurrent encryption and decryption")
+    void concurrent() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                int thread = i;
+                results.add(executor.submit(() -> {
+                    for (int j = 0; j < 1000; j++) {
+                        String value = SECRET + thread + "-" + j;
+                        if (!value.equals(fieldEncryptionService.decrypt(fieldEncryptionService.encrypt(value)))) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Encrypts value the way previous versions did: BouncyCastle AES/CBC, IV derived from the key.
+     */
+    private static String encryptLegacy(String value) throws Exception {
+        byte[] key = MessageDigest.getInstance("SHA-256").digest(ENCRYPTION_KEY.getBytes(StandardCharsets.UTF_8));
+        byte[] iv = MessageDigest.getInstance("MD5").digest(ENCRYPTION_KEY.getBytes(StandardCharsets.UTF_8));
+        PaddedBufferedBlockCipher cipher = new PaddedBufferedBlockCipher(
+                new CBCBlockCipher(new AESEngine()),
+                new PKCS7Padding());
+        cipher.init(true, new ParametersWithIV(new KeyParameter(key), iv));
+
+        byte[] input = value.getBytes();
+        byte[] output = new byte[cipher.getOutputSize(input.length)];
+        int processed = cipher.processBytes(input, 0, input.length, output, 0);
+        cipher.doFinal(output, processed);
+        return Base64.toBase64String(output);
+    }
+}
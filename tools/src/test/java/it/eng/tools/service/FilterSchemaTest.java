@@ -0,0 +1,135 @@
+package it.eng.tools.service;
+
+import it.eng.tools.service.FilterSchema.FieldType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.DBRef;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FilterSchemaTest {
+
+    @Test
+    @DisplayName("Field types are derived from the document class and its superclasses")
+    void fieldTypes() {
+        FilterSchema schema = FilterSchema.of(Child.class, Map.of());
+
+        assertEquals(FieldType.STRING, schema.field("id").type());
+        assertEquals(FieldType.STRING, schema.field("name").type());
+        assertEquals(FieldType.INTEGER, schema.field("count").type());
+        assertEquals(FieldType.DECIMAL, schema.field("ratio").type());
+        assertEquals(FieldType.BOOLEAN, schema.field("active").type());
+        assertEquals(FieldType.DATE_TIME, schema.field("created").type());
+        assertEquals(FieldType.DATE_TIME, schema.field("timestamp").type());
+        assertEquals(FieldType.STRING, schema.field("tags").type());
+        assertEquals(FieldType.ENUM, schema.field("color").type());
+        assertEquals(List.of("RED", "GREEN"), schema.field("color").enumConstants());
+        assertEquals(FieldType.STRING, schema.field("nested.value").type());
+        assertEquals(FieldType.UNTYPED, schema.field("attributes").type());
+        assertEquals(FieldType.UNTYPED, schema.field("attributes.any").type());
+    }
+
+    @Test
+    @DisplayName("Stored field paths follow mapping annotations")
+    void storedPaths() {
+        FilterSchema schema = FilterSchema.of(Child.class, Map.of());
+
+        assertEquals("_id", schema.field("id").path());
+        assertEquals("cnt", schema.field("count").path());
+        assertEquals("nested.val", schema.field("nested.value").path());
+        assertEquals("unknown.field", schema.field("unknown.field").path());
+    }
+
+    @Test
+    @DisplayName("Transient fields and referenced documents are not part of the schema")
+    void excludedFields() {
+        FilterSchema schema = FilterSchema.of(Child.class, Map.of());
+
+        assertEquals(FieldType.UNTYPED, schema.field("cached").type());
+        assertEquals(FieldType.UNTYPED, schema.field("other").type());
+        assertEquals(FieldType.UNTYPED, schema.field("other.name").type());
+    }
+
+    @Test
+    @DisplayName("Indexed fields are collected from annotations and configuration")
+    void indexedFields() {
+        FilterSchema schema = FilterSchema.of(Child.class, Map.of("children", List.of("ratio"), "others", List.of("count")));
+
+        assertEquals("children", schema.getCollection());
+        assertTrue(schema.isIndexAware());
+        assertTrue(schema.isIndexed("_id"));
+        assertTrue(schema.isIndexed("name"));
+        assertTrue(schema.isIndexed("nested.val"));
+        assertTrue(schema.isIndexed("active"));
+        assertTrue(schema.isIndexed("color"));
+        assertTrue(schema.isIndexed("ratio"));
+        assertFalse(schema.isIndexed("created"));
+        assertFalse(schema.isIndexed("cnt"));
+    }
+
+    @Test
+    @DisplayName("Collection name defaults to the class name")
+    void defaultCollectionName() {
+        FilterSchema schema = FilterSchema.of(Other.class, Map.of());
+
+        assertEquals("other", schema.getCollection());
+        assertFalse(FilterSchema.NONE.isIndexAware());
+    }
+
+    enum Color {
+        RED, GREEN
+    }
+
+    static class Parent {
+        @Id
+        private String id;
+        private Instant created;
+    }
+
+    @Document(collection = "children")
+    @CompoundIndexes({
+            @CompoundIndex(def = "{'active': 1, 'created': -1}"),
+            @CompoundIndex(def = "{'color': 1}")
+    })
+    static class Child extends Parent {
+        private static final String CONSTANT = "constant";
+        @Indexed
+        private String name;
+        @Field("cnt")
+        private int count;
+        private double ratio;
+        private Boolean active;
+        private LocalDateTime timestamp;
+        private List<String> tags;
+        private Color color;
+        private Nested nested;
+        private Map<String, Object> attributes;
+        @Transient
+        private String cached;
+        @DBRef
+        private Other other;
+    }
+
+    static class Nested {
+        @Indexed
+        @Field("val")
+        private String value;
+    }
+
+    @Document
+    static class Other {
+        private String name;
+    }
+}
@@ -1,5 +1,7 @@
 package it.eng.tools.service;
 
+import it.eng.tools.property.FilterProperties;
+import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -9,17 +11,24 @@ import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.mock.web.MockHttpServletRequest;
 
 import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 @ExtendWith(MockitoExtension.class)
+@Slf4j
 class GenericFilterBuilderTest {
 
     private GenericFilterBuilder filterBuilder;
@@ -298,6 +307,194 @@ class GenericFilterBuilderTest {
         assertEquals(false, filters.get("flag4"));  // "no" → boolean
     }
 
+    @ParameterizedTest
+    @DisplayName("Typed filters match inferred filters where inference picks the field type")
+    @MethodSource("equivalentRequests")
+    void buildFromRequest_typedEquivalentToInferred(Map<String, String[]> parameters) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setParameters(parameters);
+
+        assertEquals(filterBuilder.buildFromRequest(request),
+                filterBuilder.buildFromRequest(request, FilteredDocument.class));
+    }
+
+    @Test
+    @DisplayName("Typed filters convert values to the field type instead of guessing")
+    void buildFromRequest_typedConversion() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setParameter("datasetId", "1234567890123");
+        request.setParameter("role", "true");
+        request.setParameter("version", "1700000000");
+        request.setParameter("price", "5");
+        request.setParameter("state", "started");
+
+        Map<String, Object> inferred = filterBuilder.buildFromRequest(request);
+        Map<String, Object> typed = filterBuilder.buildFromRequest(request, FilteredDocument.class);
+
+        assertInstanceOf(Instant.class, inferred.get("datasetId"));
+        assertEquals("1234567890123", typed.get("datasetId"));
+        assertEquals(true, inferred.get("role"));
+        assertEquals("true", typed.get("role"));
+        assertInstanceOf(Instant.class, inferred.get("version"));
+        assertEquals(1700000000L, typed.get("version"));
+        assertEquals(5L, inferred.get("price"));
+        assertEquals(5.0, typed.get("price"));
+        assertEquals("started", inferred.get("state"));
+        assertEquals("STARTED", typed.get("state"));
+    }
+
+    @Test
+    @DisplayName("Typed filters fall back to inference for values invalid for the field type")
+    void buildFromRequest_typedFallback() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setParameter("created", "not-a-date");
+        request.setParameter("downloaded", "1");
+        request.setParameter("state", "UNKNOWN_STATE");
+        request.setParameter("address.endpoint", "https://example.com");
+        request.setParameter("details.count", "3");
+
+        Map<String, Object> filters = filterBuilder.buildFromRequest(request, FilteredDocument.class);
+
+        assertEquals("not-a-date", filters.get("created"));
+        assertEquals(1L, filters.get("downloaded"));
+        assertEquals("UNKNOWN_STATE", filters.get("state"));
+        assertEquals("https://example.com", filters.get("address.endpoint"));
+        assertEquals(3L, filters.get("details.count"));
+    }
+
+    @Test
+    @DisplayName("Typed range filters")
+    void buildFromRequest_typedRange() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setParameter("created.from", "2024-01-01");
+        request.setParameter("created.to", "1735689600");
+        request.setParameter("version.from", "1700000000");
+
+        Map<String, Object> filters = filterBuilder.buildFromRequest(request, FilteredDocument.class);
+
+        assertEquals(Map.of("from", Instant.parse("2024-01-01T00:00:00Z"), "to", Instant.ofEpochSecond(1735689600L)),
+                filters.get("created"));
+        assertEquals(Map.of("from", 1700000000L), filters.get("version"));
+    }
+
+    @Test
+    @DisplayName("Filters on unindexed fields are rejected when configured")
+    void buildFromRequest_rejectUnindexed() {
+        FilterProperties properties = new FilterProperties();
+        properties.setUnindexedFieldPolicy(FilterProperties.UnindexedFieldPolicy.REJECT);
+        properties.setIndexedFields(Map.of("filtered_documents", List.of("role")));
+        GenericFilterBuilder rejectingBuilder = new GenericFilterBuilder(properties);
+
+        MockHttpServletRequest indexed = new MockHttpServletRequest();
+        indexed.setParameter("id", "abc");
+        indexed.setParameter("datasetId", "dataset123");
+        indexed.setParameter("state", "STARTED");
+        indexed.setParameter("role", "CONSUMER");
+        indexed.setParameter("page", "1");
+        assertEquals(4, rejectingBuilder.buildFromRequest(indexed, FilteredDocument.class).size());
+
+        MockHttpServletRequest unindexed = new MockHttpServletRequest();
+        unindexed.setParameter("datasetId", "dataset123");
+        unindexed.setParameter("created.from", "2024-01-01");
+        assertThrows(IllegalArgumentException.class,
+                () -> rejectingBuilder.buildFromRequest(unindexed, FilteredDocument.class));
+        // same shape is rejected again, not served from cache
+        assertThrows(IllegalArgumentException.class,
+                () -> rejectingBuilder.buildFromRequest(unindexed, FilteredDocument.class));
+
+        // inferred filters have no schema to check against
+        assertEquals(2, rejectingBuilder.buildFromRequest(unindexed).size());
+    }
+
+    @Test
+    @DisplayName("Ignored parameters are neither filters nor checked for an index")
+    void buildFromRequest_ignoredParameters() {
+        FilterProperties properties = new FilterProperties();
+        properties.setUnindexedFieldPolicy(FilterProperties.UnindexedFieldPolicy.REJECT);
+        GenericFilterBuilder rejectingBuilder = new GenericFilterBuilder(properties);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setParameter("datasetId", "dataset123");
+        request.setParameter("format", "csv");
+
+        assertEquals(Map.of("datasetId", "dataset123"),
+                rejectingBuilder.buildFromRequest(request, FilteredDocument.class, Set.of("format")));
+        assertThrows(IllegalArgumentException.class,
+                () -> rejectingBuilder.buildFromRequest(request, FilteredDocument.class));
+    }
+
+    @Test
+    @DisplayName("Filters on unindexed fields are applied by default")
+    void buildFromRequest_warnUnindexed() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setParameter("price", "4.5");
+
+        assertEquals(Map.of("price", 4.5), filterBuilder.buildFromRequest(request, FilteredDocument.class));
+        assertEquals(Map.of("price", 4.5), filterBuilder.buildFromRequest(request, FilteredDocument.class));
+    }
+
+    @Test
+    @DisplayName("Repeated filter shape reuses compiled plan")
+    void buildFromRequest_repeatedShape() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setParameter("state", "STARTED");
+        request.setParameter("created.from", "2024-01-01T10:00:00Z");
+        request.setParameter("page", "0");
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 100_000; i++) {
+            request.setParameter("version", String.valueOf(i));
+
+            Map<String, Object> filters = filterBuilder.buildFromRequest(request, FilteredDocument.class);
+
+            assertEquals((long) i, filters.get("version"));
+            assertEquals(3, filters.size());
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        log.info("100k typed filter requests took {} ms", elapsedMillis);
+    }
+
+    private static Stream<Arguments> equivalentRequests() {
+        return Stream.of(
+            Arguments.of(Map.of("state", new String[]{"STARTED"}, "role", new String[]{"CONSUMER"})),
+            Arguments.of(Map.of("state", new String[]{"STARTED", "COMPLETED"})),
+            Arguments.of(Map.of("datasetId", new String[]{"dataset123"}, "downloaded", new String[]{"true"})),
+            Arguments.of(Map.of("downloaded", new String[]{"no"}, "version", new String[]{"42"})),
+            Arguments.of(Map.of("created", new String[]{"2024-01-01T10:00:00Z"})),
+            Arguments.of(Map.of("created.from", new String[]{"2024-01-01"}, "created.to", new String[]{"2024-02-01"})),
+            Arguments.of(Map.of("created", new String[]{"1640995200000"}, "page", new String[]{"2"})),
+            Arguments.of(Map.of("created", new String[]{"2024-13-01T10:00:00Z"})),
+            Arguments.of(Map.of("price", new String[]{"45.67"}, "role", new String[]{"null"})),
+            Arguments.of(Map.of("role", new String[]{"DROP TABLE users"}, "_id", new String[]{"1"})),
+            Arguments.of(Map.of("address.endpoint", new String[]{"https://example.com"})),
+            Arguments.of(Map.of("unknown", new String[]{"value"}, "details.count", new String[]{"7"}))
+        );
+    }
+
+    enum FilteredState {
+        STARTED, COMPLETED
+    }
+
+    @Document(collection = "filtered_documents")
+    @CompoundIndex(def = "{'state': 1, 'created': -1}")
+    static class FilteredDocument {
+        @Id
+        private String id;
+        @Indexed
+        private String datasetId;
+        private FilteredState state;
+        private String role;
+        private Instant created;
+        private boolean downloaded;
+        private Long version;
+        private Double price;
+        private FilteredAddress address;
+        private Map<String, Object> details;
+    }
+
+    static class FilteredAddress {
+        private String endpoint;
+    }
+
     private static Stream<Arguments> suspiciousPatterns() {
         return Stream.of(
             Arguments.of("$where: malicious"),
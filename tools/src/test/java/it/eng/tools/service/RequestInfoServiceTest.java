@@ -0,0 +1,139 @@
+package it.eng.tools.service;
+
+import it.eng.tools.model.RequestInfo;
+import it.eng.tools.property.RequestInfoProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestInfoServiceTest {
+
+    private static final String LOCAL_ADDRESS = "10.1.2.3";
+    private static final String LOOPBACK = "127.0.0.1";
+
+    private final AtomicInteger resolutions = new AtomicInteger();
+    private volatile long now = 1;
+    private RequestInfoService requestInfoService;
+
+    @AfterEach
+    void tearDown() {
+        requestInfoService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Slow local host resolution does not block requests")
+    void slowResolver() throws Exception {
+        CountDownLatch resolverReleased = new CountDownLatch(1);
+        requestInfoService = new RequestInfoService(new RequestInfoProperties(), () -> {
+            // simulates misconfigured host, where lookup takes seconds
+            try {
+                resolverReleased.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return resolve();
+        }, () -> now);
+        requestInfoService.init();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(LOOPBACK, requestInfoService.getClientIp(LOOPBACK, null, null, null));
+        }
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000);
+
+        resolverReleased.countDown();
+        assertEquals(LOCAL_ADDRESS, awaitLocalAddress());
+        assertEquals(1, resolutions.get());
+    }
+
+    @Test
+    @DisplayName("Local host is resolved once and refreshed periodically")
+    void resolvedOnceAndRefreshed() throws Exception {
+        RequestInfoProperties properties = new RequestInfoProperties();
+        properties.setLocalAddressRefreshSeconds(60);
+        requestInfoService = new RequestInfoService(properties, this::resolve, () -> now);
+        requestInfoService.init();
+        assertEquals(LOCAL_ADDRESS, awaitLocalAddress());
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(LOCAL_ADDRESS, requestInfoService.getClientIp(LOOPBACK, null, null, null));
+        }
+        assertEquals(1, resolutions.get());
+
+        now += TimeUnit.SECONDS.toNanos(61);
+        requestInfoService.getClientIp(LOOPBACK, null, null, null);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (resolutions.get() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(2, resolutions.get());
+    }
+
+    @Test
+    @DisplayName("Client address is determined only when read")
+    void lazyClientAddress() throws Exception {
+        requestInfoService = new RequestInfoService(new RequestInfoProperties(), this::resolve, () -> now);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/catalog/request");
+        request.setRemoteAddr(LOOPBACK);
+
+        RequestInfo requestInfo = requestInfoService.getRequestInfo(request);
+        Thread.sleep(50);
+        assertEquals(0, resolutions.get());
+
+        requestInfo.getRemoteAddress();
+        assertEquals(LOCAL_ADDRESS, awaitLocalAddress());
+    }
+
+    @Test
+    @DisplayName("First X-Forwarded-For entry is used when no trusted proxy is configured")
+    void forwardedForWithoutTrustedProxies() {
+        requestInfoService = new RequestInfoService(new RequestInfoProperties(), this::resolve, () -> now);
+
+        assertEquals("203.0.113.7", requestInfoService.getClientIp("10.0.0.5", "203.0.113.7, 10.0.0.1", null, null));
+        assertEquals("203.0.113.8", requestInfoService.getClientIp("10.0.0.5", "unknown", "203.0.113.8", null));
+        assertEquals("10.0.0.5", requestInfoService.getClientIp("10.0.0.5", null, null, null));
+    }
+
+    @Test
+    @DisplayName("X-Forwarded-For is honored only from trusted proxies")
+    void forwardedForWithTrustedProxies() {
+        RequestInfoProperties properties = new RequestInfoProperties();
+        properties.setTrustedProxies(List.of("10.0.0.0/24", "192.168.1.10"));
+        requestInfoService = new RequestInfoService(properties, this::resolve, () -> now);
+
+        // untrusted caller cannot spoof its address
+        assertEquals("198.51.100.1", requestInfoService.getClientIp("198.51.100.1", "203.0.113.7", null, null));
+        // right-most address not belonging to a trusted proxy is the client
+        assertEquals("203.0.113.7",
+                requestInfoService.getClientIp("10.0.0.5", "1.2.3.4, 203.0.113.7, 192.168.1.10", null, null));
+        // all hops trusted
+        assertEquals("10.0.0.9", requestInfoService.getClientIp("10.0.0.5", "10.0.0.9, 10.0.0.8", null, null));
+        // host names are never resolved nor trusted
+        assertEquals("proxy.example", requestInfoService.getClientIp("10.0.0.5", "1.2.3.4, proxy.example", null, null));
+    }
+
+    private InetAddress resolve() throws UnknownHostException {
+        resolutions.incrementAndGet();
+        return InetAddress.getByAddress(new byte[]{10, 1, 2, 3});
+    }
+
+    private String awaitLocalAddress() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        String address = requestInfoService.getClientIp(LOOPBACK, null, null, null);
+        while (LOOPBACK.equals(address) && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+            address = requestInfoService.getClientIp(LOOPBACK, null, null, null);
+        }
+        return address;
+    }
+}
@@ -0,0 +1,62 @@
+package it.eng.tools.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ContentDigestTest {
+
+    private static final byte[] CONTENT = "Hello, World!".getBytes(StandardCharsets.UTF_8);
+    private static final String SHA_256 = Base64.getEncoder().encodeToString(ContentDigest.newSha256().digest(CONTENT));
+
+    @Test
+    @DisplayName("Repr-Digest header is preferred and parsed as structured field")
+    void sha256_reprDigest() {
+        Map<String, List<String>> headers = Map.of(
+                "repr-digest", List.of("sha-512=:abc=:, " + ContentDigest.reprDigest(CONTENT)),
+                "Digest", List.of("SHA-256=other"));
+
+        assertEquals(Optional.of(SHA_256), ContentDigest.sha256(headers));
+    }
+
+    @Test
+    @DisplayName("Legacy Digest header")
+    void sha256_digest() {
+        Map<String, List<String>> headers = Map.of("Digest", List.of("MD5=xyz, SHA-256=" + SHA_256));
+
+        assertEquals(Optional.of(SHA_256), ContentDigest.sha256(headers));
+    }
+
+    @Test
+    @DisplayName("No digest advertised")
+    void sha256_missing() {
+        assertTrue(ContentDigest.sha256(Map.of("Content-Type", List.of("text/plain"))).isEmpty());
+        assertTrue(ContentDigest.sha256(Map.of("Digest", List.of("MD5=xyz"))).isEmpty());
+        assertTrue(ContentDigest.sha256(null).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Digesting stream computes digest and byte count while reading")
+    void digestingInputStream() throws IOException {
+        DigestingInputStream stream = new DigestingInputStream(new ByteArrayInputStream(CONTENT));
+        byte[] buffer = new byte[4];
+        stream.read();
+        while (stream.read(buffer) != -1) {
+            // consume
+        }
+
+        assertEquals(CONTENT.length, stream.getByteCount());
+        assertEquals(SHA_256, stream.getDigest());
+        assertEquals(SHA_256, stream.getDigest());
+    }
+}